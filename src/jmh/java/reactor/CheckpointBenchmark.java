@@ -19,7 +19,13 @@ package reactor;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
 import reactor.guide.FakeRepository;
 import reactor.guide.FakeUtils1;
 import reactor.guide.FakeUtils2;
@@ -52,4 +58,58 @@ public class CheckpointBenchmark {
 				              t -> {}
 		              );
 	}
-}
+
+	@State(Scope.Benchmark)
+	public static class TracingHook {
+
+		@Param({"none", "operatorStacktrace", "operatorCallSite"})
+		public String mode;
+
+		/**
+		 * The number of frames below the assembly site, as application servers and
+		 * frameworks usually assemble sequences deep in the stack.
+		 */
+		@Param({"0", "100"})
+		public int stackDepth;
+
+		@Setup
+		public void setup() {
+			switch (mode) {
+				case "operatorStacktrace":
+					Hooks.onOperator(Hooks.OperatorHook::operatorStacktrace);
+					break;
+				case "operatorCallSite":
+					Hooks.onOperator(Hooks.OperatorHook::operatorCallSite);
+					break;
+				default:
+					Hooks.resetOnOperator();
+			}
+		}
+
+		@TearDown
+		public void tearDown() {
+			Hooks.resetOnOperator();
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	public void withTracingHook(TracingHook hook) {
+		atDepth(hook.stackDepth, () ->
+				FakeRepository.findAllUserByName(Flux.just("pedro", "simon", "stephane"))
+				              .transform(FakeUtils1.applyFilters)
+				              .transform(FakeUtils2.enrichUser)
+				              .subscribe(System.out::println,
+						              t -> {}
+				              ));
+	}
+
+	static void atDepth(int depth, Runnable task) {
+		if (depth == 0) {
+			task.run();
+		}
+		else {
+			atDepth(depth - 1, task);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.annotations.Level;
+
+/**
+ * Measures a sequence published through a {@link TopicProcessor} or a
+ * {@link WorkQueueProcessor} to a single subscriber. Processors are single-use, so a
+ * fresh one is created outside of the measurement before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventLoopProcessorBenchmark {
+
+	@Param({"1000", "100000"})
+	public int count;
+
+	@Param({"256", "8192"})
+	public int bufferSize;
+
+	@Param({"topic", "workQueue"})
+	public String type;
+
+	Flux<Integer>               source;
+	EventLoopProcessor<Integer> processor;
+
+	@Setup
+	public void setup() {
+		source = Flux.range(0, count);
+	}
+
+	@Setup(Level.Invocation)
+	public void createProcessor() {
+		if ("topic".equals(type)) {
+			processor = TopicProcessor.Builder.<Integer>create().bufferSize(bufferSize)
+			                                                    .build();
+		}
+		else {
+			processor = WorkQueueProcessor.Builder.<Integer>create().bufferSize(bufferSize)
+			                                                        .build();
+		}
+	}
+
+	@Benchmark
+	public void publish(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		processor.subscribe(s);
+		source.subscribe(processor);
+		s.await();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static reactor.util.concurrent.QueueSupplier.SMALL_BUFFER_SIZE;
+
+/**
+ * Measures {@link FluxFlatMap} with scalar, fused and non-fused inner sources.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluxFlatMapBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	public int count;
+
+	@Param({"32", "256"})
+	public int prefetch;
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	Flux<Integer> flatMapJust;
+	Flux<Integer> flatMapRange;
+
+	@Setup
+	public void setup() {
+		Flux<Integer> source = fused ? Flux.range(0, count) : Flux.range(0, count).hide();
+		flatMapJust = source.flatMap(Flux::just, SMALL_BUFFER_SIZE, prefetch);
+		flatMapRange = source.flatMap(v -> fused ? Flux.range(v, 2) : Flux.range(v, 2).hide(),
+				SMALL_BUFFER_SIZE,
+				prefetch);
+	}
+
+	@Benchmark
+	public void flatMapJust(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		flatMapJust.subscribe(s);
+		s.await();
+	}
+
+	@Benchmark
+	public void flatMapRange(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		flatMapRange.subscribe(s);
+		s.await();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.Fuseable;
+
+/**
+ * Compares chains of alternating {@code map} and {@code filter} collapsed into a single
+ * {@link FluxFusedChain} with the same chains of one operator per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluxFusedChainBenchmark {
+
+	@Param({"1000", "1000000"})
+	public int count;
+
+	@Param({"5", "10"})
+	public int depth;
+
+	@Param({"true", "false"})
+	public boolean fusedSource;
+
+	Flux<Integer> collapsed;
+	Flux<Integer> layered;
+
+	@Setup
+	public void setup() {
+		Flux<Integer> source = fusedSource ? Flux.range(0, count) : Flux.range(0, count).hide();
+
+		collapsed = source;
+		layered = source;
+		for (int i = 0; i < depth; i++) {
+			if ((i & 1) == 0) {
+				collapsed = collapsed.map(v -> v + 1);
+				layered = layered instanceof Fuseable ?
+						new FluxMapFuseable<>(layered, v -> v + 1) :
+						new FluxMap<>(layered, v -> v + 1);
+			}
+			else {
+				collapsed = collapsed.filter(v -> v >= 0);
+				layered = layered instanceof Fuseable ?
+						new FluxFilterFuseable<>(layered, v -> v >= 0) :
+						new FluxFilter<>(layered, v -> v >= 0);
+			}
+		}
+	}
+
+	@Benchmark
+	public void collapsed(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		collapsed.subscribe(s);
+		s.await();
+	}
+
+	@Benchmark
+	public void layered(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		layered.subscribe(s);
+		s.await();
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * An unbounded {@link Subscriber} consuming into a {@link Blackhole}, shared by the
+ * operator benchmarks. Asynchronous benchmarks block on {@link #await()} until the
+ * sequence terminates.
+ */
+final class PerfSubscriber implements Subscriber<Object> {
+
+	final Blackhole      bh;
+	final CountDownLatch latch;
+
+	Throwable error;
+
+	PerfSubscriber(Blackhole bh) {
+		this.bh = bh;
+		this.latch = new CountDownLatch(1);
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		s.request(Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onNext(Object t) {
+		bh.consume(t);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		error = t;
+		latch.countDown();
+	}
+
+	@Override
+	public void onComplete() {
+		latch.countDown();
+	}
+
+	void await() throws InterruptedException {
+		if (latch.getCount() != 0 && !latch.await(30, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("Sequence did not terminate in time");
+		}
+		if (error != null) {
+			throw new IllegalStateException(error);
+		}
+	}
+}
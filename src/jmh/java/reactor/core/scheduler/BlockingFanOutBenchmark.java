@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures a fan-out of blocking calls bridged with {@code subscribeOn}, comparing
+ * {@link Schedulers#newElastic(String)} with {@link Schedulers#newVirtual(String)}
+ * (which is itself elastic when the running JDK has no virtual threads, see
+ * {@link Schedulers#isVirtualThreadAvailable()}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingFanOutBenchmark {
+
+	@Param({"elastic", "virtual"})
+	public String scheduler;
+
+	@Param({"100", "1000", "10000"})
+	public int fanOut;
+
+	@Param({"1"})
+	public long blockMillis;
+
+	Scheduler  s;
+	Mono<Long> blockingFanOut;
+
+	@Setup
+	public void setup() {
+		s = "elastic".equals(scheduler) ? Schedulers.newElastic("blockingFanOut", 60, true) :
+				Schedulers.newVirtual("blockingFanOut");
+		blockingFanOut = Flux.range(0, fanOut)
+		                     .flatMap(i -> Mono.fromCallable(() -> {
+			                     Thread.sleep(blockMillis);
+			                     return i;
+		                     })
+		                                       .subscribeOn(s), fanOut)
+		                     .count();
+	}
+
+	@TearDown
+	public void tearDown() {
+		s.dispose();
+	}
+
+	@Benchmark
+	public Long blockingFanOut() {
+		return blockingFanOut.block();
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares multi-producer offer throughput of the MPSC queues against the
+ * synchronized-offer-into-SPSC pattern they replace (eg. in {@code FluxCreate}).
+ * Run with {@code -tg 3,1} (or other producer counts) to vary the contention.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MpscQueueBenchmark {
+
+	static final Integer VALUE = 1;
+
+	@Param({"mpscArray", "mpscLinked", "spscLinkedSynchronized"})
+	public String type;
+
+	Queue<Integer> queue;
+	boolean        synchronizedOffer;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		switch (type) {
+			case "mpscArray":
+				queue = new MpscArrayQueue<>(QueueSupplier.SMALL_BUFFER_SIZE);
+				break;
+			case "mpscLinked":
+				queue = new MpscLinkedArrayQueue<>(QueueSupplier.SMALL_BUFFER_SIZE);
+				break;
+			default:
+				queue = new SpscLinkedArrayQueue<>(QueueSupplier.SMALL_BUFFER_SIZE);
+				synchronizedOffer = true;
+		}
+	}
+
+	@Benchmark
+	@Group("offerPoll")
+	@GroupThreads(3)
+	public boolean offer() {
+		Queue<Integer> q = queue;
+		if (synchronizedOffer) {
+			synchronized (this) {
+				return q.offer(VALUE);
+			}
+		}
+		return q.offer(VALUE);
+	}
+
+	@Benchmark
+	@Group("offerPoll")
+	@GroupThreads(1)
+	public void poll(Blackhole bh) {
+		bh.consume(queue.poll());
+	}
+}
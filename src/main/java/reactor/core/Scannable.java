@@ -230,6 +230,17 @@ public interface Scannable {
 		return Attr.recurse(this, Attr.PARENT);
 	}
 
+	/**
+	 * Take a {@link ScannableSnapshot} of the graph this component is part of: its
+	 * parents, its actuals and their inners, with the buffered counts, demand, prefetch
+	 * and termination state each of them reports.
+	 *
+	 * @return a new {@link ScannableSnapshot}
+	 */
+	default ScannableSnapshot snapshot() {
+		return ScannableSnapshot.of(this);
+	}
+
 	/**
 	 * Introspect a component's specific state {@link Attr attribute}, returning a
 	 * best effort value or null if the attribute doesn't make sense for that particular
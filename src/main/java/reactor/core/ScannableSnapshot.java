@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A point-in-time view of a graph of {@link Scannable} components, eg. the
+ * subscribers and subscriptions of a running sequence. Starting from any component,
+ * the snapshot walks its {@link Scannable#parents() parents} (upstream) and
+ * {@link Scannable#actuals() actuals} (downstream), as well as the
+ * {@link Scannable#inners() inners} of each component, and records the state they
+ * report: buffered values, capacity, prefetch, outstanding demand, termination and
+ * cancellation.
+ * <p>
+ * Attributes are read without synchronization while the sequence keeps running, so a
+ * snapshot is a best-effort, possibly torn, view. It is meant to locate the operator
+ * that backs up (see {@link #mostBuffered()}) without resorting to heap dumps.
+ *
+ * @see Scannable#snapshot()
+ */
+public final class ScannableSnapshot {
+
+	/**
+	 * Take a snapshot of the graph {@code scannable} is part of.
+	 *
+	 * @param scannable the component to start walking from
+	 * @return a new {@link ScannableSnapshot}
+	 */
+	public static ScannableSnapshot of(Scannable scannable) {
+		Objects.requireNonNull(scannable, "scannable");
+		Set<Scannable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		visited.add(scannable);
+		List<Scannable> upstream = new ArrayList<>();
+		collect(scannable.parents(), upstream, visited);
+		Collections.reverse(upstream);
+		List<Scannable> downstream = new ArrayList<>();
+		collect(scannable.actuals(), downstream, visited);
+
+		List<Node> nodes = new ArrayList<>(upstream.size() + 1 + downstream.size());
+		for (Scannable s : upstream) {
+			nodes.add(Node.of(s, visited));
+		}
+		nodes.add(Node.of(scannable, visited));
+		for (Scannable s : downstream) {
+			nodes.add(Node.of(s, visited));
+		}
+		return new ScannableSnapshot(Collections.unmodifiableList(nodes));
+	}
+
+	static void collect(Stream<? extends Scannable> chain,
+			List<Scannable> into,
+			Set<Scannable> visited) {
+		Iterator<? extends Scannable> it = chain.iterator();
+		while (it.hasNext()) {
+			Scannable s = it.next();
+			//stop on non-scannable components and on (unlikely) cyclic references
+			if (!s.isScanAvailable() || !visited.add(s)) {
+				return;
+			}
+			into.add(s);
+		}
+	}
+
+	final List<Node> nodes;
+
+	ScannableSnapshot(List<Node> nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * @return the components of the main chain, ordered from upstream to downstream
+	 */
+	public List<Node> nodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return all the components, including inners, depth-first from upstream to
+	 * downstream
+	 */
+	public Stream<Node> all() {
+		return nodes.stream()
+		            .flatMap(Node::all);
+	}
+
+	/**
+	 * @return the component currently reporting the most buffered values, if any
+	 * reports a buffered count
+	 */
+	public Optional<Node> mostBuffered() {
+		return all().filter(n -> n.buffered() > 0)
+		            .max(Comparator.comparingLong(Node::buffered));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Node n : nodes) {
+			n.appendTo(sb, 0);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The state reported by one {@link Scannable} component. Numeric attributes that
+	 * the component doesn't report are {@code -1}.
+	 */
+	public static final class Node {
+
+		static Node of(Scannable s, Set<Scannable> visited) {
+			List<Node> inners = s.inners()
+			                     .filter(i -> i.isScanAvailable() && visited.add(i))
+			                     .map(i -> of(i, visited))
+			                     .collect(Collectors.toList());
+			return new Node(s, inners);
+		}
+
+		final Scannable  scannable;
+		final String     name;
+		final long       buffered;
+		final long       capacity;
+		final long       prefetch;
+		final long       requested;
+		final boolean    terminated;
+		final boolean    cancelled;
+		final Throwable  error;
+		final List<Node> inners;
+
+		Node(Scannable s, List<Node> inners) {
+			this.scannable = s;
+			this.name = name(s);
+			this.buffered = scanLong(s, Scannable.Attr.BUFFERED);
+			this.capacity = scanLong(s, Scannable.Attr.CAPACITY);
+			this.prefetch = scanLong(s, Scannable.Attr.PREFETCH);
+			this.requested = scanLong(s, Scannable.Attr.REQUESTED_FROM_DOWNSTREAM);
+			this.terminated = Boolean.TRUE.equals(s.scan(Scannable.Attr.TERMINATED));
+			this.cancelled = Boolean.TRUE.equals(s.scan(Scannable.Attr.CANCELLED));
+			this.error = s.scan(Scannable.Attr.ERROR, Throwable.class);
+			this.inners = Collections.unmodifiableList(inners);
+		}
+
+		/**
+		 * @return the component this node was taken from
+		 */
+		public Scannable scannable() {
+			return scannable;
+		}
+
+		/**
+		 * @return a readable name of the component, eg. {@code FluxMap.MapSubscriber}
+		 */
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * @return the number of values buffered, or -1
+		 */
+		public long buffered() {
+			return buffered;
+		}
+
+		/**
+		 * @return the buffer capacity, or -1
+		 */
+		public long capacity() {
+			return capacity;
+		}
+
+		/**
+		 * @return the prefetch amount, or -1
+		 */
+		public long prefetch() {
+			return prefetch;
+		}
+
+		/**
+		 * @return the demand outstanding from downstream ({@link Long#MAX_VALUE} if
+		 * unbounded), or -1
+		 */
+		public long requested() {
+			return requested;
+		}
+
+		/**
+		 * @return true if the component reports it has terminated
+		 */
+		public boolean isTerminated() {
+			return terminated;
+		}
+
+		/**
+		 * @return true if the component reports it has been cancelled
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		/**
+		 * @return the error reported by the component, or null
+		 */
+		public Throwable error() {
+			return error;
+		}
+
+		/**
+		 * @return the snapshots of the inner components, eg. the inner subscribers of
+		 * a flatMap
+		 */
+		public List<Node> inners() {
+			return inners;
+		}
+
+		Stream<Node> all() {
+			return Stream.concat(Stream.of(this),
+					inners.stream()
+					      .flatMap(Node::all));
+		}
+
+		void appendTo(StringBuilder sb, int depth) {
+			for (int i = 0; i < depth; i++) {
+				sb.append("  ");
+			}
+			sb.append(toString())
+			  .append('\n');
+			for (Node inner : inners) {
+				inner.appendTo(sb, depth + 1);
+			}
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(name).append('{');
+			append(sb, "buffered", buffered);
+			append(sb, "capacity", capacity);
+			append(sb, "prefetch", prefetch);
+			append(sb, "requested", requested);
+			if (terminated) {
+				sb.append("terminated, ");
+			}
+			if (cancelled) {
+				sb.append("cancelled, ");
+			}
+			if (error != null) {
+				sb.append("error=")
+				  .append(error)
+				  .append(", ");
+			}
+			if (sb.charAt(sb.length() - 1) == ' ') {
+				sb.setLength(sb.length() - 2);
+			}
+			return sb.append('}')
+			         .toString();
+		}
+
+		static void append(StringBuilder sb, String key, long value) {
+			if (value == -1L) {
+				return;
+			}
+			sb.append(key)
+			  .append('=');
+			if (value == Long.MAX_VALUE || value == Integer.MAX_VALUE) {
+				sb.append("unbounded");
+			}
+			else {
+				sb.append(value);
+			}
+			sb.append(", ");
+		}
+
+		static long scanLong(Scannable s, Scannable.Attr key) {
+			Object v = s.scan(key);
+			if (v instanceof Number) {
+				return ((Number) v).longValue();
+			}
+			return -1L;
+		}
+
+		static String name(Scannable s) {
+			Class<?> c = s.getClass();
+			Class<?> enclosing = c.getEnclosingClass();
+			if (enclosing != null && !c.isAnonymousClass()) {
+				return enclosing.getSimpleName() + "." + c.getSimpleName();
+			}
+			String n = c.getSimpleName();
+			return n.isEmpty() ? c.getName() : n;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+/**
+ * The request window of an operator prefetching a variable amount of values from its
+ * source, between a minimum and a maximum.
+ * <p>
+ * The window starts at the minimum and is tuned each time its replenishing threshold
+ * ({@link #limit}, 75% of the window) has been consumed. At that point the rest of the
+ * window is either still requested from the source or already delivered and buffered:
+ * <ul>
+ *     <li>nothing buffered means the consumer drains faster than the source delivers,
+ *     the window doubles to hide more of the source latency,</li>
+ *     <li>everything buffered means the consumer is the bottleneck, the window halves
+ *     to stop retaining values that only wait.</li>
+ * </ul>
+ * The amount requested at replenishing time accounts for the resizing so that no more
+ * than the current window is ever outstanding. Not thread-safe: the window is meant to
+ * be tuned by the draining thread only, other threads can only read it for
+ * {@link reactor.core.Scannable} purposes.
+ */
+final class AdaptivePrefetch {
+
+	final int min;
+
+	final int max;
+
+	int window;
+
+	int limit;
+
+	AdaptivePrefetch(int min, int max) {
+		if (min <= 0) {
+			throw new IllegalArgumentException("minPrefetch > 0 required but it was " + min);
+		}
+		if (max < min) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + max);
+		}
+		this.min = min;
+		this.max = max;
+		this.window = min;
+		this.limit = limit(min);
+	}
+
+	/**
+	 * Tune the window once {@link #limit} values have been consumed and return the
+	 * amount to request from the source.
+	 *
+	 * @param consumed the amount of values consumed since the last replenishing
+	 * @param buffered the amount of values received but not consumed yet
+	 *
+	 * @return the amount to request from the source, always positive
+	 */
+	long replenish(long consumed, int buffered) {
+		int w = window;
+		int next = w;
+		if (buffered == 0) {
+			if (w < max) {
+				next = (int) Math.min((long) w << 1, max);
+			}
+		}
+		else if (buffered >= w - limit && w > min) {
+			next = Math.max(w >> 1, min);
+		}
+		if (next != w) {
+			window = next;
+			limit = limit(next);
+		}
+		return consumed + next - w;
+	}
+
+	static int limit(int window) {
+		return window - (window >> 2);
+	}
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import reactor.core.Exceptions;
+
+/**
+ * A compact identifier of an assembly location: the {@link Flux}/{@link Mono}/
+ * {@link ParallelFlux} method that assembled an operator and the first caller frame
+ * outside of these types.
+ * <p>
+ * Unlike a stack trace capture, only a bounded number of frames are inspected and no
+ * {@link StackTraceElement} is created for an already known location: call sites are
+ * interned by class, method and position, so operators assembled at the same location
+ * share a single instance.
+ * <p>
+ * On Java 9+ the frames are walked lazily with {@code java.lang.StackWalker}. On Java
+ * 8 the frames of a {@link Throwable} are read one by one through the JDK internal
+ * {@code JavaLangAccess} if available, and from {@link Throwable#getStackTrace()}
+ * otherwise.
+ */
+final class AssemblyCallSite {
+
+	/**
+	 * The maximum number of frames inspected to locate an assembly site.
+	 */
+	static final int MAX_FRAMES = 64;
+
+	/**
+	 * The maximum number of interned call sites, past which call sites are still
+	 * captured but no longer cached.
+	 */
+	static final int MAX_INTERNED = 4096;
+
+	static final AssemblyCallSite UNKNOWN = new AssemblyCallSite(null, null);
+
+	static final Set<String> API_TYPES = new HashSet<>(Arrays.asList(
+			Flux.class.getName(),
+			Mono.class.getName(),
+			ParallelFlux.class.getName(),
+			ConnectableFlux.class.getName(),
+			GroupedFlux.class.getName()));
+
+	static final ConcurrentMap<Key, AssemblyCallSite> SITES = new ConcurrentHashMap<>();
+
+	static final Frames FRAMES = Frames.create();
+
+	/**
+	 * Locate the assembly site of the caller.
+	 *
+	 * @return the interned {@link AssemblyCallSite}, or {@link #UNKNOWN}
+	 */
+	static AssemblyCallSite capture() {
+		return FRAMES.capture();
+	}
+
+	final StackTraceElement[] frames;
+
+	AssemblyCallSite(StackTraceElement operator, StackTraceElement user) {
+		if (operator == null) {
+			this.frames = user == null ? new StackTraceElement[0] :
+					new StackTraceElement[]{user};
+		}
+		else {
+			this.frames = user == null ? new StackTraceElement[]{operator} :
+					new StackTraceElement[]{operator, user};
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (frames.length == 0) {
+			return "unknown assembly site";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (StackTraceElement e : frames) {
+			if (sb.length() != 0) {
+				sb.append(" <- ");
+			}
+			sb.append(e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Access to the frames of the current thread stack, exposing the few properties of
+	 * a frame needed to identify it and materializing a {@link StackTraceElement} only
+	 * for the frames of a newly seen call site.
+	 */
+	static abstract class Frames {
+
+		static Frames create() {
+			try {
+				return new StackWalkerFrames();
+			}
+			catch (Throwable e) {
+				//not on Java 9+
+			}
+			try {
+				return new JavaLangAccessFrames();
+			}
+			catch (Throwable e) {
+				//not on a JDK exposing JavaLangAccess
+			}
+			return new ThrowableFrames();
+		}
+
+		abstract AssemblyCallSite capture();
+
+		abstract String className(Object frame);
+
+		abstract String methodName(Object frame);
+
+		abstract int position(Object frame);
+
+		abstract StackTraceElement element(Object frame);
+
+		/**
+		 * Locate the assembly site among the given frames, starting from the most
+		 * recent one: the last frame of the first run of API frames is the operator
+		 * and the frame following it is the user call site. If there is no API frame,
+		 * the first frame outside of Reactor is retained.
+		 */
+		final AssemblyCallSite locate(Iterator<?> it) {
+			Object operator = null;
+			Object foreign = null;
+			for (int i = 0; i < MAX_FRAMES && it.hasNext(); i++) {
+				Object frame = it.next();
+				String className = className(frame);
+				if (API_TYPES.contains(className)) {
+					operator = frame;
+				}
+				else if (operator != null) {
+					return site(operator, frame);
+				}
+				else if (foreign == null && !className.startsWith("reactor.")) {
+					foreign = frame;
+				}
+			}
+			if (operator != null) {
+				return site(operator, null);
+			}
+			if (foreign != null) {
+				return site(null, foreign);
+			}
+			return UNKNOWN;
+		}
+
+		final AssemblyCallSite site(Object operator, Object user) {
+			Key key = new Key(this, operator, user);
+			AssemblyCallSite site = SITES.get(key);
+			if (site != null) {
+				return site;
+			}
+			site = new AssemblyCallSite(operator == null ? null : element(operator),
+					user == null ? null : element(user));
+			if (SITES.size() < MAX_INTERNED) {
+				AssemblyCallSite previous = SITES.putIfAbsent(key, site);
+				if (previous != null) {
+					return previous;
+				}
+			}
+			return site;
+		}
+	}
+
+	static final class Key {
+
+		final String operatorClass;
+		final String operatorMethod;
+		final int    operatorPosition;
+		final String userClass;
+		final String userMethod;
+		final int    userPosition;
+
+		Key(Frames frames, Object operator, Object user) {
+			if (operator != null) {
+				this.operatorClass = frames.className(operator);
+				this.operatorMethod = frames.methodName(operator);
+				this.operatorPosition = frames.position(operator);
+			}
+			else {
+				this.operatorClass = null;
+				this.operatorMethod = null;
+				this.operatorPosition = -1;
+			}
+			if (user != null) {
+				this.userClass = frames.className(user);
+				this.userMethod = frames.methodName(user);
+				this.userPosition = frames.position(user);
+			}
+			else {
+				this.userClass = null;
+				this.userMethod = null;
+				this.userPosition = -1;
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key k = (Key) o;
+			return operatorPosition == k.operatorPosition && userPosition == k.userPosition && Objects.equals(
+					operatorClass,
+					k.operatorClass) && Objects.equals(operatorMethod,
+					k.operatorMethod) && Objects.equals(userClass,
+					k.userClass) && Objects.equals(userMethod, k.userMethod);
+		}
+
+		@Override
+		public int hashCode() {
+			int h = Objects.hashCode(userClass);
+			h = 31 * h + Objects.hashCode(userMethod);
+			h = 31 * h + userPosition;
+			h = 31 * h + Objects.hashCode(operatorMethod);
+			return 31 * h + operatorPosition;
+		}
+	}
+
+	/**
+	 * Java 9+ frames, walked with {@code java.lang.StackWalker} and identified by
+	 * bytecode index.
+	 */
+	static final class StackWalkerFrames extends Frames
+			implements Function<Stream<Object>, AssemblyCallSite> {
+
+		//static final so that the handles are constant and can be inlined
+		static final MethodHandle WALK;
+		static final MethodHandle CLASS_NAME;
+		static final MethodHandle METHOD_NAME;
+		static final MethodHandle BYTE_CODE_INDEX;
+		static final MethodHandle TO_STACK_TRACE_ELEMENT;
+
+		static {
+			try {
+				//StackWalker#walk is caller sensitive, it can't use a public lookup
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				Class<?> walkerType = Class.forName("java.lang.StackWalker");
+				Class<?> frameType = Class.forName("java.lang.StackWalker$StackFrame");
+
+				Object walker = walkerType.getMethod("getInstance")
+				                          .invoke(null);
+				WALK = lookup.findVirtual(walkerType,
+						"walk",
+						MethodType.methodType(Object.class, Function.class))
+				             .bindTo(walker);
+				CLASS_NAME = frameAccessor(lookup, frameType, "getClassName", String.class);
+				METHOD_NAME = frameAccessor(lookup, frameType, "getMethodName", String.class);
+				BYTE_CODE_INDEX =
+						frameAccessor(lookup, frameType, "getByteCodeIndex", int.class);
+				TO_STACK_TRACE_ELEMENT = frameAccessor(lookup,
+						frameType,
+						"toStackTraceElement",
+						StackTraceElement.class);
+			}
+			catch (Throwable e) {
+				throw new IllegalStateException("StackWalker is not available", e);
+			}
+		}
+
+		static MethodHandle frameAccessor(MethodHandles.Lookup lookup,
+				Class<?> frameType,
+				String name,
+				Class<?> returnType) throws Throwable {
+			return lookup.findVirtual(frameType, name, MethodType.methodType(returnType))
+			             .asType(MethodType.methodType(returnType, Object.class));
+		}
+
+		@Override
+		AssemblyCallSite capture() {
+			try {
+				return (AssemblyCallSite) (Object) WALK.invokeExact((Function<?, ?>) this);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		public AssemblyCallSite apply(Stream<Object> frames) {
+			return locate(frames.iterator());
+		}
+
+		@Override
+		String className(Object frame) {
+			try {
+				return (String) CLASS_NAME.invokeExact(frame);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		String methodName(Object frame) {
+			try {
+				return (String) METHOD_NAME.invokeExact(frame);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		int position(Object frame) {
+			try {
+				return (int) BYTE_CODE_INDEX.invokeExact(frame);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		StackTraceElement element(Object frame) {
+			try {
+				return (StackTraceElement) TO_STACK_TRACE_ELEMENT.invokeExact(frame);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+	}
+
+	/**
+	 * Java 8 frames of a {@link Throwable} backtrace, materialized one by one up to
+	 * {@link #MAX_FRAMES} rather than all at once.
+	 */
+	static final class JavaLangAccessFrames extends StackTraceElementFrames {
+
+		final MethodHandle depth;
+		final MethodHandle element;
+
+		JavaLangAccessFrames() throws Throwable {
+			Class<?> secrets = Class.forName("sun.misc.SharedSecrets");
+			Object access = secrets.getMethod("getJavaLangAccess")
+			                       .invoke(null);
+			Class<?> accessType = Class.forName("sun.misc.JavaLangAccess");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			this.depth = lookup.findVirtual(accessType,
+					"getStackTraceDepth",
+					MethodType.methodType(int.class, Throwable.class))
+			                   .bindTo(access);
+			this.element = lookup.findVirtual(accessType,
+					"getStackTraceElement",
+					MethodType.methodType(StackTraceElement.class,
+							Throwable.class,
+							int.class))
+			                     .bindTo(access);
+			//fail early if access is restricted
+			Objects.requireNonNull(capture());
+		}
+
+		@Override
+		AssemblyCallSite capture() {
+			Throwable t = new Throwable();
+			int n;
+			try {
+				n = (int) depth.invokeExact(t);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+			return locate(new Iterator<StackTraceElement>() {
+				int i;
+
+				@Override
+				public boolean hasNext() {
+					return i < n;
+				}
+
+				@Override
+				public StackTraceElement next() {
+					try {
+						return (StackTraceElement) element.invokeExact(t, i++);
+					}
+					catch (Throwable e) {
+						throw Exceptions.propagate(e);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Frames of a fully materialized {@link Throwable#getStackTrace()}, used when no
+	 * cheaper alternative is available.
+	 */
+	static final class ThrowableFrames extends StackTraceElementFrames {
+
+		@Override
+		AssemblyCallSite capture() {
+			return locate(Arrays.asList(new Throwable().getStackTrace())
+			                    .iterator());
+		}
+	}
+
+	static abstract class StackTraceElementFrames extends Frames {
+
+		@Override
+		final String className(Object frame) {
+			return ((StackTraceElement) frame).getClassName();
+		}
+
+		@Override
+		final String methodName(Object frame) {
+			return ((StackTraceElement) frame).getMethodName();
+		}
+
+		@Override
+		final int position(Object frame) {
+			return ((StackTraceElement) frame).getLineNumber();
+		}
+
+		@Override
+		final StackTraceElement element(Object frame) {
+			return (StackTraceElement) frame;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * A {@link Subscriber} that is told when a {@link TopicProcessor} or
+ * {@link WorkQueueProcessor} consumer has delivered all the values published so far and
+ * is about to wait for more, so that it can flush a downstream resource once per batch
+ * rather than once per value.
+ * <p>
+ * Only a subscriber directly subscribed to the processor is notified: operators chained
+ * after the processor don't propagate batch ends.
+ *
+ * @param <T> the value type
+ */
+public interface BatchAwareSubscriber<T> extends Subscriber<T> {
+
+	/**
+	 * Invoked on the consumer thread after the last {@link #onNext(Object)} of a batch,
+	 * before waiting for the next published values.
+	 */
+	void onBatchEnd();
+}
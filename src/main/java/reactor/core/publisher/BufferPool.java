@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, thread-safe pool of {@link PooledBuffer}, so that a buffering operator can
+ * reuse the buffers its subscribers {@link PooledBuffer#release() released} instead of
+ * allocating a new collection for each of them.
+ * <p>
+ * When no buffer is available, a new one is allocated. A released buffer that doesn't
+ * fit in the pool is left to the garbage collector. A pool can be shared by several
+ * sequences.
+ *
+ * @param <T> the buffered value type
+ *
+ * @see Flux#bufferPooled(int, BufferPool)
+ */
+public final class BufferPool<T> {
+
+	/**
+	 * Create a {@link BufferPool} of buffers initially sized for the given capacity
+	 * and retaining at most the given number of released buffers.
+	 *
+	 * @param bufferCapacity the initial capacity of each buffer, usually the max size
+	 * of the buffers emitted by the operator
+	 * @param maxPooled the maximum number of released buffers kept for reuse
+	 * @param <T> the buffered value type
+	 *
+	 * @return a new {@link BufferPool}
+	 */
+	public static <T> BufferPool<T> create(int bufferCapacity, int maxPooled) {
+		return new BufferPool<>(bufferCapacity, maxPooled);
+	}
+
+	final int bufferCapacity;
+
+	final AtomicReferenceArray<PooledBuffer<T>> free;
+
+	volatile long allocated;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<BufferPool> ALLOCATED =
+			AtomicLongFieldUpdater.newUpdater(BufferPool.class, "allocated");
+
+	BufferPool(int bufferCapacity, int maxPooled) {
+		if (bufferCapacity <= 0) {
+			throw new IllegalArgumentException("bufferCapacity > 0 required but it was " + bufferCapacity);
+		}
+		if (maxPooled <= 0) {
+			throw new IllegalArgumentException("maxPooled > 0 required but it was " + maxPooled);
+		}
+		this.bufferCapacity = bufferCapacity;
+		this.free = new AtomicReferenceArray<>(maxPooled);
+	}
+
+	/**
+	 * Take a released buffer from the pool, or allocate a new one if none is
+	 * available. The returned buffer is empty.
+	 *
+	 * @return an empty {@link PooledBuffer} to {@link PooledBuffer#release() release}
+	 * once consumed
+	 */
+	public PooledBuffer<T> acquire() {
+		AtomicReferenceArray<PooledBuffer<T>> a = free;
+		int n = a.length();
+		for (int i = 0; i < n; i++) {
+			if (a.get(i) != null) {
+				PooledBuffer<T> b = a.getAndSet(i, null);
+				if (b != null) {
+					b.acquired();
+					return b;
+				}
+			}
+		}
+		ALLOCATED.incrementAndGet(this);
+		return new PooledBuffer<>(this, bufferCapacity);
+	}
+
+	/**
+	 * Return the number of released buffers currently available for reuse.
+	 *
+	 * @return the number of pooled buffers
+	 */
+	public int available() {
+		AtomicReferenceArray<PooledBuffer<T>> a = free;
+		int n = a.length();
+		int c = 0;
+		for (int i = 0; i < n; i++) {
+			if (a.get(i) != null) {
+				c++;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Return the total number of buffers allocated by this pool, which stops growing
+	 * once the released buffers are enough to serve the acquisitions.
+	 *
+	 * @return the number of allocated buffers
+	 */
+	public long allocated() {
+		return allocated;
+	}
+
+	void recycle(PooledBuffer<T> b) {
+		AtomicReferenceArray<PooledBuffer<T>> a = free;
+		int n = a.length();
+		for (int i = 0; i < n; i++) {
+			if (a.get(i) == null && a.compareAndSet(i, null, b)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BufferPool{capacity=" + bufferCapacity + ", available=" + available() + ", allocated=" + allocated + "}";
+	}
+}
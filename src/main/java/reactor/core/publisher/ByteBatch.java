@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import reactor.util.ByteBufferPool;
+import reactor.util.Codec;
+
+/**
+ * A batch of values encoded by a {@link Codec} one after the other into a single
+ * {@link ByteBuffer} taken from a {@link ByteBufferPool}, as emitted by
+ * {@link Flux#bufferEncoded(int, Codec, ByteBufferPool)}. Each value is prefixed by the
+ * int length of its encoded bytes, so that a batch can be split back into values with
+ * {@link #decode(ByteBuffer, Codec)} whatever the codec.
+ * <p>
+ * The subscriber owns the batch it receives and must {@link #release() release} it
+ * exactly once when it is done with its bytes, and must not use its buffer afterwards.
+ */
+public final class ByteBatch {
+
+	/**
+	 * The size of the length prefix of each record.
+	 */
+	static final int HEADER = 4;
+
+	/**
+	 * The largest buffer that can be requested, as arrays of some VMs cannot be quite
+	 * as large as {@code Integer.MAX_VALUE}.
+	 */
+	static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The cap of the capacity guessed from the first record of a batch, past which the
+	 * buffer only grows as needed.
+	 */
+	static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+	final ByteBufferPool pool;
+
+	final ByteBuffer buffer;
+
+	final int count;
+
+	volatile int released;
+	static final AtomicIntegerFieldUpdater<ByteBatch> RELEASED =
+			AtomicIntegerFieldUpdater.newUpdater(ByteBatch.class, "released");
+
+	ByteBatch(ByteBufferPool pool, ByteBuffer buffer, int count) {
+		this.pool = pool;
+		this.buffer = buffer;
+		this.count = count;
+	}
+
+	/**
+	 * Encode the values of the given buffer into a new {@link ByteBatch} and release
+	 * the buffer.
+	 *
+	 * @param values the values to encode
+	 * @param codec the {@link Codec} of the values
+	 * @param pool the {@link ByteBufferPool} to write the values into
+	 * @param <T> the value type
+	 *
+	 * @return a new {@link ByteBatch}
+	 */
+	static <T> ByteBatch encode(PooledBuffer<T> values,
+			Codec<? super T> codec,
+			ByteBufferPool pool) {
+		ByteBuffer out = null;
+		try {
+			int n = values.size();
+			for (int i = 0; i < n; i++) {
+				ByteBuffer e = codec.encode(values.get(i));
+				long recordSize = HEADER + (long) e.remaining();
+				if (out == null) {
+					long guess = Math.min(recordSize * n,
+							Math.max(recordSize, MAX_INITIAL_CAPACITY));
+					out = pool.acquire(capacity(guess));
+				}
+				else if (out.remaining() < recordSize) {
+					ByteBuffer larger = pool.acquire(capacity(Math.max(out.capacity() * 2L,
+							out.position() + recordSize)));
+					out.flip();
+					larger.put(out);
+					pool.release(out);
+					out = larger;
+				}
+				out.putInt(e.remaining());
+				out.put(e);
+			}
+			if (out == null) {
+				out = pool.acquire(0);
+			}
+			out.flip();
+			ByteBatch b = new ByteBatch(pool, out, n);
+			out = null;
+			return b;
+		}
+		finally {
+			if (out != null) {
+				pool.release(out);
+			}
+			values.release();
+		}
+	}
+
+	/**
+	 * Cap a buffer capacity computed in long.
+	 *
+	 * @param required the required or desired capacity
+	 *
+	 * @return the capacity, at most {@link #MAX_CAPACITY}
+	 * @throws IllegalStateException if the required capacity is larger than
+	 * {@link #MAX_CAPACITY}
+	 */
+	static int capacity(long required) {
+		if (required > MAX_CAPACITY) {
+			throw new IllegalStateException("The batch requires " + required +
+					" bytes, more than the " + MAX_CAPACITY + " bytes a buffer can hold");
+		}
+		return (int) required;
+	}
+
+	/**
+	 * Decode the length-prefixed values between the position and the limit of a buffer
+	 * holding the bytes of a {@link ByteBatch}, eg. as read from a channel. The position
+	 * of the buffer is left unchanged.
+	 *
+	 * @param buffer the encoded batch
+	 * @param codec the {@link Codec} of the values
+	 * @param <T> the value type
+	 *
+	 * @return the decoded values, in order
+	 * @throws IllegalArgumentException if the buffer ends in the middle of a record
+	 */
+	public static <T> List<T> decode(ByteBuffer buffer, Codec<? extends T> codec) {
+		Objects.requireNonNull(codec, "codec");
+		ByteBuffer b = buffer.asReadOnlyBuffer();
+		List<T> values = new ArrayList<>();
+		while (b.hasRemaining()) {
+			int length = b.remaining() >= HEADER ? b.getInt() : -1;
+			if (length < 0 || length > b.remaining()) {
+				throw new IllegalArgumentException("Truncated record at position " + b.position());
+			}
+			int end = b.position() + length;
+			ByteBuffer record = b.duplicate();
+			record.limit(end);
+			values.add(Objects.requireNonNull(codec.decode(record.slice()),
+					"The codec returned a null value"));
+			b.position(end);
+		}
+		return values;
+	}
+
+	/**
+	 * Decode the values of this batch.
+	 *
+	 * @param codec the {@link Codec} the values were encoded with
+	 * @param <T> the value type
+	 *
+	 * @return the decoded values, in order
+	 * @see #decode(ByteBuffer, Codec)
+	 */
+	public <T> List<T> decode(Codec<? extends T> codec) {
+		return decode(buffer, codec);
+	}
+
+	/**
+	 * Return the encoded bytes of the batch, between the position and the limit of the
+	 * buffer: for each value, the int length of its encoded bytes followed by the bytes.
+	 *
+	 * @return the buffer of this batch, only valid until the batch is released
+	 */
+	public ByteBuffer buffer() {
+		return buffer;
+	}
+
+	/**
+	 * Return the number of values encoded in this batch.
+	 *
+	 * @return the number of values
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * Return the buffer of this batch to its {@link ByteBufferPool}.
+	 *
+	 * @throws IllegalStateException if the batch was already released
+	 */
+	public void release() {
+		if (!RELEASED.compareAndSet(this, 0, 1)) {
+			throw new IllegalStateException("The batch has already been released");
+		}
+		pool.release(buffer);
+	}
+
+	@Override
+	public String toString() {
+		return "ByteBatch{count=" + count + ", bytes=" + buffer.remaining() + "}";
+	}
+}
@@ -16,6 +16,7 @@
 package reactor.core.publisher;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -444,6 +445,38 @@ abstract class EventLoopProcessor<IN> extends FluxProcessor<IN, IN>
 		ringBuffer.publish(seqId);
 	}
 
+	/**
+	 * Publish all the given values in order, as if {@link #onNext(Object)} was called for
+	 * each of them. Ring buffer slots are claimed by ranges and each range is published
+	 * at once, so that a multi-producer processor pays one claim and subscribers are
+	 * signalled once per range rather than once per value.
+	 *
+	 * @param values the values to publish, none of them being null. The collection is
+	 * copied once before any slot is claimed, so it may be concurrent.
+	 */
+	public final void onNextAll(Collection<? extends IN> values) {
+		Object[] a = values.toArray();
+		for (Object o : a) {
+			if (o == null) {
+				throw Exceptions.argumentIsNullException();
+			}
+		}
+		final RingBuffer<Slot<IN>> ringBuffer = this.ringBuffer;
+		final int chunk = Math.max(ringBuffer.bufferSize() >> 2, 1);
+		int i = 0;
+		while (i < a.length) {
+			int n = Math.min(a.length - i, chunk);
+			long hi = ringBuffer.next(n);
+			long lo = hi - (n - 1);
+			for (long seqId = lo; seqId <= hi; seqId++) {
+				@SuppressWarnings("unchecked")
+				IN v = (IN) a[i++];
+				ringBuffer.get(seqId).value = v;
+			}
+			ringBuffer.publish(lo, hi);
+		}
+	}
+
 	@Override
 	final public void onSubscribe(final Subscription s) {
 		if (Operators.validate(upstreamSubscription, s)) {
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -41,6 +42,8 @@ import java.util.function.Function;
 import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -55,7 +58,10 @@ import reactor.core.publisher.FluxSink.OverflowStrategy;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Scheduler.Worker;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.ByteBufferPool;
+import reactor.util.Codec;
 import reactor.util.Logger;
+import reactor.util.Metrics;
 import reactor.util.concurrent.QueueSupplier;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple3;
@@ -149,6 +155,14 @@ public abstract class Flux<T> implements Publisher<T> {
 					v -> combinator.apply(new Object[]{v})));
 		}
 
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("BUFFER_SIZE > 0 required but it was " + prefetch);
+		}
+		Flux<V> constant = combineConstants(combinator, false, prefetch, sources);
+		if (constant != null) {
+			return constant;
+		}
+
 		return onAssembly(new FluxCombineLatest<>(sources,
 				combinator, QueueSupplier.get(prefetch), prefetch));
 	}
@@ -1768,6 +1782,14 @@ public abstract class Flux<T> implements Publisher<T> {
 					v -> combinator.apply(new Object[]{v})));
 		}
 
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		}
+		Flux<O> constant = combineConstants(combinator, true, prefetch, sources);
+		if (constant != null) {
+			return constant;
+		}
+
 		return onAssembly(new FluxZip<>(sources,
 				combinator,
 				QueueSupplier.get(prefetch),
@@ -1812,6 +1834,81 @@ public abstract class Flux<T> implements Publisher<T> {
 		                    }));
 	}
 
+	/**
+	 * Zip multiple sources together, that is to say wait for all the sources to emit one
+	 * element and combine these elements once into an output value (constructed by the provided
+	 * combinator).
+	 * The operator will continue doing so until any of the sources completes.
+	 * Errors will immediately be forwarded.
+	 * <p>
+	 * Unlike {@link #zip(Function, Publisher[])}, the combinator reads the values
+	 * through a {@link ZipRow} that the operator reuses for every combination, so
+	 * that no intermediate array is allocated per element. The row must not be
+	 * retained past the combinator call.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/zip.png" alt="">
+	 *
+	 * @param combinator The aggregate function that will read a unique value from each upstream
+	 * in the {@link ZipRow} and return the value to signal downstream
+	 * @param sources the array providing sources to zip
+	 * @param <O> the combined produced type
+	 *
+	 * @return a zipped {@link Flux}
+	 */
+	public static <O> Flux<O> zipRows(Function<? super ZipRow, ? extends O> combinator,
+			Publisher<?>... sources) {
+		return zipRows(combinator, QueueSupplier.XS_BUFFER_SIZE, sources);
+	}
+
+	/**
+	 * Zip multiple sources together, that is to say wait for all the sources to emit one
+	 * element and combine these elements once into an output value (constructed by the provided
+	 * combinator).
+	 * The operator will continue doing so until any of the sources completes.
+	 * Errors will immediately be forwarded.
+	 * <p>
+	 * Unlike {@link #zip(Function, int, Publisher[])}, the combinator reads the values
+	 * through a {@link ZipRow} that the operator reuses for every combination, so
+	 * that no intermediate array is allocated per element. The row must not be
+	 * retained past the combinator call.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/zipp.png" alt="">
+	 *
+	 * @param combinator The aggregate function that will read a unique value from each upstream
+	 * in the {@link ZipRow} and return the value to signal downstream
+	 * @param prefetch individual source request size
+	 * @param sources the array providing sources to zip
+	 * @param <O> the combined produced type
+	 *
+	 * @return a zipped {@link Flux}
+	 */
+	public static <O> Flux<O> zipRows(Function<? super ZipRow, ? extends O> combinator,
+			int prefetch,
+			Publisher<?>... sources) {
+		return zip(new FluxZip.RowZipper<>(combinator), prefetch, sources);
+	}
+
+	/**
+	 * Zip multiple sources together, that is to say wait for all the sources to emit one
+	 * element and emit these elements once as a {@link ZipRow}.
+	 * The operator will continue doing so until any of the sources completes.
+	 * Errors will immediately be forwarded.
+	 * <p>
+	 * The same {@link ZipRow} instance is emitted for every combination and its values
+	 * change once the downstream {@code onNext} returns: this is only suitable for
+	 * consumers that read the row synchronously and don't retain it, like a
+	 * {@link #map(Function)} or a {@link #subscribe(Consumer) consumer}. Use
+	 * {@link ZipRow#toArray()} to keep its values, or prefer {@link #zip(Function, Publisher[])}
+	 * if the combined elements cross a thread boundary or are buffered.
+	 *
+	 * @param sources the array providing sources to zip
+	 *
+	 * @return a zipped {@link Flux} of recycled {@link ZipRow}
+	 */
+	public static Flux<ZipRow> zipRecycled(Publisher<?>... sources) {
+		return zipRows(Function.identity(), sources);
+	}
+
 	/**
 	 *
 	 * Emit a single boolean true if all values of this sequence match
@@ -2275,6 +2372,93 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxBufferTimeOrSize<>(this, maxSize, timespan.toMillis(), timer, bufferSupplier));
 	}
 
+	/**
+	 * Collect incoming values into multiple {@link PooledBuffer} taken from the given
+	 * {@link BufferPool}, that will be emitted by the returned {@link Flux} each time the
+	 * given max size is reached or once this Flux completes.
+	 * <p>
+	 * Each emitted buffer must be {@link PooledBuffer#release() released} by the
+	 * subscriber once it is done with its values, so that it can be reused for a next
+	 * buffer and steady-state batching doesn't allocate.
+	 *
+	 * @param maxSize the maximum collected size
+	 * @param pool the {@link BufferPool} providing the buffers
+	 *
+	 * @return a microbatched {@link Flux} of {@link PooledBuffer}
+	 */
+	public final Flux<PooledBuffer<T>> bufferPooled(int maxSize, BufferPool<T> pool) {
+		Objects.requireNonNull(pool, "pool");
+		return buffer(maxSize, pool::acquire);
+	}
+
+	/**
+	 * Collect incoming values into multiple {@link PooledBuffer} taken from the given
+	 * {@link BufferPool}, that will be emitted by the returned {@link Flux} each time the
+	 * buffer reaches a maximum size OR the timespan {@link Duration} elapses.
+	 * <p>
+	 * Each emitted buffer must be {@link PooledBuffer#release() released} by the
+	 * subscriber once it is done with its values, so that it can be reused for a next
+	 * buffer and steady-state batching doesn't allocate.
+	 *
+	 * @param maxSize the max collected size
+	 * @param timespan the timeout enforcing the release of a partial buffer
+	 * @param pool the {@link BufferPool} providing the buffers
+	 *
+	 * @return a microbatched {@link Flux} of {@link PooledBuffer} delimited by given size or a given period timeout
+	 */
+	public final Flux<PooledBuffer<T>> bufferPooled(int maxSize, Duration timespan, BufferPool<T> pool) {
+		Objects.requireNonNull(pool, "pool");
+		return bufferTimeout(maxSize, timespan, pool::acquire);
+	}
+
+	/**
+	 * Collect incoming values into multiple {@link ByteBatch}, each holding up to the
+	 * given max size of values encoded by the given {@link Codec} into a single
+	 * {@link java.nio.ByteBuffer} taken from the given {@link ByteBufferPool}, each
+	 * prefixed by its length so that {@link ByteBatch#decode(java.nio.ByteBuffer, Codec)}
+	 * can split them back. A batch is emitted each time the max size is reached or once this Flux completes.
+	 * <p>
+	 * Each emitted batch must be {@link ByteBatch#release() released} by the subscriber
+	 * once its bytes have been used, eg. written to a channel.
+	 *
+	 * @param maxSize the maximum number of values per batch
+	 * @param codec the {@link Codec} encoding the values
+	 * @param pool the {@link ByteBufferPool} providing the batch buffers
+	 *
+	 * @return a microbatched {@link Flux} of {@link ByteBatch}
+	 */
+	public final Flux<ByteBatch> bufferEncoded(int maxSize, Codec<? super T> codec, ByteBufferPool pool) {
+		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(pool, "pool");
+		return bufferPooled(maxSize, BufferPool.create(maxSize, ENCODED_POOL_SIZE))
+				.map(b -> ByteBatch.encode(b, codec, pool));
+	}
+
+	/**
+	 * Collect incoming values into multiple {@link ByteBatch}, each holding up to the
+	 * given max size of values encoded by the given {@link Codec} into a single
+	 * {@link java.nio.ByteBuffer} taken from the given {@link ByteBufferPool}, each
+	 * prefixed by its length so that {@link ByteBatch#decode(java.nio.ByteBuffer, Codec)}
+	 * can split them back. A batch is emitted each time the max size is reached OR the timespan {@link Duration} elapses.
+	 * <p>
+	 * Each emitted batch must be {@link ByteBatch#release() released} by the subscriber
+	 * once its bytes have been used, eg. written to a channel.
+	 *
+	 * @param maxSize the maximum number of values per batch
+	 * @param timespan the timeout enforcing the emission of a partial batch
+	 * @param codec the {@link Codec} encoding the values
+	 * @param pool the {@link ByteBufferPool} providing the batch buffers
+	 *
+	 * @return a microbatched {@link Flux} of {@link ByteBatch} delimited by given size or a given period timeout
+	 */
+	public final Flux<ByteBatch> bufferEncoded(int maxSize, Duration timespan,
+			Codec<? super T> codec, ByteBufferPool pool) {
+		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(pool, "pool");
+		return bufferPooled(maxSize, timespan, BufferPool.create(maxSize, ENCODED_POOL_SIZE))
+				.map(b -> ByteBatch.encode(b, codec, pool));
+	}
+
 	/**
 	 * Collect incoming values into multiple {@link List} buffers that will be emitted by
 	 * the resulting {@link Flux} each time the given predicate returns true. Note that
@@ -2478,6 +2662,24 @@ public abstract class Flux<T> implements Publisher<T> {
 		return replay(history, ttl).autoConnect();
 	}
 
+	/**
+	 * Turn this {@link Flux} into a hot source and cache last emitted signals for further
+	 * {@link Subscriber}. Will retain up to the given history size onNext signals,
+	 * encoded by the given {@link Codec} in direct memory rather than on the heap.
+	 * Completion and Error will also be replayed.
+	 * <p>
+	 * <img width="500" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/cache.png"
+	 * alt="">
+	 *
+	 * @param history number of elements retained in cache
+	 * @param codec the {@link Codec} of the retained elements
+	 *
+	 * @return a replaying {@link Flux}
+	 */
+	public final Flux<T> cache(int history, Codec<T> codec) {
+		return replay(history, codec).autoConnect();
+	}
+
 	/**
 	 * Cast the current {@link Flux} produced type into a target produced type.
 	 *
@@ -2518,7 +2720,7 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return the assembly tracing {@link Flux}.
 	 */
 	public final Flux<T> checkpoint() {
-		return new FluxOnAssembly<>(this, null);
+		return new FluxOnAssembly<>(this, (String) null);
 	}
 
 	/**
@@ -2931,6 +3133,49 @@ public abstract class Flux<T> implements Publisher<T> {
 				FluxConcatMap.ErrorMode.IMMEDIATE));
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
+	 * preserving order using concatenation, prefetching a number of source elements
+	 * that adapts to the observed drain rate.
+	 * <p>
+	 * There are three dimensions to this operator that can be compared with
+	 * {@link #flatMap(Function) flatMap} and {@link #flatMapSequential(Function) flatMapSequential}:
+	 * <ul>
+	 *     <li><b>Generation of inners and subscription</b>: this operator waits for one
+	 *     inner to complete before generating the next one and subscribing to it.</li>
+	 *     <li><b>Ordering of the flattened values</b>: this operator naturally preserves
+	 *     the same order as the source elements, concatenating the inners from each source
+	 *     element sequentially.</li>
+	 *     <li><b>Interleaving</b>: this operator does not let values from different inners
+	 *     interleave (concatenation).</li>
+	 * </ul>
+	 *
+	 * <p>
+	 * Errors will immediately short circuit current concat backlog. The prefetch starts
+	 * at {@code minPrefetch} and, each time 75% of it has been consumed, doubles if no
+	 * source element was left waiting (inners complete faster than the source delivers)
+	 * or halves if all the remaining ones already wait (inners are the bottleneck),
+	 * staying within {@code [minPrefetch, maxPrefetch]}. The current prefetch is
+	 * exposed as {@link reactor.core.Scannable.Attr#PREFETCH}.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/concatmap.png" alt="">
+	 *
+	 * @param mapper the function to transform this sequence of T into concatenated sequences of V
+	 * @param minPrefetch the initial and minimum number of prefetched source elements
+	 * @param maxPrefetch the maximum number of prefetched source elements
+	 * @param <V> the produced concatenated type
+	 *
+	 * @return a concatenated {@link Flux}
+	 */
+	public final <V> Flux<V> concatMap(Function<? super T, ? extends Publisher<? extends V>>
+			mapper, int minPrefetch, int maxPrefetch) {
+		return onAssembly(new FluxConcatMap<>(this, mapper,
+				QueueSupplier.unbounded(minPrefetch), minPrefetch, maxPrefetch,
+				FluxConcatMap.ErrorMode.IMMEDIATE));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
@@ -3464,6 +3709,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 */
 	public final Flux<T> doOnNext(Consumer<? super T> onNext) {
 		Objects.requireNonNull(onNext, "onNext");
+		Flux<T> fused = FluxFusedChain.fuse(this, new FluxFusedChain.PeekStage(onNext));
+		if (fused != null) {
+			return onAssembly(fused);
+		}
 		return doOnSignal(this, null, onNext, null, null, null, null, null);
 	}
 
@@ -3621,6 +3870,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a new {@link Flux} containing only values that pass the predicate test
 	 */
 	public final Flux<T> filter(Predicate<? super T> p) {
+		Flux<T> fused = FluxFusedChain.fuse(this, new FluxFusedChain.FilterStage(p));
+		if (fused != null) {
+			return onAssembly(fused);
+		}
 		if (this instanceof Fuseable) {
 			return onAssembly(new FluxFilterFuseable<>(this, p));
 		}
@@ -3666,6 +3919,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 */
 	public final Flux<T> filterWhen(Function<? super T, ? extends Publisher<Boolean>> asyncPredicate,
 			int bufferSize) {
+		if (isConstantEmpty(this)) {
+			return this;
+		}
 		return onAssembly(new FluxFilterWhen<>(this, asyncPredicate, bufferSize));
 	}
 
@@ -3788,6 +4044,57 @@ public abstract class Flux<T> implements Publisher<T> {
 		return flatMap(mapper, false, concurrency, prefetch);
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux} through merging,
+	 * which allow them to interleave, prefetching from each inner a number of elements
+	 * that adapts to its observed drain rate.
+	 * <p>
+	 * There are three dimensions to this operator that can be compared with
+	 * {@link #flatMapSequential(Function) flatMapSequential} and {@link #concatMap(Function) concatMap}:
+	 * <ul>
+	 *     <li><b>Generation of inners and subscription</b>: this operator is eagerly
+	 *     subscribing to its inners.</li>
+	 *     <li><b>Ordering of the flattened values</b>: this operator does not necessarily preserve
+	 *     original ordering, as inner element are flattened as they arrive.</li>
+	 *     <li><b>Interleaving</b>: this operator lets values from different inners interleave
+	 *     (similar to merging the inner sequences).</li>
+	 * </ul>
+	 * The concurrency argument allows to control how many {@link Publisher} can be
+	 * subscribed to and merged in parallel. The prefetch of each inner starts at
+	 * {@code minPrefetch} and, each time 75% of it has been consumed, doubles if none of
+	 * its elements was left waiting (the downstream drains faster than the inner
+	 * delivers) or halves if all the remaining ones already wait (the downstream is the
+	 * bottleneck), staying within {@code [minPrefetch, maxPrefetch]}. The current
+	 * prefetch of an inner is exposed as {@link reactor.core.Scannable.Attr#PREFETCH}.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/flatmapc.png" alt="">
+	 *
+	 * @param mapper the {@link Function} to transform input sequence into N sequences {@link Publisher}
+	 * @param concurrency the maximum number of in-flight inner sequences
+	 * @param minPrefetch the initial and minimum in-flight elements from each inner
+	 * {@link Publisher} sequence
+	 * @param maxPrefetch the maximum in-flight elements from each inner {@link Publisher}
+	 * sequence
+	 * @param <V> the merged output sequence type
+	 *
+	 * @return a merged {@link Flux}
+	 */
+	public final <V> Flux<V> flatMap(Function<? super T, ? extends Publisher<? extends V>> mapper, int
+			concurrency, int minPrefetch, int maxPrefetch) {
+		return onAssembly(new FluxFlatMap<>(
+				this,
+				mapper,
+				false,
+				concurrency,
+				QueueSupplier.get(concurrency),
+				minPrefetch,
+				maxPrefetch,
+				QueueSupplier.unbounded(minPrefetch)
+		));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux} through merging,
@@ -3903,6 +4210,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a concatenation of the values from the Iterables obtained from each element in this {@link Flux}
 	 */
 	public final <R> Flux<R> flatMapIterable(Function<? super T, ? extends Iterable<? extends R>> mapper, int prefetch) {
+		if (isConstantEmpty(this)) {
+			return empty();
+		}
 		return onAssembly(new FluxFlattenIterable<>(this, mapper, prefetch,
 				QueueSupplier.get(prefetch)));
 	}
@@ -4185,6 +4495,202 @@ public abstract class Flux<T> implements Publisher<T> {
 				QueueSupplier.unbounded(prefetch), prefetch));
 	}
 
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}. Source elements
+	 * are also mapped to a different value using the {@code valueMapper}. Groups that
+	 * didn't receive a value for {@code maxIdleTime} are completed and forgotten: a later
+	 * value with the same key opens a new group.
+	 * <p>
+	 * This bounds the number of live groups when keys come and go (eg. device ids), as
+	 * long as the groups are consumed. Idleness is checked on the
+	 * {@link Schedulers#parallel() parallel} clock as values arrive, so idle groups
+	 * are not evicted while this sequence doesn't emit.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param maxIdleTime the time after which a group that didn't receive a value is completed
+	 *
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <K, V> Flux<GroupedFlux<K, V>> groupBy(Function<? super T, ? extends K> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch, Duration maxIdleTime) {
+		return groupBy(keyMapper, valueMapper, prefetch, maxIdleTime, Schedulers.parallel());
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}. Source elements
+	 * are also mapped to a different value using the {@code valueMapper}. Groups that
+	 * didn't receive a value for {@code maxIdleTime}, as measured by the given
+	 * {@link Scheduler}, are completed and forgotten: a later value with the same key
+	 * opens a new group.
+	 * <p>
+	 * This bounds the number of live groups when keys come and go (eg. device ids), as
+	 * long as the groups are consumed. Idleness is checked as values arrive, so idle
+	 * groups are not evicted while this sequence doesn't emit.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param maxIdleTime the time after which a group that didn't receive a value is completed
+	 * @param timer the {@link Scheduler} providing the current time
+	 *
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <K, V> Flux<GroupedFlux<K, V>> groupBy(Function<? super T, ? extends K> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch,
+			Duration maxIdleTime, Scheduler timer) {
+		return onAssembly(new FluxGroupBy<>(this, GroupTable.objectKeys(keyMapper),
+				valueMapper,
+				QueueSupplier.unbounded(prefetch),
+				QueueSupplier.unbounded(prefetch), prefetch,
+				maxIdleMillis(maxIdleTime), timer));
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique {@code int} key, as produced by the provided keyMapper {@link ToIntFunction}.
+	 * Source elements are also mapped to a different value using the {@code valueMapper}.
+	 * <p>
+	 * Unlike {@link #groupBy(Function, Function, int)}, keys are extracted and looked up
+	 * without boxing, which suits high cardinality numeric keys. Each {@link GroupedFlux}
+	 * still exposes its key boxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * <p>
+	 * The groups need to be drained and consumed downstream for groupBy to work correctly.
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <V> Flux<GroupedFlux<Integer, V>> groupByInt(ToIntFunction<? super T> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch) {
+		return onAssembly(new FluxGroupBy<>(this, GroupTable.intKeys(keyMapper),
+				valueMapper,
+				QueueSupplier.unbounded(prefetch),
+				QueueSupplier.unbounded(prefetch), prefetch,
+				-1L, null));
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique {@code int} key, as produced by the provided keyMapper {@link ToIntFunction}.
+	 * Source elements are also mapped to a different value using the {@code valueMapper}.
+	 * Groups that didn't receive a value for {@code maxIdleTime}, as measured by the
+	 * given {@link Scheduler}, are completed and forgotten: a later value with the same
+	 * key opens a new group.
+	 * <p>
+	 * Unlike {@link #groupBy(Function, Function, int, Duration, Scheduler)}, keys are
+	 * extracted and looked up without boxing, which suits high cardinality numeric keys.
+	 * Each {@link GroupedFlux} still exposes its key boxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param maxIdleTime the time after which a group that didn't receive a value is completed
+	 * @param timer the {@link Scheduler} providing the current time
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <V> Flux<GroupedFlux<Integer, V>> groupByInt(ToIntFunction<? super T> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch,
+			Duration maxIdleTime, Scheduler timer) {
+		return onAssembly(new FluxGroupBy<>(this, GroupTable.intKeys(keyMapper),
+				valueMapper,
+				QueueSupplier.unbounded(prefetch),
+				QueueSupplier.unbounded(prefetch), prefetch,
+				maxIdleMillis(maxIdleTime), timer));
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique {@code long} key, as produced by the provided keyMapper {@link ToLongFunction}.
+	 * Source elements are also mapped to a different value using the {@code valueMapper}.
+	 * <p>
+	 * Unlike {@link #groupBy(Function, Function, int)}, keys are extracted and looked up
+	 * without boxing, which suits high cardinality numeric keys. Each {@link GroupedFlux}
+	 * still exposes its key boxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * <p>
+	 * The groups need to be drained and consumed downstream for groupBy to work correctly.
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <V> Flux<GroupedFlux<Long, V>> groupByLong(ToLongFunction<? super T> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch) {
+		return onAssembly(new FluxGroupBy<>(this, GroupTable.longKeys(keyMapper),
+				valueMapper,
+				QueueSupplier.unbounded(prefetch),
+				QueueSupplier.unbounded(prefetch), prefetch,
+				-1L, null));
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique {@code long} key, as produced by the provided keyMapper {@link ToLongFunction}.
+	 * Source elements are also mapped to a different value using the {@code valueMapper}.
+	 * Groups that didn't receive a value for {@code maxIdleTime}, as measured by the
+	 * given {@link Scheduler}, are completed and forgotten: a later value with the same
+	 * key opens a new group.
+	 * <p>
+	 * Unlike {@link #groupBy(Function, Function, int, Duration, Scheduler)}, keys are
+	 * extracted and looked up without boxing, which suits high cardinality numeric keys.
+	 * Each {@link GroupedFlux} still exposes its key boxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/groupby.png" alt="">
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param maxIdleTime the time after which a group that didn't receive a value is completed
+	 * @param timer the {@link Scheduler} providing the current time
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <V> Flux<GroupedFlux<Long, V>> groupByLong(ToLongFunction<? super T> keyMapper,
+			Function<? super T, ? extends V> valueMapper, int prefetch,
+			Duration maxIdleTime, Scheduler timer) {
+		return onAssembly(new FluxGroupBy<>(this, GroupTable.longKeys(keyMapper),
+				valueMapper,
+				QueueSupplier.unbounded(prefetch),
+				QueueSupplier.unbounded(prefetch), prefetch,
+				maxIdleMillis(maxIdleTime), timer));
+	}
+
 	/**
 	 * Map values from two Publishers into time windows and emit combination of values
 	 * in case their windows overlap. The emitted elements are obtained by passing the
@@ -4240,6 +4746,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a transformed {@link Flux}
 	 */
 	public final <R> Flux<R> handle(BiConsumer<? super T, SynchronousSink<R>> handler) {
+		Flux<R> fused = FluxFusedChain.fuse(this, new FluxFusedChain.HandleStage(handler));
+		if (fused != null) {
+			return onAssembly(fused);
+		}
 		if (this instanceof Fuseable) {
 			return onAssembly(new FluxHandleFuseable<>(this, handler));
 		}
@@ -4411,6 +4921,28 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(this.publishOn(Schedulers.immediate(), prefetchRate));
 	}
 
+	/**
+	 * Ensure that backpressure signals from downstream subscribers are capped when
+	 * propagated upstream, effectively rate limiting the upstream {@link Publisher},
+	 * with a rate that adapts to the observed drain rate.
+	 * <p>
+	 * The rate starts at {@code minRate} and, each time 75% of it has been consumed,
+	 * doubles if no value was left waiting or halves if all the remaining ones already
+	 * wait, staying within {@code [minRate, maxRate]}. The current rate is exposed as
+	 * {@link reactor.core.Scannable.Attr#PREFETCH}.
+	 * <p>
+	 * Equivalent to {@code flux.publishOn(Schedulers.immediate(), minRate, maxRate).subscribe() }
+	 *
+	 * @param minRate the initial and minimum limit to apply to downstream's backpressure
+	 * @param maxRate the maximum limit to apply to downstream's backpressure
+	 *
+	 * @return a {@link Flux} limiting downstream's backpressure
+	 * @see #publishOn(Scheduler, int, int)
+	 */
+	public final Flux<T> limitRate(int minRate, int maxRate) {
+		return onAssembly(this.publishOn(Schedulers.immediate(), minRate, maxRate));
+	}
+
 	/**
 	 * Observe all Reactive Streams signals and trace them using {@link Logger} support.
 	 * Default will use {@link Level#INFO} and {@code java.util.logging}.
@@ -4517,6 +5049,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a transformed {@link Flux}
 	 */
 	public final <V> Flux<V> map(Function<? super T, ? extends V> mapper) {
+		Flux<V> fused = FluxFusedChain.fuse(this, new FluxFusedChain.MapStage(mapper));
+		if (fused != null) {
+			return onAssembly(fused);
+		}
 		if (this instanceof Fuseable) {
 			return onAssembly(new FluxMapFuseable<>(this, mapper));
 		}
@@ -4563,6 +5099,28 @@ public abstract class Flux<T> implements Publisher<T> {
 		return merge(this, other);
 	}
 
+	/**
+	 * Report the signals of this {@link Flux} to meters of the current
+	 * {@link Metrics#getRegistry() metrics registry}, prefixed by the given
+	 * name: subscriptions, emitted values, request sizes, values buffered upstream,
+	 * completions, errors, cancellations and subscription durations. Only sequences
+	 * instrumented this way (or globally via {@link Hooks#onOperator}) pay the cost of
+	 * metrics. Fusion is preserved.
+	 *
+	 * @param name the prefix of the meter names
+	 * @param tags alternating tag keys and values to attach to the meters
+	 *
+	 * @return an instrumented {@link Flux}
+	 */
+	public final Flux<T> metrics(String name, String... tags) {
+		FluxMetrics.Meters meters =
+				new FluxMetrics.Meters(Metrics.getRegistry(), name, tags);
+		if (this instanceof Fuseable) {
+			return onAssembly(new FluxMetricsFuseable<>(this, meters));
+		}
+		return onAssembly(new FluxMetrics<>(this, meters));
+	}
+
 	/**
 	 * Emit only the first item emitted by this {@link Flux}, into a new {@link Mono}.
 	 * <p>
@@ -4702,6 +5260,82 @@ public abstract class Flux<T> implements Publisher<T> {
 				onBufferOverflow, bufferOverflowStrategy));
 	}
 
+	/**
+	 * Request an unbounded demand and push to the returned {@link Flux}, or park the
+	 * observed elements if not enough demand is requested downstream, keeping up to
+	 * {@code maxSize} elements in memory (possibly rounded up) and spilling the overflow
+	 * to files created in the given directory, encoded by the given {@link Codec}. The
+	 * spilled elements are read back in order as the demand returns, and the files are
+	 * deleted once read back or when the sequence terminates.
+	 * <p>
+	 * If the elements spilled and not read back yet would exceed {@code diskQuota} bytes,
+	 * the sequence errors with an overflow {@link IllegalStateException}, delayed after
+	 * the current backlog is consumed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/onbackpressurebuffer.png" alt="">
+	 *
+	 * @param maxSize maximum number of elements kept in memory before spilling to disk
+	 * @param codec the {@link Codec} of the spilled elements
+	 * @param directory the directory of the spill files
+	 * @param diskQuota the maximum size in bytes of the elements of each subscription
+	 * spilled and not read back yet
+	 *
+	 * @return a backpressured {@link Flux} that buffers in memory then on disk
+	 * @see #onBackpressureBuffer(int, Codec, Path, long, String, String...)
+	 */
+	public final Flux<T> onBackpressureBuffer(int maxSize, Codec<T> codec, Path directory, long diskQuota) {
+		return onBackpressureBuffer(maxSize,
+				codec,
+				directory,
+				diskQuota,
+				FluxOnBackpressureBufferSpill.DEFAULT_METRICS_NAME);
+	}
+
+	/**
+	 * Request an unbounded demand and push to the returned {@link Flux}, or park the
+	 * observed elements if not enough demand is requested downstream, keeping up to
+	 * {@code maxSize} elements in memory (possibly rounded up) and spilling the overflow
+	 * to files created in the given directory, encoded by the given {@link Codec}. The
+	 * spilled elements are read back in order as the demand returns, and the files are
+	 * deleted once read back or when the sequence terminates.
+	 * <p>
+	 * If the elements spilled and not read back yet would exceed {@code diskQuota} bytes,
+	 * the sequence errors with an overflow {@link IllegalStateException}, delayed after
+	 * the current backlog is consumed.
+	 * <p>
+	 * The elements and bytes spilled, the bytes read back, the allocated and released
+	 * file sizes and the quota overflows of all the subscriptions are counted by the
+	 * {@link Metrics#getRegistry() metrics registry}, as counters prefixed by the given
+	 * name (eg. {@code name.spilled.bytes}).
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/onbackpressurebuffer.png" alt="">
+	 *
+	 * @param maxSize maximum number of elements kept in memory before spilling to disk
+	 * @param codec the {@link Codec} of the spilled elements
+	 * @param directory the directory of the spill files
+	 * @param diskQuota the maximum size in bytes of the elements of each subscription
+	 * spilled and not read back yet
+	 * @param name the prefix of the meter names
+	 * @param tags alternating tag keys and values
+	 *
+	 * @return a backpressured {@link Flux} that buffers in memory then on disk
+	 */
+	public final Flux<T> onBackpressureBuffer(int maxSize,
+			Codec<T> codec,
+			Path directory,
+			long diskQuota,
+			String name,
+			String... tags) {
+		return onAssembly(new FluxOnBackpressureBufferSpill<>(this,
+				maxSize,
+				codec,
+				directory,
+				diskQuota,
+				new FluxOnBackpressureBufferSpill.Meters(Metrics.getRegistry(), name, tags)));
+	}
+
 	/**
 	 * Request an unbounded demand and push to the returned {@link Flux}, or drop
 	 * the observed elements if not enough demand is requested downstream.
@@ -5102,6 +5736,45 @@ public abstract class Flux<T> implements Publisher<T> {
 		return publishOn(scheduler, true, prefetch);
 	}
 
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, with a boundary capacity that adapts to the observed drain rate.
+	 * <p>
+	 * This operator influences the threading context where the rest of the operators in
+	 * the chain below it will execute, up to a new occurrence of {@code publishOn}.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/publishon.png" alt="">
+	 * <p>
+	 * The capacity starts at {@code minPrefetch} and, each time 75% of it has been
+	 * consumed, doubles if no value was left waiting in the boundary (the consumer is
+	 * faster than the publisher) or halves if all the remaining ones already wait (the
+	 * consumer is the bottleneck), staying within {@code [minPrefetch, maxPrefetch]}.
+	 * The boundary buffer grows and shrinks along, and the current capacity is exposed
+	 * as {@link reactor.core.Scannable.Attr#PREFETCH}.
+	 * <blockquote><pre>
+	 * {@code flux.publishOn(Schedulers.single(), 16, 1024).subscribe() }
+	 * </pre></blockquote>
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param minPrefetch the initial and minimum asynchronous boundary capacity
+	 * @param maxPrefetch the maximum asynchronous boundary capacity
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, int minPrefetch, int maxPrefetch) {
+		if (this instanceof Callable) {
+			return publishOn(scheduler, true, minPrefetch);
+		}
+
+		return onAssembly(new FluxPublishOn<>(this,
+				scheduler,
+				true,
+				minPrefetch,
+				maxPrefetch,
+				Integer.MAX_VALUE,
+				QueueSupplier.unbounded(minPrefetch)));
+	}
+
 	/**
 	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
 	 * {@link Worker}.
@@ -5123,6 +5796,37 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a {@link Flux} producing asynchronously
 	 */
 	public final Flux<T> publishOn(Scheduler scheduler, boolean delayError, int prefetch) {
+		return publishOn(scheduler, delayError, prefetch, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, emitting at most {@code budget} values per run on the
+	 * {@link Worker}.
+	 * <p>
+	 * This operator influences the threading context where the rest of the operators in
+	 * the chain below it will execute, up to a new occurrence of {@code publishOn}.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/publishon.png" alt="">
+	 * <p>
+	 * Once a run has emitted {@code budget} values, the rest of the buffer is drained by
+	 * a new run submitted to the same {@link Worker}, so that a fast publisher doesn't
+	 * hold a {@link Worker} shared with other sequences (eg. from
+	 * {@link Schedulers#single()}) for an unbounded time. Values arriving meanwhile don't
+	 * schedule additional runs.
+	 * <blockquote><pre>
+	 * {@code flux.publishOn(Schedulers.single(), true, 256, 1024).subscribe() }
+	 * </pre></blockquote>
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param delayError should the buffer be consumed before forwarding any error
+	 * @param prefetch the asynchronous boundary capacity
+	 * @param budget the maximum number of values emitted per run on the {@link Worker},
+	 * {@link Integer#MAX_VALUE} to drain the buffer in a single run
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, boolean delayError, int prefetch, int budget) {
 		if (this instanceof Callable) {
 			if (this instanceof Fuseable.ScalarCallable) {
 				@SuppressWarnings("unchecked") T value =
@@ -5134,7 +5838,12 @@ public abstract class Flux<T> implements Publisher<T> {
 			return onAssembly(new FluxSubscribeOnCallable<>(c, scheduler));
 		}
 
-		return onAssembly(new FluxPublishOn<>(this, scheduler, delayError, prefetch, QueueSupplier.get(prefetch)));
+		return onAssembly(new FluxPublishOn<>(this,
+				scheduler,
+				delayError,
+				prefetch,
+				budget,
+				QueueSupplier.get(prefetch)));
 	}
 
 	/**
@@ -5384,6 +6093,76 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxReplay<>(this, history, ttl.toMillis(), timer));
 	}
 
+	/**
+	 * Turn this {@link Flux} into a connectable hot source and cache last emitted
+	 * signals for further {@link Subscriber}. Will retain up to the given history size
+	 * onNext signals, encoded by the given {@link Codec} in direct memory rather than
+	 * on the heap, so a large history doesn't add garbage collection pressure. Each
+	 * {@link Subscriber} decodes the signals it replays. Completion and Error will also
+	 * be replayed.
+	 * <p>
+	 * <img width="500" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/replay.png"
+	 * alt="">
+	 *
+	 * @param history number of events retained in history excluding complete and
+	 * error, {@link Integer#MAX_VALUE} for an unbounded history
+	 * @param codec the {@link Codec} of the retained events
+	 *
+	 * @return a replaying {@link ConnectableFlux}
+	 */
+	public final ConnectableFlux<T> replay(int history, Codec<T> codec) {
+		Objects.requireNonNull(codec, "codec");
+		return onAssembly(new FluxReplay<>(this, history, 0L, null, codec, null));
+	}
+
+	/**
+	 * Turn this {@link Flux} into a connectable hot source and cache last emitted
+	 * signals for further {@link Subscriber}. Will retain up to the given history size
+	 * onNext signals with a per-item ttl, encoded by the given {@link Codec} in direct
+	 * memory rather than on the heap. Completion and Error will also be replayed.
+	 * <p>
+	 * <img width="500" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/replay.png"
+	 * alt="">
+	 *
+	 * @param history number of events retained in history excluding complete and
+	 * error, {@link Integer#MAX_VALUE} for an unbounded history
+	 * @param ttl Per-item timeout {@link Duration}
+	 * @param timer a {@link Scheduler} instance to read current time from
+	 * @param codec the {@link Codec} of the retained events
+	 *
+	 * @return a replaying {@link ConnectableFlux}
+	 */
+	public final ConnectableFlux<T> replay(int history, Duration ttl, Scheduler timer,
+			Codec<T> codec) {
+		Objects.requireNonNull(timer, "timer");
+		Objects.requireNonNull(codec, "codec");
+		return onAssembly(new FluxReplay<>(this, history, ttl.toMillis(), timer, codec, null));
+	}
+
+	/**
+	 * Turn this {@link Flux} into a connectable hot source and cache last emitted
+	 * signals for further {@link Subscriber}. Will retain up to the given history size
+	 * onNext signals, encoded by the given {@link Codec} in memory-mapped files created
+	 * in the given directory. The files are deleted as soon as they are mapped where
+	 * the platform allows it, so the history doesn't survive the connection.
+	 * Completion and Error will also be replayed.
+	 * <p>
+	 * <img width="500" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M1/src/docs/marble/replay.png"
+	 * alt="">
+	 *
+	 * @param history number of events retained in history excluding complete and
+	 * error, {@link Integer#MAX_VALUE} for an unbounded history
+	 * @param codec the {@link Codec} of the retained events
+	 * @param directory the directory of the memory-mapped files
+	 *
+	 * @return a replaying {@link ConnectableFlux}
+	 */
+	public final ConnectableFlux<T> replay(int history, Codec<T> codec, Path directory) {
+		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(directory, "directory");
+		return onAssembly(new FluxReplay<>(this, history, 0L, null, codec, directory));
+	}
+
 	/**
 	 * Re-subscribes to this {@link Flux} sequence if it signals any error, indefinitely.
 	 * <p>
@@ -6192,6 +6971,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * for each source onNext
 	 */
 	public final <V> Flux<V> switchMap(Function<? super T, Publisher<? extends V>> fn, int prefetch) {
+		if (isConstantEmpty(this)) {
+			return empty();
+		}
 		return onAssembly(new FluxSwitchMap<>(this, fn, QueueSupplier.unbounded(prefetch), prefetch));
 	}
 
@@ -6335,6 +7117,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a new {@link Mono} representing the termination of this {@link Flux}
 	 */
 	public final Mono<Void> then() {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return Mono.empty();
+		}
 		@SuppressWarnings("unchecked")
 		Mono<Void> then = (Mono<Void>) new MonoIgnoreEmpty<>(this);
 		return Mono.onAssembly(then);
@@ -6356,6 +7141,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a new {@link Flux} that wait for source completion then emits from the supplied {@link Mono}
 	 */
 	public final <V> Mono<V> then(Mono<V> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return other;
+		}
 		return Mono.onAssembly(new MonoThenIgnore<>(new Publisher[] { this }, other));
 	}
 
@@ -6372,6 +7160,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * sequence
 	 */
 	public final Mono<Void> thenEmpty(Publisher<Void> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return Mono.from(other);
+		}
 		return new MonoIgnoreEmpty<>(this).then(MonoSource.wrap(other));
 	}
 
@@ -6390,6 +7181,9 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * this Flux completes.
 	 */
 	public final <V> Flux<V> thenMany(Publisher<V> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return from(other);
+		}
 		if (this instanceof FluxConcatArray) {
 			@SuppressWarnings({ "unchecked" })
 			FluxConcatArray<T> fluxConcatArray = (FluxConcatArray<T>) this;
@@ -7350,6 +8144,115 @@ public abstract class Flux<T> implements Publisher<T> {
 		return Mono.onAssembly(new MonoCallable<>(supplier));
 	}
 
+	/**
+	 * Convert a positive group idle time to the milliseconds {@link FluxGroupBy} works
+	 * with, rounding a sub-millisecond remainder up so that no positive duration
+	 * becomes 0.
+	 *
+	 * @param maxIdleTime the time after which an idle group is completed
+	 *
+	 * @return the idle time in milliseconds, at least 1
+	 * @throws IllegalArgumentException if the duration is zero or negative
+	 */
+	static long maxIdleMillis(Duration maxIdleTime) {
+		Objects.requireNonNull(maxIdleTime, "maxIdleTime");
+		if (maxIdleTime.isNegative() || maxIdleTime.isZero()) {
+			throw new IllegalArgumentException("maxIdleTime > 0 required but it was " + maxIdleTime);
+		}
+		long millis = maxIdleTime.toMillis();
+		return maxIdleTime.minusMillis(millis).isZero() ? millis : millis + 1L;
+	}
+
+	/**
+	 * Returns true if the given source is known at assembly time to complete without
+	 * emitting any value and without side effect, ie. is a {@link Fuseable.ScalarCallable}
+	 * holding no value.
+	 *
+	 * @param source the source to inspect
+	 *
+	 * @return true if the source is a constant empty
+	 */
+	static boolean isConstantEmpty(Publisher<?> source) {
+		return source instanceof Fuseable.ScalarCallable &&
+				((Fuseable.ScalarCallable<?>) source).call() == null;
+	}
+
+	/**
+	 * Returns the error a source known at assembly time to immediately fail with, ie. a
+	 * {@link MonoError} or a {@link FluxError} that doesn't wait for a request.
+	 *
+	 * @param source the source to inspect
+	 *
+	 * @return the constant error of the source or null if it isn't a constant error
+	 */
+	static Throwable constantError(Publisher<?> source) {
+		if (source instanceof MonoError) {
+			return ((MonoError<?>) source).error;
+		}
+		if (source instanceof FluxError && !((FluxError<?>) source).whenRequested) {
+			return ((FluxError<?>) source).error;
+		}
+		return null;
+	}
+
+	/**
+	 * Resolve at assembly time the combination of sources that are all constant
+	 * ({@link Fuseable.ScalarCallable} or {@link #constantError(Publisher) errors}), so
+	 * that no coordinator and inner subscribers have to be allocated for each
+	 * subscription. The outcome is the same as the one the zip or combineLatest
+	 * coordinator would produce: the first source that terminates without value in
+	 * subscription order terminates the combination, otherwise the values are combined
+	 * once.
+	 *
+	 * @param combinator the function combining the values of the sources
+	 * @param emptyFirst true if any empty source completes the combination, whatever
+	 * the sources before it, like {@link FluxZip} does
+	 * @param prefetch the prefetch the combined values {@link Flux} reports
+	 * @param sources the sources to combine
+	 * @param <O> the combined type
+	 *
+	 * @return a {@link Flux} for the combination or null if a source isn't constant
+	 */
+	static <O> Flux<O> combineConstants(Function<? super Object[], ? extends O> combinator,
+			boolean emptyFirst,
+			int prefetch,
+			Publisher<?>... sources) {
+		Publisher<?> terminal = null;
+		for (Publisher<?> p : sources) {
+			if (p instanceof Fuseable.ScalarCallable) {
+				if (((Fuseable.ScalarCallable<?>) p).call() == null) {
+					if (emptyFirst) {
+						return empty();
+					}
+					if (terminal == null) {
+						terminal = p;
+					}
+				}
+			}
+			else if (constantError(p) != null) {
+				if (terminal == null) {
+					terminal = p;
+				}
+			}
+			else {
+				return null;
+			}
+		}
+
+		if (terminal != null) {
+			Throwable e = constantError(terminal);
+			return e != null ? error(e) : empty();
+		}
+
+		int n = sources.length;
+		Object[] values = new Object[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = ((Fuseable.ScalarCallable<?>) sources[i]).call();
+		}
+		return onAssembly(new FluxSource.PrefetchFluxSource<>(
+				new FluxMapFuseable<>(new FluxJust<>(values), combinator), prefetch));
+	}
+
 	@SafeVarargs
 	static <I> Flux<I> merge(int prefetch, boolean delayError, Publisher<? extends I>... sources) {
 		if (sources.length == 0) {
@@ -7463,4 +8366,10 @@ public abstract class Flux<T> implements Publisher<T> {
 
 	static final Disposable CANCELLED = () -> {
 	};
+
+	/**
+	 * The number of value buffers retained by bufferEncoded, each one being released
+	 * as soon as its values are encoded
+	 */
+	static final int ENCODED_POOL_SIZE = 4;
 }
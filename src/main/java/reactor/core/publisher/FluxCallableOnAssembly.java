@@ -40,9 +40,9 @@ final class FluxCallableOnAssembly<T> extends FluxSource<T, T>
 
 	final AssemblySnapshotException stacktrace;
 
-	FluxCallableOnAssembly(Flux<? extends T> source) {
+	FluxCallableOnAssembly(Flux<? extends T> source, AssemblySnapshotException stacktrace) {
 		super(source);
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	@Override
@@ -47,6 +47,8 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 
 	final int prefetch;
 
+	final int maxPrefetch;
+
 	final ErrorMode errorMode;
 
 	/**
@@ -69,21 +71,31 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 			Function<? super T, ? extends Publisher<? extends R>> mapper,
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch, ErrorMode errorMode) {
+		return subscriber(s, mapper, queueSupplier, prefetch, prefetch, errorMode);
+	}
+
+	static <T, R> Subscriber<T> subscriber(Subscriber<? super R> s,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int prefetch, int maxPrefetch, ErrorMode errorMode) {
 		switch (errorMode) {
 			case BOUNDARY:
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
 						prefetch,
+						maxPrefetch,
 						false);
 			case END:
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
 						prefetch,
+						maxPrefetch,
 						true);
 			default:
-				return new ConcatMapImmediate<>(s, mapper, queueSupplier, prefetch);
+				return new ConcatMapImmediate<>(s, mapper, queueSupplier, prefetch,
+						maxPrefetch);
 		}
 	}
 
@@ -92,13 +104,32 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch,
 			ErrorMode errorMode) {
+		this(source, mapper, queueSupplier, prefetch, prefetch, errorMode);
+	}
+
+	/**
+	 * @param prefetch the initial and minimum prefetch of source values
+	 * @param maxPrefetch the maximum prefetch of source values, the prefetch adapts to
+	 * the observed drain rate between both bounds (see {@link AdaptivePrefetch}) when
+	 * greater than {@code prefetch}, the queue must then be able to hold that many values
+	 */
+	FluxConcatMap(Publisher<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int prefetch,
+			int maxPrefetch,
+			ErrorMode errorMode) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
+		if (maxPrefetch < prefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= prefetch required but it was " + maxPrefetch);
+		}
 		this.mapper = Objects.requireNonNull(mapper, "mapper");
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 		this.prefetch = prefetch;
+		this.maxPrefetch = maxPrefetch;
 		this.errorMode = Objects.requireNonNull(errorMode, "errorMode");
 	}
 
@@ -114,7 +145,8 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 			return;
 		}
 
-		source.subscribe(subscriber(s, mapper, queueSupplier, prefetch, errorMode));
+		source.subscribe(subscriber(s, mapper, queueSupplier, prefetch, maxPrefetch,
+				errorMode));
 	}
 
 	static final class ConcatMapImmediate<T, R>
@@ -130,7 +162,9 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		Subscription s;
 
@@ -165,12 +199,20 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 
 		ConcatMapImmediate(Subscriber<? super R> actual,
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
-				Supplier<? extends Queue<T>> queueSupplier, int prefetch) {
+				Supplier<? extends Queue<T>> queueSupplier, int prefetch,
+				int maxPrefetch) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (maxPrefetch != prefetch) {
+				this.adaptive = new AdaptivePrefetch(prefetch, maxPrefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.inner = new ConcatMapInner<>(this);
 		}
 
@@ -184,7 +226,7 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 				case CANCELLED:
 					return cancelled;
 				case PREFETCH:
-					return prefetch;
+					return adaptive != null ? adaptive.window : prefetch;
 				case BUFFERED:
 					return queue != null ? queue.size() : 0;
 				case ERROR:
@@ -193,6 +235,20 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 			return InnerOperator.super.scan(key);
 		}
 
+		/**
+		 * Compute the amount to request from the source once {@link #limit} values have
+		 * been consumed, tuning the prefetch first if it is adaptive.
+		 */
+		long replenish(int n) {
+			AdaptivePrefetch ap = adaptive;
+			if (ap == null) {
+				return n;
+			}
+			long r = ap.replenish(n, queue.size());
+			limit = ap.limit;
+			return r;
+		}
+
 		@Override
 		public void onSubscribe(Subscription s) {
 			if (Operators.validate(this.s, s)) {
@@ -366,7 +422,7 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -465,7 +521,9 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		final boolean veryEnd;
 
@@ -498,12 +556,19 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 		ConcatMapDelayed(Subscriber<? super R> actual,
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
 				Supplier<? extends Queue<T>> queueSupplier,
-				int prefetch, boolean veryEnd) {
+				int prefetch, int maxPrefetch, boolean veryEnd) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (maxPrefetch != prefetch) {
+				this.adaptive = new AdaptivePrefetch(prefetch, maxPrefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.veryEnd = veryEnd;
 			this.inner = new ConcatMapInner<>(this);
 		}
@@ -523,7 +588,7 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 				case CANCELLED:
 					return cancelled;
 				case PREFETCH:
-					return prefetch;
+					return adaptive != null ? adaptive.window : prefetch;
 				case BUFFERED:
 					return queue != null ? queue.size() : 0;
 				case ERROR:
@@ -534,6 +599,20 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 			return InnerOperator.super.scan(key);
 		}
 
+		/**
+		 * Compute the amount to request from the source once {@link #limit} values have
+		 * been consumed, tuning the prefetch first if it is adaptive.
+		 */
+		long replenish(int n) {
+			AdaptivePrefetch ap = adaptive;
+			if (ap == null) {
+				return n;
+			}
+			long r = ap.replenish(n, queue.size());
+			limit = ap.limit;
+			return r;
+		}
+
 		@Override
 		public void onSubscribe(Subscription s) {
 			if (Operators.validate(this.s, s)) {
@@ -706,7 +785,7 @@ final class FluxConcatMap<T, R> extends FluxSource<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -54,6 +54,8 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 
 	final int prefetch;
 
+	final int maxPrefetch;
+
 	final Supplier<? extends Queue<R>> innerQueueSupplier;
 
 	FluxFlatMap(Publisher<? extends T> source,
@@ -63,16 +65,39 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 			Supplier<? extends Queue<R>> mainQueueSupplier,
 			int prefetch,
 			Supplier<? extends Queue<R>> innerQueueSupplier) {
+		this(source, mapper, delayError, maxConcurrency, mainQueueSupplier, prefetch,
+				prefetch, innerQueueSupplier);
+	}
+
+	/**
+	 * @param prefetch the initial and minimum prefetch of each inner
+	 * @param maxPrefetch the maximum prefetch of each inner, the prefetch of an inner
+	 * adapts to its observed drain rate between both bounds (see
+	 * {@link AdaptivePrefetch}) when greater than {@code prefetch}, the inner queues
+	 * must then be able to hold that many values
+	 */
+	FluxFlatMap(Publisher<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			boolean delayError,
+			int maxConcurrency,
+			Supplier<? extends Queue<R>> mainQueueSupplier,
+			int prefetch,
+			int maxPrefetch,
+			Supplier<? extends Queue<R>> innerQueueSupplier) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
+		if (maxPrefetch < prefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= prefetch required but it was " + maxPrefetch);
+		}
 		if (maxConcurrency <= 0) {
 			throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
 		}
 		this.mapper = Objects.requireNonNull(mapper, "mapper");
 		this.delayError = delayError;
 		this.prefetch = prefetch;
+		this.maxPrefetch = maxPrefetch;
 		this.maxConcurrency = maxConcurrency;
 		this.mainQueueSupplier =
 				Objects.requireNonNull(mainQueueSupplier, "mainQueueSupplier");
@@ -98,6 +123,7 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 				maxConcurrency,
 				mainQueueSupplier,
 				prefetch,
+				maxPrefetch,
 				innerQueueSupplier));
 	}
 
@@ -193,6 +219,8 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 
 		final int prefetch;
 
+		final int maxPrefetch;
+
 		final Supplier<? extends Queue<R>> innerQueueSupplier;
 
 		final int limit;
@@ -238,6 +266,7 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 				int maxConcurrency,
 				Supplier<? extends Queue<R>> mainQueueSupplier,
 				int prefetch,
+				int maxPrefetch,
 				Supplier<? extends Queue<R>> innerQueueSupplier) {
 			this.actual = actual;
 			this.mapper = mapper;
@@ -245,6 +274,7 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 			this.maxConcurrency = maxConcurrency;
 			this.mainQueueSupplier = mainQueueSupplier;
 			this.prefetch = prefetch;
+			this.maxPrefetch = maxPrefetch;
 			this.innerQueueSupplier = innerQueueSupplier;
 			this.limit = maxConcurrency - (maxConcurrency >> 2);
 		}
@@ -378,7 +408,7 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 				emitScalar(v);
 			}
 			else {
-				FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch);
+				FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch, maxPrefetch);
 				if (add(inner)) {
 
 					p.subscribe(inner);
@@ -858,7 +888,9 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		volatile Subscription s;
 		@SuppressWarnings("rawtypes")
@@ -880,10 +912,17 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 
 		int index;
 
-		FlatMapInner(FlatMapMain<?, R> parent, int prefetch) {
+		FlatMapInner(FlatMapMain<?, R> parent, int prefetch, int maxPrefetch) {
 			this.parent = parent;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (maxPrefetch != prefetch) {
+				this.adaptive = new AdaptivePrefetch(prefetch, maxPrefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 		}
 
 		@Override
@@ -938,6 +977,12 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 			long p = produced + n;
 			if (p >= limit) {
 				produced = 0L;
+				AdaptivePrefetch ap = adaptive;
+				if (ap != null) {
+					Queue<R> q = queue;
+					p = ap.replenish(p, q == null ? 0 : q.size());
+					limit = ap.limit;
+				}
 				s.request(p);
 			}
 			else {
@@ -964,7 +1009,7 @@ final class FluxFlatMap<T, R> extends FluxSource<T, R> {
 				case BUFFERED:
 					return queue == null ? 0 : queue.size();
 				case PREFETCH:
-					return prefetch;
+					return adaptive != null ? adaptive.window : prefetch;
 			}
 			return null;
 		}
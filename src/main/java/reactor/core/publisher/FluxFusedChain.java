@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+
+/**
+ * Applies a chain of consecutive stateless operators ({@code map}, {@code filter},
+ * {@code handle}, {@code doOnNext} and the {@code cast} and {@code ofType} built on
+ * them), collapsed at assembly time by {@link #fuse(Flux, Stage)}, with a single
+ * subscriber running each value through a flat array of {@link Stage stages}.
+ * <p>
+ * The {@link Fuseable} variant is {@link FluxFusedChainFuseable}.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+final class FluxFusedChain<T, R> extends FluxSource<T, R> {
+
+	final Stage[] stages;
+
+	FluxFusedChain(Publisher<? extends T> source, Stage[] stages) {
+		super(source);
+		this.stages = stages;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super R> s) {
+		source.subscribe(new FusedChainSubscriber<>(s, stages, false));
+	}
+
+	/**
+	 * Append the given stage to the upstream operator if it is itself a stateless
+	 * operator that can be collapsed, returning the resulting single operator.
+	 *
+	 * @param upstream the operator the stage would be applied to
+	 * @param stage the new stage
+	 * @param <R> the result value type
+	 *
+	 * @return a new collapsed operator or null if the upstream can't be collapsed
+	 */
+	@SuppressWarnings("unchecked")
+	static <R> Flux<R> fuse(Flux<?> upstream, Stage stage) {
+		Stage[] previous;
+		if (upstream instanceof FluxFusedChain) {
+			previous = ((FluxFusedChain) upstream).stages;
+		}
+		else if (upstream instanceof FluxFusedChainFuseable) {
+			previous = ((FluxFusedChainFuseable) upstream).stages;
+		}
+		else if (upstream instanceof FluxMap) {
+			previous = new Stage[]{new MapStage(((FluxMap) upstream).mapper)};
+		}
+		else if (upstream instanceof FluxMapFuseable) {
+			previous = new Stage[]{new MapStage(((FluxMapFuseable) upstream).mapper)};
+		}
+		else if (upstream instanceof FluxFilter) {
+			previous = new Stage[]{new FilterStage(((FluxFilter) upstream).predicate)};
+		}
+		else if (upstream instanceof FluxFilterFuseable) {
+			previous = new Stage[]{new FilterStage(((FluxFilterFuseable) upstream).predicate)};
+		}
+		else if (upstream instanceof FluxHandle) {
+			previous = new Stage[]{new HandleStage(((FluxHandle) upstream).handler)};
+		}
+		else if (upstream instanceof FluxHandleFuseable) {
+			previous = new Stage[]{new HandleStage(((FluxHandleFuseable) upstream).handler)};
+		}
+		else if ((upstream instanceof FluxPeek || upstream instanceof FluxPeekFuseable)
+				&& isOnNextOnly((SignalPeek<?>) upstream)) {
+			previous = new Stage[]{new PeekStage(((SignalPeek) upstream).onNextCall())};
+		}
+		else {
+			return null;
+		}
+
+		Stage[] stages = new Stage[previous.length + 1];
+		System.arraycopy(previous, 0, stages, 0, previous.length);
+		stages[previous.length] = stage;
+
+		Publisher<?> source = ((FluxSource<?, ?>) upstream).source;
+		if (source instanceof Fuseable) {
+			return new FluxFusedChainFuseable<>(source, stages);
+		}
+		return new FluxFusedChain<>(source, stages);
+	}
+
+	static boolean isOnNextOnly(SignalPeek<?> peek) {
+		return peek.onNextCall() != null && peek.onSubscribeCall() == null &&
+				peek.onErrorCall() == null && peek.onCompleteCall() == null &&
+				peek.onAfterTerminateCall() == null && peek.onRequestCall() == null &&
+				peek.onCancelCall() == null;
+	}
+
+	/**
+	 * One collapsed operator.
+	 */
+	abstract static class Stage {
+
+		/**
+		 * Apply this stage to a value.
+		 *
+		 * @param v the value from the previous stage
+		 * @param sink the sink of {@code handle} stages
+		 *
+		 * @return the value for the next stage, or null if this stage drops it
+		 */
+		abstract Object apply(Object v, FusedChainSubscriber<?, ?> sink);
+	}
+
+	static final class MapStage extends Stage {
+
+		final Function<Object, ?> mapper;
+
+		@SuppressWarnings("unchecked")
+		MapStage(Function<?, ?> mapper) {
+			this.mapper = (Function<Object, ?>) Objects.requireNonNull(mapper, "mapper");
+		}
+
+		@Override
+		Object apply(Object v, FusedChainSubscriber<?, ?> sink) {
+			return Objects.requireNonNull(mapper.apply(v),
+					"The mapper returned a null value.");
+		}
+	}
+
+	static final class FilterStage extends Stage {
+
+		final Predicate<Object> predicate;
+
+		@SuppressWarnings("unchecked")
+		FilterStage(Predicate<?> predicate) {
+			this.predicate = (Predicate<Object>) Objects.requireNonNull(predicate, "predicate");
+		}
+
+		@Override
+		Object apply(Object v, FusedChainSubscriber<?, ?> sink) {
+			return predicate.test(v) ? v : null;
+		}
+	}
+
+	static final class PeekStage extends Stage {
+
+		final Consumer<Object> onNext;
+
+		@SuppressWarnings("unchecked")
+		PeekStage(Consumer<?> onNext) {
+			this.onNext = (Consumer<Object>) Objects.requireNonNull(onNext, "onNext");
+		}
+
+		@Override
+		Object apply(Object v, FusedChainSubscriber<?, ?> sink) {
+			onNext.accept(v);
+			return v;
+		}
+	}
+
+	static final class HandleStage extends Stage {
+
+		final BiConsumer<Object, SynchronousSink<Object>> handler;
+
+		@SuppressWarnings("unchecked")
+		HandleStage(BiConsumer<?, ? extends SynchronousSink<?>> handler) {
+			this.handler = (BiConsumer<Object, SynchronousSink<Object>>)
+					Objects.requireNonNull(handler, "handler");
+		}
+
+		@Override
+		Object apply(Object v, FusedChainSubscriber<?, ?> sink) {
+			handler.accept(v, sink);
+			Object d = sink.data;
+			sink.data = null;
+			return d;
+		}
+	}
+
+	/**
+	 * Runs each value through the stages. A {@code handle} stage completing or failing
+	 * stops the sequence once its value, if any, went through the remaining stages and
+	 * downstream.
+	 */
+	static final class FusedChainSubscriber<T, R>
+			implements InnerOperator<T, R>, Fuseable.ConditionalSubscriber<T>,
+			           Fuseable.QueueSubscription<R>, SynchronousSink<Object> {
+
+		final Subscriber<? super R>                     actual;
+		final Fuseable.ConditionalSubscriber<? super R> conditional;
+		final Stage[]                                   stages;
+		final boolean                                   fuseable;
+
+		boolean   done;
+		boolean   stop;
+		Throwable error;
+		Object    data;
+
+		Subscription s;
+
+		Fuseable.QueueSubscription<T> qs;
+
+		int sourceMode;
+
+		@SuppressWarnings("unchecked")
+		FusedChainSubscriber(Subscriber<? super R> actual, Stage[] stages,
+				boolean fuseable) {
+			this.actual = actual;
+			this.conditional = actual instanceof Fuseable.ConditionalSubscriber ?
+					(Fuseable.ConditionalSubscriber<? super R>) actual : null;
+			this.stages = stages;
+			this.fuseable = fuseable;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				if (fuseable && s instanceof Fuseable.QueueSubscription) {
+					this.qs = (Fuseable.QueueSubscription<T>) s;
+				}
+				actual.onSubscribe(this);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		R apply(T t) {
+			Object v = t;
+			for (Stage stage : stages) {
+				v = stage.apply(v, this);
+				if (v == null) {
+					return null;
+				}
+			}
+			return (R) v;
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNext(null);
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+
+			R v;
+			try {
+				v = apply(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+				return;
+			}
+			if (v != null) {
+				actual.onNext(v);
+			}
+			if (stop) {
+				terminate(t);
+			}
+			else if (v == null) {
+				s.request(1L);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return true;
+			}
+
+			R v;
+			try {
+				v = apply(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+				return true;
+			}
+			boolean accepted = false;
+			if (v != null) {
+				if (conditional != null) {
+					accepted = conditional.tryOnNext(v);
+				}
+				else {
+					actual.onNext(v);
+					accepted = true;
+				}
+			}
+			if (stop) {
+				terminate(t);
+				return true;
+			}
+			return accepted;
+		}
+
+		void terminate(T t) {
+			s.cancel();
+			if (error != null) {
+				onError(Operators.onOperatorError(null, error, t));
+			}
+			else {
+				onComplete();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+
+			done = true;
+
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			actual.onComplete();
+		}
+
+		@Override
+		public void complete() {
+			stop = true;
+		}
+
+		@Override
+		public void error(Throwable e) {
+			error = Objects.requireNonNull(e, "error");
+			stop = true;
+		}
+
+		@Override
+		public void next(Object o) {
+			if (data != null) {
+				throw new IllegalStateException("Cannot emit more than one data");
+			}
+			data = Objects.requireNonNull(o, "data");
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+				case ERROR:
+					return error;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public Subscriber<? super R> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public R poll() {
+			if (stop) {
+				return null;
+			}
+			long dropped = 0L;
+			for (; ; ) {
+				T t = qs.poll();
+				if (t == null) {
+					if (dropped != 0L) {
+						request(dropped);
+					}
+					return null;
+				}
+				R v = apply(t);
+				if (stop) {
+					if (error != null) {
+						throw Exceptions.propagate(Operators.onOperatorError(null, error, t));
+					}
+					if (sourceMode == Fuseable.ASYNC) {
+						qs.cancel();
+						done = true;
+						actual.onComplete();
+					}
+					return v;
+				}
+				if (v != null) {
+					if (dropped != 0L) {
+						request(dropped);
+					}
+					return v;
+				}
+				if (sourceMode == Fuseable.ASYNC) {
+					dropped++;
+				}
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return qs.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			if (qs == null || (requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public int size() {
+			return qs.size();
+		}
+	}
+}
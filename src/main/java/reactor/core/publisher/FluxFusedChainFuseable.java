@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import reactor.core.Fuseable;
+
+/**
+ * Applies a chain of consecutive stateless operators collapsed at assembly time, see
+ * {@link FluxFusedChain}.
+ * <p>
+ * This variant allows composing fuseable stages.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+final class FluxFusedChainFuseable<T, R> extends FluxSource<T, R> implements Fuseable {
+
+	final FluxFusedChain.Stage[] stages;
+
+	FluxFusedChainFuseable(Publisher<? extends T> source, FluxFusedChain.Stage[] stages) {
+		super(source);
+		this.stages = stages;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super R> s) {
+		source.subscribe(new FluxFusedChain.FusedChainSubscriber<>(s, stages, true));
+	}
+}
@@ -16,10 +16,10 @@
 
 package reactor.core.publisher;
 
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -32,11 +32,17 @@ import org.reactivestreams.Subscription;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
-
-
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.QueueSupplier;
 
 /**
  * Groups upstream items into their own Publisher sequence based on a key selector.
+ * <p>
+ * Groups are held in an open-addressing {@link GroupTable}, possibly specialized for
+ * primitive keys. The queues of the groups whose subscriber is done with them are
+ * reused for new groups, and groups that haven't received a value for a given time
+ * can optionally be completed and evicted, so that memory stays bounded when keys
+ * come and go.
  *
  * @param <T> the source value type
  * @param <K> the key value type
@@ -47,7 +53,12 @@ import reactor.core.Scannable;
 final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 		implements Fuseable {
 
-	final Function<? super T, ? extends K> keySelector;
+	/**
+	 * The maximum number of group queues kept for reuse per subscription
+	 */
+	static final int MAX_POOLED_QUEUES = 32;
+
+	final Supplier<? extends GroupTable<T, K, V>> tableSupplier;
 
 	final Function<? super T, ? extends V> valueSelector;
 
@@ -57,23 +68,58 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 
 	final int prefetch;
 
+	final long maxIdleMillis;
+
+	final Scheduler timer;
+
 	FluxGroupBy(Flux<? extends T> source,
 			Function<? super T, ? extends K> keySelector,
 			Function<? super T, ? extends V> valueSelector,
 			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
 			Supplier<? extends Queue<V>> groupQueueSupplier,
 			int prefetch) {
+		this(source,
+				GroupTable.objectKeys(keySelector),
+				valueSelector,
+				mainQueueSupplier,
+				groupQueueSupplier,
+				prefetch,
+				-1L,
+				null);
+	}
+
+	/**
+	 * @param maxIdleMillis the time after which a group that didn't receive a value is
+	 * completed and evicted, or -1 to never evict groups
+	 * @param timer the time source for eviction, ignored if {@code maxIdleMillis} is -1
+	 */
+	FluxGroupBy(Flux<? extends T> source,
+			Supplier<? extends GroupTable<T, K, V>> tableSupplier,
+			Function<? super T, ? extends V> valueSelector,
+			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
+			Supplier<? extends Queue<V>> groupQueueSupplier,
+			int prefetch,
+			long maxIdleMillis,
+			Scheduler timer) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
-		this.keySelector = Objects.requireNonNull(keySelector, "keySelector");
+		if (maxIdleMillis != -1L) {
+			if (maxIdleMillis <= 0L) {
+				throw new IllegalArgumentException("maxIdleTime > 0 required but it was " + maxIdleMillis + "ms");
+			}
+			Objects.requireNonNull(timer, "timer");
+		}
+		this.tableSupplier = Objects.requireNonNull(tableSupplier, "tableSupplier");
 		this.valueSelector = Objects.requireNonNull(valueSelector, "valueSelector");
 		this.mainQueueSupplier =
 				Objects.requireNonNull(mainQueueSupplier, "mainQueueSupplier");
 		this.groupQueueSupplier =
 				Objects.requireNonNull(groupQueueSupplier, "groupQueueSupplier");
 		this.prefetch = prefetch;
+		this.maxIdleMillis = maxIdleMillis;
+		this.timer = timer;
 	}
 
 	@Override
@@ -82,8 +128,10 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 				mainQueueSupplier.get(),
 				groupQueueSupplier,
 				prefetch,
-				keySelector,
-				valueSelector));
+				tableSupplier.get(),
+				valueSelector,
+				maxIdleMillis,
+				timer));
 	}
 
 	@Override
@@ -95,8 +143,6 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			implements QueueSubscription<GroupedFlux<K, V>>,
 			           InnerOperator<T, GroupedFlux<K, V>>, InnerProducer<GroupedFlux<K,V>> {
 
-		final Function<? super T, ? extends K> keySelector;
-
 		final Function<? super T, ? extends V> valueSelector;
 
 		final Queue<GroupedFlux<K, V>> queue;
@@ -105,7 +151,27 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 
 		final int prefetch;
 
-		final ConcurrentMap<K, UnicastGroupedFlux<K, V>> groupMap;
+		/**
+		 * The groups by key, only mutated from the source thread
+		 */
+		final GroupTable<T, K, V> groups;
+
+		/**
+		 * Groups that terminated or whose queue was released by their subscriber, to
+		 * be removed from {@link #groups} and have their queue reused, from the source
+		 * thread
+		 */
+		final Queue<UnicastGroupedFlux<K, V>> retired;
+
+		/**
+		 * Released group queues ready for reuse, only accessed from the source thread
+		 */
+		final ArrayDeque<Queue<V>> queuePool;
+
+		final long      maxIdleMillis;
+		final Scheduler timer;
+
+		long nextEviction;
 
 		final Subscriber<? super GroupedFlux<K, V>>      actual;
 
@@ -151,15 +217,20 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 				Queue<GroupedFlux<K, V>> queue,
 				Supplier<? extends Queue<V>> groupQueueSupplier,
 				int prefetch,
-				Function<? super T, ? extends K> keySelector,
-				Function<? super T, ? extends V> valueSelector) {
+				GroupTable<T, K, V> groups,
+				Function<? super T, ? extends V> valueSelector,
+				long maxIdleMillis,
+				Scheduler timer) {
 			this.actual = actual;
 			this.queue = queue;
 			this.groupQueueSupplier = groupQueueSupplier;
 			this.prefetch = prefetch;
-			this.groupMap = new ConcurrentHashMap<>();
-			this.keySelector = keySelector;
+			this.groups = groups;
+			this.retired = QueueSupplier.<UnicastGroupedFlux<K, V>>mpscUnbounded().get();
+			this.queuePool = new ArrayDeque<>();
 			this.valueSelector = valueSelector;
+			this.maxIdleMillis = maxIdleMillis;
+			this.timer = timer;
 			GROUP_COUNT.lazySet(this, 1);
 		}
 
@@ -184,11 +255,13 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 				return;
 			}
 
-			K key;
+			removeRetired();
+
+			UnicastGroupedFlux<K, V> g;
 			V value;
 
 			try {
-				key = Objects.requireNonNull(keySelector.apply(t), "The keySelector returned a null value");
+				g = groups.find(t);
 				value = Objects.requireNonNull(valueSelector.apply(t), "The valueSelector returned a null value");
 			}
 			catch (Throwable ex) {
@@ -196,17 +269,18 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 				return;
 			}
 
-			UnicastGroupedFlux<K, V> g = groupMap.get(key);
-
 			if (g == null) {
 				// if the main is cancelled, don't create new groups
 				if (cancelled == 0) {
-					Queue<V> q = groupQueueSupplier.get();
+					Queue<V> q = queuePool.poll();
+					if (q == null) {
+						q = groupQueueSupplier.get();
+					}
 
 					GROUP_COUNT.getAndIncrement(this);
-					g = new UnicastGroupedFlux<>(key, q, this, prefetch);
+					g = new UnicastGroupedFlux<>(groups.key(), q, this, prefetch);
+					groups.add(g);
 					g.onNext(value);
-					groupMap.put(key, g);
 
 					queue.offer(g);
 					drain();
@@ -215,6 +289,46 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			else {
 				g.onNext(value);
 			}
+
+			if (maxIdleMillis != -1L) {
+				long now = timer.now(TimeUnit.MILLISECONDS);
+				if (g != null) {
+					g.lastOnNext = now;
+				}
+				if (now >= nextEviction) {
+					evictIdle(now);
+				}
+			}
+		}
+
+		/**
+		 * Remove the groups that terminated from the table, and keep the queues that
+		 * are no longer used by any subscriber for new groups.
+		 */
+		void removeRetired() {
+			UnicastGroupedFlux<K, V> g;
+			while ((g = retired.poll()) != null) {
+				groups.remove(g);
+				if (!g.reclaimed && g.retired == UnicastGroupedFlux.RETIRED_MASK) {
+					g.reclaimed = true;
+					Queue<V> q = g.queue;
+					q.clear();
+					if (queuePool.size() < MAX_POOLED_QUEUES) {
+						queuePool.offer(q);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Complete and remove the groups that didn't receive a value for {@link
+		 * #maxIdleMillis}. Values for the same key will open a new group.
+		 */
+		void evictIdle(long now) {
+			nextEviction = now + maxIdleMillis;
+			for (UnicastGroupedFlux<K, V> g : groups.removeIf(g -> now - g.lastOnNext >= maxIdleMillis)) {
+				g.onComplete();
+			}
 		}
 
 		@Override
@@ -233,10 +347,8 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			if(done){
 				return;
 			}
-			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
-				g.onComplete();
-			}
-			groupMap.clear();
+			groups.forEach(UnicastGroupedFlux::onComplete);
+			groups.clear();
 			GROUP_COUNT.decrementAndGet(this);
 			done = true;
 			drain();
@@ -265,17 +377,15 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 
 		@Override
 		public Stream<? extends Scannable> inners() {
-			return groupMap.values().stream();
+			return groups.stream();
 		}
 
 		void signalAsyncError() {
 			Throwable e = Exceptions.terminate(ERROR, this);
 			groupCount = 0;
-			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
-				g.onError(e);
-			}
+			groups.forEach(g -> g.onError(e));
 			actual.onError(e);
-			groupMap.clear();
+			groups.clear();
 		}
 
 		@Override
@@ -310,11 +420,11 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			}
 		}
 
-		void groupTerminated(K key) {
+		void groupTerminated(UnicastGroupedFlux<K, V> g) {
 			if (groupCount == 0) {
 				return;
 			}
-			groupMap.remove(key);
+			g.retire(UnicastGroupedFlux.TERMINATED);
 			if (GROUP_COUNT.decrementAndGet(this) == 0) {
 				s.cancel();
 			}
@@ -473,6 +583,10 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 	static final class UnicastGroupedFlux<K, V> extends GroupedFlux<K, V>
 			implements Fuseable, QueueSubscription<V>, InnerProducer<V> {
 
+		static final int TERMINATED   = 1;
+		static final int RELEASED     = 2;
+		static final int RETIRED_MASK = TERMINATED | RELEASED;
+
 		final K key;
 
 		final int limit;
@@ -484,6 +598,28 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 
 		final Queue<V> queue;
 
+		final GroupByMain<?, K, V> main;
+
+		/**
+		 * Whether the group is {@link #TERMINATED} (no longer routed values) and/or its
+		 * queue is {@link #RELEASED} (no longer accessed by its subscriber)
+		 */
+		volatile int retired;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<UnicastGroupedFlux> RETIRED =
+				AtomicIntegerFieldUpdater.newUpdater(UnicastGroupedFlux.class, "retired");
+
+		/**
+		 * Whether the main reclaimed the queue, only accessed from the source thread
+		 */
+		boolean reclaimed;
+
+		/**
+		 * The time of the last value routed to this group, only accessed from the
+		 * source thread
+		 */
+		long lastOnNext;
+
 		volatile GroupByMain<?, K, V> parent;
 		@SuppressWarnings("rawtypes")
 		static final AtomicReferenceFieldUpdater<UnicastGroupedFlux, GroupByMain> PARENT =
@@ -529,16 +665,45 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			this.key = key;
 			this.queue = queue;
 			this.parent = parent;
+			this.main = parent;
 			this.limit = prefetch - (prefetch >> 2);
 		}
 
 		void doTerminate() {
 			GroupByMain<?, K, V> r = parent;
 			if (r != null && PARENT.compareAndSet(this, r, null)) {
-				r.groupTerminated(key);
+				r.groupTerminated(this);
+			}
+		}
+
+		/**
+		 * Mark the group retired for the given reason and hand it over to the main, which
+		 * removes it from its table and reuses its queue once fully retired.
+		 */
+		void retire(int reason) {
+			for (; ; ) {
+				int r = retired;
+				if ((r & reason) != 0) {
+					return;
+				}
+				if (RETIRED.compareAndSet(this, r, r | reason)) {
+					main.retired.offer(this);
+					return;
+				}
 			}
 		}
 
+		/**
+		 * Mark the queue as no longer accessed by the subscriber side.
+		 */
+		void release() {
+			retire(RELEASED);
+		}
+
+		boolean isReleased() {
+			return (retired & RELEASED) != 0;
+		}
+
 		void drainRegular(Subscriber<? super V> a) {
 			int missed = 1;
 
@@ -599,7 +764,9 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			for (; ; ) {
 
 				if (cancelled) {
-					q.clear();
+					if (!isReleased()) {
+						q.clear();
+					}
 					actual = null;
 					return;
 				}
@@ -648,11 +815,13 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			if (cancelled) {
 				q.clear();
 				actual = null;
+				release();
 				return true;
 			}
 			if (d && empty) {
 				Throwable e = error;
 				actual = null;
+				release();
 				if (e != null) {
 					a.onError(e);
 				}
@@ -732,12 +901,16 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 			if (!outputFused) {
 				if (WIP.getAndIncrement(this) == 0) {
 					queue.clear();
+					release();
 				}
 			}
 		}
 
 		@Override
 		public V poll() {
+			if (isReleased()) {
+				return null;
+			}
 			V v = queue.poll();
 			if (v != null) {
 				produced++;
@@ -751,23 +924,31 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 						main.s.request(p);
 					}
 				}
+				if (done && queue.isEmpty()) {
+					release();
+				}
 			}
 			return v;
 		}
 
 		@Override
 		public int size() {
-			return queue.size();
+			return isReleased() ? 0 : queue.size();
 		}
 
 		@Override
 		public boolean isEmpty() {
-			return queue.isEmpty();
+			return isReleased() || queue.isEmpty();
 		}
 
 		@Override
 		public void clear() {
-			queue.clear();
+			if (!isReleased()) {
+				queue.clear();
+				if (cancelled) {
+					release();
+				}
+			}
 		}
 
 		@Override
@@ -791,7 +972,7 @@ final class FluxGroupBy<T, K, V> extends FluxSource<T, GroupedFlux<K, V>>
 				case ERROR:
 					return error;
 				case BUFFERED:
-					return queue != null ? queue.size() : 0;
+					return size();
 				case REQUESTED_FROM_DOWNSTREAM:
 					return requested;
 			}
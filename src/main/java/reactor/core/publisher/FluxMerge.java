@@ -65,7 +65,7 @@ final class FluxMerge<T> extends Flux<T> {
 	public void subscribe(Subscriber<? super T> s) {
 		FluxFlatMap.FlatMapMain<Publisher<? extends T>, T> merger = new FluxFlatMap.FlatMapMain<>(
 				s, identityFunction(), delayError, maxConcurrency, mainQueueSupplier, prefetch,
-				innerQueueSupplier);
+				prefetch, innerQueueSupplier);
 		
 		merger.onSubscribe(new FluxArray.ArraySubscription<>(merger, sources));
 	}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.util.Metrics;
+
+/**
+ * Reports the signals going through this operator to the meters of a
+ * {@link Metrics.Registry}: subscriptions, emitted values, request sizes, the number of
+ * values buffered upstream when requesting, terminations and subscription lifetimes.
+ *
+ * @param <T> the value type
+ */
+final class FluxMetrics<T> extends FluxSource<T, T> {
+
+	final Meters meters;
+
+	FluxMetrics(Publisher<? extends T> source, Meters meters) {
+		super(source);
+		this.meters = meters;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> s) {
+		source.subscribe(new MetricsSubscriber<>(s, meters));
+	}
+
+	/**
+	 * The meters of one instrumented sequence, resolved once at assembly time.
+	 */
+	static final class Meters {
+
+		final Metrics.Counter   subscriptions;
+		final Metrics.Counter   onNext;
+		final Metrics.Counter   completed;
+		final Metrics.Counter   errors;
+		final Metrics.Counter   cancelled;
+		final Metrics.Counter   unboundedRequests;
+		final Metrics.Histogram requested;
+		final Metrics.Histogram buffered;
+		final Metrics.Timer     duration;
+
+		Meters(Metrics.Registry registry, String name, String... tags) {
+			this.subscriptions = registry.counter(name + ".subscriptions", tags);
+			this.onNext = registry.counter(name + ".onNext", tags);
+			this.completed = registry.counter(name + ".completed", tags);
+			this.errors = registry.counter(name + ".errors", tags);
+			this.cancelled = registry.counter(name + ".cancelled", tags);
+			this.unboundedRequests = registry.counter(name + ".requested.unbounded", tags);
+			this.requested = registry.histogram(name + ".requested", tags);
+			this.buffered = registry.histogram(name + ".buffered", tags);
+			this.duration = registry.timer(name + ".duration", tags);
+		}
+	}
+
+	static class MetricsSubscriber<T> implements InnerOperator<T, T> {
+
+		final Subscriber<? super T> actual;
+		final Meters                meters;
+
+		Subscription s;
+
+		long start;
+
+		volatile int terminated;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MetricsSubscriber> TERMINATED =
+				AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "terminated");
+
+		MetricsSubscriber(Subscriber<? super T> actual, Meters meters) {
+			this.actual = actual;
+			this.meters = meters;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				meters.subscriptions.increment(1);
+				start = System.nanoTime();
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			meters.onNext.increment(1);
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			terminate(meters.errors);
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			terminate(meters.completed);
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			if (n == Long.MAX_VALUE) {
+				meters.unboundedRequests.increment(1);
+			}
+			else {
+				meters.requested.record(n);
+			}
+			if (s instanceof Scannable) {
+				Object b = ((Scannable) s).scan(Attr.BUFFERED);
+				if (b instanceof Number) {
+					meters.buffered.record(((Number) b).longValue());
+				}
+			}
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			terminate(meters.cancelled);
+			s.cancel();
+		}
+
+		final void terminate(Metrics.Counter outcome) {
+			if (terminated == 0 && TERMINATED.compareAndSet(this, 0, 1)) {
+				outcome.increment(1);
+				meters.duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return terminated != 0;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public Subscriber<? super T> actual() {
+			return actual;
+		}
+	}
+
+	static final class MetricsFuseableSubscriber<T> extends MetricsSubscriber<T>
+			implements Fuseable.QueueSubscription<T> {
+
+		Fuseable.QueueSubscription<T> qs;
+
+		int sourceMode;
+
+		MetricsFuseableSubscriber(Subscriber<? super T> actual, Meters meters) {
+			super(actual, meters);
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (s instanceof Fuseable.QueueSubscription) {
+				this.qs = Operators.as(s);
+			}
+			super.onSubscribe(s);
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNext(null);
+				return;
+			}
+			super.onNext(t);
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			Fuseable.QueueSubscription<T> qs = this.qs;
+			if (qs == null) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public T poll() {
+			T v = qs.poll();
+			if (v != null) {
+				meters.onNext.increment(1);
+			}
+			else if (sourceMode == Fuseable.SYNC) {
+				terminate(meters.completed);
+			}
+			return v;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			boolean empty = qs.isEmpty();
+			if (empty && sourceMode == Fuseable.SYNC) {
+				terminate(meters.completed);
+			}
+			return empty;
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+
+		@Override
+		public int size() {
+			return qs.size();
+		}
+	}
+}
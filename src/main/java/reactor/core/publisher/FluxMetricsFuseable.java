@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import reactor.core.Fuseable;
+
+/**
+ * A {@link Fuseable} variant of {@link FluxMetrics}, passing fusion through and counting
+ * the values polled by the fused downstream.
+ *
+ * @param <T> the value type
+ */
+final class FluxMetricsFuseable<T> extends FluxSource<T, T> implements Fuseable {
+
+	final FluxMetrics.Meters meters;
+
+	FluxMetricsFuseable(Publisher<? extends T> source, FluxMetrics.Meters meters) {
+		super(source);
+		this.meters = meters;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> s) {
+		source.subscribe(new FluxMetrics.MetricsFuseableSubscriber<>(s, meters));
+	}
+}
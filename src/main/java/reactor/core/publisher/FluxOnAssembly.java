@@ -58,11 +58,11 @@ final class FluxOnAssembly<T> extends FluxSource<T, T> implements Fuseable, Asse
 			"false"));
 
 	/**
-	 * Create an assembly trace decorated as a {@link Flux}.
+	 * Create an assembly trace or call site decorated as a {@link Flux}.
 	 */
-	FluxOnAssembly(Flux<? extends T> source) {
+	FluxOnAssembly(Flux<? extends T> source, AssemblySnapshotException snapshotStack) {
 		super(source);
-		this.snapshotStack = new AssemblySnapshotException();
+		this.snapshotStack = snapshotStack;
 	}
 
 	/**
@@ -111,7 +111,7 @@ final class FluxOnAssembly<T> extends FluxSource<T, T> implements Fuseable, Asse
 
 	static String getStacktrace(Publisher<?> source,
 			AssemblySnapshotException snapshotStack) {
-		StackTraceElement[] stes = snapshotStack.getStackTrace();
+		StackTraceElement[] stes = snapshotStack.assemblyFrames();
 
 		StringBuilder sb = new StringBuilder();
 		if (null != source) {
@@ -291,13 +291,53 @@ final class FluxOnAssembly<T> extends FluxSource<T, T> implements Fuseable, Asse
 		 * Use {@link #AssemblySnapshotException()} rather than null if not relevant.
 		 */
 		AssemblySnapshotException(String description) {
+			this(description, true);
+		}
+
+		AssemblySnapshotException(String description, boolean checkpointed) {
 			super(description);
-			this.checkpointed = true;
+			this.checkpointed = checkpointed;
 		}
 
 		public boolean isLight() {
 			return false;
 		}
+
+		/**
+		 * @return the frames describing the assembly site
+		 */
+		StackTraceElement[] assemblyFrames() {
+			return getStackTrace();
+		}
+	}
+
+	/**
+	 * An assembly context that doesn't fill a stack trace but only retains the
+	 * {@link AssemblyCallSite} of the operator, which is cheap to capture and shared
+	 * by the operators assembled at the same location. The traceback is only formatted
+	 * when an error propagates.
+	 */
+	static final class AssemblyCallSiteSnapshotException
+			extends AssemblySnapshotException {
+
+		private static final long serialVersionUID = -2836094287615873219L;
+
+		final AssemblyCallSite site;
+
+		AssemblyCallSiteSnapshotException(String description) {
+			super(description, description != null);
+			this.site = AssemblyCallSite.capture();
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this; //intentionally NO-OP
+		}
+
+		@Override
+		StackTraceElement[] assemblyFrames() {
+			return site.frames;
+		}
 	}
 
 	static final class AssemblyLightSnapshotException extends AssemblySnapshotException {
@@ -0,0 +1,566 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.util.Codec;
+import reactor.util.Metrics;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * Buffers values if the subscriber doesn't request fast enough, keeping up to a chosen
+ * number of values in memory and spilling the overflow to segment files encoded by a
+ * {@link Codec}. Once values are spilled, the following ones are spilled too until the
+ * files are read back, so that the order is preserved. If the values spilled and not
+ * read back yet would exceed the disk quota, the subscription is terminated with an
+ * overflow error once the values already buffered are consumed.
+ * <p>
+ * The segment files are created in the given directory and deleted when closed, that
+ * is once they are read back or the subscription terminates. Each segment is a quarter
+ * of the quota, up to 1MB, so the files exceed the quota by at most the part of the
+ * segments already read back or not written yet.
+ * <p>
+ * The spilled values and bytes, the bytes read back, the allocated and released file
+ * sizes and the quota overflows are counted by the meters of a {@link Metrics.Registry}.
+ */
+final class FluxOnBackpressureBufferSpill<O> extends FluxSource<O, O> {
+
+	/**
+	 * Length of each record
+	 */
+	static final int HEADER = 4;
+
+	static final int SEGMENT_SIZE = 1024 * 1024;
+
+	static final String DEFAULT_METRICS_NAME = "reactor.spill";
+
+	final int      bufferSize;
+	final Codec<O> codec;
+	final Path     directory;
+	final long     diskQuota;
+	final Meters   meters;
+
+	FluxOnBackpressureBufferSpill(Flux<? extends O> source,
+			int bufferSize,
+			Codec<O> codec,
+			Path directory,
+			long diskQuota,
+			Meters meters) {
+		super(source);
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Buffer Size must be strictly positive");
+		}
+		if (diskQuota <= 0L) {
+			throw new IllegalArgumentException("diskQuota > 0 required but it was " + diskQuota);
+		}
+		this.bufferSize = bufferSize;
+		this.codec = Objects.requireNonNull(codec, "codec");
+		this.directory = Objects.requireNonNull(directory, "directory");
+		this.diskQuota = diskQuota;
+		this.meters = Objects.requireNonNull(meters, "meters");
+	}
+
+	/**
+	 * The meters of one spilling sequence, resolved once at assembly time.
+	 */
+	static final class Meters {
+
+		final Metrics.Counter spilled;
+		final Metrics.Counter spilledBytes;
+		final Metrics.Counter readBytes;
+		final Metrics.Counter allocatedBytes;
+		final Metrics.Counter releasedBytes;
+		final Metrics.Counter overflows;
+
+		Meters(Metrics.Registry registry, String name, String... tags) {
+			this.spilled = registry.counter(name + ".spilled", tags);
+			this.spilledBytes = registry.counter(name + ".spilled.bytes", tags);
+			this.readBytes = registry.counter(name + ".read.bytes", tags);
+			this.allocatedBytes = registry.counter(name + ".allocated.bytes", tags);
+			this.releasedBytes = registry.counter(name + ".released.bytes", tags);
+			this.overflows = registry.counter(name + ".overflows", tags);
+		}
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super O> s) {
+		source.subscribe(new BackpressureSpillSubscriber<>(s, this));
+	}
+
+	@Override
+	public int getPrefetch() {
+		return Integer.MAX_VALUE;
+	}
+
+	static final class Segment {
+
+		final FileChannel channel;
+		final int         capacity;
+
+		/**
+		 * The position of the next record, only used by the writer
+		 */
+		int position;
+
+		/**
+		 * The position up to which records are written
+		 */
+		volatile int committed;
+
+		volatile Segment next;
+
+		Segment(FileChannel channel, int capacity) {
+			this.channel = channel;
+			this.capacity = capacity;
+		}
+	}
+
+	static final class BackpressureSpillSubscriber<T> implements InnerOperator<T, T> {
+
+		final Subscriber<? super T> actual;
+		final Queue<T>              queue;
+		final Codec<T>              codec;
+		final Path                  directory;
+		final long                  diskQuota;
+		final int                   segmentSize;
+		final Meters                meters;
+		final ByteBuffer            header;
+
+		Subscription s;
+
+		/**
+		 * The segment being written, only used by the writer
+		 */
+		Segment tail;
+
+		/**
+		 * The first segment, set by the writer until the reader takes it over
+		 */
+		volatile Segment first;
+
+		/**
+		 * The segment being read and the position of its next record, only used by the
+		 * reader
+		 */
+		Segment head;
+		int     position;
+
+		volatile boolean cancelled;
+
+		volatile boolean done;
+		Throwable error;
+
+		volatile long spilled;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<BackpressureSpillSubscriber> SPILLED =
+				AtomicLongFieldUpdater.newUpdater(BackpressureSpillSubscriber.class,
+						"spilled");
+
+		/**
+		 * The bytes spilled and not read back yet, counted against the quota
+		 */
+		volatile long unread;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<BackpressureSpillSubscriber> UNREAD =
+				AtomicLongFieldUpdater.newUpdater(BackpressureSpillSubscriber.class,
+						"unread");
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<BackpressureSpillSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(BackpressureSpillSubscriber.class,
+						"wip");
+
+		volatile long requested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<BackpressureSpillSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(BackpressureSpillSubscriber.class,
+						"requested");
+
+		BackpressureSpillSubscriber(Subscriber<? super T> actual,
+				FluxOnBackpressureBufferSpill<T> parent) {
+			this.actual = actual;
+			this.queue = QueueSupplier.<T>get(parent.bufferSize).get();
+			this.codec = parent.codec;
+			this.directory = parent.directory;
+			this.diskQuota = parent.diskQuota;
+			this.segmentSize = (int) Math.max(HEADER, Math.min(SEGMENT_SIZE, parent.diskQuota >> 2));
+			this.meters = parent.meters;
+			this.header = ByteBuffer.allocate(HEADER);
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case REQUESTED_FROM_DOWNSTREAM:
+					return requested;
+				case TERMINATED:
+					return done && queue.isEmpty() && spilled == 0L;
+				case CANCELLED:
+					return cancelled;
+				case BUFFERED:
+					return (int) Math.min(Integer.MAX_VALUE, queue.size() + spilled);
+				case ERROR:
+					return error;
+				case PREFETCH:
+					return Integer.MAX_VALUE;
+				case DELAY_ERROR:
+					return true;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			//the queue only takes values while none is waiting on disk
+			if (spilled != 0L || !queue.offer(t)) {
+				boolean accepted;
+				try {
+					accepted = spill(t);
+				}
+				catch (Throwable ex) {
+					if (!cancelled) {
+						onError(Operators.onOperatorError(s, ex, t));
+					}
+					return;
+				}
+				if (!accepted) {
+					meters.overflows.increment(1);
+					onError(Operators.onOperatorError(s,
+							Exceptions.failWithOverflow("The disk quota of " + diskQuota + " bytes is exhausted"),
+							t));
+					return;
+				}
+			}
+			drain();
+		}
+
+		/**
+		 * Append the value to the last segment, or a new one if it doesn't fit or the
+		 * last one was entirely read back, so the reader releases it.
+		 *
+		 * @return false if the unread bytes would exceed the disk quota
+		 */
+		boolean spill(T t) throws IOException {
+			ByteBuffer data = codec.encode(t);
+			int length = data.remaining();
+			int recordSize = HEADER + length;
+
+			if (unread + recordSize > diskQuota) {
+				return false;
+			}
+
+			Segment segment = tail;
+			if (segment == null
+					|| segment.position + recordSize > segment.capacity
+					|| (spilled == 0L && segment.position != 0)) {
+				int capacity = Math.max(segmentSize, recordSize);
+				Segment n = allocate(capacity);
+				meters.allocatedBytes.increment(capacity);
+				write(n, length, data);
+				if (segment == null) {
+					first = n;
+				}
+				else {
+					segment.next = n;
+				}
+				tail = n;
+				if (cancelled) {
+					//the reader may have already closed the segments it knew
+					close(n);
+				}
+			}
+			else {
+				write(segment, length, data);
+			}
+
+			meters.spilled.increment(1);
+			meters.spilledBytes.increment(recordSize);
+			UNREAD.addAndGet(this, recordSize);
+			SPILLED.incrementAndGet(this);
+			return true;
+		}
+
+		Segment allocate(int capacity) throws IOException {
+			Path file = Files.createTempFile(directory, "spill-", ".segment");
+			return new Segment(FileChannel.open(file,
+					StandardOpenOption.READ,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE), capacity);
+		}
+
+		void write(Segment segment, int length, ByteBuffer data) throws IOException {
+			ByteBuffer h = header;
+			h.clear();
+			h.putInt(0, length);
+			int p = segment.position;
+			writeFully(segment.channel, h, p);
+			writeFully(segment.channel, data, p + HEADER);
+			p += HEADER + length;
+			segment.position = p;
+			segment.committed = p;
+		}
+
+		static void writeFully(FileChannel channel, ByteBuffer b, long position)
+				throws IOException {
+			while (b.hasRemaining()) {
+				position += channel.write(b, position);
+			}
+		}
+
+		static void readFully(FileChannel channel, ByteBuffer b, long position)
+				throws IOException {
+			while (b.hasRemaining()) {
+				int n = channel.read(b, position);
+				if (n < 0) {
+					throw new EOFException("Truncated spill segment");
+				}
+				position += n;
+			}
+		}
+
+		/**
+		 * Read back the next spilled value, only called while {@link #spilled} is not
+		 * zero.
+		 */
+		T readSpilled() throws IOException {
+			Segment segment = head;
+			if (segment == null) {
+				segment = first;
+				head = segment;
+			}
+			//committed is final once the next record is in another segment
+			if (position >= segment.committed) {
+				Segment n = segment.next;
+				close(segment);
+				segment = n;
+				head = n;
+				position = 0;
+			}
+
+			ByteBuffer h = ByteBuffer.allocate(HEADER);
+			readFully(segment.channel, h, position);
+			int length = h.getInt(0);
+			ByteBuffer data = ByteBuffer.allocate(length);
+			readFully(segment.channel, data, position + HEADER);
+			data.flip();
+			position += HEADER + length;
+
+			meters.readBytes.increment(HEADER + length);
+			UNREAD.addAndGet(this, -(HEADER + length));
+			SPILLED.decrementAndGet(this);
+
+			return Objects.requireNonNull(codec.decode(data),
+					"The codec returned a null value");
+		}
+
+		void close(Segment segment) {
+			if (!segment.channel.isOpen()) {
+				return;
+			}
+			meters.releasedBytes.increment(segment.capacity);
+			try {
+				segment.channel.close();
+			}
+			catch (IOException e) {
+				Operators.onErrorDropped(e);
+			}
+		}
+
+		/**
+		 * Close the remaining segments, only called by the reader once the writer is
+		 * done or cancelled.
+		 */
+		void clear() {
+			queue.clear();
+			Segment segment = head;
+			if (segment == null) {
+				segment = first;
+			}
+			while (segment != null) {
+				close(segment);
+				segment = segment.next;
+			}
+			head = null;
+			first = null;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			drain();
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			int missed = 1;
+
+			final Subscriber<? super T> a = actual;
+			final Queue<T> q = queue;
+
+			for (; ; ) {
+
+				long r = requested;
+				long e = 0L;
+
+				while (r != e) {
+					if (cancelled) {
+						clear();
+						return;
+					}
+
+					boolean d = done;
+
+					//only the reader brings spilled back to 0: if values were spilled
+					//before the poll, no newer value can enter the queue until they are
+					//read back, otherwise a value spilled after the poll must wait for
+					//the one queued before it
+					long sp = spilled;
+					T t = q.poll();
+					if (t == null && sp != 0L) {
+						try {
+							t = readSpilled();
+						}
+						catch (Throwable ex) {
+							cancelled = true;
+							s.cancel();
+							clear();
+							a.onError(Operators.onOperatorError(ex));
+							return;
+						}
+					}
+					boolean empty = t == null;
+
+					if (d && empty) {
+						terminate(a);
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					a.onNext(t);
+
+					e++;
+				}
+
+				if (r == e) {
+					if (cancelled) {
+						clear();
+						return;
+					}
+					if (done && q.isEmpty() && spilled == 0L) {
+						terminate(a);
+						return;
+					}
+				}
+
+				if (e != 0 && r != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(this, -e);
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		void terminate(Subscriber<? super T> a) {
+			clear();
+			Throwable ex = error;
+			if (ex != null) {
+				a.onError(ex);
+			}
+			else {
+				a.onComplete();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+
+				s.cancel();
+
+				if (WIP.getAndIncrement(this) == 0) {
+					clear();
+				}
+			}
+		}
+
+		@Override
+		public Subscriber<? super T> actual() {
+			return actual;
+		}
+	}
+}
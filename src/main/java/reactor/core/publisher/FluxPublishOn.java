@@ -18,6 +18,7 @@ package reactor.core.publisher;
 
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Supplier;
@@ -32,6 +33,10 @@ import reactor.core.scheduler.Scheduler.Worker;
 
 /**
  * Emits events on a different thread specified by a scheduler callback.
+ * <p>
+ * Each run on the {@link Worker} drains the queue until it is empty, or up to a budget
+ * of values after which the drain is resubmitted to the {@link Worker}, letting other
+ * tasks of the {@link Worker} run in between.
  *
  * @param <T> the value type
  *
@@ -47,18 +52,58 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 	final int prefetch;
 
+	final int maxPrefetch;
+
+	final int budget;
+
+	FluxPublishOn(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int prefetch,
+			Supplier<? extends Queue<T>> queueSupplier) {
+		this(source, scheduler, delayError, prefetch, Integer.MAX_VALUE, queueSupplier);
+	}
+
 	FluxPublishOn(Flux<? extends T> source,
 			Scheduler scheduler,
 			boolean delayError,
 			int prefetch,
+			int budget,
+			Supplier<? extends Queue<T>> queueSupplier) {
+		this(source, scheduler, delayError, prefetch, prefetch, budget, queueSupplier);
+	}
+
+	/**
+	 * @param prefetch the initial and minimum prefetch
+	 * @param maxPrefetch the maximum prefetch, the prefetch adapts to the observed drain
+	 * rate between both bounds (see {@link AdaptivePrefetch}) when greater than
+	 * {@code prefetch}, the queue must then be able to hold that many values
+	 * @param budget the maximum number of values drained per run on the {@link Worker}
+	 * before rescheduling the drain, {@link Integer#MAX_VALUE} to drain until the queue
+	 * is empty
+	 */
+	FluxPublishOn(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int prefetch,
+			int maxPrefetch,
+			int budget,
 			Supplier<? extends Queue<T>> queueSupplier) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
+		if (maxPrefetch < prefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= prefetch required but it was " + maxPrefetch);
+		}
+		if (budget <= 0) {
+			throw new IllegalArgumentException("budget > 0 required but it was " + budget);
+		}
 		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
 		this.delayError = delayError;
 		this.prefetch = prefetch;
+		this.maxPrefetch = maxPrefetch;
+		this.budget = budget;
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 	}
 
@@ -88,6 +133,8 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 					worker,
 					delayError,
 					prefetch,
+					maxPrefetch,
+					budget,
 					queueSupplier));
 			return;
 		}
@@ -96,6 +143,8 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 				worker,
 				delayError,
 				prefetch,
+				maxPrefetch,
+				budget,
 				queueSupplier));
 	}
 
@@ -112,7 +161,11 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		final AdaptivePrefetch adaptive;
+
+		int limit;
+
+		final int budget;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -142,22 +195,42 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		boolean outputFused;
 
+		/**
+		 * The thread running the drain, only compared to the current thread so a stale
+		 * value is harmless
+		 */
+		Thread runner;
+
+		/**
+		 * Set when {@link #reschedule()} ran this drain inline on the {@link #runner}
+		 */
+		boolean rescheduled;
+
 		PublishOnSubscriber(Subscriber<? super T> actual,
 				Scheduler scheduler,
 				Worker worker,
 				boolean delayError,
 				int prefetch,
+				int maxPrefetch,
+				int budget,
 				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.budget = budget;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
+			if (maxPrefetch != prefetch) {
+				this.adaptive = new AdaptivePrefetch(prefetch, maxPrefetch);
+				this.limit = adaptive.limit;
+			}
+			else if (prefetch != Integer.MAX_VALUE) {
+				this.adaptive = null;
 				this.limit = prefetch - (prefetch >> 2);
 			}
 			else {
+				this.adaptive = null;
 				this.limit = Integer.MAX_VALUE;
 			}
 		}
@@ -290,6 +363,37 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 			return worker.schedule(this);
 		}
 
+		/**
+		 * Compute the amount to request from the source once {@link #limit} values have
+		 * been consumed, tuning the prefetch first if it is adaptive.
+		 */
+		long replenish(long n) {
+			AdaptivePrefetch ap = adaptive;
+			if (ap == null) {
+				return n;
+			}
+			n = ap.replenish(n, queue.size());
+			limit = ap.limit;
+			return n;
+		}
+
+		/**
+		 * Yield the {@link Worker} once the budget of a run is spent, submitting this
+		 * drain again while still holding the work-in-progress counter, so that signals
+		 * arriving meanwhile don't schedule another run. A {@link Worker} running the
+		 * task inline is trampolined by {@link #run()} rather than recursing.
+		 */
+		void reschedule() {
+			if (worker.schedule(this) == Scheduler.REJECTED) {
+				if (!cancelled) {
+					doError(actual,
+							Operators.onOperatorError(s,
+									new RejectedExecutionException("Scheduler unavailable")));
+				}
+				queue.clear();
+			}
+		}
+
 		void runSync() {
 			int missed = 1;
 
@@ -297,6 +401,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 			final Queue<T> q = queue;
 
 			long e = produced;
+			int run = 0;
 
 			for (; ; ) {
 
@@ -324,6 +429,11 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 					a.onNext(v);
 
 					e++;
+					if (++run == budget) {
+						produced = e;
+						reschedule();
+						return;
+					}
 				}
 
 				if (cancelled) {
@@ -356,6 +466,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 			final Queue<T> q = queue;
 
 			long e = produced;
+			int run = 0;
 
 			for (; ; ) {
 
@@ -394,9 +505,14 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 						if (r != Long.MAX_VALUE) {
 							r = REQUESTED.addAndGet(this, -e);
 						}
-						s.request(e);
+						s.request(replenish(e));
 						e = 0L;
 					}
+					if (++run == budget) {
+						produced = e;
+						reschedule();
+						return;
+					}
 				}
 
 				if (e == r && checkTerminated(done, q.isEmpty(), a)) {
@@ -468,14 +584,30 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		@Override
 		public void run() {
-			if (outputFused) {
-				runBackfused();
+			Thread current = Thread.currentThread();
+			if (runner == current) {
+				//rescheduled on a Worker running tasks inline, let the outer run continue
+				rescheduled = true;
+				return;
 			}
-			else if (sourceMode == Fuseable.SYNC) {
-				runSync();
+			runner = current;
+			try {
+				do {
+					rescheduled = false;
+					if (outputFused) {
+						runBackfused();
+					}
+					else if (sourceMode == Fuseable.SYNC) {
+						runSync();
+					}
+					else {
+						runAsync();
+					}
+				}
+				while (rescheduled);
 			}
-			else {
-				runAsync();
+			finally {
+				runner = null;
 			}
 		}
 
@@ -532,7 +664,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 				case DELAY_ERROR:
 					return delayError;
 				case PREFETCH:
-					return prefetch;
+					return adaptive != null ? adaptive.window : prefetch;
 			}
 			return InnerOperator.super.scan(key);
 		}
@@ -559,7 +691,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 				long p = produced + 1;
 				if (p == limit) {
 					produced = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					produced = p;
@@ -596,7 +728,11 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		final AdaptivePrefetch adaptive;
+
+		int limit;
+
+		final int budget;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -630,22 +766,42 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		boolean outputFused;
 
+		/**
+		 * The thread running the drain, only compared to the current thread so a stale
+		 * value is harmless
+		 */
+		Thread runner;
+
+		/**
+		 * Set when {@link #reschedule()} ran this drain inline on the {@link #runner}
+		 */
+		boolean rescheduled;
+
 		PublishOnConditionalSubscriber(ConditionalSubscriber<? super T> actual,
 				Scheduler scheduler,
 				Worker worker,
 				boolean delayError,
 				int prefetch,
+				int maxPrefetch,
+				int budget,
 				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.budget = budget;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
+			if (maxPrefetch != prefetch) {
+				this.adaptive = new AdaptivePrefetch(prefetch, maxPrefetch);
+				this.limit = adaptive.limit;
+			}
+			else if (prefetch != Integer.MAX_VALUE) {
+				this.adaptive = null;
 				this.limit = prefetch - (prefetch >> 2);
 			}
 			else {
+				this.adaptive = null;
 				this.limit = Integer.MAX_VALUE;
 			}
 		}
@@ -776,6 +932,37 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 			return worker.schedule(this);
 		}
 
+		/**
+		 * Compute the amount to request from the source once {@link #limit} values have
+		 * been consumed, tuning the prefetch first if it is adaptive.
+		 */
+		long replenish(long n) {
+			AdaptivePrefetch ap = adaptive;
+			if (ap == null) {
+				return n;
+			}
+			n = ap.replenish(n, queue.size());
+			limit = ap.limit;
+			return n;
+		}
+
+		/**
+		 * Yield the {@link Worker} once the budget of a run is spent, submitting this
+		 * drain again while still holding the work-in-progress counter, so that signals
+		 * arriving meanwhile don't schedule another run. A {@link Worker} running the
+		 * task inline is trampolined by {@link #run()} rather than recursing.
+		 */
+		void reschedule() {
+			if (worker.schedule(this) == Scheduler.REJECTED) {
+				if (!cancelled) {
+					doError(actual,
+							Operators.onOperatorError(s,
+									new RejectedExecutionException("Scheduler unavailable")));
+				}
+				queue.clear();
+			}
+		}
+
 		void runSync() {
 			int missed = 1;
 
@@ -783,6 +970,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 			final Queue<T> q = queue;
 
 			long e = produced;
+			int run = 0;
 
 			for (; ; ) {
 
@@ -809,6 +997,11 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 					if (a.tryOnNext(v)) {
 						e++;
 					}
+					if (++run == budget) {
+						produced = e;
+						reschedule();
+						return;
+					}
 				}
 
 				if (cancelled) {
@@ -842,6 +1035,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 			long emitted = produced;
 			long polled = consumed;
+			int run = 0;
 
 			for (; ; ) {
 
@@ -878,9 +1072,15 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 					polled++;
 
 					if (polled == limit) {
-						s.request(polled);
+						s.request(replenish(polled));
 						polled = 0L;
 					}
+					if (++run == budget) {
+						produced = emitted;
+						consumed = polled;
+						reschedule();
+						return;
+					}
 				}
 
 				if (emitted == r && checkTerminated(done, q.isEmpty(), a)) {
@@ -936,14 +1136,30 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 
 		@Override
 		public void run() {
-			if (outputFused) {
-				runBackfused();
+			Thread current = Thread.currentThread();
+			if (runner == current) {
+				//rescheduled on a Worker running tasks inline, let the outer run continue
+				rescheduled = true;
+				return;
 			}
-			else if (sourceMode == Fuseable.SYNC) {
-				runSync();
+			runner = current;
+			try {
+				do {
+					rescheduled = false;
+					if (outputFused) {
+						runBackfused();
+					}
+					else if (sourceMode == Fuseable.SYNC) {
+						runSync();
+					}
+					else {
+						runAsync();
+					}
+				}
+				while (rescheduled);
 			}
-			else {
-				runAsync();
+			finally {
+				runner = null;
 			}
 		}
 
@@ -970,7 +1186,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 				case DELAY_ERROR:
 					return delayError;
 				case PREFETCH:
-					return prefetch;
+					return adaptive != null ? adaptive.window : prefetch;
 			}
 			return InnerOperator.super.scan(key);
 		}
@@ -1045,7 +1261,7 @@ final class FluxPublishOn<T> extends FluxSource<T, T> implements Fuseable {
 				long p = consumed + 1;
 				if (p == limit) {
 					consumed = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					consumed = p;
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.nio.file.Path;
 import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +34,7 @@ import reactor.core.Disposable;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.scheduler.Scheduler;
+import reactor.util.Codec;
 import reactor.util.concurrent.QueueSupplier;
 
 /**
@@ -45,6 +47,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 	final int            history;
 	final long           ttl;
 	final Scheduler scheduler;
+	final Codec<T>       codec;
+	final Path           directory;
 
 	volatile ReplaySubscriber<T> connection;
 
@@ -963,6 +967,21 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			int history,
 			long ttl,
 			Scheduler scheduler) {
+		this(source, history, ttl, scheduler, null, null);
+	}
+
+	/**
+	 * @param codec the {@link Codec} to keep the history off-heap, null to keep it in
+	 * heap nodes
+	 * @param directory the directory of the memory-mapped history segments, null to use
+	 * direct buffers, ignored without a codec
+	 */
+	FluxReplay(Publisher<T> source,
+			int history,
+			long ttl,
+			Scheduler scheduler,
+			Codec<T> codec,
+			Path directory) {
 		this.source = Objects.requireNonNull(source, "source");
 		this.history = history;
 		if(history < 0){
@@ -973,6 +992,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		}
 		this.ttl = ttl;
 		this.scheduler = scheduler;
+		this.codec = codec;
+		this.directory = directory;
 	}
 
 	@Override
@@ -981,6 +1002,14 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 	}
 
 	ReplaySubscriber<T> newState() {
+		if (codec != null) {
+			return new ReplaySubscriber<>(new OffHeapReplayBuffer<>(codec,
+					history,
+					ttl,
+					scheduler,
+					directory),
+					this);
+		}
 		if (scheduler != null) {
 			return new ReplaySubscriber<>(new SizeAndTimeBoundReplayBuffer<>(history,
 					ttl,
@@ -1113,7 +1142,13 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 				Operators.onNextDropped(t);
 			}
 			else {
-				b.add(t);
+				try {
+					b.add(t);
+				}
+				catch (Throwable ex) {
+					onError(Operators.onOperatorError(s, ex, t));
+					return;
+				}
 				for (ReplaySubscription<T> rs : subscribers) {
 					b.replay(rs);
 				}
@@ -95,4 +95,24 @@ public class FluxSource<I, O> extends Flux<O> implements Scannable {
 			super(source);
 		}
 	}
+
+	/**
+	 * A fuseable {@link FluxSource} reporting the prefetch requested for the operator it
+	 * stands for, eg. a combination resolved at assembly time.
+	 */
+	static final class PrefetchFluxSource<I> extends FluxSource<I, I>
+			implements Fuseable {
+
+		final int prefetch;
+
+		PrefetchFluxSource(Publisher<? extends I> source, int prefetch) {
+			super(source);
+			this.prefetch = prefetch;
+		}
+
+		@Override
+		public int getPrefetch() {
+			return prefetch;
+		}
+	}
 }
@@ -35,6 +35,7 @@ import reactor.core.Disposable;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
+import reactor.util.function.Tuples;
 
 
 /**
@@ -527,6 +528,18 @@ final class FluxZip<T, R> extends Flux<R> {
 
 		final Object[] current;
 
+		/**
+		 * The view over {@link #current} passed to a {@link RowZipper}, null for the
+		 * other zippers.
+		 */
+		final ArrayZipRow row;
+
+		/**
+		 * True if the zipper doesn't retain the array it is given, which can then be
+		 * reused for the next combination instead of being cloned.
+		 */
+		final boolean reuseValues;
+
 		ZipCoordinator(Subscriber<? super R> actual,
 				Function<? super Object[], ? extends R> zipper,
 				int n,
@@ -540,6 +553,18 @@ final class FluxZip<T, R> extends Flux<R> {
 			}
 			this.current = new Object[n];
 			this.subscribers = a;
+			this.row = zipper instanceof RowZipper ? new ArrayZipRow(current) : null;
+			this.reuseValues = row != null
+					|| zipper instanceof PairwiseZipper
+					|| zipper == Tuples.fnAny();
+		}
+
+		@SuppressWarnings("unchecked")
+		R combine(Object[] values) {
+			if (row != null) {
+				return ((RowZipper<R>) zipper).combinator.apply(row);
+			}
+			return zipper.apply(reuseValues ? values : values.clone());
 		}
 
 		void subscribe(Publisher<? extends T>[] sources, int n) {
@@ -687,7 +712,7 @@ final class FluxZip<T, R> extends Flux<R> {
 
 					R v;
 					try {
-						v = Objects.requireNonNull(zipper.apply(values.clone()),
+						v = Objects.requireNonNull(combine(values),
 								"The zipper returned a null value");
 					}
 					catch (Throwable ex) {
@@ -952,4 +977,55 @@ final class FluxZip<T, R> extends Flux<R> {
 			return new PairwiseZipper(newZippers);
 		}
 	}
+
+	/**
+	 * A zipper handing the combined values to its combinator as a {@link ZipRow}, so
+	 * that the {@link ZipCoordinator} can pass a reused view over its current values
+	 * instead of a copy of them.
+	 *
+	 * @param <R> the combined type
+	 */
+	static final class RowZipper<R> implements Function<Object[], R> {
+
+		final Function<? super ZipRow, ? extends R> combinator;
+
+		RowZipper(Function<? super ZipRow, ? extends R> combinator) {
+			this.combinator = Objects.requireNonNull(combinator, "combinator");
+		}
+
+		@Override
+		public R apply(Object[] args) {
+			return combinator.apply(new ArrayZipRow(args));
+		}
+	}
+
+	static final class ArrayZipRow implements ZipRow {
+
+		final Object[] values;
+
+		ArrayZipRow(Object[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <V> V get(int index) {
+			return (V) values[index];
+		}
+
+		@Override
+		public Object[] toArray() {
+			return values.clone();
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(values);
+		}
+	}
 }
@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import reactor.core.publisher.FluxGroupBy.UnicastGroupedFlux;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * An open-addressing table of the groups of a {@link FluxGroupBy}, keyed by the key
+ * extracted from each source value. Variants specialized for {@code int} and
+ * {@code long} keys store the keys unboxed and extract them without boxing, so looking
+ * up the group of a value doesn't allocate.
+ * <p>
+ * The table is not thread-safe: it is only mutated from the thread signalling the
+ * source values. {@link #stream()} is a best-effort snapshot that can be taken from
+ * any thread.
+ *
+ * @param <T> the source value type
+ * @param <K> the key type
+ * @param <V> the group value type
+ */
+abstract class GroupTable<T, K, V> {
+
+	static final int   INITIAL_CAPACITY = 16;
+	static final float LOAD_FACTOR      = 0.75f;
+
+	/**
+	 * Create a table of groups keyed by arbitrary objects.
+	 *
+	 * @param keySelector the key extractor
+	 * @return a {@link Supplier} of tables, one per subscription
+	 */
+	static <T, K, V> Supplier<GroupTable<T, K, V>> objectKeys(Function<? super T, ?
+			extends K> keySelector) {
+		Objects.requireNonNull(keySelector, "keySelector");
+		return () -> new ObjectKeys<>(keySelector);
+	}
+
+	/**
+	 * Create a table of groups keyed by {@code int}.
+	 *
+	 * @param keySelector the key extractor
+	 * @return a {@link Supplier} of tables, one per subscription
+	 */
+	static <T, V> Supplier<GroupTable<T, Integer, V>> intKeys(ToIntFunction<? super T> keySelector) {
+		Objects.requireNonNull(keySelector, "keySelector");
+		return () -> new IntKeys<>(keySelector);
+	}
+
+	/**
+	 * Create a table of groups keyed by {@code long}.
+	 *
+	 * @param keySelector the key extractor
+	 * @return a {@link Supplier} of tables, one per subscription
+	 */
+	static <T, V> Supplier<GroupTable<T, Long, V>> longKeys(ToLongFunction<? super T> keySelector) {
+		Objects.requireNonNull(keySelector, "keySelector");
+		return () -> new LongKeys<>(keySelector);
+	}
+
+	UnicastGroupedFlux<K, V>[] groups;
+	int                        mask;
+	int                        maxSize;
+	int                        size;
+
+	/**
+	 * The slot of the last key looked up by {@link #find(Object)} and not found
+	 */
+	int free;
+
+	GroupTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Extract the key of the given value and return its group. The key is retained
+	 * until the next call, so that {@link #key()} and {@link #add(UnicastGroupedFlux)}
+	 * can create and insert the group if it's missing.
+	 *
+	 * @param t the source value
+	 * @return the group of the value or null
+	 */
+	abstract UnicastGroupedFlux<K, V> find(T t);
+
+	/**
+	 * @return the last key extracted by {@link #find(Object)}
+	 */
+	abstract K key();
+
+	/**
+	 * Insert a group for the last key that {@link #find(Object)} didn't find.
+	 *
+	 * @param g the new group
+	 */
+	final void add(UnicastGroupedFlux<K, V> g) {
+		setKey(free);
+		groups[free] = g;
+		if (++size >= maxSize) {
+			resize(groups.length << 1);
+		}
+	}
+
+	/**
+	 * Remove the given group if it is still the group of its key.
+	 *
+	 * @param g the group to remove
+	 * @return true if removed
+	 */
+	final boolean remove(UnicastGroupedFlux<K, V> g) {
+		UnicastGroupedFlux<K, V>[] a = groups;
+		int m = mask;
+		int pos = slotOf(g) & m;
+		for (; ; ) {
+			UnicastGroupedFlux<K, V> curr = a[pos];
+			if (curr == null) {
+				return false;
+			}
+			if (curr == g) {
+				removeAt(pos);
+				if (size < maxSize >> 3 && a.length > INITIAL_CAPACITY) {
+					resize(a.length >> 1);
+				}
+				return true;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	final void removeAt(int pos) {
+		UnicastGroupedFlux<K, V>[] a = groups;
+		int m = mask;
+		size--;
+
+		int last;
+		int slot;
+		for (; ; ) {
+			last = pos;
+			pos = (pos + 1) & m;
+			for (; ; ) {
+				if (a[pos] == null) {
+					a[last] = null;
+					return;
+				}
+				slot = hashAt(pos) & m;
+
+				if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+					break;
+				}
+
+				pos = (pos + 1) & m;
+			}
+			a[last] = a[pos];
+			moveKey(pos, last);
+		}
+	}
+
+	/**
+	 * Remove and return the groups matching the given predicate.
+	 *
+	 * @param predicate the removal condition
+	 * @return the removed groups
+	 */
+	final List<UnicastGroupedFlux<K, V>> removeIf(Predicate<? super UnicastGroupedFlux<K, V>> predicate) {
+		List<UnicastGroupedFlux<K, V>> removed = null;
+		for (UnicastGroupedFlux<K, V> g : groups) {
+			if (g != null && predicate.test(g)) {
+				if (removed == null) {
+					removed = new ArrayList<>();
+				}
+				removed.add(g);
+			}
+		}
+		if (removed == null) {
+			return Collections.emptyList();
+		}
+		for (UnicastGroupedFlux<K, V> g : removed) {
+			remove(g);
+		}
+		return removed;
+	}
+
+	final void forEach(Consumer<? super UnicastGroupedFlux<K, V>> action) {
+		for (UnicastGroupedFlux<K, V> g : groups) {
+			if (g != null) {
+				action.accept(g);
+			}
+		}
+	}
+
+	final void clear() {
+		Arrays.fill(groups, null);
+		size = 0;
+	}
+
+	final int size() {
+		return size;
+	}
+
+	/**
+	 * @return a best-effort snapshot of the groups, safe to take from any thread
+	 */
+	final Stream<UnicastGroupedFlux<K, V>> stream() {
+		UnicastGroupedFlux<K, V>[] a = groups;
+		return Arrays.stream(Arrays.copyOf(a, a.length))
+		             .filter(Objects::nonNull);
+	}
+
+	final void resize(int capacity) {
+		UnicastGroupedFlux<K, V>[] a = groups;
+		Object oldKeys = keys();
+		allocate(capacity);
+
+		UnicastGroupedFlux<K, V>[] b = groups;
+		int m = mask;
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] != null) {
+				int pos = hashAt(oldKeys, a, i) & m;
+				while (b[pos] != null) {
+					pos = (pos + 1) & m;
+				}
+				b[pos] = a[i];
+				copyKey(oldKeys, i, pos);
+			}
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void allocate(int capacity) {
+		int c = QueueSupplier.ceilingNextPowerOfTwo(capacity);
+		this.groups = new UnicastGroupedFlux[c];
+		this.mask = c - 1;
+		this.maxSize = (int) (LOAD_FACTOR * c);
+	}
+
+	/**
+	 * @return the slot hash of the key of the given group
+	 */
+	abstract int slotOf(UnicastGroupedFlux<K, V> g);
+
+	/**
+	 * @return the slot hash of the key at the given position
+	 */
+	final int hashAt(int pos) {
+		return hashAt(keys(), groups, pos);
+	}
+
+	abstract int hashAt(Object keys, UnicastGroupedFlux<K, V>[] groups, int pos);
+
+	/**
+	 * Store the last key found missing at the given position.
+	 */
+	abstract void setKey(int pos);
+
+	abstract void moveKey(int from, int to);
+
+	abstract void copyKey(Object fromKeys, int from, int to);
+
+	/**
+	 * @return the current key storage
+	 */
+	abstract Object keys();
+
+	static int mix(int x) {
+		final int h = x * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	static final class ObjectKeys<T, K, V> extends GroupTable<T, K, V> {
+
+		final Function<? super T, ? extends K> keySelector;
+
+		K current;
+
+		ObjectKeys(Function<? super T, ? extends K> keySelector) {
+			this.keySelector = keySelector;
+		}
+
+		@Override
+		UnicastGroupedFlux<K, V> find(T t) {
+			K k = Objects.requireNonNull(keySelector.apply(t),
+					"The keySelector returned a null value");
+			current = k;
+			UnicastGroupedFlux<K, V>[] a = groups;
+			int m = mask;
+			int pos = mix(k.hashCode()) & m;
+			for (; ; ) {
+				UnicastGroupedFlux<K, V> g = a[pos];
+				if (g == null) {
+					free = pos;
+					return null;
+				}
+				if (k.equals(g.key)) {
+					return g;
+				}
+				pos = (pos + 1) & m;
+			}
+		}
+
+		@Override
+		K key() {
+			return current;
+		}
+
+		@Override
+		int slotOf(UnicastGroupedFlux<K, V> g) {
+			return mix(g.key.hashCode());
+		}
+
+		@Override
+		int hashAt(Object keys, UnicastGroupedFlux<K, V>[] groups, int pos) {
+			//keys are held by the groups themselves
+			return mix(groups[pos].key.hashCode());
+		}
+
+		@Override
+		void setKey(int pos) {
+		}
+
+		@Override
+		void moveKey(int from, int to) {
+		}
+
+		@Override
+		void copyKey(Object fromKeys, int from, int to) {
+		}
+
+		@Override
+		Object keys() {
+			return null;
+		}
+	}
+
+	static final class IntKeys<T, V> extends GroupTable<T, Integer, V> {
+
+		final ToIntFunction<? super T> keySelector;
+
+		int[] keys;
+		int   current;
+
+		IntKeys(ToIntFunction<? super T> keySelector) {
+			this.keySelector = keySelector;
+		}
+
+		@Override
+		void allocate(int capacity) {
+			super.allocate(capacity);
+			this.keys = new int[groups.length];
+		}
+
+		@Override
+		UnicastGroupedFlux<Integer, V> find(T t) {
+			int k = keySelector.applyAsInt(t);
+			current = k;
+			UnicastGroupedFlux<Integer, V>[] a = groups;
+			int[] ks = keys;
+			int m = mask;
+			int pos = mix(k) & m;
+			for (; ; ) {
+				UnicastGroupedFlux<Integer, V> g = a[pos];
+				if (g == null) {
+					free = pos;
+					return null;
+				}
+				if (ks[pos] == k) {
+					return g;
+				}
+				pos = (pos + 1) & m;
+			}
+		}
+
+		@Override
+		Integer key() {
+			return current;
+		}
+
+		@Override
+		int slotOf(UnicastGroupedFlux<Integer, V> g) {
+			return mix(g.key);
+		}
+
+		@Override
+		int hashAt(Object keys, UnicastGroupedFlux<Integer, V>[] groups, int pos) {
+			return mix(((int[]) keys)[pos]);
+		}
+
+		@Override
+		void setKey(int pos) {
+			keys[pos] = current;
+		}
+
+		@Override
+		void moveKey(int from, int to) {
+			keys[to] = keys[from];
+		}
+
+		@Override
+		void copyKey(Object fromKeys, int from, int to) {
+			keys[to] = ((int[]) fromKeys)[from];
+		}
+
+		@Override
+		Object keys() {
+			return keys;
+		}
+	}
+
+	static final class LongKeys<T, V> extends GroupTable<T, Long, V> {
+
+		final ToLongFunction<? super T> keySelector;
+
+		long[] keys;
+		long   current;
+
+		LongKeys(ToLongFunction<? super T> keySelector) {
+			this.keySelector = keySelector;
+		}
+
+		@Override
+		void allocate(int capacity) {
+			super.allocate(capacity);
+			this.keys = new long[groups.length];
+		}
+
+		@Override
+		UnicastGroupedFlux<Long, V> find(T t) {
+			long k = keySelector.applyAsLong(t);
+			current = k;
+			UnicastGroupedFlux<Long, V>[] a = groups;
+			long[] ks = keys;
+			int m = mask;
+			int pos = mix(Long.hashCode(k)) & m;
+			for (; ; ) {
+				UnicastGroupedFlux<Long, V> g = a[pos];
+				if (g == null) {
+					free = pos;
+					return null;
+				}
+				if (ks[pos] == k) {
+					return g;
+				}
+				pos = (pos + 1) & m;
+			}
+		}
+
+		@Override
+		Long key() {
+			return current;
+		}
+
+		@Override
+		int slotOf(UnicastGroupedFlux<Long, V> g) {
+			return mix(Long.hashCode(g.key));
+		}
+
+		@Override
+		int hashAt(Object keys, UnicastGroupedFlux<Long, V>[] groups, int pos) {
+			return mix(Long.hashCode(((long[]) keys)[pos]));
+		}
+
+		@Override
+		void setKey(int pos) {
+			keys[pos] = current;
+		}
+
+		@Override
+		void moveKey(int from, int to) {
+			keys[to] = keys[from];
+		}
+
+		@Override
+		void copyKey(Object fromKeys, int from, int to) {
+			keys[to] = ((long[]) fromKeys)[from];
+		}
+
+		@Override
+		Object keys() {
+			return keys;
+		}
+	}
+}
@@ -28,8 +28,11 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import reactor.core.Fuseable;
+import reactor.core.publisher.FluxOnAssembly.AssemblyCallSiteSnapshotException;
+import reactor.core.publisher.FluxOnAssembly.AssemblySnapshotException;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import reactor.util.Metrics;
 
 
 /**
@@ -197,25 +200,25 @@ public abstract class Hooks {
 			if (publisher instanceof Mono) {
 				if (publisher instanceof Fuseable) {
 					return new OperatorHook<>(new MonoLogFuseable<>((Mono)publisher, log),
-							traced, tracedCategory, tracedLevel, tracedSignals);
+							traced, tracedCallSite, tracedCategory, tracedLevel, tracedSignals);
 				}
 				else {
 					return new OperatorHook<>(new MonoLog<>((Mono)publisher, log), traced
-							, tracedCategory, tracedLevel, tracedSignals);
+							, tracedCallSite, tracedCategory, tracedLevel, tracedSignals);
 				}
 			}
 			else if (publisher instanceof ParallelFlux) {
 				return new OperatorHook<>(new ParallelLog<>((ParallelFlux<T>) publisher, log), traced
-						, tracedCategory, tracedLevel, tracedSignals);
+						, tracedCallSite, tracedCategory, tracedLevel, tracedSignals);
 			}
 			else if (publisher instanceof Fuseable) {
 				return new OperatorHook<>(new FluxLogFuseable<>((Flux<T>)publisher, log), traced
-						, tracedCategory, tracedLevel,
+						, tracedCallSite, tracedCategory, tracedLevel,
 						tracedSignals);
 			}
 			else {
 				return new OperatorHook<>(new FluxLog<>((Flux<T>)publisher,log), traced
-						, tracedCategory, tracedLevel, tracedSignals);
+						, tracedCallSite, tracedCategory, tracedLevel, tracedSignals);
 			}
 		}
 
@@ -435,9 +438,82 @@ public abstract class Hooks {
 		public OperatorHook<T> operatorStacktrace(){
 			if(this == IGNORE) return this;
 			traced = true;
+			tracedCallSite = false;
 			return this;
 		}
 
+		/**
+		 * Enable operator call site recorder that captures a compact identifier of the
+		 * declaration site (the operator method and its caller) whenever an operator is
+		 * instantiated. When errors are observed later on, they will be enriched with a
+		 * Suppressed Exception detailing the assembly call site.
+		 * <p>
+		 * Unlike {@link #operatorStacktrace()}, no stack trace is filled: only the few
+		 * frames needed to locate the call site are walked, and call sites are shared
+		 * by all the operators assembled at the same location. The traceback is only
+		 * formatted when an error is observed, which makes this mode suitable for
+		 * always-on tracing.
+		 *
+		 * @return a operator call site capturing {@link OperatorHook}
+		 */
+		public OperatorHook<T> operatorCallSite(){
+			if(this == IGNORE) return this;
+			traced = true;
+			tracedCallSite = true;
+			return this;
+		}
+
+		/**
+		 * Report the signals of the hooked operator to meters of the current
+		 * {@link Metrics#getRegistry() metrics registry}, named with a
+		 * {@code reactor.operator} prefix and tagged with the operator name (eg.
+		 * {@code operator=flatmap}).
+		 *
+		 * @return an instrumented {@link OperatorHook}
+		 * @see Flux#metrics(String, String...)
+		 */
+		public OperatorHook<T> metrics(){
+			if(this == IGNORE) return this;
+			String operator = publisher.getClass()
+			                           .getSimpleName()
+			                           .replaceAll("Flux|Mono|Parallel|Fuseable", "")
+			                           .toLowerCase();
+			return metrics("reactor.operator", "operator", operator);
+		}
+
+		/**
+		 * Report the signals of the hooked operator to meters of the current
+		 * {@link Metrics#getRegistry() metrics registry}, prefixed by the given name.
+		 * {@link ParallelFlux} and {@link ConnectableFlux} are not instrumented.
+		 *
+		 * @param name the prefix of the meter names
+		 * @param tags alternating tag keys and values to attach to the meters
+		 *
+		 * @return an instrumented {@link OperatorHook}
+		 * @see Flux#metrics(String, String...)
+		 */
+		public OperatorHook<T> metrics(String name, String... tags){
+			if(this == IGNORE || publisher instanceof ConnectableFlux
+					|| publisher instanceof ParallelFlux) {
+				return this;
+			}
+			FluxMetrics.Meters meters =
+					new FluxMetrics.Meters(Metrics.getRegistry(), name, tags);
+			Publisher<T> p;
+			if (publisher instanceof Mono) {
+				p = publisher instanceof Fuseable ?
+						new MonoMetricsFuseable<>(publisher, meters) :
+						new MonoMetrics<>(publisher, meters);
+			}
+			else {
+				p = publisher instanceof Fuseable ?
+						new FluxMetricsFuseable<>(publisher, meters) :
+						new FluxMetrics<>(publisher, meters);
+			}
+			return new OperatorHook<>(p, traced, tracedCallSite, tracedCategory, tracedLevel,
+					tracedSignals);
+		}
+
 		/**
 		 * The publisher being decorated
 		 *
@@ -456,14 +532,16 @@ public abstract class Hooks {
 		SignalType[] tracedSignals;
 
 		boolean traced;
+		boolean tracedCallSite;
 
 		OperatorHook(Publisher<T> p) {
-			this(p, false, null, null, null);
+			this(p, false, false, null, null, null);
 		}
 
-		OperatorHook(Publisher<T> p, boolean traced, String tracedCategory, Level
-				tracedLevel, SignalType[] tracedSignals) {
+		OperatorHook(Publisher<T> p, boolean traced, boolean tracedCallSite,
+				String tracedCategory, Level tracedLevel, SignalType[] tracedSignals) {
 			this.traced = traced;
+			this.tracedCallSite = tracedCallSite;
 			this.publisher = p;
 			this.tracedSignals = tracedSignals;
 			this.tracedLevel = tracedLevel;
@@ -482,9 +560,16 @@ public abstract class Hooks {
 				Boolean.parseBoolean(System.getProperty("reactor.trace" + ".operatorStacktrace",
 						"false"));
 
+		boolean globalCallSiteTrace =
+				Boolean.parseBoolean(System.getProperty("reactor.trace.operatorCallSite",
+						"false"));
+
 		if (globalTrace) {
 			onOperatorHook = new OnOperatorHook<>(OperatorHook::operatorStacktrace);
 		}
+		else if (globalCallSiteTrace) {
+			onOperatorHook = new OnOperatorHook<>(OperatorHook::operatorCallSite);
+		}
 	}
 
 	Hooks() {
@@ -520,19 +605,22 @@ public abstract class Hooks {
 					boolean trace = hooks.traced;
 
 					if (trace){
+						AssemblySnapshotException snapshot = hooks.tracedCallSite ?
+								new AssemblyCallSiteSnapshotException(null) :
+								new AssemblySnapshotException();
 						if (publisher instanceof Callable) {
 							if (publisher instanceof Mono) {
-								return new MonoCallableOnAssembly<>((Mono<T>)publisher);
+								return new MonoCallableOnAssembly<>((Mono<T>)publisher, snapshot);
 							}
-							return new FluxCallableOnAssembly<>((Flux<T>)publisher);
+							return new FluxCallableOnAssembly<>((Flux<T>)publisher, snapshot);
 						}
 						if (publisher instanceof Mono) {
-							return new MonoOnAssembly<>((Mono<T>)publisher);
+							return new MonoOnAssembly<>((Mono<T>)publisher, snapshot);
 						}
 						if (publisher instanceof ParallelFlux){
-							return new ParallelFluxOnAssembly<>((ParallelFlux<T>) publisher);
+							return new ParallelFluxOnAssembly<>((ParallelFlux<T>) publisher, snapshot);
 						}
-						return new FluxOnAssembly<>((Flux<T>)publisher);
+						return new FluxOnAssembly<>((Flux<T>)publisher, snapshot);
 					}
 					return publisher;
 				}
@@ -0,0 +1,725 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.Codec;
+
+/**
+ * A processor appending the values it receives to a journal of memory-mapped segment
+ * files, encoded by a {@link Codec}, and replaying them to its subscribers.
+ * <p>
+ * Unlike {@link TopicProcessor}, the history outlives the processor: creating a
+ * {@link JournalProcessor} on a directory that already holds segments recovers them,
+ * and the appends continue after the last complete record. Each record is identified
+ * by its offset, starting at 0 for the first record of a new journal, so that a
+ * consumer can store the offset of the last value it processed and resume with
+ * {@link #from(long)}.
+ * <p>
+ * Segments are named after the offset of their first record and rolled once full.
+ * Only the given number of segments is retained, the oldest files being deleted as new
+ * ones are created; a subscriber lagging behind keeps reading from the mapping of the
+ * segment it holds. Values are decoded from a read-only view of the mapped segment,
+ * without being copied to the heap first.
+ * <p>
+ * Like {@link ReplayProcessor}, the processor expects to be signalled serially and
+ * replays on the thread signalling it or requesting from it, without blocking the
+ * writer. Appends are visible to subscribers immediately but only forced to the storage
+ * device when a segment is rolled, on {@link #onComplete()} and on {@link #flush()}.
+ * The terminal signals are not journaled.
+ *
+ * @param <T> the value type
+ */
+public final class JournalProcessor<T> extends FluxProcessor<T, T> {
+
+	/**
+	 * Create a new {@link JournalProcessor} in the given directory, with 1MB segments
+	 * and an unbounded retention.
+	 *
+	 * @param directory the directory of the segment files
+	 * @param codec the {@link Codec} of the journaled values
+	 * @param <T> the type of values observed and emitted by the Processor
+	 *
+	 * @return a new {@link JournalProcessor}
+	 */
+	public static <T> JournalProcessor<T> create(Path directory, Codec<T> codec) {
+		return create(directory, codec, DEFAULT_SEGMENT_SIZE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create a new {@link JournalProcessor} in the given directory, recovering the
+	 * segments it already holds.
+	 *
+	 * @param directory the directory of the segment files
+	 * @param codec the {@link Codec} of the journaled values
+	 * @param segmentSize the size in bytes of each segment, a segment being larger only
+	 * to hold a single larger record
+	 * @param maxSegments the maximum number of segments retained,
+	 * {@link Integer#MAX_VALUE} for an unbounded retention
+	 * @param <T> the type of values observed and emitted by the Processor
+	 *
+	 * @return a new {@link JournalProcessor}
+	 *
+	 * @throws UncheckedIOException if the existing segments can't be read or the first
+	 * one can't be created
+	 */
+	public static <T> JournalProcessor<T> create(Path directory,
+			Codec<T> codec,
+			int segmentSize,
+			int maxSegments) {
+		if (segmentSize <= HEADER) {
+			throw new IllegalArgumentException("segmentSize > " + HEADER + " required but it was " + segmentSize);
+		}
+		if (maxSegments <= 0) {
+			throw new IllegalArgumentException("maxSegments > 0 required but it was " + maxSegments);
+		}
+		return new JournalProcessor<>(Objects.requireNonNull(directory, "directory"),
+				Objects.requireNonNull(codec, "codec"),
+				segmentSize,
+				maxSegments);
+	}
+
+	/**
+	 * The length of each record plus one, so the zero-filled end of a segment is never
+	 * mistaken for an empty record
+	 */
+	static final int HEADER = 4;
+
+	static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+	static final String SUFFIX = ".journal";
+
+	static final class Segment {
+
+		/**
+		 * The mapping of the file, only replaced by the writer to grow an empty segment
+		 */
+		volatile MappedByteBuffer buffer;
+
+		/**
+		 * The offset of the first record of this segment
+		 */
+		final long base;
+
+		final Path file;
+
+		/**
+		 * The position of the next record, only used by the writer
+		 */
+		int position;
+
+		volatile Segment next;
+
+		Segment(MappedByteBuffer buffer, long base, Path file) {
+			this.buffer = buffer;
+			this.base = base;
+			this.file = file;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	static final JournalInner[] EMPTY = new JournalInner[0];
+
+	final Path     directory;
+	final Codec<T> codec;
+	final int      segmentSize;
+	final int      maxSegments;
+
+	/**
+	 * The offset of the last appended record, published once the record is written
+	 */
+	final RingBuffer.Sequence cursor;
+
+	volatile Segment head;
+
+	Segment tail;
+	int     segments;
+
+	@SuppressWarnings("unchecked")
+	volatile JournalInner<T>[] subscribers = EMPTY;
+
+	Subscription subscription;
+
+	Throwable error;
+	volatile boolean done;
+
+	JournalProcessor(Path directory, Codec<T> codec, int segmentSize, int maxSegments) {
+		this.directory = directory;
+		this.codec = codec;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		try {
+			Files.createDirectories(directory);
+			this.cursor = RingBuffer.newSequence(recover() - 1L);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Map the existing segments, evicting the oldest ones past the retention, and scan
+	 * the last one, or create the first one.
+	 *
+	 * @return the offset of the next record
+	 */
+	long recover() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> s = Files.list(directory)) {
+			s.filter(p -> p.getFileName()
+			               .toString()
+			               .endsWith(SUFFIX))
+			 .sorted()
+			 .forEach(files::add);
+		}
+
+		Segment last = null;
+		for (Path file : files) {
+			Segment s = new Segment(map(file, -1L, false), baseOf(file), file);
+			if (last == null) {
+				head = s;
+			}
+			else {
+				last.next = s;
+			}
+			last = s;
+			segments++;
+		}
+		//retention may have been lowered, or a crash happened between a roll and the
+		//eviction
+		while (segments > maxSegments) {
+			evictFirst();
+		}
+
+		if (last == null) {
+			last = allocate(0L, segmentSize);
+			head = last;
+			segments = 1;
+			tail = last;
+			return 0L;
+		}
+
+		tail = last;
+		long offset = last.base;
+		MappedByteBuffer b = last.buffer;
+		int position = 0;
+		for (; ; ) {
+			if (position + HEADER > b.capacity()) {
+				break;
+			}
+			int h = b.getInt(position);
+			//zero-filled end or a record truncated by a crash
+			if (h <= 0 || position + HEADER + h - 1 > b.capacity()) {
+				break;
+			}
+			position += HEADER + h - 1;
+			offset++;
+		}
+		last.position = position;
+		return offset;
+	}
+
+	static long baseOf(Path file) {
+		String name = file.getFileName()
+		                  .toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalStateException("Not a journal segment: " + file, e);
+		}
+	}
+
+	Segment allocate(long base, int capacity) throws IOException {
+		Path file = directory.resolve(String.format("%019d%s", base, SUFFIX));
+		return new Segment(map(file, capacity, true), base, file);
+	}
+
+	/**
+	 * @param size the size to map, growing the file if needed, or -1 to map the whole
+	 * existing file
+	 * @param create true to create a new file
+	 */
+	static MappedByteBuffer map(Path file, long size, boolean create) throws IOException {
+		try (FileChannel channel = create ? FileChannel.open(file,
+				StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE) : FileChannel.open(file,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE,
+					0,
+					size < 0 ? channel.size() : size);
+		}
+	}
+
+	void append(T value) throws IOException {
+		ByteBuffer data = codec.encode(value);
+		int length = data.remaining();
+		int recordSize = HEADER + length;
+		long offset = cursor.getAsLong() + 1L;
+
+		Segment t = tail;
+		if (t.position + recordSize > t.buffer.capacity()) {
+			if (t.position == 0) {
+				//an empty tail, new or recovered, grows rather than rolls to a file of
+				//the same name
+				t.buffer = map(t.file, recordSize, false);
+				write(t, length, data);
+				cursor.set(offset);
+				return;
+			}
+			Segment n = allocate(offset, Math.max(segmentSize, recordSize));
+			write(n, length, data);
+			t.buffer.force();
+			t.next = n;
+			tail = n;
+			segments++;
+			while (segments > maxSegments) {
+				evictFirst();
+			}
+		}
+		else {
+			write(t, length, data);
+		}
+
+		cursor.set(offset);
+	}
+
+	static void write(Segment segment, int length, ByteBuffer data) {
+		ByteBuffer w = segment.buffer.duplicate();
+		int position = segment.position;
+		w.position(position + HEADER);
+		w.put(data);
+		//the header last, so recovery doesn't see a record before its content
+		w.putInt(position, length + 1);
+		segment.position = position + HEADER + length;
+	}
+
+	void evictFirst() {
+		Segment h = head;
+		head = h.next;
+		segments--;
+		//the mapping outlives the file where supported
+		try {
+			Files.deleteIfExists(h.file);
+		}
+		catch (IOException e) {
+			h.file.toFile()
+			      .deleteOnExit();
+		}
+	}
+
+	T read(Segment segment, int position) {
+		ByteBuffer b = segment.buffer.asReadOnlyBuffer();
+		int length = b.getInt(position) - 1;
+		b.limit(position + HEADER + length)
+		 .position(position + HEADER);
+		return Objects.requireNonNull(codec.decode(b.slice()),
+				"The codec returned a null value");
+	}
+
+	/**
+	 * Force the appended records to the storage device.
+	 */
+	public void flush() {
+		tail.buffer.force();
+	}
+
+	/**
+	 * Return the offset of the oldest record still retained.
+	 *
+	 * @return the offset of the oldest record still retained
+	 */
+	public long getFirstOffset() {
+		return head.base;
+	}
+
+	/**
+	 * Return the offset the next appended record will have, which is also the number
+	 * of records appended to this journal since it was first created.
+	 *
+	 * @return the offset of the next record
+	 */
+	public long getNextOffset() {
+		return cursor.getAsLong() + 1L;
+	}
+
+	/**
+	 * Return a {@link Flux} replaying the journal from the given offset, or from the
+	 * oldest record still retained if it is older. An offset that isn't reached yet
+	 * starts the replay with the record appended at that offset.
+	 *
+	 * @param offset the offset of the first record to replay
+	 *
+	 * @return a {@link Flux} replaying the journal from the given offset
+	 */
+	public Flux<T> from(long offset) {
+		if (offset < 0L) {
+			throw new IllegalArgumentException("offset >= 0 required but it was " + offset);
+		}
+		return Flux.from(s -> subscribe(s, offset));
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> s) {
+		subscribe(s, 0L);
+	}
+
+	void subscribe(Subscriber<? super T> s, long offset) {
+		if (s == null) {
+			throw Exceptions.argumentIsNullException();
+		}
+		JournalInner<T> inner = new JournalInner<>(s, this, head, offset);
+		s.onSubscribe(inner);
+
+		add(inner);
+		if (inner.cancelled) {
+			remove(inner);
+			return;
+		}
+		inner.drain();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		if (done) {
+			s.cancel();
+		}
+		else if (Operators.validate(subscription, s)) {
+			subscription = s;
+			s.request(Long.MAX_VALUE);
+		}
+	}
+
+	@Override
+	public void onNext(T t) {
+		if (done) {
+			Operators.onNextDropped(t);
+			return;
+		}
+		try {
+			append(t);
+		}
+		catch (Throwable ex) {
+			onError(Operators.onOperatorError(subscription, ex, t));
+			return;
+		}
+		for (JournalInner<T> inner : subscribers) {
+			inner.drain();
+		}
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		if (done) {
+			Operators.onErrorDropped(t);
+			return;
+		}
+		error = t;
+		done = true;
+		for (JournalInner<T> inner : subscribers) {
+			inner.drain();
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		if (done) {
+			return;
+		}
+		try {
+			flush();
+		}
+		catch (Throwable ex) {
+			onError(Operators.onOperatorError(subscription, ex));
+			return;
+		}
+		done = true;
+		for (JournalInner<T> inner : subscribers) {
+			inner.drain();
+		}
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		return Stream.of(subscribers);
+	}
+
+	@Override
+	public long downstreamCount() {
+		return subscribers.length;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return done;
+	}
+
+	@Override
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		switch (key) {
+			case PARENT:
+				return subscription;
+			case TERMINATED:
+				return done;
+			case ERROR:
+				return error;
+		}
+		return super.scan(key);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void add(JournalInner<T> inner) {
+		synchronized (this) {
+			JournalInner<T>[] a = subscribers;
+			int len = a.length;
+			JournalInner<T>[] b = new JournalInner[len + 1];
+			System.arraycopy(a, 0, b, 0, len);
+			b[len] = inner;
+			subscribers = b;
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void remove(JournalInner<T> inner) {
+		synchronized (this) {
+			JournalInner<T>[] a = subscribers;
+			int len = a.length;
+			int j = -1;
+			for (int i = 0; i < len; i++) {
+				if (a[i] == inner) {
+					j = i;
+					break;
+				}
+			}
+			if (j < 0) {
+				return;
+			}
+			if (len == 1) {
+				subscribers = EMPTY;
+				return;
+			}
+			JournalInner<T>[] b = new JournalInner[len - 1];
+			System.arraycopy(a, 0, b, 0, j);
+			System.arraycopy(a, j + 1, b, j, len - j - 1);
+			subscribers = b;
+		}
+	}
+
+	static final class JournalInner<T> implements InnerProducer<T> {
+
+		final Subscriber<? super T> actual;
+		final JournalProcessor<T>   parent;
+
+		/**
+		 * The offset of the first record to emit, the records before it being skipped
+		 */
+		final long from;
+
+		Segment segment;
+		int     position;
+
+		/**
+		 * The offset of the record at position
+		 */
+		long offset;
+
+		volatile boolean cancelled;
+
+		volatile long requested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<JournalInner> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(JournalInner.class, "requested");
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<JournalInner> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(JournalInner.class, "wip");
+
+		JournalInner(Subscriber<? super T> actual,
+				JournalProcessor<T> parent,
+				Segment head,
+				long from) {
+			this.actual = actual;
+			this.parent = parent;
+			this.segment = head;
+			this.offset = head.base;
+			this.from = from;
+		}
+
+		@Override
+		public Subscriber<? super T> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				parent.remove(this);
+			}
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return parent;
+				case CANCELLED:
+					return cancelled;
+				case TERMINATED:
+					return parent.done && offset > parent.cursor.getAsLong();
+				case REQUESTED_FROM_DOWNSTREAM:
+					return requested;
+			}
+			return InnerProducer.super.scan(key);
+		}
+
+		/**
+		 * Move to the segment holding the record at offset, skipping the whole segments
+		 * before the from offset.
+		 *
+		 * @param last the offset of the last appended record
+		 *
+		 * @return true if the record at offset was appended
+		 */
+		boolean available(long last) {
+			Segment n;
+			while ((n = segment.next) != null && (offset >= n.base || from >= n.base)) {
+				segment = n;
+				position = 0;
+				offset = n.base;
+			}
+			return offset <= last;
+		}
+
+		void skip() {
+			position += HEADER + segment.buffer.getInt(position) - 1;
+			offset++;
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			final Subscriber<? super T> a = actual;
+			final JournalProcessor<T> p = parent;
+
+			int missed = 1;
+
+			for (; ; ) {
+				long r = requested;
+				long e = 0L;
+
+				for (; ; ) {
+					if (cancelled) {
+						segment = null;
+						return;
+					}
+
+					boolean d = p.done;
+					long last = p.cursor.getAsLong();
+					boolean empty = !available(last);
+
+					if (d && empty) {
+						segment = null;
+						p.remove(this);
+						Throwable ex = p.error;
+						if (ex != null) {
+							a.onError(ex);
+						}
+						else {
+							a.onComplete();
+						}
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					if (offset < from) {
+						skip();
+						continue;
+					}
+
+					if (e == r) {
+						break;
+					}
+
+					T v;
+					try {
+						v = p.read(segment, position);
+					}
+					catch (Throwable ex) {
+						segment = null;
+						cancelled = true;
+						p.remove(this);
+						a.onError(Operators.onOperatorError(this, ex));
+						return;
+					}
+
+					a.onNext(v);
+
+					e++;
+					skip();
+				}
+
+				if (e != 0L && r != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(this, -e);
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+	}
+}
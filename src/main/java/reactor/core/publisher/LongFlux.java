@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * A Reactive Streams {@link Publisher} of primitive {@code long} values, emitting 0 to
+ * N elements and then completing (successfully or with an error).
+ * <p>
+ * Values flow between {@link LongFlux} operators through
+ * {@link LongSubscriber#onNextLong(long)} and, when operators can be fused, through a
+ * primitive variant of the {@link reactor.core.Fuseable} SYNC/ASYNC protocol, so a
+ * {@code LongFlux} pipeline doesn't box its values. Boxing only happens when bridging
+ * to a {@link Flux} via {@link #asFlux()}, or when subscribed to by a plain
+ * {@link Subscriber}. {@link #from(Publisher)} and {@link #asFlux()} are lossless
+ * inverses of each other.
+ *
+ * @see Flux
+ */
+public abstract class LongFlux implements Publisher<Long> {
+
+	/**
+	 * Create a {@link LongFlux} that completes without emitting any item.
+	 *
+	 * @return an empty {@link LongFlux}
+	 */
+	public static LongFlux empty() {
+		return LongFluxArray.EMPTY;
+	}
+
+	/**
+	 * Expose a {@link Publisher} of {@link Long} as a {@link LongFlux}, unboxing its
+	 * values. A {@link Flux} obtained from {@link #asFlux()} is unwrapped to the original
+	 * {@link LongFlux}.
+	 *
+	 * @param source the {@link Publisher} to unbox
+	 * @return a {@link LongFlux} emitting the unboxed values of the source
+	 */
+	public static LongFlux from(Publisher<Long> source) {
+		if (source instanceof LongFlux) {
+			return (LongFlux) source;
+		}
+		if (source instanceof LongFluxBoxed) {
+			return ((LongFluxBoxed) source).source;
+		}
+		return new LongFluxFromPublisher(source);
+	}
+
+	/**
+	 * Create a {@link LongFlux} that emits the provided values and then completes.
+	 *
+	 * @param values the values to emit
+	 * @return a new {@link LongFlux}
+	 */
+	public static LongFlux just(long... values) {
+		if (values.length == 0) {
+			return empty();
+		}
+		return new LongFluxArray(values);
+	}
+
+	/**
+	 * Build a {@link LongFlux} that will only emit a sequence of incrementing longs,
+	 * from {@code start} to {@code start + count - 1}, and then complete.
+	 *
+	 * @param start the first long to be emitted
+	 * @param count the total number of incrementing values to emit, including the first
+	 * value
+	 * @return a ranged {@link LongFlux}
+	 */
+	public static LongFlux range(long start, long count) {
+		if (count == 0) {
+			return empty();
+		}
+		return new LongFluxRange(start, count);
+	}
+
+	/**
+	 * Expose this {@link LongFlux} as a {@link Flux} of boxed {@link Long}. Unless this
+	 * {@link LongFlux} was obtained from {@link #from(Publisher)}, the values are boxed
+	 * as they are emitted.
+	 *
+	 * @return a {@link Flux} of the values of this {@link LongFlux}
+	 */
+	public final Flux<Long> asFlux() {
+		if (this instanceof LongFluxFromPublisher) {
+			return Flux.from(((LongFluxFromPublisher) this).source);
+		}
+		return Flux.onAssembly(new LongFluxBoxed(this));
+	}
+
+	/**
+	 * Collect incoming values into multiple {@code long[]} buffers that will be emitted
+	 * by the returned {@link Flux} each time the given max size is reached or once this
+	 * {@link LongFlux} completes.
+	 *
+	 * @param maxSize the maximum collected size
+	 * @return a microbatched {@link Flux} of possibly shorter {@code long[]} on
+	 * completion
+	 */
+	public final Flux<long[]> buffer(int maxSize) {
+		return Flux.onAssembly(new LongFluxBuffer(this, maxSize));
+	}
+
+	/**
+	 * Counts the number of values in this {@link LongFlux}.
+	 * The count will be emitted when onComplete is observed.
+	 *
+	 * @return a new {@link Mono} of {@link Long} count
+	 */
+	public final Mono<Long> count() {
+		return reduce(0L, (c, v) -> c + 1L);
+	}
+
+	/**
+	 * Evaluate each accepted value against the given {@link LongPredicate}. If the
+	 * predicate test succeeds, the value is passed into the new {@link LongFlux}. If the
+	 * predicate test fails, the value is ignored and a request of 1 is emitted upstream.
+	 *
+	 * @param predicate the {@link LongPredicate} to test values against
+	 * @return a new {@link LongFlux} containing only values that pass the predicate test
+	 */
+	public final LongFlux filter(LongPredicate predicate) {
+		return new LongFluxFilter(this, predicate);
+	}
+
+	/**
+	 * Transform the values emitted by this {@link LongFlux} by applying a function to
+	 * each value.
+	 *
+	 * @param mapper the transforming {@link LongUnaryOperator}
+	 * @return a transformed {@link LongFlux}
+	 */
+	public final LongFlux map(LongUnaryOperator mapper) {
+		return new LongFluxMap(this, mapper);
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}, buffering the
+	 * values in a primitive queue of {@link QueueSupplier#SMALL_BUFFER_SIZE} slots.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Scheduler.Worker} where
+	 * to publish
+	 * @return a {@link LongFlux} producing asynchronously on a given {@link Scheduler}
+	 */
+	public final LongFlux publishOn(Scheduler scheduler) {
+		return publishOn(scheduler, QueueSupplier.SMALL_BUFFER_SIZE);
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}, buffering the
+	 * values in a primitive queue.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Scheduler.Worker} where
+	 * to publish
+	 * @param prefetch the asynchronous boundary capacity, at most 2^30
+	 * @return a {@link LongFlux} producing asynchronously on a given {@link Scheduler}
+	 */
+	public final LongFlux publishOn(Scheduler scheduler, int prefetch) {
+		return new LongFluxPublishOn(this, scheduler, prefetch);
+	}
+
+	/**
+	 * Aggregate the values from this {@link LongFlux} into a single value, emitted on
+	 * completion. Completes empty if this {@link LongFlux} is empty.
+	 *
+	 * @param aggregator the reducing {@link LongBinaryOperator}
+	 * @return a reduced {@link Mono}
+	 */
+	public final Mono<Long> reduce(LongBinaryOperator aggregator) {
+		return Mono.onAssembly(new MonoLongReduce(this, false, 0L, aggregator));
+	}
+
+	/**
+	 * Accumulate the values from this {@link LongFlux}, starting from the given initial
+	 * value, into a single value emitted on completion.
+	 *
+	 * @param initial the initial accumulated value, emitted if this {@link LongFlux} is
+	 * empty
+	 * @param accumulator the reducing {@link LongBinaryOperator}
+	 * @return a reduced {@link Mono}
+	 */
+	public final Mono<Long> reduce(long initial, LongBinaryOperator accumulator) {
+		return Mono.onAssembly(new MonoLongReduce(this, true, initial, accumulator));
+	}
+
+	/**
+	 * Sum the values from this {@link LongFlux}, emitting 0 if it is empty.
+	 *
+	 * @return a {@link Mono} of the sum
+	 */
+	public final Mono<Long> sum() {
+		return reduce(0L, Long::sum);
+	}
+
+	/**
+	 * Subscribe a {@link Subscriber} to this {@link LongFlux}. A {@link LongSubscriber}
+	 * receives unboxed values, any other {@link Subscriber} receives them boxed.
+	 *
+	 * @param s the {@link Subscriber} to subscribe
+	 */
+	@Override
+	public final void subscribe(Subscriber<? super Long> s) {
+		if (s instanceof LongSubscriber) {
+			subscribe((LongSubscriber) s);
+		}
+		else {
+			subscribe(new LongFluxBoxed.BoxedSubscriber(Objects.requireNonNull(s, "s")));
+		}
+	}
+
+	/**
+	 * Subscribe a {@link LongSubscriber} to this {@link LongFlux}, receiving its values
+	 * through {@link LongSubscriber#onNextLong(long)}.
+	 *
+	 * @param s the {@link LongSubscriber} to subscribe
+	 */
+	public abstract void subscribe(LongSubscriber s);
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+}
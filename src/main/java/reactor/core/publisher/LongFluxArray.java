@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import reactor.core.Fuseable;
+
+/**
+ * Emits the contents of a {@code long[]}.
+ */
+final class LongFluxArray extends LongFlux {
+
+	static final LongFluxArray EMPTY = new LongFluxArray(new long[0]);
+
+	final long[] array;
+
+	LongFluxArray(long[] array) {
+		this.array = Objects.requireNonNull(array, "array");
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		if (array.length == 0) {
+			Operators.complete(s);
+			return;
+		}
+		s.onSubscribe(new ArraySubscription(s, array));
+	}
+
+	static final class ArraySubscription
+			implements InnerProducer<Long>, LongQueueSubscription {
+
+		final LongSubscriber actual;
+
+		final long[] array;
+
+		int index;
+
+		volatile boolean cancelled;
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<ArraySubscription> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(ArraySubscription.class, "requested");
+
+		ArraySubscription(LongSubscriber actual, long[] array) {
+			this.actual = actual;
+			this.array = array;
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				if (Operators.getAndAddCap(REQUESTED, this, n) == 0) {
+					if (n == Long.MAX_VALUE) {
+						fastPath();
+					}
+					else {
+						slowPath(n);
+					}
+				}
+			}
+		}
+
+		void slowPath(long n) {
+			final long[] a = array;
+			final int len = a.length;
+			final LongSubscriber s = actual;
+
+			int i = index;
+			int e = 0;
+
+			for (; ; ) {
+				if (cancelled) {
+					return;
+				}
+
+				while (i != len && e != n) {
+					s.onNextLong(a[i]);
+
+					if (cancelled) {
+						return;
+					}
+
+					i++;
+					e++;
+				}
+
+				if (i == len) {
+					s.onComplete();
+					return;
+				}
+
+				n = requested;
+
+				if (n == e) {
+					index = i;
+					n = REQUESTED.addAndGet(this, -e);
+					if (n == 0) {
+						return;
+					}
+					e = 0;
+				}
+			}
+		}
+
+		void fastPath() {
+			final long[] a = array;
+			final int len = a.length;
+			final LongSubscriber s = actual;
+
+			for (int i = index; i != len; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				s.onNextLong(a[i]);
+			}
+			if (cancelled) {
+				return;
+			}
+			s.onComplete();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case TERMINATED:
+					return isEmpty();
+				case BUFFERED:
+					return array.length - index;
+				case CANCELLED:
+					return cancelled;
+				case REQUESTED_FROM_DOWNSTREAM:
+					return requested;
+			}
+			return InnerProducer.super.scan(key);
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			if ((requestedMode & Fuseable.SYNC) != 0) {
+				return Fuseable.SYNC;
+			}
+			return Fuseable.NONE;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return index == array.length;
+		}
+
+		@Override
+		public long pollLong() {
+			return array[index++];
+		}
+
+		@Override
+		public void clear() {
+			index = array.length;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+
+/**
+ * Exposes a {@link LongFlux} as a {@link Flux} of boxed values, fusing with the source
+ * when possible.
+ */
+final class LongFluxBoxed extends Flux<Long> implements Fuseable, Scannable {
+
+	final LongFlux source;
+
+	LongFluxBoxed(LongFlux source) {
+		this.source = Objects.requireNonNull(source, "source");
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super Long> s) {
+		source.subscribe(new BoxedSubscriber(s));
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		if (key == Attr.PARENT) {
+			return source;
+		}
+		return null;
+	}
+
+	static final class BoxedSubscriber
+			implements LongSubscriber, InnerOperator<Long, Long>,
+			           Fuseable.QueueSubscription<Long> {
+
+		final Subscriber<? super Long> actual;
+
+		boolean done;
+
+		Subscription s;
+
+		LongQueueSubscription qs;
+
+		int sourceMode;
+
+		BoxedSubscriber(Subscriber<? super Long> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				if (s instanceof LongQueueSubscription) {
+					this.qs = (LongQueueSubscription) s;
+				}
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNext(null);
+				return;
+			}
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public Subscriber<? super Long> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			LongQueueSubscription qs = this.qs;
+			if (qs == null) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public Long poll() {
+			LongQueueSubscription qs = this.qs;
+			if (qs.isEmpty()) {
+				return null;
+			}
+			return qs.pollLong();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return qs.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+
+		/**
+		 * The primitive fusion protocol doesn't track sizes: only tell if there is
+		 * a value available.
+		 */
+		@Override
+		public int size() {
+			return qs.isEmpty() ? 0 : 1;
+		}
+	}
+}
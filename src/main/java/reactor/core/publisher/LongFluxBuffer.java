@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+
+/**
+ * Buffers a certain number of subsequent values of a {@link LongFlux} into
+ * {@code long[]} and emits the arrays.
+ */
+final class LongFluxBuffer extends Flux<long[]> implements Scannable {
+
+	final LongFlux source;
+
+	final int size;
+
+	LongFluxBuffer(LongFlux source, int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("size > 0 required but it was " + size);
+		}
+		this.source = Objects.requireNonNull(source, "source");
+		this.size = size;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super long[]> s) {
+		source.subscribe(new BufferExactSubscriber(s, size));
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		switch (key) {
+			case PARENT:
+				return source;
+			case PREFETCH:
+				return size;
+		}
+		return null;
+	}
+
+	static final class BufferExactSubscriber
+			implements LongSubscriber, InnerOperator<Long, long[]> {
+
+		final Subscriber<? super long[]> actual;
+
+		final int size;
+
+		long[] buffer;
+
+		int index;
+
+		Subscription s;
+
+		boolean done;
+
+		BufferExactSubscriber(Subscriber<? super long[]> actual, int size) {
+			this.actual = actual;
+			this.size = size;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				s.request(Operators.multiplyCap(n, size));
+			}
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+
+			long[] b = buffer;
+			if (b == null) {
+				b = new long[size];
+				buffer = b;
+			}
+
+			int i = index;
+			b[i++] = t;
+
+			if (i == size) {
+				buffer = null;
+				index = 0;
+				actual.onNext(b);
+			}
+			else {
+				index = i;
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			buffer = null;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			long[] b = buffer;
+
+			if (b != null && index != 0) {
+				buffer = null;
+				actual.onNext(Arrays.copyOf(b, index));
+			}
+			actual.onComplete();
+		}
+
+		@Override
+		public Subscriber<? super long[]> actual() {
+			return actual;
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+				case BUFFERED:
+					return index;
+				case PREFETCH:
+					return size;
+			}
+			return InnerOperator.super.scan(key);
+		}
+	}
+}
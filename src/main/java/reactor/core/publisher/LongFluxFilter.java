@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+
+/**
+ * Filters out values of the source {@link LongFlux} that don't match the predicate,
+ * fusing with the source when possible.
+ */
+final class LongFluxFilter extends LongFlux {
+
+	final LongFlux      source;
+	final LongPredicate predicate;
+
+	LongFluxFilter(LongFlux source, LongPredicate predicate) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.predicate = Objects.requireNonNull(predicate, "predicate");
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		source.subscribe(new FilterSubscriber(s, predicate));
+	}
+
+	static final class FilterSubscriber
+			implements LongSubscriber, InnerOperator<Long, Long>, LongQueueSubscription {
+
+		final LongSubscriber actual;
+		final LongPredicate  predicate;
+
+		boolean done;
+
+		Subscription s;
+
+		LongQueueSubscription qs;
+
+		int sourceMode;
+
+		/**
+		 * The value found by looking ahead in {@link #isEmpty()} when fused.
+		 */
+		long    next;
+		boolean hasNext;
+
+		FilterSubscriber(LongSubscriber actual, LongPredicate predicate) {
+			this.actual = actual;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				if (s instanceof LongQueueSubscription) {
+					this.qs = (LongQueueSubscription) s;
+				}
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNextLong(t);
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+
+			boolean b;
+
+			try {
+				b = predicate.test(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+				return;
+			}
+			if (b) {
+				actual.onNextLong(t);
+			}
+			else {
+				s.request(1);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+
+			done = true;
+
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			actual.onComplete();
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			LongQueueSubscription qs = this.qs;
+			if (qs == null || (requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			if (hasNext) {
+				return false;
+			}
+			LongQueueSubscription qs = this.qs;
+			long dropped = 0;
+			try {
+				while (!qs.isEmpty()) {
+					long v = qs.pollLong();
+					if (predicate.test(v)) {
+						next = v;
+						hasNext = true;
+						return false;
+					}
+					dropped++;
+				}
+				return true;
+			}
+			finally {
+				if (dropped != 0 && sourceMode == Fuseable.ASYNC) {
+					request(dropped);
+				}
+			}
+		}
+
+		@Override
+		public long pollLong() {
+			hasNext = false;
+			return next;
+		}
+
+		@Override
+		public void clear() {
+			hasNext = false;
+			qs.clear();
+		}
+	}
+}
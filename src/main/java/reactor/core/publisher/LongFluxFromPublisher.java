@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+
+/**
+ * Exposes a {@link Publisher} of {@link Long} as a {@link LongFlux}, unboxing the
+ * values and fusing with a {@link Fuseable} source when possible.
+ */
+final class LongFluxFromPublisher extends LongFlux implements Scannable {
+
+	final Publisher<Long> source;
+
+	LongFluxFromPublisher(Publisher<Long> source) {
+		this.source = Objects.requireNonNull(source, "source");
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		source.subscribe(new UnboxedSubscriber(s));
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		if (key == Attr.PARENT) {
+			return source;
+		}
+		return null;
+	}
+
+	static final class UnboxedSubscriber
+			implements InnerOperator<Long, Long>, LongQueueSubscription {
+
+		final LongSubscriber actual;
+
+		boolean done;
+
+		Subscription s;
+
+		Fuseable.QueueSubscription<Long> qs;
+
+		int sourceMode;
+
+		/**
+		 * The value found by looking ahead in {@link #isEmpty()} when fused.
+		 */
+		long    next;
+		boolean hasNext;
+
+		UnboxedSubscriber(LongSubscriber actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				if (s instanceof Fuseable.QueueSubscription) {
+					this.qs = Operators.as(s);
+				}
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(Long t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNextLong(0L);
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			actual.onNextLong(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			Fuseable.QueueSubscription<Long> qs = this.qs;
+			if (qs == null) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			if (hasNext) {
+				return false;
+			}
+			Long v = qs.poll();
+			if (v == null) {
+				return true;
+			}
+			next = v;
+			hasNext = true;
+			return false;
+		}
+
+		@Override
+		public long pollLong() {
+			hasNext = false;
+			return next;
+		}
+
+		@Override
+		public void clear() {
+			hasNext = false;
+			qs.clear();
+		}
+	}
+}
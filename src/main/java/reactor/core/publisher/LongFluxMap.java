@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+
+/**
+ * Maps the values of the source {@link LongFlux} one-on-one via a mapper function,
+ * fusing with the source when possible.
+ */
+final class LongFluxMap extends LongFlux {
+
+	final LongFlux          source;
+	final LongUnaryOperator mapper;
+
+	LongFluxMap(LongFlux source, LongUnaryOperator mapper) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		source.subscribe(new MapSubscriber(s, mapper));
+	}
+
+	static final class MapSubscriber
+			implements LongSubscriber, InnerOperator<Long, Long>, LongQueueSubscription {
+
+		final LongSubscriber    actual;
+		final LongUnaryOperator mapper;
+
+		boolean done;
+
+		Subscription s;
+
+		LongQueueSubscription qs;
+
+		int sourceMode;
+
+		MapSubscriber(LongSubscriber actual, LongUnaryOperator mapper) {
+			this.actual = actual;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				if (s instanceof LongQueueSubscription) {
+					this.qs = (LongQueueSubscription) s;
+				}
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				actual.onNextLong(t);
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+
+			long v;
+
+			try {
+				v = mapper.applyAsLong(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+				return;
+			}
+
+			actual.onNextLong(v);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+
+			done = true;
+
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			actual.onComplete();
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case PARENT:
+					return s;
+				case TERMINATED:
+					return done;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			LongQueueSubscription qs = this.qs;
+			if (qs == null || (requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+				return Fuseable.NONE;
+			}
+			int m = qs.requestFusion(requestedMode);
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return qs.isEmpty();
+		}
+
+		@Override
+		public long pollLong() {
+			return mapper.applyAsLong(qs.pollLong());
+		}
+
+		@Override
+		public void clear() {
+			qs.clear();
+		}
+	}
+}
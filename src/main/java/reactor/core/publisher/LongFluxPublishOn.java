@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Scheduler.Worker;
+
+/**
+ * Emits the values of a {@link LongFlux} on a {@link Scheduler}'s {@link Worker}. The
+ * source is drained directly when it can be fused, otherwise values are buffered in a
+ * primitive {@link SpscLongArrayQueue}. Errors are delayed until the buffered values are
+ * drained.
+ */
+final class LongFluxPublishOn extends LongFlux {
+
+	/**
+	 * The primitive queue is bounded and array-backed, so the prefetch is bounded too.
+	 */
+	static final int MAX_PREFETCH = 1 << 30;
+
+	final LongFlux  source;
+	final Scheduler scheduler;
+	final int       prefetch;
+
+	LongFluxPublishOn(LongFlux source, Scheduler scheduler, int prefetch) {
+		if (prefetch <= 0 || prefetch > MAX_PREFETCH) {
+			throw new IllegalArgumentException("prefetch must be in [1, 2^30] but it was " + prefetch);
+		}
+		this.source = Objects.requireNonNull(source, "source");
+		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+		this.prefetch = prefetch;
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		Worker worker;
+
+		try {
+			worker = Objects.requireNonNull(scheduler.createWorker(),
+					"The scheduler returned a null worker");
+		}
+		catch (Throwable e) {
+			Operators.error(s, Operators.onOperatorError(e));
+			return;
+		}
+
+		source.subscribe(new PublishOnSubscriber(s, scheduler, worker, prefetch));
+	}
+
+	static final class PublishOnSubscriber
+			implements LongSubscriber, Runnable, InnerOperator<Long, Long> {
+
+		final LongSubscriber actual;
+
+		final Scheduler scheduler;
+
+		final Worker worker;
+
+		final int prefetch;
+
+		final int limit;
+
+		Subscription s;
+
+		/**
+		 * The fused source, or null if values are buffered in {@link #queue}.
+		 */
+		LongQueueSubscription fused;
+
+		SpscLongArrayQueue queue;
+
+		volatile boolean cancelled;
+
+		volatile boolean done;
+
+		Throwable error;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<PublishOnSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(PublishOnSubscriber.class, "wip");
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<PublishOnSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(PublishOnSubscriber.class, "requested");
+
+		int sourceMode;
+
+		long produced;
+
+		PublishOnSubscriber(LongSubscriber actual,
+				Scheduler scheduler,
+				Worker worker,
+				int prefetch) {
+			this.actual = actual;
+			this.worker = worker;
+			this.scheduler = scheduler;
+			this.prefetch = prefetch;
+			this.limit = prefetch - (prefetch >> 2);
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof LongQueueSubscription) {
+					LongQueueSubscription f = (LongQueueSubscription) s;
+
+					int m = f.requestFusion(Fuseable.ANY | Fuseable.THREAD_BARRIER);
+
+					if (m == Fuseable.SYNC) {
+						sourceMode = Fuseable.SYNC;
+						fused = f;
+						done = true;
+
+						actual.onSubscribe(this);
+						return;
+					}
+					else if (m == Fuseable.ASYNC) {
+						sourceMode = Fuseable.ASYNC;
+						fused = f;
+
+						actual.onSubscribe(this);
+
+						initialRequest();
+
+						return;
+					}
+				}
+
+				queue = new SpscLongArrayQueue(prefetch);
+
+				actual.onSubscribe(this);
+
+				initialRequest();
+			}
+		}
+
+		void initialRequest() {
+			s.request(prefetch);
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				if (trySchedule() == Scheduler.REJECTED) {
+					throw Operators.onRejectedExecution(this, null, null);
+				}
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (!queue.offer(t)) {
+				error = Operators.onOperatorError(s,
+						Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL),
+						t);
+				done = true;
+			}
+			if (trySchedule() == Scheduler.REJECTED) {
+				throw Operators.onRejectedExecution(this, null, t);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			if (trySchedule() == Scheduler.REJECTED) {
+				throw Operators.onRejectedExecution(null, t, null);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			if (trySchedule() == Scheduler.REJECTED && !worker.isDisposed()) {
+				throw Operators.onRejectedExecution();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				if (trySchedule() == Scheduler.REJECTED && (!worker.isDisposed() || scheduler.isDisposed())) {
+					throw Operators.onRejectedExecution(this, null, null);
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+
+			cancelled = true;
+			s.cancel();
+			worker.dispose();
+
+			if (WIP.getAndIncrement(this) == 0) {
+				clearQueue();
+			}
+		}
+
+		Disposable trySchedule() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return null;
+			}
+
+			return worker.schedule(this);
+		}
+
+		boolean queueIsEmpty() {
+			LongQueueSubscription f = fused;
+			return f != null ? f.isEmpty() : queue.isEmpty();
+		}
+
+		long queuePoll() {
+			LongQueueSubscription f = fused;
+			return f != null ? f.pollLong() : queue.pollLong();
+		}
+
+		void clearQueue() {
+			LongQueueSubscription f = fused;
+			if (f != null) {
+				f.clear();
+			}
+			else {
+				queue.clear();
+			}
+		}
+
+		void runSync() {
+			int missed = 1;
+
+			final LongSubscriber a = actual;
+			final LongQueueSubscription q = fused;
+
+			long e = produced;
+
+			for (; ; ) {
+
+				long r = requested;
+
+				while (e != r) {
+					long v;
+
+					try {
+						if (q.isEmpty()) {
+							if (!cancelled) {
+								doComplete(a);
+							}
+							return;
+						}
+						v = q.pollLong();
+					}
+					catch (Throwable ex) {
+						doError(a, Operators.onOperatorError(s, ex));
+						return;
+					}
+
+					if (cancelled) {
+						return;
+					}
+
+					a.onNextLong(v);
+
+					e++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				boolean empty;
+				try {
+					empty = q.isEmpty();
+				}
+				catch (Throwable ex) {
+					doError(a, Operators.onOperatorError(s, ex));
+					return;
+				}
+				if (empty) {
+					doComplete(a);
+					return;
+				}
+
+				int w = wip;
+				if (missed == w) {
+					produced = e;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		void runAsync() {
+			int missed = 1;
+
+			final LongSubscriber a = actual;
+
+			long e = produced;
+
+			for (; ; ) {
+
+				long r = requested;
+
+				while (e != r) {
+					boolean d = done;
+					boolean empty;
+					long v = 0L;
+
+					try {
+						empty = queueIsEmpty();
+						if (!empty) {
+							v = queuePoll();
+						}
+					}
+					catch (Throwable ex) {
+						Exceptions.throwIfFatal(ex);
+						s.cancel();
+						clearQueue();
+
+						doError(a, Operators.onOperatorError(ex));
+						return;
+					}
+
+					if (checkTerminated(d, empty, a)) {
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					a.onNextLong(v);
+
+					e++;
+					if (e == limit) {
+						if (r != Long.MAX_VALUE) {
+							r = REQUESTED.addAndGet(this, -e);
+						}
+						s.request(e);
+						e = 0L;
+					}
+				}
+
+				if (e == r) {
+					boolean d = done;
+					boolean empty;
+					try {
+						empty = queueIsEmpty();
+					}
+					catch (Throwable ex) {
+						Exceptions.throwIfFatal(ex);
+						s.cancel();
+						clearQueue();
+
+						doError(a, Operators.onOperatorError(ex));
+						return;
+					}
+					if (checkTerminated(d, empty, a)) {
+						return;
+					}
+				}
+
+				int w = wip;
+				if (missed == w) {
+					produced = e;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		void doComplete(LongSubscriber a) {
+			try {
+				a.onComplete();
+			}
+			finally {
+				worker.dispose();
+			}
+		}
+
+		void doError(LongSubscriber a, Throwable e) {
+			try {
+				a.onError(e);
+			}
+			finally {
+				worker.dispose();
+			}
+		}
+
+		@Override
+		public void run() {
+			if (sourceMode == Fuseable.SYNC) {
+				runSync();
+			}
+			else {
+				runAsync();
+			}
+		}
+
+		boolean checkTerminated(boolean d, boolean empty, LongSubscriber a) {
+			if (cancelled) {
+				clearQueue();
+				return true;
+			}
+			if (d && empty) {
+				Throwable e = error;
+				if (e != null) {
+					doError(a, e);
+				}
+				else {
+					doComplete(a);
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case REQUESTED_FROM_DOWNSTREAM:
+					return requested;
+				case PARENT:
+					return s;
+				case CANCELLED:
+					return cancelled;
+				case TERMINATED:
+					return done;
+				case ERROR:
+					return error;
+				case PREFETCH:
+					return prefetch;
+				case BUFFERED:
+					SpscLongArrayQueue q = queue;
+					return q != null ? q.size() : 0;
+			}
+			return InnerOperator.super.scan(key);
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+	}
+}
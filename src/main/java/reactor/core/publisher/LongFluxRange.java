@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import reactor.core.Fuseable;
+
+/**
+ * Emits a range of primitive long values.
+ */
+final class LongFluxRange extends LongFlux {
+
+	final long start;
+
+	final long end;
+
+	LongFluxRange(long start, long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count >= required but it was " + count);
+		}
+		if (start + count - 1 < start) {
+			throw new IllegalArgumentException("start + count must be less than Long.MAX_VALUE + 1");
+		}
+		this.start = start;
+		this.end = start + count;
+	}
+
+	@Override
+	public void subscribe(LongSubscriber s) {
+		if (start == end) {
+			Operators.complete(s);
+			return;
+		}
+		s.onSubscribe(new RangeSubscription(s, start, end));
+	}
+
+	static final class RangeSubscription
+			implements InnerProducer<Long>, LongQueueSubscription {
+
+		final LongSubscriber actual;
+
+		final long end;
+
+		volatile boolean cancelled;
+
+		long index;
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<RangeSubscription> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(RangeSubscription.class, "requested");
+
+		RangeSubscription(LongSubscriber actual, long start, long end) {
+			this.actual = actual;
+			this.index = start;
+			this.end = end;
+		}
+
+		@Override
+		public LongSubscriber actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				if (Operators.getAndAddCap(REQUESTED, this, n) == 0) {
+					if (n == Long.MAX_VALUE) {
+						fastPath();
+					}
+					else {
+						slowPath(n);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		void fastPath() {
+			final long e = end;
+			final LongSubscriber a = actual;
+
+			for (long i = index; i != e; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				a.onNextLong(i);
+			}
+
+			if (cancelled) {
+				return;
+			}
+
+			a.onComplete();
+		}
+
+		void slowPath(long n) {
+			final LongSubscriber a = actual;
+
+			long f = end;
+			long e = 0;
+			long i = index;
+
+			for (; ; ) {
+
+				if (cancelled) {
+					return;
+				}
+
+				while (e != n && i != f) {
+
+					a.onNextLong(i);
+
+					if (cancelled) {
+						return;
+					}
+
+					e++;
+					i++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				if (i == f) {
+					a.onComplete();
+					return;
+				}
+
+				n = requested;
+				if (n == e) {
+					index = i;
+					n = REQUESTED.addAndGet(this, -e);
+					if (n == 0) {
+						return;
+					}
+					e = 0;
+				}
+			}
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case CANCELLED:
+					return cancelled;
+				case REQUESTED_FROM_DOWNSTREAM:
+					return requested;
+				case TERMINATED:
+					return isEmpty();
+			}
+			return InnerProducer.super.scan(key);
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			if ((requestedMode & Fuseable.SYNC) != 0) {
+				return Fuseable.SYNC;
+			}
+			return Fuseable.NONE;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return index == end;
+		}
+
+		@Override
+		public long pollLong() {
+			return index++;
+		}
+
+		@Override
+		public void clear() {
+			index = end;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+
+/**
+ * The primitive counterpart of {@link Fuseable.QueueSubscription} used to fuse
+ * {@link LongFlux} operators. The fusion modes and their negotiation through
+ * {@link #requestFusion(int)} are the same as {@link Fuseable}'s.
+ * <p>
+ * As a {@code long} can't be null, emptiness is tested separately: once
+ * {@link #isEmpty()} returned false, the next {@link #pollLong()} is guaranteed to
+ * return a value. In {@link Fuseable#SYNC} mode, {@link #isEmpty()} returning true means
+ * the source is completed. Implementations that may drop values (eg. filtering) have to
+ * look ahead in {@link #isEmpty()}, which can therefore throw if a fused function fails.
+ * <p>
+ * In {@link Fuseable#ASYNC} mode, the source calls
+ * {@link LongSubscriber#onNextLong(long)} with an irrelevant value to signal that
+ * values are available, the same way {@link Fuseable} sources signal {@code onNext(null)}.
+ */
+interface LongQueueSubscription extends Subscription {
+
+	/**
+	 * Request a specific fusion mode from this subscription.
+	 *
+	 * @param requestedMode the mode requested by the intermediate subscriber
+	 * @return the established fusion mode: {@link Fuseable#NONE}, {@link Fuseable#SYNC},
+	 * {@link Fuseable#ASYNC}.
+	 * @see Fuseable.QueueSubscription#requestFusion(int)
+	 */
+	int requestFusion(int requestedMode);
+
+	/**
+	 * @return true if no value is currently available
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @return the next value, only valid after {@link #isEmpty()} returned false
+	 */
+	long pollLong();
+
+	/**
+	 * Drop all the available values.
+	 */
+	void clear();
+}
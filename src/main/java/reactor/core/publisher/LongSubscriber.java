@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * A {@link Subscriber} of primitive {@code long} values. A {@link LongFlux} delivers its
+ * values to such a subscriber through {@link #onNextLong(long)}, without boxing them.
+ * Values signalled through the boxed {@link #onNext(Long)} are unboxed and forwarded.
+ */
+public interface LongSubscriber extends Subscriber<Long> {
+
+	/**
+	 * Data notification sent by the {@link LongFlux} in response to requests to
+	 * {@link org.reactivestreams.Subscription#request(long)}.
+	 *
+	 * @param value the element signaled
+	 */
+	void onNextLong(long value);
+
+	@Override
+	default void onNext(Long value) {
+		onNextLong(value);
+	}
+}
@@ -45,6 +45,7 @@ import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Scheduler.Worker;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.Logger;
+import reactor.util.Metrics;
 import reactor.util.concurrent.QueueSupplier;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple3;
@@ -828,6 +829,10 @@ public abstract class Mono<T> implements Publisher<T> {
 		if (sources.length == 1) {
 			return from(sources[0]);
 		}
+		Mono<Void> constant = whenConstants(VOID_FUNCTION, false, sources);
+		if (constant != null) {
+			return constant;
+		}
 		return onAssembly(new MonoWhen<>(false, VOID_FUNCTION, sources));
 	}
 
@@ -853,6 +858,10 @@ public abstract class Mono<T> implements Publisher<T> {
 		if (monos.length == 1) {
 			return monos[0].map(d -> combinator.apply(new Object[]{d}));
 		}
+		Mono<R> constant = whenConstants(combinator, false, monos);
+		if (constant != null) {
+			return constant;
+		}
 		return onAssembly(new MonoWhen<>(false, combinator, monos));
 	}
 
@@ -1047,6 +1056,10 @@ public abstract class Mono<T> implements Publisher<T> {
 		if (sources.length == 1) {
 			return from(sources[0]);
 		}
+		Mono<Void> constant = whenConstants(VOID_FUNCTION, true, sources);
+		if (constant != null) {
+			return constant;
+		}
 		return onAssembly(new MonoWhen<>(true, VOID_FUNCTION, sources));
 	}
 
@@ -1075,6 +1088,10 @@ public abstract class Mono<T> implements Publisher<T> {
 		if (monos.length == 1) {
 			return monos[0].map(d -> combinator.apply(new Object[]{d}));
 		}
+		Mono<R> constant = whenConstants(combinator, true, monos);
+		if (constant != null) {
+			return constant;
+		}
 		return onAssembly(new MonoWhen<>(true, combinator, monos));
 	}
 
@@ -1340,7 +1357,7 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * @return the assembly tracing {@link Mono}
 	 */
 	public final Mono<T> checkpoint() {
-		return new MonoOnAssembly<>(this, null);
+		return new MonoOnAssembly<>(this, (String) null);
 	}
 
 	/**
@@ -1883,6 +1900,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * @return a filtered {@link Mono}
 	 */
 	public final Mono<T> filterWhen(Function<? super T, ? extends Publisher<Boolean>> asyncPredicate) {
+		if (Flux.isConstantEmpty(this)) {
+			return this;
+		}
 		return onAssembly(new MonoFilterWhen<>(this, asyncPredicate));
 	}
 
@@ -1900,6 +1920,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 */
 	public final <R> Mono<R> flatMap(Function<? super T, ? extends Mono<? extends R>>
 			transformer) {
+		if (Flux.isConstantEmpty(this)) {
+			return empty();
+		}
 		return onAssembly(new MonoFlatMap<>(this, transformer));
 	}
 
@@ -1917,6 +1940,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * @return a new {@link Flux} as the sequence is not guaranteed to be single at most
 	 */
 	public final <R> Flux<R> flatMapMany(Function<? super T, ? extends Publisher<? extends R>> mapper) {
+		if (Flux.isConstantEmpty(this)) {
+			return Flux.empty();
+		}
 		return Flux.onAssembly(new MonoFlatMapMany<>(this, mapper));
 	}
 
@@ -1965,6 +1991,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 *
 	 */
 	public final <R> Flux<R> flatMapIterable(Function<? super T, ? extends Iterable<? extends R>> mapper) {
+		if (Flux.isConstantEmpty(this)) {
+			return Flux.empty();
+		}
 		return Flux.onAssembly(new FluxFlattenIterable<>(this, mapper, Integer
 				.MAX_VALUE, QueueSupplier.one()));
 	}
@@ -2192,6 +2221,28 @@ public abstract class Mono<T> implements Publisher<T> {
 		return Flux.merge(this, other);
 	}
 
+	/**
+	 * Report the signals of this {@link Mono} to meters of the current
+	 * {@link Metrics#getRegistry() metrics registry}, prefixed by the given
+	 * name: subscriptions, emitted values, request sizes, values buffered upstream,
+	 * completions, errors, cancellations and subscription durations. Only sequences
+	 * instrumented this way (or globally via {@link Hooks#onOperator}) pay the cost of
+	 * metrics. Fusion is preserved.
+	 *
+	 * @param name the prefix of the meter names
+	 * @param tags alternating tag keys and values to attach to the meters
+	 *
+	 * @return an instrumented {@link Mono}
+	 */
+	public final Mono<T> metrics(String name, String... tags) {
+		FluxMetrics.Meters meters =
+				new FluxMetrics.Meters(Metrics.getRegistry(), name, tags);
+		if (this instanceof Fuseable) {
+			return onAssembly(new MonoMetricsFuseable<>(this, meters));
+		}
+		return onAssembly(new MonoMetrics<>(this, meters));
+	}
+
 	/**
 	 * Transform any error emitted by this {@link Mono} by synchronously applying a function to it.
 	 * <p>
@@ -2865,6 +2916,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * @return a {@link Mono} ignoring its payload (actively dropping)
 	 */
 	public final Mono<Void> then() {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return empty();
+		}
 		return empty(this);
 	}
 
@@ -2884,6 +2938,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * @return a new {@link Mono} that emits from the supplied {@link Mono}
 	 */
 	public final <V> Mono<V> then(Mono<V> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return other;
+		}
 		if (this instanceof MonoThenIgnore) {
             MonoThenIgnore<T> a = (MonoThenIgnore<T>) this;
             return a.shift(other);
@@ -2904,6 +2961,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * sequence
 	 */
 	public final Mono<Void> thenEmpty(Publisher<Void> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return from(other);
+		}
 		MonoIgnoreEmpty<T> ignored = new MonoIgnoreEmpty<>(this);
 		Mono<Void> then = ignored.then(MonoSource.wrap(other));
 		return Mono.onAssembly(then);
@@ -2925,6 +2985,9 @@ public abstract class Mono<T> implements Publisher<T> {
 	 * this Mono completes.
 	 */
 	public final <V> Flux<V> thenMany(Publisher<V> other) {
+		if (this instanceof Fuseable.ScalarCallable) {
+			return Flux.from(other);
+		}
 		@SuppressWarnings("unchecked")
 		Flux<V> concat = (Flux<V>)Flux.concat(ignoreElement(), other);
 		return Flux.onAssembly(concat);
@@ -3235,6 +3298,58 @@ public abstract class Mono<T> implements Publisher<T> {
 	
 	static final Function<? super Object[], Void> VOID_FUNCTION = t -> null;
 
+	/**
+	 * Resolve at assembly time the {@link MonoWhen} of sources that are all constant
+	 * ({@link Fuseable.ScalarCallable} or {@link Flux#constantError(Publisher) errors}),
+	 * so that no coordinator and inner subscribers have to be allocated for each
+	 * subscription. The outcome is the same as the one of the coordinator: the first
+	 * error, else an empty completion if a source is empty, else the combined values.
+	 *
+	 * @param combinator the function combining the values of the sources
+	 * @param delayError true if errors are delayed until all sources have terminated
+	 * @param sources the sources to combine
+	 * @param <R> the combined type
+	 *
+	 * @return a {@link Mono} for the combination or null if a source isn't constant or
+	 * if several delayed errors would have to be composed
+	 */
+	static <R> Mono<R> whenConstants(Function<? super Object[], ? extends R> combinator,
+			boolean delayError,
+			Publisher<?>... sources) {
+		Throwable error = null;
+		boolean empty = false;
+		for (Publisher<?> p : sources) {
+			if (p instanceof Fuseable.ScalarCallable) {
+				if (((Fuseable.ScalarCallable<?>) p).call() == null) {
+					empty = true;
+				}
+			}
+			else {
+				Throwable e = Flux.constantError(p);
+				if (e == null || (delayError && error != null)) {
+					return null;
+				}
+				if (error == null) {
+					error = e;
+				}
+			}
+		}
+
+		if (error != null) {
+			return error(error);
+		}
+		if (empty || combinator == VOID_FUNCTION) {
+			return empty();
+		}
+
+		int n = sources.length;
+		Object[] values = new Object[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = ((Fuseable.ScalarCallable<?>) sources[i]).call();
+		}
+		return onAssembly(new MonoMapFuseable<>(new MonoJust<>(values), combinator));
+	}
+
 	@SuppressWarnings("unchecked")
 	static <T> BiPredicate<? super T, ? super T> equalsBiPredicate(){
 		return EQUALS_BIPREDICATE;
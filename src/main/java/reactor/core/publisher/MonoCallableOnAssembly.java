@@ -42,9 +42,9 @@ final class MonoCallableOnAssembly<T> extends MonoSource<T, T>
 
 	final AssemblySnapshotException stacktrace;
 
-	MonoCallableOnAssembly(Mono<? extends T> source) {
+	MonoCallableOnAssembly(Mono<? extends T> source, AssemblySnapshotException stacktrace) {
 		super(source);
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	@Override
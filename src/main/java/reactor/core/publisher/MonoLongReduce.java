@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+
+/**
+ * Aggregates the values of a {@link LongFlux} with an aggregator function, optionally
+ * starting from an initial value, and emits the result boxed once. Synchronous sources
+ * are drained through the primitive fusion protocol.
+ */
+final class MonoLongReduce extends Mono<Long> implements Fuseable, Scannable {
+
+	final LongFlux           source;
+	final boolean            hasInitial;
+	final long               initial;
+	final LongBinaryOperator aggregator;
+
+	MonoLongReduce(LongFlux source,
+			boolean hasInitial,
+			long initial,
+			LongBinaryOperator aggregator) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.hasInitial = hasInitial;
+		this.initial = initial;
+		this.aggregator = Objects.requireNonNull(aggregator, "aggregator");
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super Long> s) {
+		source.subscribe(new ReduceSubscriber(s, hasInitial, initial, aggregator));
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		if (key == Attr.PARENT) {
+			return source;
+		}
+		return null;
+	}
+
+	static final class ReduceSubscriber extends Operators.MonoSubscriber<Long, Long>
+			implements LongSubscriber {
+
+		final LongBinaryOperator aggregator;
+
+		Subscription s;
+
+		long    result;
+		boolean hasResult;
+
+		boolean done;
+
+		ReduceSubscriber(Subscriber<? super Long> actual,
+				boolean hasInitial,
+				long initial,
+				LongBinaryOperator aggregator) {
+			super(actual);
+			this.aggregator = aggregator;
+			this.result = initial;
+			this.hasResult = hasInitial;
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			switch (key) {
+				case TERMINATED:
+					return done;
+				case PARENT:
+					return s;
+			}
+			return super.scan(key);
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+
+				if (s instanceof LongQueueSubscription) {
+					LongQueueSubscription qs = (LongQueueSubscription) s;
+					if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+						drainSync(qs);
+						return;
+					}
+				}
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		void drainSync(LongQueueSubscription qs) {
+			long r = result;
+			boolean h = hasResult;
+			try {
+				while (!qs.isEmpty()) {
+					if (isCancelled()) {
+						return;
+					}
+					long v = qs.pollLong();
+					if (h) {
+						r = aggregator.applyAsLong(r, v);
+					}
+					else {
+						r = v;
+						h = true;
+					}
+				}
+			}
+			catch (Throwable ex) {
+				done = true;
+				actual.onError(Operators.onOperatorError(s, ex));
+				return;
+			}
+			result = r;
+			hasResult = h;
+			onComplete();
+		}
+
+		@Override
+		public void onNext(Long t) {
+			onNextLong(t);
+		}
+
+		@Override
+		public void onNextLong(long t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (hasResult) {
+				try {
+					result = aggregator.applyAsLong(result, t);
+				}
+				catch (Throwable ex) {
+					done = true;
+					actual.onError(Operators.onOperatorError(s, ex, t));
+				}
+			}
+			else {
+				result = t;
+				hasResult = true;
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			if (hasResult) {
+				complete(result);
+			}
+			else {
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+	}
+}
@@ -38,11 +38,11 @@ final class MonoOnAssembly<T> extends MonoSource<T, T> implements Fuseable, Asse
 	final AssemblySnapshotException stacktrace;
 
 	/**
-	 * Create an assembly trace exposed as a {@link Mono}.
+	 * Create an assembly trace or call site exposed as a {@link Mono}.
 	 */
-	MonoOnAssembly(Mono<? extends T> source) {
+	MonoOnAssembly(Mono<? extends T> source, AssemblySnapshotException stacktrace) {
 		super(source);
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	/**
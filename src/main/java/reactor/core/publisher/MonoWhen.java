@@ -26,6 +26,7 @@ import java.util.stream.Stream;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
 import reactor.core.Scannable;
 
 
@@ -118,12 +119,55 @@ final class MonoWhen<T, R> extends Mono<R> {
             return;
         }
 
+	    if (subscribeScalars(s, a, n)) {
+		    return;
+	    }
+
 	    WhenCoordinator<R> parent =
 			    new WhenCoordinator<>(s, n, delayError, zipper);
 	    s.onSubscribe(parent);
         parent.subscribe(a);
     }
 
+	/**
+	 * Combine the sources without a coordinator if they are all
+	 * {@link Fuseable.ScalarCallable}, as pairwise combinations built with
+	 * {@link Mono#and(Mono)} are not resolved at assembly time.
+	 *
+	 * @return true if the sources were all scalars and the subscriber has been signalled
+	 */
+	boolean subscribeScalars(Subscriber<? super R> s, Publisher<?>[] a, int n) {
+		for (int i = 0; i < n; i++) {
+			if (!(a[i] instanceof Fuseable.ScalarCallable)) {
+				return false;
+			}
+		}
+
+		Object[] o = new Object[n];
+		for (int i = 0; i < n; i++) {
+			Object v = ((Fuseable.ScalarCallable<?>) a[i]).call();
+			if (v == null || zipper == VOID_FUNCTION) {
+				Operators.complete(s);
+				return true;
+			}
+			o[i] = v;
+		}
+
+		Operators.MonoSubscriber<R, R> sds = new Operators.MonoSubscriber<>(s);
+		s.onSubscribe(sds);
+
+		R r;
+		try {
+			r = Objects.requireNonNull(zipper.apply(o), "zipper produced a null value");
+		}
+		catch (Throwable t) {
+			s.onError(Operators.onOperatorError(null, t, o));
+			return true;
+		}
+		sds.complete(r);
+		return true;
+	}
+
 	static final class WhenCoordinator<R>
 			extends Operators.MonoSubscriber<Object, R> {
 
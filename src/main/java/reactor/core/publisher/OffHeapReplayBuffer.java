@@ -0,0 +1,558 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscriber;
+import reactor.core.Fuseable;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Codec;
+
+/**
+ * A {@link FluxReplay.ReplayBuffer} keeping the values encoded by a {@link Codec} in
+ * direct or memory-mapped segments rather than in heap nodes, so a large history
+ * doesn't grow the heap. It can be bounded by size, age or both.
+ * <p>
+ * Records are appended by the single writer (the source thread) as a length, a
+ * timestamp and the encoded bytes, then published by a volatile write of the segment
+ * {@link Segment#committed committed} offset. Subscriptions keep their own segment and
+ * offset, and decode each value from a read-only view of the segment as they replay.
+ * <p>
+ * Evicted segments are not freed explicitly: a subscription lagging behind keeps
+ * reading from the segment it holds, and the memory of a segment is released when it
+ * is garbage collected.
+ *
+ * @param <T> the value type
+ */
+final class OffHeapReplayBuffer<T> implements FluxReplay.ReplayBuffer<T> {
+
+	/**
+	 * Length and timestamp of each record
+	 */
+	static final int HEADER = 12;
+
+	static final int MIN_SEGMENT_SIZE = 4096;
+	static final int MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+	static final class Segment {
+
+		final ByteBuffer buffer;
+
+		/**
+		 * Absolute view of the buffer only used by the writer
+		 */
+		final ByteBuffer writer;
+
+		/**
+		 * The offset up to which records are published
+		 */
+		volatile int committed;
+
+		/**
+		 * The offset of the first retained record while this segment is the head
+		 */
+		volatile int start;
+
+		volatile Segment next;
+
+		Segment(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.writer = buffer.duplicate();
+		}
+	}
+
+	final Codec<T>  codec;
+	final int       limit;
+	final long      maxAge;
+	final Scheduler scheduler;
+	final Path      directory;
+
+	volatile Segment head;
+
+	Segment tail;
+	int     nextSegmentSize;
+
+	volatile int size;
+
+	Throwable error;
+	volatile boolean done;
+
+	/**
+	 * @param codec the {@link Codec} of the values
+	 * @param limit the maximum number of values retained, {@link Integer#MAX_VALUE} if
+	 * unbounded
+	 * @param maxAge the maximum age of the values in milliseconds, ignored if there is
+	 * no scheduler
+	 * @param scheduler the clock timestamping the values, null if the age is unbounded
+	 * @param directory the directory of the memory-mapped segment files, null to use
+	 * direct buffers
+	 */
+	OffHeapReplayBuffer(Codec<T> codec,
+			int limit,
+			long maxAge,
+			Scheduler scheduler,
+			Path directory) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit cannot be negative");
+		}
+		this.codec = Objects.requireNonNull(codec, "codec");
+		this.limit = limit;
+		this.maxAge = maxAge;
+		this.scheduler = scheduler;
+		this.directory = directory;
+		this.nextSegmentSize = MIN_SEGMENT_SIZE;
+		//segments are only allocated with the first value
+		Segment s = new Segment(ByteBuffer.allocate(0));
+		this.tail = s;
+		this.head = s;
+	}
+
+	@Override
+	public int capacity() {
+		return limit;
+	}
+
+	@Override
+	public void add(T value) {
+		ByteBuffer data = codec.encode(value);
+		int length = data.remaining();
+		int recordSize = HEADER + length;
+		long now = scheduler != null ? scheduler.now(TimeUnit.MILLISECONDS) : 0L;
+
+		Segment t = tail;
+		int offset = t.committed;
+		if (offset + recordSize > t.buffer.capacity()) {
+			Segment n = allocate(recordSize);
+			write(n, 0, length, now, data);
+			t.next = n;
+			tail = n;
+		}
+		else {
+			write(t, offset, length, now, data);
+		}
+
+		int s = size;
+		if (s == limit) {
+			evictFirst();
+		}
+		else {
+			size = s + 1;
+		}
+
+		if (scheduler != null) {
+			long oldest = now - maxAge;
+			while (size != 0 && firstTime() <= oldest) {
+				evictFirst();
+				size--;
+			}
+		}
+	}
+
+	void write(Segment segment, int offset, int length, long time, ByteBuffer data) {
+		ByteBuffer w = segment.writer;
+		w.putInt(offset, length);
+		w.putLong(offset + 4, time);
+		w.position(offset + HEADER);
+		w.put(data);
+		segment.committed = offset + HEADER + length;
+	}
+
+	Segment allocate(int recordSize) {
+		int capacity = nextSegmentSize;
+		if (capacity < MAX_SEGMENT_SIZE) {
+			nextSegmentSize = capacity << 1;
+		}
+		capacity = Math.max(capacity, recordSize);
+
+		if (directory == null) {
+			return new Segment(ByteBuffer.allocateDirect(capacity));
+		}
+
+		try {
+			Path file = Files.createTempFile(directory, "replay-", ".segment");
+			try (FileChannel channel = FileChannel.open(file,
+					StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				return new Segment(channel.map(FileChannel.MapMode.READ_WRITE,
+						0,
+						capacity));
+			}
+			finally {
+				//the mapping outlives the file where supported
+				try {
+					Files.deleteIfExists(file);
+				}
+				catch (IOException e) {
+					file.toFile()
+					    .deleteOnExit();
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the first segment with a retained record, only called by the writer
+	 * while there is at least one
+	 */
+	Segment first() {
+		Segment h = head;
+		if (h.start == h.committed) {
+			h = h.next;
+			head = h;
+		}
+		return h;
+	}
+
+	long firstTime() {
+		Segment h = first();
+		return h.buffer.getLong(h.start + 4);
+	}
+
+	/**
+	 * Drop the first record, without updating the size
+	 */
+	void evictFirst() {
+		Segment h = first();
+		int s = h.start;
+		s += HEADER + h.buffer.getInt(s);
+		h.start = s;
+		if (s == h.committed) {
+			Segment n = h.next;
+			if (n != null) {
+				head = n;
+			}
+		}
+	}
+
+	/**
+	 * Move the given cursor to the segment holding its next record, if any.
+	 *
+	 * @return the segment holding the next record, or the last one if there is no next
+	 * record
+	 */
+	static Segment locate(Segment segment, int offset) {
+		while (offset >= segment.committed) {
+			Segment n = segment.next;
+			//committed is final once next is set
+			if (n == null || offset < segment.committed) {
+				break;
+			}
+			segment = n;
+			offset = 0;
+		}
+		return segment;
+	}
+
+	T read(Segment segment, int offset) {
+		ByteBuffer b = segment.buffer.asReadOnlyBuffer();
+		int length = b.getInt(offset);
+		b.limit(offset + HEADER + length)
+		 .position(offset + HEADER);
+		return Objects.requireNonNull(codec.decode(b.slice()),
+				"The codec returned a null value");
+	}
+
+	/**
+	 * Start a subscription at the oldest record still retained and not older than
+	 * maxAge.
+	 *
+	 * @return the start segment, with the start offset stored in the subscription index
+	 */
+	Segment start(FluxReplay.ReplaySubscription<T> rs) {
+		Segment segment = head;
+		int offset = segment.start;
+		if (scheduler != null && !done) {
+			long oldest = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
+			for (; ; ) {
+				Segment s = locate(segment, offset);
+				if (s != segment) {
+					segment = s;
+					offset = 0;
+				}
+				if (offset >= segment.committed || segment.buffer.getLong(offset + 4) > oldest) {
+					break;
+				}
+				offset += HEADER + segment.buffer.getInt(offset);
+			}
+		}
+		rs.index(offset);
+		return segment;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void replay(FluxReplay.ReplaySubscription<T> rs) {
+		if (!rs.enter()) {
+			return;
+		}
+
+		if (rs.fusionMode() == Fuseable.NONE) {
+			replayNormal(rs);
+		}
+		else {
+			replayFused(rs);
+		}
+	}
+
+	void replayNormal(FluxReplay.ReplaySubscription<T> rs) {
+		final Subscriber<? super T> a = rs.actual();
+
+		int missed = 1;
+
+		for (; ; ) {
+
+			long r = rs.requested();
+			long e = 0L;
+
+			Segment segment = (Segment) rs.node();
+			if (segment == null) {
+				segment = start(rs);
+			}
+			int offset = rs.index();
+
+			while (e != r) {
+				if (rs.isCancelled()) {
+					rs.node(null);
+					return;
+				}
+
+				boolean d = done;
+				Segment s = locate(segment, offset);
+				if (s != segment) {
+					segment = s;
+					offset = 0;
+				}
+				boolean empty = offset >= segment.committed;
+
+				if (d && empty) {
+					rs.node(null);
+					Throwable ex = error;
+					if (ex != null) {
+						a.onError(ex);
+					}
+					else {
+						a.onComplete();
+					}
+					return;
+				}
+
+				if (empty) {
+					break;
+				}
+
+				T v;
+				try {
+					v = read(segment, offset);
+				}
+				catch (Throwable ex) {
+					rs.node(null);
+					a.onError(Operators.onOperatorError(rs, ex));
+					return;
+				}
+
+				a.onNext(v);
+
+				e++;
+				offset += HEADER + segment.buffer.getInt(offset);
+			}
+
+			if (e == r) {
+				if (rs.isCancelled()) {
+					rs.node(null);
+					return;
+				}
+
+				boolean d = done;
+				Segment s = locate(segment, offset);
+				if (s != segment) {
+					segment = s;
+					offset = 0;
+				}
+				boolean empty = offset >= segment.committed;
+
+				if (d && empty) {
+					rs.node(null);
+					Throwable ex = error;
+					if (ex != null) {
+						a.onError(ex);
+					}
+					else {
+						a.onComplete();
+					}
+					return;
+				}
+			}
+
+			if (e != 0L) {
+				if (r != Long.MAX_VALUE) {
+					rs.produced(e);
+				}
+			}
+
+			rs.node(segment);
+			rs.index(offset);
+
+			missed = rs.leave(missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	void replayFused(FluxReplay.ReplaySubscription<T> rs) {
+		int missed = 1;
+
+		final Subscriber<? super T> a = rs.actual();
+
+		for (; ; ) {
+
+			if (rs.isCancelled()) {
+				rs.node(null);
+				return;
+			}
+
+			boolean d = done;
+
+			a.onNext(null);
+
+			if (d) {
+				Throwable ex = error;
+				if (ex != null) {
+					a.onError(ex);
+				}
+				else {
+					a.onComplete();
+				}
+				return;
+			}
+
+			missed = rs.leave(missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void onError(Throwable ex) {
+		error = ex;
+		done = true;
+	}
+
+	@Override
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public void onComplete() {
+		done = true;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * @return the segment holding the next record of the subscription or the last
+	 * segment, with the matching offset stored in the subscription index
+	 */
+	Segment cursor(FluxReplay.ReplaySubscription<T> rs) {
+		Segment segment = (Segment) rs.node();
+		if (segment == null) {
+			segment = start(rs);
+			rs.node(segment);
+		}
+		int offset = rs.index();
+		Segment s = locate(segment, offset);
+		if (s != segment) {
+			rs.node(s);
+			rs.index(0);
+		}
+		return s;
+	}
+
+	@Override
+	public T poll(FluxReplay.ReplaySubscription<T> rs) {
+		Segment segment = cursor(rs);
+		int offset = rs.index();
+		if (offset >= segment.committed) {
+			return null;
+		}
+		T v = read(segment, offset);
+		rs.index(offset + HEADER + segment.buffer.getInt(offset));
+		return v;
+	}
+
+	@Override
+	public void clear(FluxReplay.ReplaySubscription<T> rs) {
+		rs.node(null);
+	}
+
+	@Override
+	public boolean isEmpty(FluxReplay.ReplaySubscription<T> rs) {
+		Segment segment = cursor(rs);
+		return rs.index() >= segment.committed;
+	}
+
+	@Override
+	public int size(FluxReplay.ReplaySubscription<T> rs) {
+		Segment segment = (Segment) rs.node();
+		int offset;
+		if (segment == null) {
+			segment = head;
+			offset = segment.start;
+		}
+		else {
+			offset = rs.index();
+		}
+		return count(segment, offset);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	static int count(Segment segment, int offset) {
+		int count = 0;
+		for (; ; ) {
+			Segment s = locate(segment, offset);
+			if (s != segment) {
+				segment = s;
+				offset = 0;
+			}
+			if (offset >= segment.committed || count == Integer.MAX_VALUE) {
+				return count;
+			}
+			count++;
+			offset += HEADER + segment.buffer.getInt(offset);
+		}
+	}
+}
@@ -113,6 +113,7 @@ final class ParallelFlatMap<T, R> extends ParallelFlux<R> implements Scannable{
 				maxConcurrency,
 				mainQueueSupplier,
 				prefetch,
+				prefetch,
 				innerQueueSupplier);
 	}
 }
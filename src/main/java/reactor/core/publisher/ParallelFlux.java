@@ -157,7 +157,7 @@ public abstract class ParallelFlux<T> implements Publisher<T> {
 	 * @return the assembly tracing {@link ParallelFlux}
 	 */
 	public final ParallelFlux<T> checkpoint() {
-		return new ParallelFluxOnAssembly<>(this, null);
+		return new ParallelFluxOnAssembly<>(this, (String) null);
 	}
 
 	/**
@@ -834,6 +834,36 @@ public abstract class ParallelFlux<T> implements Publisher<T> {
 				QueueSupplier.get(prefetch)));
 	}
 
+	/**
+	 * Specifies where each 'rail' will observe its incoming values with possibly
+	 * work-stealing and a given prefetch amount, optionally pinning each rail to a
+	 * worker of the Scheduler.
+	 * <p>
+	 * When {@code pinned} is true, the operator calls {@code Scheduler.createWorker(i)}
+	 * for rail {@code i}: with a Scheduler backed by a fixed pool of threads (like
+	 * {@link reactor.core.scheduler.Schedulers#newParallel(String, int) newParallel}),
+	 * rail {@code i} then runs on the same thread in every {@code runOn} stage using that
+	 * Scheduler, which avoids moving its data across cores (and sockets) between stages.
+	 * Otherwise this behaves like {@link #runOn(Scheduler, int)}.
+	 * <p>
+	 * This operator doesn't require the Scheduler to be trampolining as it does its own
+	 * built-in trampolining logic.
+	 *
+	 * @param scheduler the scheduler to use that rail's worker has run out of work.
+	 * @param prefetch the number of values to request on each 'rail' from the source
+	 * @param pinned true to map each rail index to a same worker of the Scheduler
+	 *
+	 * @return the new {@link ParallelFlux} instance
+	 */
+	public final ParallelFlux<T> runOn(Scheduler scheduler, int prefetch, boolean pinned) {
+		Objects.requireNonNull(scheduler, "scheduler");
+		return onAssembly(new ParallelRunOn<>(this,
+				scheduler,
+				prefetch,
+				pinned,
+				QueueSupplier.get(prefetch)));
+	}
+
 	/**
 	 * Merges the values from each 'rail' in a round-robin or same-order fashion and
 	 * exposes it as a regular Publisher sequence, running with a default prefetch value
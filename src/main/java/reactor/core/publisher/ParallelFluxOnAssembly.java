@@ -42,11 +42,11 @@ final class ParallelFluxOnAssembly<T> extends ParallelFlux<T>
 	final AssemblySnapshotException stacktrace;
 
 	/**
-	 * Create an assembly trace wrapping a {@link ParallelFlux}.
+	 * Create an assembly trace or call site wrapping a {@link ParallelFlux}.
 	 */
-	ParallelFluxOnAssembly(ParallelFlux<T> source) {
+	ParallelFluxOnAssembly(ParallelFlux<T> source, AssemblySnapshotException stacktrace) {
 		this.source = source;
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	/**
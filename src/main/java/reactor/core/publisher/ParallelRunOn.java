@@ -36,16 +36,29 @@ final class ParallelRunOn<T> extends ParallelFlux<T> implements Scannable, Fusea
 
 	final int prefetch;
 
+	/**
+	 * Whether rail i gets its worker from {@code scheduler.createWorker(i)}, which keeps
+	 * it on the same thread across stages for Schedulers with a fixed pool of threads.
+	 */
+	final boolean pinned;
+
 	final Supplier<Queue<T>> queueSupplier;
 	
 	ParallelRunOn(ParallelFlux<? extends T> parent,
 			Scheduler scheduler, int prefetch, Supplier<Queue<T>> queueSupplier) {
+		this(parent, scheduler, prefetch, false, queueSupplier);
+	}
+
+	ParallelRunOn(ParallelFlux<? extends T> parent,
+			Scheduler scheduler, int prefetch, boolean pinned,
+			Supplier<Queue<T>> queueSupplier) {
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
 		this.source = parent;
 		this.scheduler = scheduler;
 		this.prefetch = prefetch;
+		this.pinned = pinned;
 		this.queueSupplier = queueSupplier;
 	}
 
@@ -74,11 +87,11 @@ final class ParallelRunOn<T> extends ParallelFlux<T> implements Scannable, Fusea
 		for (int i = 0; i < n; i++) {
 			Subscriber<? super T> a = subscribers[i];
 			
-			Worker w = scheduler.createWorker();
+			Worker w = pinned ? scheduler.createWorker(i) : scheduler.createWorker();
 
 			Subscriber<T> parent = new FluxPublishOn.PublishOnSubscriber<>(a,
 					scheduler, w, true,
-					prefetch, queueSupplier);
+					prefetch, prefetch, Integer.MAX_VALUE, queueSupplier);
 			parents[i] = parent;
 		}
 		
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * An array-backed {@link java.util.List} emitted by the pooled buffer operators, that
+ * goes back to its {@link BufferPool} once {@link #release() released}.
+ * <p>
+ * The subscriber owns the buffer it receives and must release it exactly once when it
+ * is done with its values, and must not use it afterwards: the buffer is cleared and
+ * handed to the next acquirer. Buffers that are never released are simply garbage
+ * collected, the pool then allocates new ones.
+ *
+ * @param <T> the buffered value type
+ *
+ * @see Flux#bufferPooled(int, BufferPool)
+ */
+public final class PooledBuffer<T> extends AbstractList<T> implements RandomAccess {
+
+	final BufferPool<T> pool;
+
+	Object[] values;
+
+	int size;
+
+	volatile int released;
+	@SuppressWarnings("rawtypes")
+	static final AtomicIntegerFieldUpdater<PooledBuffer> RELEASED =
+			AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "released");
+
+	PooledBuffer(BufferPool<T> pool, int capacity) {
+		this.pool = pool;
+		this.values = new Object[capacity];
+	}
+
+	/**
+	 * Clear this buffer and return it to its {@link BufferPool}.
+	 *
+	 * @throws IllegalStateException if the buffer was already released
+	 */
+	public void release() {
+		if (!RELEASED.compareAndSet(this, 0, 1)) {
+			throw new IllegalStateException("The buffer has already been released");
+		}
+		clear();
+		pool.recycle(this);
+	}
+
+	void acquired() {
+		RELEASED.lazySet(this, 0);
+	}
+
+	@Override
+	public boolean add(T t) {
+		Object[] a = values;
+		int s = size;
+		if (s == a.length) {
+			a = Arrays.copyOf(a, s + (s >> 1) + 1);
+			values = a;
+		}
+		a[s] = t;
+		size = s + 1;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (T) values[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+	}
+}
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -30,6 +31,7 @@ import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.Codec;
 import reactor.util.concurrent.QueueSupplier;
 
 import static reactor.core.publisher.FluxReplay.ReplaySubscriber.EMPTY;
@@ -286,6 +288,74 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 				scheduler));
 	}
 
+	/**
+	 * Create a new {@link ReplayProcessor} retaining up to the given number of items
+	 * encoded by a {@link Codec} in direct memory rather than on the heap, so a large
+	 * history doesn't add garbage collection pressure. Each subscriber decodes the
+	 * items it replays.
+	 *
+	 * @param size the maximum number of items retained, {@link Integer#MAX_VALUE} for
+	 * an unbounded history
+	 * @param codec the {@link Codec} of the retained items
+	 * @param <T> the type of items observed and emitted by the Processor
+	 *
+	 * @return a new {@link ReplayProcessor}
+	 */
+	public static <T> ReplayProcessor<T> createOffHeap(int size, Codec<T> codec) {
+		return new ReplayProcessor<>(new OffHeapReplayBuffer<>(codec, size, 0L, null, null));
+	}
+
+	/**
+	 * Create a new time- and size-bounded {@link ReplayProcessor} retaining the items
+	 * encoded by a {@link Codec} in direct memory rather than on the heap. Items are
+	 * evicted as described in {@link #createSizeAndTimeout(int, Duration, Scheduler)}.
+	 *
+	 * @param size the maximum number of items retained, {@link Integer#MAX_VALUE} for
+	 * an unbounded history
+	 * @param maxAge the maximum age of the contained items
+	 * @param scheduler the {@link Scheduler} that provides the current time
+	 * @param codec the {@link Codec} of the retained items
+	 * @param <T> the type of items observed and emitted by the Processor
+	 *
+	 * @return a new {@link ReplayProcessor}
+	 */
+	public static <T> ReplayProcessor<T> createOffHeap(int size,
+			Duration maxAge,
+			Scheduler scheduler,
+			Codec<T> codec) {
+		Objects.requireNonNull(scheduler, "scheduler is null");
+		return new ReplayProcessor<>(new OffHeapReplayBuffer<>(codec,
+				size,
+				maxAge.toMillis(),
+				scheduler,
+				null));
+	}
+
+	/**
+	 * Create a new {@link ReplayProcessor} retaining up to the given number of items
+	 * encoded by a {@link Codec} in memory-mapped files created in the given directory.
+	 * The files are deleted as soon as they are mapped where the platform allows it,
+	 * so the history doesn't survive the processor.
+	 *
+	 * @param size the maximum number of items retained, {@link Integer#MAX_VALUE} for
+	 * an unbounded history
+	 * @param codec the {@link Codec} of the retained items
+	 * @param directory the directory of the memory-mapped files
+	 * @param <T> the type of items observed and emitted by the Processor
+	 *
+	 * @return a new {@link ReplayProcessor}
+	 */
+	public static <T> ReplayProcessor<T> createMapped(int size,
+			Codec<T> codec,
+			Path directory) {
+		Objects.requireNonNull(directory, "directory");
+		return new ReplayProcessor<>(new OffHeapReplayBuffer<>(codec,
+				size,
+				0L,
+				null,
+				directory));
+	}
+
 	final FluxReplay.ReplayBuffer<T> buffer;
 
 	Subscription subscription;
@@ -418,7 +488,13 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 			Operators.onNextDropped(t);
 		}
 		else {
-			b.add(t);
+			try {
+				b.add(t);
+			}
+			catch (Throwable ex) {
+				onError(Operators.onOperatorError(subscription, ex, t));
+				return;
+			}
 			for (FluxReplay.ReplaySubscription<T> rs : subscribers) {
 				b.replay(rs);
 			}
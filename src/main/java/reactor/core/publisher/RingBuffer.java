@@ -359,6 +359,15 @@ abstract class RingBuffer<E> implements LongSupplier {
 	 * @param sequence the sequence to publish.
 	 */
 	abstract void publish(long sequence);
+
+	/**
+	 * Publish the specified range of sequences, previously claimed by
+	 * {@link RingBuffer#next(int)}, signalling the waiting readers once.
+	 * @param lo the lowest sequence to publish
+	 * @param hi the highest sequence to publish
+	 */
+	abstract void publish(long lo, long hi);
+
 	/**
 	 * Remove the specified sequence from this ringBuffer.
 	 * @param sequence to be removed.
@@ -690,6 +699,15 @@ abstract class RingBufferProducer {
 	 */
 	abstract void publish(long sequence);
 
+	/**
+	 * Publishes a range of sequences claimed by {@link #next(int)}. Call when all the
+	 * events in the range have been filled.
+	 *
+	 * @param lo the lowest sequence number to be published
+	 * @param hi the highest sequence number to be published
+	 */
+	abstract void publish(long lo, long hi);
+
 	/**
 	 *
 	 * @return the gating sequences array
@@ -801,6 +819,14 @@ final class SingleProducerSequencer extends SingleProducerSequencerFields {
 		waitStrategy.signalAllWhenBlocking();
 	}
 
+	/**
+	 * See {@code RingBufferProducer.publish(long, long)}.
+	 */
+	@Override
+	void publish(long lo, long hi) {
+		publish(hi);
+	}
+
 	@Override
 	long getHighestPublishedSequence(long lowerBound, long availableSequence) {
 		return availableSequence;
@@ -926,6 +952,12 @@ final class NotFunRingBuffer<E> extends NotFunRingBufferFields<E>
 		sequenceProducer.publish(sequence);
 	}
 
+	@Override
+	void publish(long lo, long hi)
+	{
+		sequenceProducer.publish(lo, hi);
+	}
+
 	@Override
 	int getPending() {
 		return (int)sequenceProducer.getPending();
@@ -1114,6 +1146,12 @@ final class UnsafeRingBuffer<E> extends RingBufferFields<E>
 		sequenceProducer.publish(sequence);
 	}
 
+	@Override
+	void publish(long lo, long hi)
+	{
+		sequenceProducer.publish(lo, hi);
+	}
+
 	@Override
 	int getPending() {
 		return (int)sequenceProducer.getPending();
@@ -1316,6 +1354,19 @@ final class MultiProducerRingBuffer extends RingBufferProducer
 		waitStrategy.signalAllWhenBlocking();
 	}
 
+	/**
+	 * See {@code RingBufferProducer.publish(long, long)}.
+	 */
+	@Override
+	void publish(long lo, long hi)
+	{
+		for (long sequence = lo; sequence <= hi; sequence++)
+		{
+			setAvailable(sequence);
+		}
+		waitStrategy.signalAllWhenBlocking();
+	}
+
 	/**
 	 * The below methods work on the availableBuffer flag.
 	 *
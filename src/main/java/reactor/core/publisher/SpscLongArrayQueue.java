@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * A bounded single-producer single-consumer queue of primitive longs. As a slot can't be
+ * null to mark it empty, availability is published through ordered writes of the
+ * producer index, and the consumer must test {@link #isEmpty()} before
+ * {@link #pollLong()}.
+ */
+final class SpscLongArrayQueue {
+
+	final long[] array;
+
+	final int mask;
+
+	volatile long producerIndex;
+	static final AtomicLongFieldUpdater<SpscLongArrayQueue> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(SpscLongArrayQueue.class, "producerIndex");
+
+	volatile long consumerIndex;
+	static final AtomicLongFieldUpdater<SpscLongArrayQueue> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(SpscLongArrayQueue.class, "consumerIndex");
+
+	SpscLongArrayQueue(int capacity) {
+		int c = QueueSupplier.ceilingNextPowerOfTwo(Math.max(8, capacity));
+		this.array = new long[c];
+		this.mask = c - 1;
+	}
+
+	boolean offer(long value) {
+		long pi = producerIndex;
+		if (pi - consumerIndex == array.length) {
+			return false;
+		}
+		array[(int) pi & mask] = value;
+		PRODUCER_INDEX.lazySet(this, pi + 1);
+		return true;
+	}
+
+	boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	long pollLong() {
+		long ci = consumerIndex;
+		long v = array[(int) ci & mask];
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return v;
+	}
+
+	void clear() {
+		CONSUMER_INDEX.lazySet(this, producerIndex);
+	}
+
+	int size() {
+		return (int) (producerIndex - consumerIndex);
+	}
+}
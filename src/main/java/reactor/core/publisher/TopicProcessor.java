@@ -1025,6 +1025,11 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 
 		final Subscriber<? super T> subscriber;
 
+		/**
+		 * The subscriber if it is a {@link BatchAwareSubscriber}, null otherwise
+		 */
+		final BatchAwareSubscriber<?> batchSubscriber;
+
 		final Runnable waiter = new Runnable() {
 			@Override
 			public void run() {
@@ -1048,6 +1053,8 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 			this.processor = processor;
 			this.pendingRequest = pendingRequest;
 			this.subscriber = subscriber;
+			this.batchSubscriber = subscriber instanceof BatchAwareSubscriber ?
+					(BatchAwareSubscriber<?>) subscriber : null;
 		}
 
 		void halt() {
@@ -1093,6 +1100,7 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 					try {
 
 						final long availableSequence = processor.barrier.waitFor(nextSequence, waiter);
+						final long batchStart = nextSequence;
 						while (nextSequence <= availableSequence) {
 							event = processor.ringBuffer.get(nextSequence);
 
@@ -1111,6 +1119,9 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 								nextSequence++;
 
 						}
+						if (batchSubscriber != null && nextSequence > batchStart) {
+							batchSubscriber.onBatchEnd();
+						}
 						sequence.set(availableSequence);
 
 						if (Operators.emptySubscription() !=
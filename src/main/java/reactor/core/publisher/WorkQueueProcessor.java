@@ -79,6 +79,7 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		WaitStrategy waitStrategy;
 		boolean share;
 		boolean autoCancel;
+		int claimBatchSize;
 
 		/**
 		 * Creates a new {@link WorkQueueProcessor} builder with default properties.
@@ -92,6 +93,7 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 			this.bufferSize = QueueSupplier.SMALL_BUFFER_SIZE;
 			this.autoCancel = true;
 			this.share = false;
+			this.claimBatchSize = 1;
 		}
 
 		/**
@@ -182,6 +184,25 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 			return this;
 		}
 
+		/**
+		 * Configures the maximum number of slots each subscriber claims at once from the
+		 * shared work sequence. Default value is 1, each subscriber claiming the next
+		 * slot for every signal. A larger value lets subscribers claim ranges of
+		 * published slots, reducing the contention on the work sequence when many
+		 * subscribers compete, at the cost of a less even distribution of the signals.
+		 * Each signal is still delivered to a single subscriber.
+		 * @param claimBatchSize the maximum number of slots claimed at once
+		 * @return builder with provided claim batch size
+		 */
+		public Builder<T> claimBatchSize(int claimBatchSize) {
+			if (claimBatchSize < 1) {
+				throw new IllegalArgumentException("claimBatchSize must be strictly positive, " +
+						"was: " + claimBatchSize);
+			}
+			this.claimBatchSize = claimBatchSize;
+			return this;
+		}
+
 		/**
 		 * Creates a new {@link WorkQueueProcessor} using the properties
 		 * of this builder.
@@ -200,7 +221,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 					bufferSize,
 					waitStrategy,
 					share,
-					autoCancel);
+					autoCancel,
+					claimBatchSize);
 		}
 	}
 
@@ -747,6 +769,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 	final WaitStrategy writeWait;
 
+	final int claimBatchSize;
+
 	volatile int replaying;
 
 	@SuppressWarnings("rawtypes")
@@ -775,11 +799,19 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 				bufferSize, waitStrategy, share, autoCancel);
 	}
 
-	@SuppressWarnings("unchecked")
 	WorkQueueProcessor(ThreadFactory threadFactory,
 			ExecutorService executor, ExecutorService requestTaskExecutor,
 			int bufferSize, WaitStrategy waitStrategy, boolean share,
 	                                boolean autoCancel) {
+		this(threadFactory, executor, requestTaskExecutor, bufferSize, waitStrategy,
+				share, autoCancel, 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	WorkQueueProcessor(ThreadFactory threadFactory,
+			ExecutorService executor, ExecutorService requestTaskExecutor,
+			int bufferSize, WaitStrategy waitStrategy, boolean share,
+	                                boolean autoCancel, int claimBatchSize) {
 		super(bufferSize, threadFactory,
 				executor,
 				autoCancel,
@@ -790,6 +822,7 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		Objects.requireNonNull(requestTaskExecutor, "requestTaskExecutor");
 
 		this.writeWait = waitStrategy;
+		this.claimBatchSize = claimBatchSize;
 
 		ringBuffer.addGatingSequence(workSequence);
 		this.requestTaskExecutor = requestTaskExecutor;
@@ -929,6 +962,11 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 		final Subscriber<? super T> subscriber;
 
+		/**
+		 * The subscriber if it is a {@link BatchAwareSubscriber}, null otherwise
+		 */
+		final BatchAwareSubscriber<?> batchSubscriber;
+
 		final Runnable waiter = new Runnable() {
 			@Override
 			public void run() {
@@ -949,6 +987,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 				WorkQueueProcessor<T> processor) {
 			this.processor = processor;
 			this.subscriber = subscriber;
+			this.batchSubscriber = subscriber instanceof BatchAwareSubscriber ?
+					(BatchAwareSubscriber<?>) subscriber : null;
 
 			this.barrier = processor.ringBuffer.newReader();
 		}
@@ -969,8 +1009,10 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		 */
 		@Override
 		public void run() {
-			long nextSequence;
+			long nextSequence = RingBuffer.INITIAL_CURSOR_VALUE;
+			long claimedSequence = RingBuffer.INITIAL_CURSOR_VALUE;
 			boolean processedSequence = true;
+			boolean inBatch = false;
 
 			try {
 
@@ -1017,17 +1059,25 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 								break;
 							}
 							processedSequence = false;
-							do {
-								nextSequence = processor.workSequence.getAsLong() + 1L;
-								while ((!unbounded && pendingRequest.getAsLong() == 0L)) {
-									if (!isRunning()) {
-										WaitStrategy.alert();
+							if (nextSequence < claimedSequence) {
+								//next slot of a range claimed at once
+								nextSequence++;
+								sequence.set(nextSequence - 1L);
+							}
+							else {
+								do {
+									nextSequence = processor.workSequence.getAsLong() + 1L;
+									while ((!unbounded && pendingRequest.getAsLong() == 0L)) {
+										if (!isRunning()) {
+											WaitStrategy.alert();
+										}
+										LockSupport.parkNanos(1L);
 									}
-									LockSupport.parkNanos(1L);
+									claimedSequence = nextSequence + claimSize(nextSequence, unbounded) - 1L;
+									sequence.set(nextSequence - 1L);
 								}
-								sequence.set(nextSequence - 1L);
+								while (!processor.workSequence.compareAndSet(nextSequence - 1L, claimedSequence));
 							}
-							while (!processor.workSequence.compareAndSet(nextSequence - 1L, nextSequence));
 						}
 
 						if (cachedAvailableSequence >= nextSequence) {
@@ -1045,10 +1095,13 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 							processedSequence = true;
 							subscriber.onNext(event.value);
-
-
+							inBatch = true;
 						}
 						else {
+							if (inBatch && batchSubscriber != null) {
+								inBatch = false;
+								batchSubscriber.onBatchEnd();
+							}
 							processor.readWait.signalAllWhenBlocking();
 								cachedAvailableSequence =
 										barrier.waitFor(nextSequence, waiter);
@@ -1091,6 +1144,13 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 				processor.decrementSubscribers();
 				running.set(false);
 
+				//hand the slots claimed but not reached over to the other subscribers
+				for (long s = nextSequence + 1L; s <= claimedSequence; s++) {
+					RingBuffer.Sequence claimed = RingBuffer.newSequence(s - 1L);
+					processor.ringBuffer.addGatingSequence(claimed);
+					processor.claimedDisposed.add(claimed);
+				}
+
 				if(!processedSequence) {
 					processor.claimedDisposed.add(sequence);
 				}
@@ -1171,6 +1231,28 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 			}
 		}
 
+		/**
+		 * Compute the number of slots to claim from the work sequence, bounded by the
+		 * processor claim batch size, the slots already claimed by producers and the
+		 * pending demand.
+		 *
+		 * @param nextSequence the first slot to claim
+		 * @param unbounded true if the subscriber requested an unbounded amount
+		 *
+		 * @return the number of slots to claim, at least 1
+		 */
+		int claimSize(long nextSequence, boolean unbounded) {
+			long n = processor.claimBatchSize;
+			if (n == 1L) {
+				return 1;
+			}
+			n = Math.min(n, processor.ringBuffer.getCursor() - nextSequence + 1L);
+			if (!unbounded) {
+				n = Math.min(n, pendingRequest.getAsLong());
+			}
+			return n < 1L ? 1 : (int) n;
+		}
+
 		boolean reschedule(Slot<T> event) {
 			if (event != null &&
 					event.value != null) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * A read-only view over the values a zip operator took from each of its sources to
+ * produce one combined element.
+ * <p>
+ * A row is reused by the operator for every combination: it is only valid while the
+ * combinator (or, with {@link Flux#zipRecycled(Publisher[])}, the downstream
+ * {@code onNext}) is invoked and must not be retained past that call. Use
+ * {@link #toArray()} to keep a copy of its values.
+ *
+ * @see Flux#zipRows(Function, Publisher[])
+ */
+public interface ZipRow {
+
+	/**
+	 * Return the number of values in this row, ie. the number of zipped sources.
+	 *
+	 * @return the number of values
+	 */
+	int size();
+
+	/**
+	 * Return the value taken from the source at the given index.
+	 *
+	 * @param index the index of the source, between 0 and {@link #size()} (excluded)
+	 * @param <V> the expected value type
+	 *
+	 * @return the value of the source, never null while the row is valid
+	 */
+	<V> V get(int index);
+
+	/**
+	 * Copy the values of this row into a new array, that can be retained.
+	 *
+	 * @return a new array with the values of this row
+	 */
+	Object[] toArray();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Places threads on CPUs, for the affinity-aware {@link ThreadFactory} of
+ * {@link Schedulers#newAffinityThreadFactory(String, boolean, AffinityProvider)} and
+ * the {@link Schedulers#newParallel(String, int, AffinityProvider)} Scheduler.
+ * <p>
+ * The JDK can't pin a thread, so an actual implementation typically delegates to a
+ * native library. The {@link #noop() default} provider doesn't pin anything, which is
+ * also what an implementation should do on an unsupported platform.
+ */
+public interface AffinityProvider {
+
+	/**
+	 * Return the logical CPUs threads can be pinned to. Consecutive threads are pinned
+	 * to consecutive CPUs of this array (wrapping around), so CPUs sharing a NUMA node
+	 * should be listed next to each other, and restricting the array to the CPUs of a
+	 * node confines the threads to that node.
+	 *
+	 * @return the non-empty array of CPU ids to pin threads to
+	 */
+	int[] cpus();
+
+	/**
+	 * Pin the calling thread to the given CPU.
+	 *
+	 * @param cpu a CPU id from {@link #cpus()}
+	 *
+	 * @return true if the thread has been pinned, false if the platform doesn't support it
+	 */
+	boolean bind(int cpu);
+
+	/**
+	 * Return an {@link AffinityProvider} that doesn't pin threads, listing as many CPUs
+	 * as {@link Runtime#availableProcessors()}.
+	 *
+	 * @return the no-op {@link AffinityProvider}
+	 */
+	static AffinityProvider noop() {
+		return AffinityThreadFactory.NOOP;
+	}
+}
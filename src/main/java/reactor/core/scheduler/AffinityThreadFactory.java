@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ThreadFactory} that pins each of the threads it creates to the next CPU of
+ * an {@link AffinityProvider}, in creation order.
+ */
+final class AffinityThreadFactory implements ThreadFactory, Supplier<String> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final AffinityProvider NOOP = new AffinityProvider() {
+
+		@Override
+		public int[] cpus() {
+			int n = Runtime.getRuntime()
+			               .availableProcessors();
+			int[] cpus = new int[n];
+			for (int i = 0; i < n; i++) {
+				cpus[i] = i;
+			}
+			return cpus;
+		}
+
+		@Override
+		public boolean bind(int cpu) {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "AffinityProvider.noop()";
+		}
+	};
+
+	final ThreadFactory    delegate;
+	final AffinityProvider provider;
+	final int[]            cpus;
+
+	final AtomicInteger index = new AtomicInteger();
+
+	AffinityThreadFactory(ThreadFactory delegate, AffinityProvider provider) {
+		int[] cpus = provider.cpus();
+		if (cpus == null || cpus.length == 0) {
+			throw new IllegalArgumentException("The AffinityProvider must list at least one CPU");
+		}
+		this.delegate = delegate;
+		this.provider = provider;
+		this.cpus = cpus.clone();
+	}
+
+	@Override
+	public Thread newThread(Runnable r) {
+		int cpu = cpus[(index.getAndIncrement() & Integer.MAX_VALUE) % cpus.length];
+		return delegate.newThread(new Pinned(r, provider, cpu));
+	}
+
+	@Override
+	public String get() {
+		return delegate instanceof Supplier ? String.valueOf(((Supplier<?>) delegate).get()) :
+				delegate.toString();
+	}
+
+	/**
+	 * Pins the thread it runs on before running the actual thread body.
+	 */
+	static final class Pinned implements Runnable {
+
+		final Runnable         run;
+		final AffinityProvider provider;
+		final int              cpu;
+
+		Pinned(Runnable run, AffinityProvider provider, int cpu) {
+			this.run = run;
+			this.provider = provider;
+			this.cpu = cpu;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (!provider.bind(cpu) && Schedulers.log.isDebugEnabled()) {
+					Schedulers.log.debug("Thread " + Thread.currentThread().getName() +
+							" could not be pinned to CPU " + cpu);
+				}
+			}
+			catch (Throwable e) {
+				Schedulers.log.warn("Thread " + Thread.currentThread().getName() +
+						" could not be pinned to CPU " + cpu, e);
+			}
+			run.run();
+		}
+	}
+}
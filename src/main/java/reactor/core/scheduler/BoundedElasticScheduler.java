@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.util.concurrent.OpenHashSet;
+
+import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
+import static reactor.core.scheduler.ExecutorServiceScheduler.FINISHED;
+
+/**
+ * Dynamically creates single-threaded ScheduledExecutorService-based Workers like
+ * {@link ElasticScheduler}, caching the thread pools once released, but never creates
+ * more than a maximum number of threads. Once that cap is hit, new Workers (and directly
+ * scheduled tasks) share the thread currently leased by the fewest Workers.
+ * <p>
+ * The number of tasks submitted to a thread and not completed yet is also capped: past
+ * that cap, scheduling returns {@link Scheduler#REJECTED}, which operators like
+ * {@code subscribeOn} or {@code publishOn} report as a
+ * {@link RejectedExecutionException}, instead of queueing an unbounded backlog.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically). A periodic
+ * task counts as a single task against the cap for as long as it is not cancelled.
+ * <p>
+ * The default time-to-live for unused thread pools is 60 seconds, use the
+ * appropriate constructor to set a different value.
+ * <p>
+ * This scheduler is not restartable.
+ */
+final class BoundedElasticScheduler implements Scheduler, Supplier<ScheduledExecutorService> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final ThreadFactory EVICTOR_FACTORY = r -> {
+		Thread t = new Thread(r, "boundedElastic-evictor-" + COUNTER.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	};
+
+	static final BoundedState SHUTDOWN;
+
+	static {
+		ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor();
+		s.shutdownNow();
+		SHUTDOWN = new BoundedState(s);
+	}
+
+	final int maxThreads;
+
+	final int maxTaskQueuedPerThread;
+
+	final int ttlSeconds;
+
+	final ThreadFactory factory;
+
+	final HashedWheelTimer timer;
+
+	final ScheduledExecutorService evictor;
+
+	/**
+	 * Released threads, in the order they were released, guarded by {@code this}.
+	 */
+	final Deque<BoundedState> idle;
+
+	/**
+	 * Threads leased by at least one Worker, guarded by {@code this}.
+	 */
+	final List<BoundedState> busy;
+
+	volatile boolean shutdown;
+
+	BoundedElasticScheduler(int maxThreads,
+			int maxTaskQueuedPerThread,
+			ThreadFactory factory,
+			int ttlSeconds) {
+		this(maxThreads, maxTaskQueuedPerThread, factory, ttlSeconds,
+				Schedulers.sharedTimerWheel());
+	}
+
+	BoundedElasticScheduler(int maxThreads,
+			int maxTaskQueuedPerThread,
+			ThreadFactory factory,
+			int ttlSeconds,
+			HashedWheelTimer timer) {
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException("maxThreads > 0 required but it was " + maxThreads);
+		}
+		if (maxTaskQueuedPerThread <= 0) {
+			throw new IllegalArgumentException("maxTaskQueuedPerThread > 0 required but it was " + maxTaskQueuedPerThread);
+		}
+		if (ttlSeconds < 0) {
+			throw new IllegalArgumentException("ttlSeconds must be positive, was: " + ttlSeconds);
+		}
+		this.maxThreads = maxThreads;
+		this.maxTaskQueuedPerThread = maxTaskQueuedPerThread;
+		this.ttlSeconds = ttlSeconds;
+		this.factory = factory;
+		this.timer = timer;
+		this.idle = new ArrayDeque<>();
+		this.busy = new ArrayList<>();
+		this.evictor = Executors.newScheduledThreadPool(1, EVICTOR_FACTORY);
+		this.evictor.scheduleAtFixedRate(this::eviction,
+				ttlSeconds,
+				ttlSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Instantiates the default {@link ScheduledExecutorService} for the
+	 * BoundedElasticScheduler ({@code Executors.newScheduledThreadPool(1)}).
+	 */
+	@Override
+	public ScheduledExecutorService get() {
+		ScheduledExecutorService e = Executors.newScheduledThreadPool(1, factory);
+		((ScheduledThreadPoolExecutor) e).setRemoveOnCancelPolicy(true);
+		return e;
+	}
+
+	@Override
+	public void start() {
+		throw new UnsupportedOperationException("Restarting not supported yet");
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public void dispose() {
+		if (shutdown) {
+			return;
+		}
+		List<BoundedState> states;
+		synchronized (this) {
+			if (shutdown) {
+				return;
+			}
+			shutdown = true;
+			states = new ArrayList<>(busy);
+			states.addAll(idle);
+			busy.clear();
+			idle.clear();
+		}
+
+		evictor.shutdownNow();
+
+		for (BoundedState s : states) {
+			s.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Lease a thread: a released one if any, else a new one if under the cap, else the
+	 * one currently leased by the fewest Workers.
+	 */
+	BoundedState pick() {
+		if (shutdown) {
+			return SHUTDOWN;
+		}
+		synchronized (this) {
+			if (shutdown) {
+				return SHUTDOWN;
+			}
+			BoundedState s = idle.pollLast();
+			if (s == null) {
+				if (busy.size() < maxThreads) {
+					s = new BoundedState(Schedulers.decorateScheduledExecutorService(
+							Schedulers.BOUNDED_ELASTIC, this));
+				}
+				else {
+					s = busy.get(0);
+					for (int i = 1; i < busy.size(); i++) {
+						BoundedState c = busy.get(i);
+						if (c.leases < s.leases ||
+								(c.leases == s.leases && c.queued < s.queued)) {
+							s = c;
+						}
+					}
+					s.leases++;
+					return s;
+				}
+			}
+			s.leases = 1;
+			busy.add(s);
+			return s;
+		}
+	}
+
+	void release(BoundedState s) {
+		if (s == SHUTDOWN) {
+			return;
+		}
+		synchronized (this) {
+			if (shutdown || --s.leases != 0) {
+				return;
+			}
+			busy.remove(s);
+			s.idleSinceMillis = System.currentTimeMillis();
+			idle.offerLast(s);
+		}
+	}
+
+	void eviction() {
+		long expired = System.currentTimeMillis() - ttlSeconds * 1000L;
+		List<BoundedState> evicted = new ArrayList<>();
+		synchronized (this) {
+			Iterator<BoundedState> it = idle.iterator();
+			while (it.hasNext()) {
+				BoundedState s = it.next();
+				if (s.idleSinceMillis < expired) {
+					it.remove();
+					evicted.add(s);
+				}
+			}
+		}
+		for (BoundedState s : evicted) {
+			s.executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		//a throwaway worker holds the lease until the task terminates
+		BoundedWorker w = new BoundedWorker(pick(), this, true);
+		return w.schedule(task);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		BoundedWorker w = new BoundedWorker(pick(), this, true);
+		return w.schedule(task, delay, unit);
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		BoundedWorker w = new BoundedWorker(pick(), this, true);
+		return w.schedulePeriodically(task, initialDelay, period, unit);
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new BoundedWorker(pick(), this, false);
+	}
+
+	/**
+	 * A thread leased to Workers, with the number of its leases and of its submitted
+	 * but not yet completed tasks.
+	 */
+	static final class BoundedState {
+
+		final ScheduledExecutorService executor;
+
+		/**
+		 * Guarded by the parent scheduler.
+		 */
+		int leases;
+
+		/**
+		 * Guarded by the parent scheduler.
+		 */
+		long idleSinceMillis;
+
+		volatile int queued;
+		static final AtomicIntegerFieldUpdater<BoundedState> QUEUED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "queued");
+
+		BoundedState(ScheduledExecutorService executor) {
+			this.executor = executor;
+		}
+
+		boolean tryQueue(int max) {
+			for (; ; ) {
+				int q = queued;
+				if (q >= max) {
+					return false;
+				}
+				if (QUEUED.compareAndSet(this, q, q + 1)) {
+					return true;
+				}
+			}
+		}
+
+		void dequeue() {
+			QUEUED.decrementAndGet(this);
+		}
+	}
+
+	static final class BoundedWorker implements Worker {
+
+		final BoundedState state;
+
+		final BoundedElasticScheduler parent;
+
+		/**
+		 * Whether this worker backs a single task scheduled directly on the parent, in
+		 * which case it is disposed once that task terminates.
+		 */
+		final boolean oneShot;
+
+		volatile boolean shutdown;
+
+		OpenHashSet<BoundedTask> tasks;
+
+		BoundedWorker(BoundedState state, BoundedElasticScheduler parent, boolean oneShot) {
+			this.state = state;
+			this.parent = parent;
+			this.oneShot = oneShot;
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			BoundedTask bt = add(task, false);
+			if (bt == null) {
+				return REJECTED;
+			}
+
+			Future<?> f;
+			try {
+				f = state.executor.submit(bt);
+			}
+			catch (RejectedExecutionException ex) {
+				return reject(bt);
+			}
+
+			bt.setFuture(f);
+
+			return bt;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			BoundedTask bt = add(task, false);
+			if (bt == null) {
+				return REJECTED;
+			}
+
+			Future<?> f;
+			try {
+				f = parent.timer != null ?
+						parent.timer.schedule(bt, delay, unit, state.executor) :
+						state.executor.schedule(bt, delay, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				return reject(bt);
+			}
+
+			bt.setFuture(f);
+
+			return bt;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			BoundedTask bt = add(task, true);
+			if (bt == null) {
+				return REJECTED;
+			}
+
+			Future<?> f;
+			try {
+				f = parent.timer != null ?
+						parent.timer.schedulePeriodically(bt, initialDelay, period, unit,
+								state.executor) :
+						state.executor.scheduleAtFixedRate(bt, initialDelay, period, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				return reject(bt);
+			}
+
+			bt.setFuture(f);
+
+			return bt;
+		}
+
+		/**
+		 * Track a new task, unless this worker is disposed or the queue of its thread
+		 * is full.
+		 *
+		 * @return the tracked task or null if rejected
+		 */
+		BoundedTask add(Runnable task, boolean periodic) {
+			if (!shutdown && state.tryQueue(parent.maxTaskQueuedPerThread)) {
+				BoundedTask bt = new BoundedTask(task, this, periodic);
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(bt);
+						return bt;
+					}
+				}
+				state.dequeue();
+			}
+			if (oneShot) {
+				dispose();
+			}
+			return null;
+		}
+
+		Disposable reject(BoundedTask bt) {
+			bt.dispose();
+			return REJECTED;
+		}
+
+		void remove(BoundedTask task) {
+			if (shutdown) {
+				return;
+			}
+
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				tasks.remove(task);
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+
+			OpenHashSet<BoundedTask> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (!set.isEmpty()) {
+				Object[] keys = set.keys();
+				for (Object o : keys) {
+					if (o != null) {
+						((BoundedTask) o).dispose();
+					}
+				}
+			}
+
+			parent.release(state);
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+	}
+
+	/**
+	 * A task of a {@link BoundedWorker}, holding a slot of its thread queue until it
+	 * completes or is cancelled.
+	 */
+	static final class BoundedTask extends AtomicReference<Future<?>>
+			implements Runnable, Disposable {
+
+		/** */
+		private static final long serialVersionUID = -5532651862285327475L;
+
+		final Runnable run;
+
+		final BoundedWorker parent;
+
+		final boolean periodic;
+
+		volatile boolean cancelled;
+
+		volatile int terminated;
+		static final AtomicIntegerFieldUpdater<BoundedTask> TERMINATED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedTask.class, "terminated");
+
+		BoundedTask(Runnable run, BoundedWorker parent, boolean periodic) {
+			this.run = run;
+			this.parent = parent;
+			this.periodic = periodic;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (!parent.shutdown && !cancelled) {
+					run.run();
+				}
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			finally {
+				if (!periodic) {
+					lazySet(FINISHED);
+					terminate();
+				}
+			}
+		}
+
+		/**
+		 * Free the queue slot of this task and untrack it, once.
+		 */
+		void terminate() {
+			if (TERMINATED.compareAndSet(this, 0, 1)) {
+				parent.state.dequeue();
+				parent.remove(this);
+				if (parent.oneShot) {
+					parent.dispose();
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			cancelled = true;
+			Future<?> f = get();
+			if (f != CANCELLED && f != FINISHED) {
+				f = getAndSet(CANCELLED);
+				if (f != null && f != CANCELLED && f != FINISHED) {
+					f.cancel(true);
+				}
+			}
+			terminate();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			Future<?> f = get();
+			return f == CANCELLED || f == FINISHED;
+		}
+
+		void setFuture(Future<?> f) {
+			if (!compareAndSet(null, f)) {
+				if (get() != FINISHED) {
+					f.cancel(true);
+				}
+			}
+		}
+	}
+}
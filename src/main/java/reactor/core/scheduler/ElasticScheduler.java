@@ -65,6 +65,8 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 
 	final int ttlSeconds;
 
+	final HashedWheelTimer timer;
+
 	static final int DEFAULT_TTL_SECONDS = 60;
 
 	final Queue<ScheduledExecutorServiceExpiry> cache;
@@ -83,11 +85,16 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 	volatile boolean shutdown;
 
 	ElasticScheduler(ThreadFactory factory, int ttlSeconds) {
+		this(factory, ttlSeconds, Schedulers.sharedTimerWheel());
+	}
+
+	ElasticScheduler(ThreadFactory factory, int ttlSeconds, HashedWheelTimer timer) {
 		if (ttlSeconds < 0) {
 			throw new IllegalArgumentException("ttlSeconds must be positive, was: " + ttlSeconds);
 		}
 		this.ttlSeconds = ttlSeconds;
 		this.factory = factory;
+		this.timer = timer;
 		this.cache = new ConcurrentLinkedQueue<>();
 		this.all = new ConcurrentLinkedQueue<>();
 		this.evictor = Executors.newScheduledThreadPool(1, EVICTOR_FACTORY);
@@ -197,7 +204,8 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 		Future<?> f;
 
 		try {
-			f = exec.schedule(wrapper, delay, unit);
+			f = timer != null ? timer.schedule(wrapper, delay, unit, exec) :
+					exec.schedule(wrapper, delay, unit);
 		}
 		catch (RejectedExecutionException ex) {
 			return REJECTED;
@@ -223,7 +231,9 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 		Future<?> f;
 
 		try {
-			f = exec.scheduleAtFixedRate(wrapper, initialDelay, period, unit);
+			f = timer != null ?
+					timer.schedulePeriodically(wrapper, initialDelay, period, unit, exec) :
+					exec.scheduleAtFixedRate(wrapper, initialDelay, period, unit);
 		}
 		catch (RejectedExecutionException ex) {
 			return REJECTED;
@@ -335,7 +345,9 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 
 			Future<?> f;
 			try {
-				f = executor.schedule(ct, delay, unit);
+				f = parent.timer != null ?
+						parent.timer.schedule(ct, delay, unit, executor) :
+						executor.schedule(ct, delay, unit);
 			}
 			catch (RejectedExecutionException ex) {
 				return REJECTED;
@@ -363,7 +375,9 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 
 			Future<?> f;
 			try {
-				f = executor.scheduleAtFixedRate(ct, initialDelay, period, unit);
+				f = parent.timer != null ?
+						parent.timer.schedulePeriodically(ct, initialDelay, period, unit, executor) :
+						executor.scheduleAtFixedRate(ct, initialDelay, period, unit);
 			}
 			catch (RejectedExecutionException ex) {
 				return REJECTED;
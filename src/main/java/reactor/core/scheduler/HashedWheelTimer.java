@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import reactor.core.Disposable;
+
+/**
+ * A hashed timing wheel: timeouts are hashed into a ring of buckets by their deadline
+ * tick, making both arming and cancelling a timeout O(1), whereas a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor} pays O(log n) on its heap
+ * for each. A single ticker thread wakes up once per tick, moves newly armed timeouts
+ * into their bucket, unlinks cancelled ones, and hands all the expired timeouts of the
+ * current bucket over to their target {@link ExecutorService} in one batch.
+ * <p>
+ * The precision of a timeout is the tick duration: a timeout never fires early, but can
+ * fire up to one tick late. The ticker parks while the wheel is empty.
+ */
+final class HashedWheelTimer implements Disposable, Runnable {
+
+	static final long DEFAULT_TICK_NANOS      = TimeUnit.MILLISECONDS.toNanos(1);
+	static final int  DEFAULT_TICKS_PER_WHEEL = 512;
+
+	/**
+	 * Maximum number of newly armed timeouts moved into the wheel per tick, so that a
+	 * burst of arming doesn't starve the expiry of due timeouts.
+	 */
+	static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+	final long     tickNanos;
+	final Bucket[] wheel;
+	final int      mask;
+	final Thread   ticker;
+
+	final Queue<Timeout> pending;
+	final Queue<Timeout> cancelled;
+
+	final long startTime;
+
+	volatile boolean shutdown;
+
+	volatile long active;
+	static final AtomicLongFieldUpdater<HashedWheelTimer> ACTIVE =
+			AtomicLongFieldUpdater.newUpdater(HashedWheelTimer.class, "active");
+
+	long tick;
+
+	HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel,
+			ThreadFactory threadFactory) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("tickDuration > 0 required but it was " + tickDuration);
+		}
+		if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+			throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^30] but it was " + ticksPerWheel);
+		}
+		this.tickNanos = unit.toNanos(tickDuration);
+		int length = Integer.highestOneBit(ticksPerWheel);
+		if (length < ticksPerWheel) {
+			length <<= 1;
+		}
+		this.wheel = new Bucket[length];
+		for (int i = 0; i < length; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = length - 1;
+		this.pending = new ConcurrentLinkedQueue<>();
+		this.cancelled = new ConcurrentLinkedQueue<>();
+		this.startTime = System.nanoTime();
+		this.ticker = threadFactory.newThread(this);
+		this.ticker.start();
+	}
+
+	/**
+	 * Arm a one-shot timeout that submits the task to the given executor once the
+	 * delay has elapsed.
+	 *
+	 * @param task the task to run
+	 * @param delay the delay
+	 * @param unit the unit of the delay
+	 * @param executor the executor that will run the task
+	 *
+	 * @return a {@link Future} that allows to cancel the timeout or the dispatched task
+	 * @throws RejectedExecutionException if this timer has been disposed
+	 */
+	Future<?> schedule(Runnable task, long delay, TimeUnit unit, ExecutorService executor) {
+		return arm(new Timeout(this, task, executor, deadline(delay, unit), 0L));
+	}
+
+	/**
+	 * Arm a periodic timeout that submits the task to the given executor once the
+	 * initial delay has elapsed, then at a fixed rate. Like
+	 * {@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate}, a run
+	 * is only submitted once the previous one has completed, a run that takes longer
+	 * than the period delays the next one, and a run that throws stops the later ones.
+	 *
+	 * @param task the task to run
+	 * @param initialDelay the delay before the first run
+	 * @param period the period between two runs
+	 * @param unit the unit of the delay and period
+	 * @param executor the executor that will run the task
+	 *
+	 * @return a {@link Future} that allows to cancel the periodic timeout
+	 * @throws RejectedExecutionException if this timer has been disposed
+	 */
+	Future<?> schedulePeriodically(Runnable task, long initialDelay, long period,
+			TimeUnit unit, ExecutorService executor) {
+		if (period <= 0L) {
+			throw new IllegalArgumentException("period > 0 required but it was " + period);
+		}
+		return arm(new Timeout(this, task, executor, deadline(initialDelay, unit),
+				unit.toNanos(period)));
+	}
+
+	static long deadline(long delay, TimeUnit unit) {
+		return System.nanoTime() + Math.max(0L, unit.toNanos(delay));
+	}
+
+	Timeout arm(Timeout t) {
+		if (shutdown) {
+			throw new RejectedExecutionException("HashedWheelTimer has been disposed");
+		}
+		pending.offer(t);
+		if (ACTIVE.getAndIncrement(this) == 0L) {
+			LockSupport.unpark(ticker);
+		}
+		return t;
+	}
+
+	@Override
+	public void dispose() {
+		if (!shutdown) {
+			shutdown = true;
+			LockSupport.unpark(ticker);
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public void run() {
+		while (!shutdown) {
+			if (active == 0L) {
+				LockSupport.park(this);
+				if (shutdown) {
+					break;
+				}
+				//the wheel was empty: realign on the current time instead of replaying
+				//every missed tick
+				long elapsed = System.nanoTime() - startTime;
+				tick = Math.max(tick, elapsed / tickNanos);
+				continue;
+			}
+
+			long deadline = waitForNextTick();
+			if (shutdown) {
+				break;
+			}
+			Bucket bucket = wheel[(int) (tick & mask)];
+			unlinkCancelled();
+			transferPending();
+			bucket.expire(this, deadline);
+			tick++;
+		}
+
+		for (Bucket bucket : wheel) {
+			bucket.clear();
+		}
+		Timeout t;
+		while ((t = pending.poll()) != null) {
+			t.cancel(false);
+		}
+		cancelled.clear();
+	}
+
+	/**
+	 * Park until the end of the current tick.
+	 *
+	 * @return the current time relative to {@link #startTime}
+	 */
+	long waitForNextTick() {
+		long deadline = tickNanos * (tick + 1);
+		for (; ; ) {
+			long current = System.nanoTime() - startTime;
+			long sleep = deadline - current;
+			if (sleep <= 0L || shutdown) {
+				return current;
+			}
+			LockSupport.parkNanos(this, sleep);
+		}
+	}
+
+	void unlinkCancelled() {
+		Timeout t;
+		while ((t = cancelled.poll()) != null) {
+			if (t.bucket != null) {
+				t.bucket.remove(t);
+				ACTIVE.decrementAndGet(this);
+			}
+		}
+	}
+
+	void transferPending() {
+		for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+			Timeout t = pending.poll();
+			if (t == null) {
+				break;
+			}
+			if (t.state == Timeout.CANCELLED) {
+				ACTIVE.decrementAndGet(this);
+				continue;
+			}
+			place(t, tick);
+		}
+	}
+
+	/**
+	 * Place a timeout in the bucket of its deadline tick, or of the given first tick if
+	 * the deadline is earlier.
+	 *
+	 * @param t the timeout to place
+	 * @param first the first tick whose bucket is still to be expired: the current tick
+	 * when transferring pending timeouts, the next one when re-placing a timeout while
+	 * the current bucket expires
+	 */
+	void place(Timeout t, long first) {
+		long ticks = Math.max((t.deadline - startTime) / tickNanos, first);
+		t.remainingRounds = (ticks - first) / wheel.length;
+		wheel[(int) (ticks & mask)].add(t);
+	}
+
+	/**
+	 * Called from the ticker thread once a timeout has fired, to account for its
+	 * removal from the wheel. A periodic timeout is {@link #rearm(Timeout) re-armed} by
+	 * its run.
+	 */
+	void fired(Timeout t) {
+		ACTIVE.decrementAndGet(this);
+	}
+
+	/**
+	 * Arm a periodic timeout again after a run completed normally, from the executor
+	 * thread. A deadline already past, eg. after a run slower than the period, fires
+	 * on the next tick.
+	 *
+	 * @param t the periodic timeout, with its next deadline
+	 */
+	void rearm(Timeout t) {
+		pending.offer(t);
+		if (ACTIVE.getAndIncrement(this) == 0L) {
+			LockSupport.unpark(ticker);
+		}
+		//the ticker may have drained the pending timeouts on disposal already
+		if (shutdown) {
+			t.cancel(false);
+		}
+	}
+
+	/**
+	 * A doubly-linked list of timeouts, only ever touched by the ticker thread.
+	 */
+	static final class Bucket {
+
+		Timeout head;
+		Timeout tail;
+
+		void add(Timeout t) {
+			t.bucket = this;
+			if (head == null) {
+				head = tail = t;
+			}
+			else {
+				tail.next = t;
+				t.prev = tail;
+				tail = t;
+			}
+		}
+
+		void remove(Timeout t) {
+			Timeout next = t.next;
+			if (t.prev != null) {
+				t.prev.next = next;
+			}
+			if (t.next != null) {
+				t.next.prev = t.prev;
+			}
+			if (t == head) {
+				if (t == tail) {
+					tail = null;
+					head = null;
+				}
+				else {
+					head = next;
+				}
+			}
+			else if (t == tail) {
+				tail = t.prev;
+			}
+			t.prev = null;
+			t.next = null;
+			t.bucket = null;
+		}
+
+		void expire(HashedWheelTimer timer, long deadline) {
+			Timeout t = head;
+			Timeout last = tail;
+			while (t != null) {
+				Timeout next = t.next;
+				boolean stop = t == last;
+				if (t.remainingRounds <= 0) {
+					remove(t);
+					if (t.deadline - timer.startTime <= deadline) {
+						t.fire();
+						timer.fired(t);
+					}
+					else {
+						//can only happen if the ticker was parked past the due time
+						timer.place(t, timer.tick + 1);
+					}
+				}
+				else if (t.state == Timeout.CANCELLED) {
+					remove(t);
+					timer.fired(t);
+				}
+				else {
+					t.remainingRounds--;
+				}
+				if (stop) {
+					break;
+				}
+				t = next;
+			}
+		}
+
+		void clear() {
+			Timeout t = head;
+			while (t != null) {
+				Timeout next = t.next;
+				t.prev = null;
+				t.next = null;
+				t.bucket = null;
+				t.cancel(false);
+				t = next;
+			}
+			head = null;
+			tail = null;
+		}
+	}
+
+	/**
+	 * A timeout armed in the wheel, that doubles as the {@link Future} of the task it
+	 * dispatches. A periodic timeout dispatches itself as the {@link Runnable} running
+	 * the task then re-arming the timeout, so that at most one run is submitted at a
+	 * time.
+	 */
+	static final class Timeout implements Future<Object>, Runnable {
+
+		static final int PENDING    = 0;
+		static final int DISPATCHED = 1;
+		static final int CANCELLED  = 2;
+		static final int FAILED     = 3;
+
+		final HashedWheelTimer timer;
+		final Runnable         task;
+		final ExecutorService  executor;
+		final long             period;
+
+		long    deadline;
+		long    remainingRounds;
+		Timeout prev;
+		Timeout next;
+		Bucket  bucket;
+
+		volatile Future<?> dispatched;
+
+		volatile int state;
+		static final AtomicIntegerFieldUpdater<Timeout> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+		Timeout(HashedWheelTimer timer, Runnable task, ExecutorService executor,
+				long deadline, long period) {
+			this.timer = timer;
+			this.task = task;
+			this.executor = executor;
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		void fire() {
+			if (period == 0L ? !STATE.compareAndSet(this, PENDING, DISPATCHED) :
+					state != PENDING) {
+				return;
+			}
+			try {
+				dispatched = executor.submit(period == 0L ? task : this);
+			}
+			catch (RejectedExecutionException ree) {
+				state = CANCELLED;
+			}
+			synchronized (this) {
+				notifyAll();
+			}
+			if (state == CANCELLED) {
+				Future<?> f = dispatched;
+				if (f != null) {
+					f.cancel(false);
+				}
+			}
+		}
+
+		/**
+		 * Run a periodic task, then re-arm the timeout unless the task threw or the
+		 * timeout was cancelled meanwhile.
+		 */
+		@Override
+		public void run() {
+			if (state != PENDING) {
+				return;
+			}
+			boolean completed = false;
+			try {
+				task.run();
+				completed = true;
+			}
+			finally {
+				if (!completed) {
+					if (STATE.compareAndSet(this, PENDING, FAILED)) {
+						synchronized (this) {
+							notifyAll();
+						}
+					}
+				}
+				else if (state == PENDING) {
+					deadline += period;
+					timer.rearm(this);
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			for (; ; ) {
+				int s = state;
+				if (s == CANCELLED || s == FAILED) {
+					return false;
+				}
+				if (STATE.compareAndSet(this, s, CANCELLED)) {
+					if (s == PENDING || period != 0L) {
+						timer.cancelled.offer(this);
+					}
+					Future<?> f = dispatched;
+					if (f != null) {
+						f.cancel(mayInterruptIfRunning);
+					}
+					synchronized (this) {
+						notifyAll();
+					}
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return state == CANCELLED;
+		}
+
+		@Override
+		public boolean isDone() {
+			int s = state;
+			if (s == CANCELLED || s == FAILED) {
+				return true;
+			}
+			Future<?> f = dispatched;
+			return period == 0L && f != null && f.isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			Future<?> f;
+			synchronized (this) {
+				while ((f = dispatchedOrCancelled()) == null) {
+					wait();
+				}
+			}
+			return f.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			Future<?> f;
+			synchronized (this) {
+				while ((f = dispatchedOrCancelled()) == null) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0L) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			}
+			return f.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+
+		Future<?> dispatchedOrCancelled() {
+			if (state == CANCELLED) {
+				throw new CancellationException();
+			}
+			//a failed periodic run reports its error through the dispatched future
+			return period == 0L || state == FAILED ? dispatched : null;
+		}
+	}
+}
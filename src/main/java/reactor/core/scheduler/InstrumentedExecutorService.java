@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import reactor.core.Scannable;
+import reactor.util.Metrics;
+
+/**
+ * An {@link ExecutorService} decorator reporting the queue wait and run time of the
+ * tasks submitted to it to {@link Meters}. As a {@link Scannable},
+ * {@link reactor.core.Scannable.Attr#BUFFERED} returns the number of pending tasks,
+ * {@link reactor.core.Scannable.Attr#CANCELLED} whether the executor is shut down and
+ * {@link reactor.core.Scannable.Attr#TERMINATED} whether it is terminated.
+ */
+class InstrumentedExecutorService implements ExecutorService, Scannable {
+
+	final String          type;
+	final ExecutorService delegate;
+	final Meters          meters;
+
+	volatile long pending;
+	static final AtomicLongFieldUpdater<InstrumentedExecutorService> PENDING =
+			AtomicLongFieldUpdater.newUpdater(InstrumentedExecutorService.class, "pending");
+
+	volatile long active;
+	static final AtomicLongFieldUpdater<InstrumentedExecutorService> ACTIVE =
+			AtomicLongFieldUpdater.newUpdater(InstrumentedExecutorService.class, "active");
+
+	/**
+	 * Set once the pending tasks have been dropped by {@link #shutdownNow()}.
+	 */
+	volatile boolean drained;
+
+	InstrumentedExecutorService(String type, ExecutorService delegate, Meters meters) {
+		this.type = type;
+		this.delegate = delegate;
+		this.meters = meters;
+	}
+
+	/**
+	 * Return the number of tasks accepted and waiting for their (next) run, including
+	 * delayed tasks not due yet and periodic tasks between two runs.
+	 *
+	 * @return the number of pending tasks
+	 */
+	long pendingTasks() {
+		return drained ? 0L : Math.max(0L, pending);
+	}
+
+	@Override
+	public Object scan(Attr key) {
+		switch (key) {
+			case BUFFERED:
+				return (int) Math.min(Integer.MAX_VALUE, pendingTasks());
+			case CANCELLED:
+				return isShutdown();
+			case TERMINATED:
+				return isTerminated();
+		}
+		return null;
+	}
+
+	<V> Task<V> task(Runnable run, Callable<V> call, long delayNanos, long periodNanos) {
+		meters.pending.record(PENDING.incrementAndGet(this));
+		return new Task<>(this, run, call, System.nanoTime() + delayNanos, periodNanos);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		Task<?> t = task(command, null, 0L, 0L);
+		try {
+			delegate.execute(t);
+		}
+		catch (RuntimeException ex) {
+			t.cancel();
+			throw ex;
+		}
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		Task<?> t = task(task, null, 0L, 0L);
+		try {
+			return new TaskFuture<>(delegate.submit((Runnable) t), t);
+		}
+		catch (RuntimeException ex) {
+			t.cancel();
+			throw ex;
+		}
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		Task<?> t = task(task, null, 0L, 0L);
+		try {
+			return new TaskFuture<>(delegate.submit(t, result), t);
+		}
+		catch (RuntimeException ex) {
+			t.cancel();
+			throw ex;
+		}
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		Task<T> t = task(null, task, 0L, 0L);
+		try {
+			return new TaskFuture<>(delegate.submit((Callable<T>) t), t);
+		}
+		catch (RuntimeException ex) {
+			t.cancel();
+			throw ex;
+		}
+	}
+
+	<T> List<Callable<T>> tasks(Collection<? extends Callable<T>> tasks) {
+		List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+		for (Callable<T> c : tasks) {
+			wrapped.add(task(null, c, 0L, 0L));
+		}
+		return wrapped;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException {
+		return delegate.invokeAll(tasks(tasks));
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException {
+		return delegate.invokeAll(tasks(tasks), timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException, ExecutionException {
+		return delegate.invokeAny(tasks(tasks));
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		return delegate.invokeAny(tasks(tasks), timeout, unit);
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> dropped = delegate.shutdownNow();
+		drained = true;
+		return dropped;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public String toString() {
+		return "InstrumentedExecutorService{type=" + type + ", pending=" + pendingTasks() +
+				", active=" + active + "}";
+	}
+
+	/**
+	 * The meters shared by the executors decorated for one flavor of {@link Scheduler}.
+	 */
+	static final class Meters {
+
+		final Metrics.Timer     queueWait;
+		final Metrics.Timer     execution;
+		final Metrics.Counter   completed;
+		final Metrics.Histogram pending;
+
+		Meters(Metrics.Registry registry, String name, String... tags) {
+			this.queueWait = registry.timer(name + ".queue.wait", tags);
+			this.execution = registry.timer(name + ".execution", tags);
+			this.completed = registry.counter(name + ".completed", tags);
+			this.pending = registry.histogram(name + ".pending", tags);
+		}
+	}
+
+	/**
+	 * The {@link ScheduledExecutorService} flavor of {@link InstrumentedExecutorService},
+	 * measuring the queue wait of delayed and periodic tasks from the time they are due.
+	 */
+	static final class Scheduled extends InstrumentedExecutorService
+			implements ScheduledExecutorService {
+
+		Scheduled(String type, ScheduledExecutorService delegate, Meters meters) {
+			super(type, delegate, meters);
+		}
+
+		ScheduledExecutorService scheduled() {
+			return (ScheduledExecutorService) delegate;
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			Task<?> t = task(command, null, unit.toNanos(delay), 0L);
+			try {
+				return new TaskFuture<>(scheduled().schedule((Runnable) t, delay, unit), t);
+			}
+			catch (RuntimeException ex) {
+				t.cancel();
+				throw ex;
+			}
+		}
+
+		@Override
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+				long delay,
+				TimeUnit unit) {
+			Task<V> t = task(null, callable, unit.toNanos(delay), 0L);
+			try {
+				return new TaskFuture<>(scheduled().schedule((Callable<V>) t, delay, unit), t);
+			}
+			catch (RuntimeException ex) {
+				t.cancel();
+				throw ex;
+			}
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			Task<?> t = task(command, null, unit.toNanos(initialDelay), unit.toNanos(period));
+			try {
+				return new TaskFuture<>(scheduled().scheduleAtFixedRate(t,
+						initialDelay,
+						period,
+						unit), t);
+			}
+			catch (RuntimeException ex) {
+				t.cancel();
+				throw ex;
+			}
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+				long initialDelay,
+				long delay,
+				TimeUnit unit) {
+			Task<?> t = task(command, null, unit.toNanos(initialDelay), -unit.toNanos(delay));
+			try {
+				return new TaskFuture<>(scheduled().scheduleWithFixedDelay(t,
+						initialDelay,
+						delay,
+						unit), t);
+			}
+			catch (RuntimeException ex) {
+				t.cancel();
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * A submitted task, recording its queue wait and run duration. A periodic task goes
+	 * back to pending after each run.
+	 */
+	static final class Task<V> implements Runnable, Callable<V> {
+
+		static final int WAITING = 0;
+		static final int RUNNING = 1;
+		static final int DONE    = 2;
+
+		final InstrumentedExecutorService parent;
+		final Runnable                    run;
+		final Callable<V>                 call;
+
+		/**
+		 * Positive for a fixed rate, negative for a fixed delay, 0 if not periodic.
+		 */
+		final long period;
+
+		/**
+		 * The time the next run is due, only written by the running thread.
+		 */
+		long due;
+
+		volatile int state;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Task> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Task.class, "state");
+
+		Task(InstrumentedExecutorService parent,
+				Runnable run,
+				Callable<V> call,
+				long due,
+				long period) {
+			this.parent = parent;
+			this.run = run;
+			this.call = call;
+			this.due = due;
+			this.period = period;
+		}
+
+		@Override
+		public void run() {
+			long start = before();
+			boolean failed = true;
+			try {
+				run.run();
+				failed = false;
+			}
+			finally {
+				after(start, failed);
+			}
+		}
+
+		@Override
+		public V call() throws Exception {
+			long start = before();
+			boolean failed = true;
+			try {
+				V v = call.call();
+				failed = false;
+				return v;
+			}
+			finally {
+				after(start, failed);
+			}
+		}
+
+		long before() {
+			long start = System.nanoTime();
+			if (STATE.compareAndSet(this, WAITING, RUNNING)) {
+				PENDING.decrementAndGet(parent);
+			}
+			ACTIVE.incrementAndGet(parent);
+			parent.meters.queueWait.record(start - due, TimeUnit.NANOSECONDS);
+			return start;
+		}
+
+		/**
+		 * @param failed whether the run threw, which stops a periodic task
+		 */
+		void after(long start, boolean failed) {
+			long end = System.nanoTime();
+			parent.meters.execution.record(end - start, TimeUnit.NANOSECONDS);
+			ACTIVE.decrementAndGet(parent);
+			parent.meters.completed.increment(1L);
+			if (period != 0L && !failed && !parent.isShutdown()) {
+				due = period > 0L ? due + period : end - period;
+				if (STATE.compareAndSet(this, RUNNING, WAITING)) {
+					parent.meters.pending.record(PENDING.incrementAndGet(parent));
+				}
+			}
+			else {
+				STATE.compareAndSet(this, RUNNING, DONE);
+			}
+		}
+
+		void cancel() {
+			if (STATE.getAndSet(this, DONE) == WAITING) {
+				PENDING.decrementAndGet(parent);
+			}
+		}
+	}
+
+	/**
+	 * Stops counting a task as pending once it gets cancelled.
+	 */
+	static final class TaskFuture<V> implements ScheduledFuture<V> {
+
+		final Future<V> future;
+		final Task<?>   task;
+
+		TaskFuture(Future<V> future, Task<?> task) {
+			this.future = future;
+			this.task = task;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = future.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				task.cancel();
+			}
+			return cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return future.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return future.isDone();
+		}
+
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			return future.get();
+		}
+
+		@Override
+		public V get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return future.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return future instanceof Delayed ? ((Delayed) future).getDelay(unit) : 0L;
+		}
+
+		@Override
+		public int compareTo(Delayed o) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS),
+					o.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+}
@@ -45,6 +45,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
     
     final ThreadFactory factory;
 
+    final HashedWheelTimer timer;
+
     volatile ScheduledExecutorService[] executors;
     static final AtomicReferenceFieldUpdater<ParallelScheduler, ScheduledExecutorService[]> EXECUTORS =
             AtomicReferenceFieldUpdater.newUpdater(ParallelScheduler.class, ScheduledExecutorService[].class, "executors");
@@ -60,11 +62,16 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
     int roundRobin;
 
     ParallelScheduler(int n, ThreadFactory factory) {
+        this(n, factory, Schedulers.sharedTimerWheel());
+    }
+
+    ParallelScheduler(int n, ThreadFactory factory, HashedWheelTimer timer) {
         if (n <= 0) {
             throw new IllegalArgumentException("n > 0 required but it was " + n);
         }
         this.n = n;
         this.factory = factory;
+        this.timer = timer;
         init(n);
     }
 
@@ -163,7 +170,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
         ScheduledExecutorService exec = pick();
 	    try {
 		    return new ExecutorServiceScheduler.DisposableFuture(
-				    exec.schedule(task, delay, unit),
+				    timer != null ? timer.schedule(task, delay, unit, exec) :
+						    exec.schedule(task, delay, unit),
 				    false);
 	    }
 	    catch (RejectedExecutionException ex) {
@@ -175,7 +183,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
         ScheduledExecutorService exec = pick();
 	    try {
 		    return new ExecutorServiceScheduler.DisposableFuture(
-				    exec.scheduleAtFixedRate(task, initialDelay, period, unit),
+				    timer != null ? timer.schedulePeriodically(task, initialDelay, period, unit, exec) :
+						    exec.scheduleAtFixedRate(task, initialDelay, period, unit),
 				    false);
 	    }
 	    catch (RejectedExecutionException ex) {
@@ -185,18 +194,30 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
     @Override
     public Worker createWorker() {
-        return new ParallelWorker(pick());
+        return new ParallelWorker(pick(), timer);
+    }
+
+    @Override
+    public Worker createWorker(int index) {
+        ScheduledExecutorService[] a = executors;
+        if (a == SHUTDOWN) {
+            return new ParallelWorker(TERMINATED, timer);
+        }
+        return new ParallelWorker(a[(index & Integer.MAX_VALUE) % n], timer);
     }
     
     static final class ParallelWorker implements Worker {
         final ScheduledExecutorService exec;
+
+        final HashedWheelTimer timer;
         
         OpenHashSet<ParallelWorkerTask> tasks;
         
         volatile boolean shutdown;
         
-        public ParallelWorker(ScheduledExecutorService exec) {
+        public ParallelWorker(ScheduledExecutorService exec, HashedWheelTimer timer) {
             this.exec = exec;
+            this.timer = timer;
             this.tasks = new OpenHashSet<>();
         }
 
@@ -249,7 +270,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
             Future<?> f;
             try {
-                f = exec.schedule(pw, delay, unit);
+                f = timer != null ? timer.schedule(pw, delay, unit, exec) :
+                        exec.schedule(pw, delay, unit);
             } catch (RejectedExecutionException ex) {
                 return REJECTED;
             }
@@ -282,7 +304,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
             Future<?> f;
             try {
-                f = exec.scheduleAtFixedRate(pw, initialDelay, period, unit);
+                f = timer != null ? timer.schedulePeriodically(pw, initialDelay, period, unit, exec) :
+                        exec.scheduleAtFixedRate(pw, initialDelay, period, unit);
             } catch (RejectedExecutionException ex) {
                 return REJECTED;
             }
@@ -113,6 +113,24 @@ public interface Scheduler extends Disposable {
 	 */
 	Worker createWorker();
 
+	/**
+	 * Creates a worker of this Scheduler like {@link #createWorker()}, letting the
+	 * Scheduler map the given index to one of its resources: a Scheduler backed by a fixed
+	 * pool of threads returns workers of a same thread for a same index, so that work
+	 * keyed by that index (like a rail of a {@link reactor.core.publisher.ParallelFlux})
+	 * keeps running on the same thread, and core if the thread is pinned, across
+	 * successive Workers.
+	 * <p>
+	 * By default the index is ignored.
+	 *
+	 * @param index a positive index, typically the rail index of a parallel operator
+	 *
+	 * @return the Worker instance.
+	 */
+	default Worker createWorker(int index) {
+		return createWorker();
+	}
+
 	/**
 	 * Instructs this Scheduler to release all resources and reject
 	 * any new tasks to be executed.
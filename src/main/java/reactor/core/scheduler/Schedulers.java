@@ -16,7 +16,13 @@
 
 package reactor.core.scheduler;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,11 +32,14 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import reactor.core.Disposable;
 import reactor.core.Exceptions;
+import reactor.core.Scannable;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import reactor.util.Metrics;
 
 import static reactor.core.Exceptions.unwrap;
 
@@ -40,7 +49,11 @@ import static reactor.core.Exceptions.unwrap;
  * subscribeOn} :
  * <p>
  * <ul> <li>{@link #fromExecutorService(ExecutorService)}}. </li> <li>{@link #newParallel}
- * : Optimized for fast {@link Runnable} executions </li> <li>{@link #single} : Optimized
+ * : Optimized for fast {@link Runnable} executions </li> <li>{@link #newWorkStealing} :
+ * Optimized for {@link Runnable} executions of uneven duration </li> <li>{@link #newVirtual} :
+ * Optimized for blocking {@link Runnable} executions </li> <li>{@link #newBoundedElastic} :
+ * Optimized for blocking {@link Runnable} executions with a capped number of threads
+ * and pending tasks </li> <li>{@link #single} : Optimized
  * for low-latency {@link Runnable} executions </li> <li>{@link #immediate}. </li> </ul>
  * <p>
  * Factories prefixed with {@code new} return a new instance of their flavor of {@link Scheduler},
@@ -144,6 +157,137 @@ public abstract class Schedulers {
 		return ImmediateScheduler.instance();
 	}
 
+	/**
+	 * Create a {@link Factory} that instruments the {@link ExecutorService} it decorates
+	 * for the default {@link Scheduler} implementations, reporting the time their tasks
+	 * wait before running, their run time and how many are pending to meters of the
+	 * current {@link Metrics#getRegistry() metrics registry}, prefixed by
+	 * {@code reactor.scheduler}. Typically used with {@link #setFactory(Factory)} on app
+	 * startup.
+	 *
+	 * @return a new instrumenting {@link Factory}
+	 * @see #instrument(Factory, String, String...)
+	 */
+	public static Factory instrument() {
+		return instrument(DEFAULT, "reactor.scheduler");
+	}
+
+	/**
+	 * Create a {@link Factory} that instruments the {@link ExecutorService} decorated by
+	 * the given {@link Factory}, reporting to meters of the current
+	 * {@link Metrics#getRegistry() metrics registry}, prefixed by the given name and
+	 * tagged with the flavor of {@link Scheduler} (eg. {@code type=parallel}):
+	 * <ul>
+	 *     <li>{@code name.queue.wait}: the time tasks wait between being due (submitted,
+	 *     or past their delay) and starting to run</li>
+	 *     <li>{@code name.execution}: the run time of tasks</li>
+	 *     <li>{@code name.completed}: the number of completed runs</li>
+	 *     <li>{@code name.pending}: the number of pending tasks, sampled as tasks are
+	 *     queued</li>
+	 * </ul>
+	 * The returned {@link Factory} is also {@link Scannable}: its
+	 * {@link Scannable#inners() inners} are the live decorated executors, usually one per
+	 * worker thread, which expose their pending tasks as
+	 * {@link reactor.core.Scannable.Attr#BUFFERED}. {@link Scheduler} creation is
+	 * delegated to the given {@link Factory}.
+	 *
+	 * @param delegate the {@link Factory} to instrument
+	 * @param name the prefix of the meter names
+	 * @param tags alternating tag keys and values to attach to the meters
+	 *
+	 * @return a new instrumenting {@link Factory}
+	 */
+	public static Factory instrument(Factory delegate, String name, String... tags) {
+		Objects.requireNonNull(delegate, "delegate");
+		Objects.requireNonNull(name, "name");
+		return new InstrumentedFactory(delegate, Metrics.getRegistry(), name, tags);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(String) elastic}, but never creates more than
+	 * {@code maxThreads} threads: past that cap, new Workers share the thread leased by
+	 * the fewest Workers.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, past which
+	 * scheduling is rejected with {@link Scheduler#REJECTED} (operators like
+	 * {@code subscribeOn} then signal a
+	 * {@link java.util.concurrent.RejectedExecutionException}).
+	 * <p>
+	 * The default time-to-live for unused thread pools is 60 seconds, use the appropriate
+	 * factory to set a different value.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads the maximum number of threads
+	 * @param maxTaskQueuedPerThread the maximum number of pending tasks per thread
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxTaskQueuedPerThread,
+			String name) {
+		return newBoundedElastic(maxThreads, maxTaskQueuedPerThread, name,
+				ElasticScheduler.DEFAULT_TTL_SECONDS, false);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(String) elastic}, but never creates more than
+	 * {@code maxThreads} threads: past that cap, new Workers share the thread leased by
+	 * the fewest Workers.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, past which
+	 * scheduling is rejected with {@link Scheduler#REJECTED}.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads the maximum number of threads
+	 * @param maxTaskQueuedPerThread the maximum number of pending tasks per thread
+	 * @param name Thread prefix
+	 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxTaskQueuedPerThread,
+			String name, int ttlSeconds, boolean daemon) {
+		return newBoundedElastic(maxThreads, maxTaskQueuedPerThread,
+				new SchedulerThreadFactory(name, daemon, BoundedElasticScheduler.COUNTER),
+				ttlSeconds);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(String) elastic}, but never creates more than
+	 * {@code maxThreads} threads: past that cap, new Workers share the thread leased by
+	 * the fewest Workers.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, past which
+	 * scheduling is rejected with {@link Scheduler#REJECTED}.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads the maximum number of threads
+	 * @param maxTaskQueuedPerThread the maximum number of pending tasks per thread
+	 * @param threadFactory a {@link ThreadFactory} to use each thread initialization
+	 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxTaskQueuedPerThread,
+			ThreadFactory threadFactory, int ttlSeconds) {
+		return factory.newBoundedElastic(maxThreads, maxTaskQueuedPerThread, ttlSeconds,
+				threadFactory);
+	}
+
 	/**
 	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
 	 * the thread pools, reusing them once the Workers have been shut down.
@@ -268,6 +412,46 @@ public abstract class Schedulers {
 				new SchedulerThreadFactory(name, daemon, ParallelScheduler.COUNTER));
 	}
 
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of single-threaded ExecutorService-based
+	 * workers and is suited for parallel work, each of its daemon threads being pinned
+	 * to the next CPU of the given {@link AffinityProvider} as it starts.
+	 * <p>
+	 * Combined with {@link reactor.core.publisher.ParallelFlux#runOn(Scheduler, int, boolean)
+	 * pinned rails}, successive {@code runOn} stages on this {@link Scheduler} keep each
+	 * rail on the same core.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled workers.
+	 * @param affinity the {@link AffinityProvider} pinning the threads
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of pinned single-threaded
+	 * ExecutorService-based workers
+	 */
+	public static Scheduler newParallel(String name, int parallelism,
+			AffinityProvider affinity) {
+		return newParallel(parallelism, newAffinityThreadFactory(name, true, affinity));
+	}
+
+	/**
+	 * Create a {@link ThreadFactory} pinning each thread it creates to the next CPU of the
+	 * given {@link AffinityProvider}, in creation order, for instance to pass to
+	 * {@link #newParallel(int, ThreadFactory)} or as the thread factory of the
+	 * {@link java.util.concurrent.ExecutorService} of a {@code TopicProcessor} or
+	 * {@code WorkQueueProcessor}.
+	 *
+	 * @param name Thread prefix
+	 * @param daemon false if the threads must be explicitly stopped to exit the VM.
+	 * @param affinity the {@link AffinityProvider} pinning the threads
+	 *
+	 * @return a new affinity-aware {@link ThreadFactory}
+	 */
+	public static ThreadFactory newAffinityThreadFactory(String name, boolean daemon,
+			AffinityProvider affinity) {
+		return new AffinityThreadFactory(new SchedulerThreadFactory(name, daemon,
+				AffinityThreadFactory.COUNTER), affinity);
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a fixed pool of single-threaded ExecutorService-based
 	 * workers and is suited for parallel work.
@@ -326,6 +510,171 @@ public abstract class Schedulers {
 		return factory.newSingle(threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} that hosts a single-threaded ExecutorService-based worker and
+	 * arms its delayed and periodic tasks on a hashed timer wheel, making arming and
+	 * cancelling timeouts O(1) at the cost of a 1 millisecond precision. It is suited
+	 * for operators arming a lot of timeouts that rarely fire.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new timer-wheel-based {@link Scheduler}
+	 */
+	public static Scheduler newTimerWheel(String name) {
+		return newTimerWheel(name, Duration.ofNanos(HashedWheelTimer.DEFAULT_TICK_NANOS),
+				HashedWheelTimer.DEFAULT_TICKS_PER_WHEEL);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a single-threaded ExecutorService-based worker and
+	 * arms its delayed and periodic tasks on a hashed timer wheel, making arming and
+	 * cancelling timeouts O(1) at the cost of a precision of one tick.
+	 *
+	 * @param name Thread prefix
+	 * @param tickDuration the duration of a tick, ie. the precision of the timer
+	 * @param ticksPerWheel the number of ticks in one rotation of the wheel, rounded up
+	 * to a power of 2
+	 *
+	 * @return a new timer-wheel-based {@link Scheduler}
+	 */
+	public static Scheduler newTimerWheel(String name, Duration tickDuration, int ticksPerWheel) {
+		return newTimerWheel(tickDuration, ticksPerWheel,
+				new SchedulerThreadFactory(name, false, TimerWheelScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a single-threaded ExecutorService-based worker and
+	 * arms its delayed and periodic tasks on a hashed timer wheel, making arming and
+	 * cancelling timeouts O(1) at the cost of a precision of one tick.
+	 *
+	 * @param tickDuration the duration of a tick, ie. the precision of the timer
+	 * @param ticksPerWheel the number of ticks in one rotation of the wheel, rounded up
+	 * to a power of 2
+	 * @param threadFactory a {@link ThreadFactory} to use for the worker and ticker
+	 * threads
+	 *
+	 * @return a new timer-wheel-based {@link Scheduler}
+	 */
+	public static Scheduler newTimerWheel(Duration tickDuration, int ticksPerWheel,
+			ThreadFactory threadFactory) {
+		return factory.newTimerWheel(tickDuration, ticksPerWheel, threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} that runs each task on a new virtual thread and is suited for
+	 * blocking work (eg. wrapping JDBC or file calls with {@code subscribeOn}): a
+	 * blocked virtual thread doesn't hold a platform thread, so the number of concurrent
+	 * blocking calls is not capped by a pool. Tasks submitted to a same
+	 * {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in
+	 * order, and disposing a task or a Worker interrupts the thread it runs on.
+	 * <p>
+	 * If the running JDK doesn't provide virtual threads (see
+	 * {@link #isVirtualThreadAvailable()}), this falls back to a daemon
+	 * {@link #newElastic(String, int, boolean) elastic} {@link Scheduler}.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} backed by virtual threads, or by an elastic pool
+	 * of platform threads if virtual threads are not available
+	 */
+	public static Scheduler newVirtual(String name) {
+		ThreadFactory threadFactory = VirtualThreadScheduler.virtualThreadFactory(name);
+		if (threadFactory == null) {
+			log.debug("Virtual threads are not available, falling back to an elastic " +
+					"Scheduler for " + name);
+			return newElastic(name, ElasticScheduler.DEFAULT_TTL_SECONDS, true);
+		}
+		return newVirtual(threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} that runs each task on a new, never pooled, thread of the given
+	 * {@link ThreadFactory}, typically a factory of virtual threads. Tasks submitted to a
+	 * same {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in
+	 * order, and disposing a task or a Worker interrupts the thread it runs on.
+	 *
+	 * @param threadFactory a {@link ThreadFactory} creating a thread per task
+	 *
+	 * @return a new thread-per-task {@link Scheduler}
+	 */
+	public static Scheduler newVirtual(ThreadFactory threadFactory) {
+		return factory.newVirtual(threadFactory);
+	}
+
+	/**
+	 * Whether the running JDK provides virtual threads, which
+	 * {@link #newVirtual(String)} is then backed by.
+	 *
+	 * @return true if virtual threads are available
+	 */
+	public static boolean isVirtualThreadAvailable() {
+		return VirtualThreadScheduler.OF_VIRTUAL != null;
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of work-stealing threads and is suited
+	 * for parallel work of uneven duration. Workers are not pinned to a thread: idle
+	 * threads steal pending work from busy ones, while tasks submitted to a same
+	 * {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in order.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 */
+	public static Scheduler newWorkStealing(String name) {
+		return newWorkStealing(name, Runtime.getRuntime()
+		                                    .availableProcessors());
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of work-stealing threads and is suited
+	 * for parallel work of uneven duration. Workers are not pinned to a thread: idle
+	 * threads steal pending work from busy ones, while tasks submitted to a same
+	 * {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in order.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism) {
+		return newWorkStealing(name, parallelism, false);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of work-stealing threads and is suited
+	 * for parallel work of uneven duration. Workers are not pinned to a thread: idle
+	 * threads steal pending work from busy ones, while tasks submitted to a same
+	 * {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in order.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism, boolean daemon) {
+		return newWorkStealing(parallelism,
+				new SchedulerThreadFactory(name, daemon, WorkStealingScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of work-stealing threads and is suited
+	 * for parallel work of uneven duration. Workers are not pinned to a thread: idle
+	 * threads steal pending work from busy ones, while tasks submitted to a same
+	 * {@link reactor.core.scheduler.Scheduler.Worker} still run one at a time and in order.
+	 *
+	 * @param parallelism Number of pooled threads.
+	 * @param threadFactory a {@link ThreadFactory} used as a template for the pooled
+	 * threads (name, daemon flag, priority and uncaught exception handler)
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 */
+	public static Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+		return factory.newWorkStealing(parallelism, threadFactory);
+	}
+
 	/**
 	 * Define a hook that is executed when a {@link Scheduler} has
 	 * {@link #handleError(Throwable) handled an error}. Note that it is executed after
@@ -487,6 +836,26 @@ public abstract class Schedulers {
 			return new ElasticScheduler(threadFactory, ttlSeconds);
 		}
 
+		/**
+		 * {@link Scheduler} that dynamically creates Workers resources and caches
+		 * eventually, reusing them once the Workers have been shut down, up to a maximum
+		 * number of threads, and that rejects tasks past a maximum number of pending tasks
+		 * per thread.
+		 *
+		 * @param maxThreads the maximum number of threads
+		 * @param maxTaskQueuedPerThread the maximum number of pending tasks per thread
+		 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+		 * @param threadFactory a {@link ThreadFactory} to use
+		 *
+		 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+		 * Workers resources
+		 */
+		default Scheduler newBoundedElastic(int maxThreads, int maxTaskQueuedPerThread,
+				int ttlSeconds, ThreadFactory threadFactory) {
+			return new BoundedElasticScheduler(maxThreads, maxTaskQueuedPerThread,
+					threadFactory, ttlSeconds);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a fixed pool of workers and is suited for parallel
 		 * work.
@@ -502,6 +871,51 @@ public abstract class Schedulers {
 			return new ParallelScheduler(parallelism, threadFactory);
 		}
 
+		/**
+		 * {@link Scheduler} that hosts a fixed pool of work-stealing threads and is
+		 * suited for parallel work of uneven duration.
+		 *
+		 * @param parallelism Number of pooled threads.
+		 * @param threadFactory a {@link ThreadFactory} used as a template for the
+		 * pooled threads
+		 *
+		 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing
+		 * threads
+		 */
+		default Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+			return new WorkStealingScheduler(parallelism, threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} that runs each task on a new thread of the given
+		 * {@link ThreadFactory}, typically a factory of virtual threads, and is suited
+		 * for blocking work.
+		 *
+		 * @param threadFactory a {@link ThreadFactory} creating a thread per task
+		 *
+		 * @return a new thread-per-task {@link Scheduler}
+		 */
+		default Scheduler newVirtual(ThreadFactory threadFactory) {
+			return new VirtualThreadScheduler(threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} that hosts a single worker and arms its delayed and periodic
+		 * tasks on a hashed timer wheel.
+		 *
+		 * @param tickDuration the duration of a tick, ie. the precision of the timer
+		 * @param ticksPerWheel the number of ticks in one rotation of the wheel
+		 * @param threadFactory a {@link ThreadFactory} to use for the worker and ticker
+		 * threads
+		 *
+		 * @return a new timer-wheel-based {@link Scheduler}
+		 */
+		default Scheduler newTimerWheel(Duration tickDuration, int ticksPerWheel,
+				ThreadFactory threadFactory) {
+			return new TimerWheelScheduler(tickDuration.toNanos(), TimeUnit.NANOSECONDS,
+					ticksPerWheel, threadFactory);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a single worker and is suited for non-blocking
 		 * work.
@@ -517,10 +931,12 @@ public abstract class Schedulers {
 	}
 
 	// Internals
+	static final String BOUNDED_ELASTIC = "boundedElastic"; // capped IO stuff
 	static final String ELASTIC  = "elastic"; // IO stuff
 	static final String PARALLEL = "parallel"; //scale up common tasks
 	static final String SINGLE   = "single"; //non blocking tasks
 	static final String TIMER    = "timer"; //timed tasks
+	static final String WORK_STEALING = "workStealing"; //uneven parallel tasks
 
 	// Cached schedulers in atomic references:
 	static AtomicReference<CachedScheduler> CACHED_ELASTIC  = new AtomicReference<>();
@@ -540,6 +956,44 @@ public abstract class Schedulers {
 	static final Factory DEFAULT = new Factory() {
 	};
 
+	/**
+	 * Whether the {@link ParallelScheduler} and {@link ElasticScheduler} arm their
+	 * delayed and periodic tasks on a shared {@link HashedWheelTimer} rather than on
+	 * their ScheduledExecutorService, as set by the {@code reactor.schedulers.timerWheel}
+	 * system property (defaults to false).
+	 */
+	static final boolean TIMER_WHEEL_ENABLED =
+			Boolean.parseBoolean(System.getProperty("reactor.schedulers.timerWheel", "false"));
+
+	static final AtomicReference<HashedWheelTimer> SHARED_TIMER_WHEEL = new AtomicReference<>();
+
+	/**
+	 * Get the {@link HashedWheelTimer} shared by the {@link ParallelScheduler} and
+	 * {@link ElasticScheduler} if {@link #TIMER_WHEEL_ENABLED enabled}, creating it on
+	 * first use. Its ticker thread is a daemon that parks while the wheel is empty, so
+	 * it is never disposed.
+	 *
+	 * @return the shared timer wheel, or null if disabled
+	 */
+	static HashedWheelTimer sharedTimerWheel() {
+		if (!TIMER_WHEEL_ENABLED) {
+			return null;
+		}
+		HashedWheelTimer t = SHARED_TIMER_WHEEL.get();
+		if (t != null) {
+			return t;
+		}
+		t = new HashedWheelTimer(HashedWheelTimer.DEFAULT_TICK_NANOS,
+				TimeUnit.NANOSECONDS,
+				HashedWheelTimer.DEFAULT_TICKS_PER_WHEEL,
+				new SchedulerThreadFactory("timer-wheel", true, TimerWheelScheduler.COUNTER));
+		if (SHARED_TIMER_WHEEL.compareAndSet(null, t)) {
+			return t;
+		}
+		t.dispose();
+		return SHARED_TIMER_WHEEL.get();
+	}
+
 	static volatile Factory factory = DEFAULT;
 
 	/**
@@ -571,6 +1025,108 @@ public abstract class Schedulers {
 
 	static final Logger log = Loggers.getLogger(Schedulers.class);
 
+	static final class InstrumentedFactory implements Factory, Scannable {
+
+		final Factory          delegate;
+		final Metrics.Registry registry;
+		final String           name;
+		final String[]         tags;
+
+		final ConcurrentMap<String, InstrumentedExecutorService.Meters> meters =
+				new ConcurrentHashMap<>();
+		final Queue<InstrumentedExecutorService> executors = new ConcurrentLinkedQueue<>();
+
+		InstrumentedFactory(Factory delegate,
+				Metrics.Registry registry,
+				String name,
+				String... tags) {
+			this.delegate = delegate;
+			this.registry = registry;
+			this.name = name;
+			this.tags = tags;
+		}
+
+		InstrumentedExecutorService.Meters meters(String schedulerType) {
+			return meters.computeIfAbsent(schedulerType, type -> {
+				String[] t = Arrays.copyOf(tags, tags.length + 2);
+				t[tags.length] = "type";
+				t[tags.length + 1] = type;
+				return new InstrumentedExecutorService.Meters(registry, name, t);
+			});
+		}
+
+		<E extends InstrumentedExecutorService> E add(E e) {
+			executors.removeIf(InstrumentedExecutorService::isTerminated);
+			executors.offer(e);
+			return e;
+		}
+
+		@Override
+		public ExecutorService decorateExecutorService(String schedulerType,
+				Supplier<? extends ExecutorService> actual) {
+			return add(new InstrumentedExecutorService(schedulerType,
+					delegate.decorateExecutorService(schedulerType, actual),
+					meters(schedulerType)));
+		}
+
+		@Override
+		public ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
+				Supplier<? extends ScheduledExecutorService> actual) {
+			return add(new InstrumentedExecutorService.Scheduled(schedulerType,
+					delegate.decorateScheduledExecutorService(schedulerType, actual),
+					meters(schedulerType)));
+		}
+
+		@Override
+		public Stream<? extends Scannable> inners() {
+			return executors.stream()
+			                .filter(e -> !e.isTerminated());
+		}
+
+		@Override
+		public Object scan(Attr key) {
+			return null;
+		}
+
+		@Override
+		public Scheduler newElastic(int ttlSeconds, ThreadFactory threadFactory) {
+			return delegate.newElastic(ttlSeconds, threadFactory);
+		}
+
+		@Override
+		public Scheduler newBoundedElastic(int maxThreads, int maxTaskQueuedPerThread,
+				int ttlSeconds, ThreadFactory threadFactory) {
+			return delegate.newBoundedElastic(maxThreads, maxTaskQueuedPerThread,
+					ttlSeconds, threadFactory);
+		}
+
+		@Override
+		public Scheduler newParallel(int parallelism, ThreadFactory threadFactory) {
+			return delegate.newParallel(parallelism, threadFactory);
+		}
+
+		@Override
+		public Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+			return delegate.newWorkStealing(parallelism, threadFactory);
+		}
+
+		@Override
+		public Scheduler newVirtual(ThreadFactory threadFactory) {
+			return delegate.newVirtual(threadFactory);
+		}
+
+		@Override
+		public Scheduler newTimerWheel(Duration tickDuration, int ticksPerWheel,
+				ThreadFactory threadFactory) {
+			return delegate.newTimerWheel(tickDuration, ticksPerWheel, threadFactory);
+		}
+
+		@Override
+		public Scheduler newSingle(ThreadFactory threadFactory) {
+			return delegate.newSingle(threadFactory);
+		}
+	}
+
 	static final class SchedulerThreadFactory
 			implements ThreadFactory, Supplier<String>, Thread.UncaughtExceptionHandler {
 
@@ -653,6 +1209,11 @@ public abstract class Schedulers {
 			return cached.createWorker();
 		}
 
+		@Override
+		public Worker createWorker(int index) {
+			return cached.createWorker(index);
+		}
+
 		@Override
 		public long now(TimeUnit unit) {
 			return cached.now(unit);
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.util.concurrent.OpenHashSet;
+
+/**
+ * Scheduler that runs tasks on a single-threaded ExecutorService and arms all of its
+ * delayed and periodic tasks on a {@link HashedWheelTimer} rather than a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor} heap, which makes arming
+ * and cancelling timeouts O(1). It is suited for operators that arm a lot of timeouts
+ * that are most often cancelled before they fire (eg. {@code timeout}).
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically), with a
+ * precision of one tick.
+ */
+final class TimerWheelScheduler implements Scheduler, Supplier<ExecutorService> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	final ThreadFactory    factory;
+	final HashedWheelTimer timer;
+
+	volatile ExecutorService executor;
+	static final AtomicReferenceFieldUpdater<TimerWheelScheduler, ExecutorService> EXECUTOR =
+			AtomicReferenceFieldUpdater.newUpdater(TimerWheelScheduler.class,
+					ExecutorService.class,
+					"executor");
+
+	static final ExecutorService TERMINATED;
+
+	static {
+		TERMINATED = Executors.newSingleThreadExecutor();
+		TERMINATED.shutdownNow();
+	}
+
+	TimerWheelScheduler(long tickDuration, TimeUnit unit, int ticksPerWheel,
+			ThreadFactory factory) {
+		this.factory = factory;
+		this.timer = new HashedWheelTimer(tickDuration, unit, ticksPerWheel, factory);
+		EXECUTOR.lazySet(this, Schedulers.decorateExecutorService(Schedulers.TIMER, this));
+	}
+
+	/**
+	 * Instantiates the default {@link ExecutorService} for the TimerWheelScheduler
+	 * ({@code Executors.newSingleThreadExecutor}).
+	 */
+	@Override
+	public ExecutorService get() {
+		return Executors.newSingleThreadExecutor(factory);
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return executor == TERMINATED;
+	}
+
+	@Override
+	public void dispose() {
+		ExecutorService a = executor;
+		if (a != TERMINATED) {
+			a = EXECUTOR.getAndSet(this, TERMINATED);
+			if (a != TERMINATED) {
+				timer.dispose();
+				Schedulers.executorServiceShutdown(a, Schedulers.TIMER);
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		try {
+			return new ExecutorServiceScheduler.DisposableFuture(executor.submit(task),
+					false);
+		}
+		catch (RejectedExecutionException ex) {
+			return REJECTED;
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		ExecutorService exec = executor;
+		if (exec == TERMINATED) {
+			return REJECTED;
+		}
+		try {
+			return new ExecutorServiceScheduler.DisposableFuture(
+					timer.schedule(task, delay, unit, exec),
+					false);
+		}
+		catch (RejectedExecutionException ex) {
+			return REJECTED;
+		}
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		ExecutorService exec = executor;
+		if (exec == TERMINATED) {
+			return REJECTED;
+		}
+		try {
+			return new ExecutorServiceScheduler.DisposableFuture(
+					timer.schedulePeriodically(task, initialDelay, period, unit, exec),
+					false);
+		}
+		catch (RejectedExecutionException ex) {
+			return REJECTED;
+		}
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new TimerWheelWorker(executor, timer);
+	}
+
+	static final class TimerWheelWorker implements Worker {
+
+		final ExecutorService  exec;
+		final HashedWheelTimer timer;
+
+		OpenHashSet<TimerWheelTask> tasks;
+
+		volatile boolean shutdown;
+
+		TimerWheelWorker(ExecutorService exec, HashedWheelTimer timer) {
+			this.exec = exec;
+			this.timer = timer;
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			TimerWheelTask wt = new TimerWheelTask(task, this, false);
+			if (!add(wt)) {
+				return REJECTED;
+			}
+			try {
+				wt.setFuture(exec.submit(wt));
+			}
+			catch (RejectedExecutionException ex) {
+				wt.dispose();
+				return REJECTED;
+			}
+			return wt;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			TimerWheelTask wt = new TimerWheelTask(task, this, false);
+			if (!add(wt)) {
+				return REJECTED;
+			}
+			try {
+				wt.setFuture(timer.schedule(wt, delay, unit, exec));
+			}
+			catch (RejectedExecutionException ex) {
+				wt.dispose();
+				return REJECTED;
+			}
+			return wt;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			TimerWheelTask wt = new TimerWheelTask(task, this, true);
+			if (!add(wt)) {
+				return REJECTED;
+			}
+			try {
+				wt.setFuture(timer.schedulePeriodically(wt, initialDelay, period, unit, exec));
+			}
+			catch (RejectedExecutionException ex) {
+				wt.dispose();
+				return REJECTED;
+			}
+			return wt;
+		}
+
+		boolean add(TimerWheelTask task) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(task);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		void remove(TimerWheelTask task) {
+			if (shutdown) {
+				return;
+			}
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				tasks.remove(task);
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+			OpenHashSet<TimerWheelTask> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (set != null && !set.isEmpty()) {
+				Object[] a = set.keys();
+				for (Object o : a) {
+					if (o != null) {
+						((TimerWheelTask) o).dispose();
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+	}
+
+	static final class TimerWheelTask implements Runnable, Disposable {
+
+		final Runnable         run;
+		final TimerWheelWorker parent;
+		final boolean          periodic;
+
+		volatile boolean cancelled;
+
+		volatile Future<?> future;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<TimerWheelTask, Future> FUTURE =
+				AtomicReferenceFieldUpdater.newUpdater(TimerWheelTask.class,
+						Future.class,
+						"future");
+
+		static final Future<Object> FINISHED  = CompletableFuture.completedFuture(null);
+		static final Future<Object> CANCELLED = CompletableFuture.completedFuture(null);
+
+		TimerWheelTask(Runnable run, TimerWheelWorker parent, boolean periodic) {
+			this.run = run;
+			this.parent = parent;
+			this.periodic = periodic;
+		}
+
+		@Override
+		public void run() {
+			if (cancelled || parent.shutdown) {
+				return;
+			}
+			try {
+				run.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			finally {
+				if (!periodic) {
+					for (; ; ) {
+						Future<?> f = future;
+						if (f == CANCELLED) {
+							break;
+						}
+						if (FUTURE.compareAndSet(this, f, FINISHED)) {
+							parent.remove(this);
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			Future<?> a = future;
+			return FINISHED == a || CANCELLED == a;
+		}
+
+		@Override
+		public void dispose() {
+			if (!cancelled) {
+				cancelled = true;
+
+				Future<?> f = future;
+				if (f != CANCELLED && f != FINISHED) {
+					f = FUTURE.getAndSet(this, CANCELLED);
+					if (f != CANCELLED && f != FINISHED) {
+						if (f != null) {
+							f.cancel(parent.shutdown);
+						}
+						parent.remove(this);
+					}
+				}
+			}
+		}
+
+		void setFuture(Future<?> f) {
+			if (future != null || !FUTURE.compareAndSet(this, null, f)) {
+				if (future != FINISHED) {
+					f.cancel(parent.shutdown);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import reactor.core.Disposable;
+import reactor.util.concurrent.OpenHashSet;
+
+/**
+ * Scheduler that runs each task on a thread of its own, created on demand and never
+ * pooled, and is meant to be backed by virtual threads for blocking work (see
+ * {@link #virtualThreadFactory(String)}): a blocked virtual thread doesn't hold a
+ * platform thread, so a large number of blocking calls can be in flight at once.
+ * <p>
+ * A {@link Worker} trampolines its tasks through its own queue, drained by a single
+ * thread at a time, so that tasks of a same Worker execute one at a time and in
+ * submission order. Delayed and periodic tasks sleep on a thread of their own until
+ * due. Disposing a task, a Worker or the Scheduler interrupts the threads it runs on.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically).
+ */
+final class VirtualThreadScheduler implements Scheduler, DisposableContainer<Disposable> {
+
+	static final Method OF_VIRTUAL;
+	static final Method BUILDER_NAME;
+	static final Method BUILDER_UNCAUGHT_EXCEPTION_HANDLER;
+	static final Method BUILDER_FACTORY;
+
+	static {
+		Method ofVirtual;
+		Method name;
+		Method uncaughtExceptionHandler;
+		Method factory;
+		try {
+			Class<?> builder = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builder.getMethod("name", String.class, long.class);
+			uncaughtExceptionHandler = builder.getMethod("uncaughtExceptionHandler",
+					Thread.UncaughtExceptionHandler.class);
+			factory = builder.getMethod("factory");
+			//virtual threads are a preview feature that can be disabled on some JDKs
+			ofVirtual.invoke(null);
+		}
+		catch (Throwable e) {
+			ofVirtual = null;
+			name = null;
+			uncaughtExceptionHandler = null;
+			factory = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		BUILDER_NAME = name;
+		BUILDER_UNCAUGHT_EXCEPTION_HANDLER = uncaughtExceptionHandler;
+		BUILDER_FACTORY = factory;
+	}
+
+	static final Thread.UncaughtExceptionHandler UNCAUGHT_EXCEPTION_HANDLER =
+			(t, e) -> Schedulers.log.error("Scheduler virtual thread " + t.getName() +
+					" failed with an uncaught exception", e);
+
+	/**
+	 * Create a {@link ThreadFactory} of virtual threads named after the given prefix,
+	 * if the running JDK provides them.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a {@link ThreadFactory} of virtual threads, or null if they are not
+	 * available
+	 */
+	static ThreadFactory virtualThreadFactory(String name) {
+		if (OF_VIRTUAL == null) {
+			return null;
+		}
+		try {
+			Object builder = OF_VIRTUAL.invoke(null);
+			builder = BUILDER_NAME.invoke(builder, name + "-", 1L);
+			builder = BUILDER_UNCAUGHT_EXCEPTION_HANDLER.invoke(builder,
+					UNCAUGHT_EXCEPTION_HANDLER);
+			return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+		}
+		catch (Throwable e) {
+			return null;
+		}
+	}
+
+	final ThreadFactory factory;
+
+	OpenHashSet<Disposable> tasks;
+
+	volatile boolean shutdown;
+
+	VirtualThreadScheduler(ThreadFactory factory) {
+		this.factory = Objects.requireNonNull(factory, "factory");
+		this.tasks = new OpenHashSet<>();
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return start(new VirtualTask(task, 0L, 0L, this, null));
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		return start(new VirtualTask(task, unit.toNanos(delay), 0L, this, null));
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		if (period <= 0L) {
+			throw new IllegalArgumentException("period > 0 required but it was " + period);
+		}
+		return start(new VirtualTask(task,
+				unit.toNanos(initialDelay),
+				unit.toNanos(period),
+				this,
+				null));
+	}
+
+	Disposable start(VirtualTask vt) {
+		if (!vt.parent.add(vt)) {
+			return REJECTED;
+		}
+		Thread t = factory.newThread(vt);
+		if (t == null) {
+			vt.dispose();
+			return REJECTED;
+		}
+		t.start();
+		return vt;
+	}
+
+	@Override
+	public Worker createWorker() {
+		VirtualWorker w = new VirtualWorker(this);
+		if (!add(w)) {
+			w.dispose();
+		}
+		return w;
+	}
+
+	@Override
+	public boolean add(Disposable d) {
+		if (!shutdown) {
+			synchronized (this) {
+				if (!shutdown) {
+					tasks.add(d);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Disposable d) {
+		if (!shutdown) {
+			synchronized (this) {
+				if (!shutdown) {
+					tasks.remove(d);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void start() {
+		if (shutdown) {
+			synchronized (this) {
+				if (shutdown) {
+					tasks = new OpenHashSet<>();
+					shutdown = false;
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public void dispose() {
+		if (shutdown) {
+			return;
+		}
+		OpenHashSet<Disposable> set;
+		synchronized (this) {
+			if (shutdown) {
+				return;
+			}
+			shutdown = true;
+			set = tasks;
+			tasks = null;
+		}
+		dispose(set);
+	}
+
+	static void dispose(OpenHashSet<Disposable> set) {
+		if (set != null && !set.isEmpty()) {
+			Object[] a = set.keys();
+			for (Object o : a) {
+				if (o != null) {
+					((Disposable) o).dispose();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A trampolining worker: tasks are queued in submission order and drained by a
+	 * single thread at a time, a new one being started for each burst of tasks.
+	 */
+	static final class VirtualWorker implements Worker, DisposableContainer<Disposable>,
+	                                            Runnable {
+
+		final VirtualThreadScheduler parent;
+
+		final Queue<VirtualTask> queue;
+
+		OpenHashSet<Disposable> tasks;
+
+		volatile boolean shutdown;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<VirtualWorker> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(VirtualWorker.class, "wip");
+
+		volatile Thread drainer;
+		static final AtomicReferenceFieldUpdater<VirtualWorker, Thread> DRAINER =
+				AtomicReferenceFieldUpdater.newUpdater(VirtualWorker.class,
+						Thread.class,
+						"drainer");
+
+		VirtualWorker(VirtualThreadScheduler parent) {
+			this.parent = parent;
+			this.queue = new ConcurrentLinkedQueue<>();
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			VirtualTask vt = new VirtualTask(task, 0L, 0L, this, this);
+			if (!add(vt)) {
+				return REJECTED;
+			}
+			offer(vt);
+			return vt;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			if (delay <= 0L) {
+				return schedule(task);
+			}
+			return parent.start(new VirtualTask(task, unit.toNanos(delay), 0L, this, this));
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			if (period <= 0L) {
+				throw new IllegalArgumentException("period > 0 required but it was " + period);
+			}
+			return parent.start(new VirtualTask(task,
+					unit.toNanos(initialDelay),
+					unit.toNanos(period),
+					this,
+					this));
+		}
+
+		void offer(VirtualTask vt) {
+			queue.offer(vt);
+			if (WIP.getAndIncrement(this) == 0) {
+				Thread t = parent.factory.newThread(this);
+				if (t == null) {
+					dispose();
+					return;
+				}
+				t.start();
+			}
+		}
+
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			drainer = current;
+			final Queue<VirtualTask> q = queue;
+			int missed = 1;
+
+			for (; ; ) {
+				VirtualTask vt;
+				while ((vt = q.poll()) != null) {
+					if (shutdown) {
+						q.clear();
+						return;
+					}
+					vt.runQueued();
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+			DRAINER.compareAndSet(this, current, null);
+		}
+
+		@Override
+		public boolean add(Disposable d) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(d);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Disposable d) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.remove(d);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+			OpenHashSet<Disposable> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+			VirtualThreadScheduler.dispose(set);
+
+			//a drainer thread only ever runs tasks of this worker and is never reused
+			Thread t = drainer;
+			if (t != null) {
+				t.interrupt();
+			}
+			parent.remove(this);
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+	}
+
+	/**
+	 * A task that either runs on a thread of its own, possibly after sleeping until
+	 * due, or is queued to a {@link VirtualWorker}. A delayed worker task sleeps on a
+	 * thread of its own before being queued, a periodic worker task schedules a run on
+	 * its worker on each period.
+	 */
+	static final class VirtualTask implements Runnable, Disposable {
+
+		static final Object RUNNING   = new Object();
+		static final Object FINISHED  = new Object();
+		static final Object CANCELLED = new Object();
+
+		final Runnable                        task;
+		final long                            delayNanos;
+		final long                            periodNanos;
+		final DisposableContainer<Disposable> parent;
+		final VirtualWorker                   worker;
+
+		/**
+		 * null while pending, the {@link Thread} it sleeps or runs on, {@link #RUNNING}
+		 * while run by a {@link VirtualWorker}, then {@link #FINISHED} or
+		 * {@link #CANCELLED}.
+		 */
+		volatile Object state;
+		static final AtomicReferenceFieldUpdater<VirtualTask, Object> STATE =
+				AtomicReferenceFieldUpdater.newUpdater(VirtualTask.class,
+						Object.class,
+						"state");
+
+		VirtualTask(Runnable task,
+				long delayNanos,
+				long periodNanos,
+				DisposableContainer<Disposable> parent,
+				VirtualWorker worker) {
+			this.task = Objects.requireNonNull(task, "task");
+			this.delayNanos = delayNanos;
+			this.periodNanos = periodNanos;
+			this.parent = parent;
+			this.worker = worker;
+		}
+
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			if (!STATE.compareAndSet(this, null, current)) {
+				return;
+			}
+			long deadline = System.nanoTime() + delayNanos;
+			for (; ; ) {
+				if (!sleepUntil(deadline) || state != current) {
+					return;
+				}
+				if (periodNanos == 0L) {
+					if (worker == null) {
+						call();
+						finish(current);
+					}
+					else if (STATE.compareAndSet(this, current, null)) {
+						worker.offer(this);
+					}
+					return;
+				}
+				if (worker == null) {
+					call();
+				}
+				else {
+					worker.schedule(task);
+				}
+				deadline += periodNanos;
+			}
+		}
+
+		void runQueued() {
+			if (STATE.compareAndSet(this, null, RUNNING)) {
+				call();
+				finish(RUNNING);
+			}
+		}
+
+		void call() {
+			try {
+				task.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+		}
+
+		void finish(Object expected) {
+			if (STATE.compareAndSet(this, expected, FINISHED)) {
+				parent.remove(this);
+			}
+		}
+
+		static boolean sleepUntil(long deadline) {
+			long wait;
+			while ((wait = deadline - System.nanoTime()) > 0L) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(wait);
+				}
+				catch (InterruptedException e) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isDisposed() {
+			Object s = state;
+			return s == FINISHED || s == CANCELLED;
+		}
+
+		@Override
+		public void dispose() {
+			for (; ; ) {
+				Object s = state;
+				if (s == FINISHED || s == CANCELLED) {
+					return;
+				}
+				if (STATE.compareAndSet(this, s, CANCELLED)) {
+					if (s instanceof Thread) {
+						((Thread) s).interrupt();
+					}
+					parent.remove(this);
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.util.concurrent.OpenHashSet;
+
+import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
+import static reactor.core.scheduler.ExecutorServiceScheduler.EMPTY;
+
+/**
+ * Scheduler that hosts a fixed pool of threads sharing work through per-thread deques
+ * (an async-mode {@link ForkJoinPool}) and is suited for parallel work with uneven
+ * task durations: idle threads steal pending tasks from busy ones instead of waiting.
+ * <p>
+ * Unlike {@link ParallelScheduler}, a {@link Worker} is not pinned to a thread: each
+ * Worker trampolines its tasks through its own queue and drains them as a single
+ * pool task, so tasks of a same Worker still execute one at a time and in submission
+ * order, but any thread of the pool can pick the drain up. Delayed and periodic tasks
+ * are armed on a single timer thread and handed over to the pool when due.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically).
+ */
+final class WorkStealingScheduler implements Scheduler, Supplier<ScheduledExecutorService>,
+                                             ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	final int n;
+
+	final ThreadFactory factory;
+
+	volatile ExecutorService pool;
+	static final AtomicReferenceFieldUpdater<WorkStealingScheduler, ExecutorService> POOL =
+			AtomicReferenceFieldUpdater.newUpdater(WorkStealingScheduler.class,
+					ExecutorService.class,
+					"pool");
+
+	volatile ScheduledExecutorService timer;
+	static final AtomicReferenceFieldUpdater<WorkStealingScheduler, ScheduledExecutorService>
+			TIMER = AtomicReferenceFieldUpdater.newUpdater(WorkStealingScheduler.class,
+			ScheduledExecutorService.class,
+			"timer");
+
+	static final ScheduledExecutorService TERMINATED;
+
+	static {
+		TERMINATED = Executors.newSingleThreadScheduledExecutor();
+		TERMINATED.shutdownNow();
+	}
+
+	WorkStealingScheduler(int n, ThreadFactory factory) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n > 0 required but it was " + n);
+		}
+		this.n = n;
+		this.factory = factory;
+		POOL.lazySet(this, newPool());
+		TIMER.lazySet(this, newTimer());
+	}
+
+	/**
+	 * Instantiates the default timer {@link ScheduledExecutorService} for the
+	 * WorkStealingScheduler ({@code Executors.newScheduledThreadPool(1)}).
+	 */
+	@Override
+	public ScheduledExecutorService get() {
+		ScheduledExecutorService e = Executors.newScheduledThreadPool(1, this.factory);
+		((ScheduledThreadPoolExecutor) e).setRemoveOnCancelPolicy(true);
+		return e;
+	}
+
+	/**
+	 * Create a pool thread, inheriting name, daemon flag, priority and uncaught
+	 * exception handler from a (never started) thread of the configured
+	 * {@link ThreadFactory}.
+	 */
+	@Override
+	public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread t = new WorkStealingThread(pool);
+		Thread template = factory.newThread(EMPTY);
+		t.setName(template.getName());
+		t.setDaemon(template.isDaemon());
+		t.setPriority(template.getPriority());
+		t.setUncaughtExceptionHandler(template.getUncaughtExceptionHandler());
+		return t;
+	}
+
+	ExecutorService newPool() {
+		return Schedulers.decorateExecutorService(Schedulers.WORK_STEALING,
+				() -> new ForkJoinPool(n, this, null, true));
+	}
+
+	ScheduledExecutorService newTimer() {
+		return Schedulers.decorateScheduledExecutorService(Schedulers.TIMER, this);
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return pool == TERMINATED;
+	}
+
+	@Override
+	public void start() {
+		ExecutorService p = null;
+		for (; ; ) {
+			ExecutorService a = pool;
+			if (a != TERMINATED) {
+				if (p != null) {
+					p.shutdownNow();
+				}
+				break;
+			}
+			if (p == null) {
+				p = newPool();
+			}
+			if (POOL.compareAndSet(this, a, p)) {
+				break;
+			}
+		}
+
+		ScheduledExecutorService t = null;
+		for (; ; ) {
+			ScheduledExecutorService a = timer;
+			if (a != TERMINATED) {
+				if (t != null) {
+					t.shutdownNow();
+				}
+				return;
+			}
+			if (t == null) {
+				t = newTimer();
+			}
+			if (TIMER.compareAndSet(this, a, t)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		ExecutorService p = pool;
+		if (p != TERMINATED) {
+			p = POOL.getAndSet(this, TERMINATED);
+			if (p != TERMINATED) {
+				Schedulers.executorServiceShutdown(p, Schedulers.WORK_STEALING);
+			}
+		}
+		ScheduledExecutorService t = timer;
+		if (t != TERMINATED) {
+			t = TIMER.getAndSet(this, TERMINATED);
+			if (t != TERMINATED) {
+				Schedulers.executorServiceShutdown(t, Schedulers.TIMER);
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		try {
+			return new ExecutorServiceScheduler.DisposableFuture(pool.submit(task),
+					false);
+		}
+		catch (RejectedExecutionException ex) {
+			return REJECTED;
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		//a throwaway worker keeps the hand-over from the timer to the pool cancellable
+		return createWorker().schedule(task, delay, unit);
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		//a throwaway worker prevents overlapping runs of the same periodic task
+		return createWorker().schedulePeriodically(task, initialDelay, period, unit);
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new WorkStealingWorker(this);
+	}
+
+	static final class WorkStealingThread extends ForkJoinWorkerThread {
+
+		WorkStealingThread(ForkJoinPool pool) {
+			super(pool);
+		}
+	}
+
+	/**
+	 * A trampolining worker: tasks are queued in submission order and drained by a
+	 * single pool task at a time, that any thread of the pool can execute or steal.
+	 */
+	static final class WorkStealingWorker
+			implements Worker, DisposableContainer<ScheduledRunnable>, Runnable {
+
+		final WorkStealingScheduler parent;
+
+		final Queue<ScheduledRunnable> queue;
+
+		OpenHashSet<Disposable> tasks;
+
+		volatile boolean shutdown;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<WorkStealingWorker> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(WorkStealingWorker.class, "wip");
+
+		WorkStealingWorker(WorkStealingScheduler parent) {
+			this.parent = parent;
+			this.queue = new ConcurrentLinkedQueue<>();
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			Objects.requireNonNull(task, "task");
+			if (shutdown) {
+				return REJECTED;
+			}
+
+			ScheduledRunnable sr = new ScheduledRunnable(task, this);
+			if (!add(sr)) {
+				return REJECTED;
+			}
+
+			try {
+				offer(sr);
+			}
+			catch (RejectedExecutionException ex) {
+				sr.dispose();
+				return REJECTED;
+			}
+			return sr;
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			if (delay <= 0L) {
+				return schedule(task);
+			}
+			if (shutdown) {
+				return REJECTED;
+			}
+
+			ScheduledRunnable sr = new ScheduledRunnable(task, this);
+			if (!add(sr)) {
+				return REJECTED;
+			}
+
+			try {
+				Future<?> f = parent.timer.schedule(() -> {
+					try {
+						offer(sr);
+					}
+					catch (RejectedExecutionException ex) {
+						sr.dispose();
+					}
+				}, delay, unit);
+				sr.setFuture(f);
+			}
+			catch (RejectedExecutionException ex) {
+				sr.dispose();
+				return REJECTED;
+			}
+			return sr;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			if (shutdown) {
+				return REJECTED;
+			}
+
+			PeriodicWorkerTask pt = new PeriodicWorkerTask(task, this);
+			if (!track(pt)) {
+				return REJECTED;
+			}
+
+			try {
+				Future<?> f = parent.timer.scheduleAtFixedRate(pt,
+						initialDelay,
+						period,
+						unit);
+				pt.setFuture(f);
+			}
+			catch (RejectedExecutionException ex) {
+				pt.dispose();
+				return REJECTED;
+			}
+			return pt;
+		}
+
+		void offer(ScheduledRunnable sr) {
+			queue.offer(sr);
+			if (WIP.getAndIncrement(this) == 0) {
+				parent.pool.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			final Queue<ScheduledRunnable> q = queue;
+			int missed = 1;
+
+			for (; ; ) {
+				ScheduledRunnable sr;
+				while ((sr = q.poll()) != null) {
+					if (shutdown) {
+						q.clear();
+						return;
+					}
+					if (!sr.isDisposed()) {
+						sr.run();
+					}
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		@Override
+		public boolean add(ScheduledRunnable sr) {
+			if (track(sr)) {
+				return true;
+			}
+			sr.dispose();
+			return false;
+		}
+
+		@Override
+		public boolean remove(ScheduledRunnable sr) {
+			return untrack(sr);
+		}
+
+		boolean track(Disposable d) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(d);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		boolean untrack(Disposable d) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.remove(d);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+			OpenHashSet<Disposable> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (set != null && !set.isEmpty()) {
+				Object[] a = set.keys();
+				for (Object o : a) {
+					if (o != null) {
+						((Disposable) o).dispose();
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+	}
+
+	/**
+	 * The timer-side part of a periodic {@link WorkStealingWorker} task: every tick
+	 * schedules one run of the task on the worker, so that runs never overlap and stay
+	 * ordered with the worker's other tasks.
+	 */
+	static final class PeriodicWorkerTask implements Runnable, Disposable {
+
+		final Runnable           task;
+		final WorkStealingWorker parent;
+
+		volatile Future<?> future;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<PeriodicWorkerTask, Future> FUTURE =
+				AtomicReferenceFieldUpdater.newUpdater(PeriodicWorkerTask.class,
+						Future.class,
+						"future");
+
+		PeriodicWorkerTask(Runnable task, WorkStealingWorker parent) {
+			this.task = task;
+			this.parent = parent;
+		}
+
+		@Override
+		public void run() {
+			if (future != CANCELLED) {
+				parent.schedule(task);
+			}
+		}
+
+		void setFuture(Future<?> f) {
+			if (!FUTURE.compareAndSet(this, null, f)) {
+				f.cancel(false);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return future == CANCELLED;
+		}
+
+		@Override
+		public void dispose() {
+			Future<?> f = future;
+			if (f != CANCELLED) {
+				f = FUTURE.getAndSet(this, CANCELLED);
+				if (f != CANCELLED) {
+					if (f != null) {
+						f.cancel(false);
+					}
+					parent.untrack(this);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A source of {@link ByteBuffer} that operators acquire to write encoded values and
+ * that consumers release once the bytes have been used, eg. written to a channel.
+ * <p>
+ * A pool is shared by all the subscriptions of the operators using it and must be
+ * thread-safe.
+ */
+public interface ByteBufferPool {
+
+	/**
+	 * Acquire a cleared buffer with at least the given capacity.
+	 *
+	 * @param minCapacity the minimum capacity of the buffer
+	 *
+	 * @return a buffer with a position of 0 and a limit equal to its capacity
+	 */
+	ByteBuffer acquire(int minCapacity);
+
+	/**
+	 * Give back a buffer previously {@link #acquire(int) acquired} from this pool. The
+	 * caller must not use the buffer afterwards.
+	 *
+	 * @param buffer the buffer to release
+	 */
+	void release(ByteBuffer buffer);
+
+	/**
+	 * Return a {@link ByteBufferPool} of direct buffers of the given size, retaining at
+	 * most the given number of released buffers. Larger buffers are allocated on demand
+	 * and not pooled.
+	 *
+	 * @param bufferSize the capacity of the pooled buffers
+	 * @param maxPooled the maximum number of released buffers kept for reuse
+	 *
+	 * @return a pool of direct buffers
+	 */
+	static ByteBufferPool direct(int bufferSize, int maxPooled) {
+		return new FixedByteBufferPool(bufferSize, maxPooled, true);
+	}
+
+	/**
+	 * Return a {@link ByteBufferPool} of heap buffers of the given size, retaining at
+	 * most the given number of released buffers. Larger buffers are allocated on demand
+	 * and not pooled.
+	 *
+	 * @param bufferSize the capacity of the pooled buffers
+	 * @param maxPooled the maximum number of released buffers kept for reuse
+	 *
+	 * @return a pool of heap buffers
+	 */
+	static ByteBufferPool heap(int bufferSize, int maxPooled) {
+		return new FixedByteBufferPool(bufferSize, maxPooled, false);
+	}
+
+	/**
+	 * Return a {@link ByteBufferPool} allocating a new heap buffer for each
+	 * acquisition and ignoring releases.
+	 *
+	 * @return an unpooled {@link ByteBufferPool}
+	 */
+	static ByteBufferPool unpooled() {
+		return UnpooledByteBufferPool.INSTANCE;
+	}
+}
+
+final class FixedByteBufferPool implements ByteBufferPool {
+
+	final int bufferSize;
+
+	final boolean direct;
+
+	final AtomicReferenceArray<ByteBuffer> free;
+
+	FixedByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+		}
+		if (maxPooled <= 0) {
+			throw new IllegalArgumentException("maxPooled > 0 required but it was " + maxPooled);
+		}
+		this.bufferSize = bufferSize;
+		this.direct = direct;
+		this.free = new AtomicReferenceArray<>(maxPooled);
+	}
+
+	@Override
+	public ByteBuffer acquire(int minCapacity) {
+		if (minCapacity > bufferSize) {
+			return allocate(minCapacity);
+		}
+		AtomicReferenceArray<ByteBuffer> a = free;
+		int n = a.length();
+		for (int i = 0; i < n; i++) {
+			if (a.get(i) != null) {
+				ByteBuffer b = a.getAndSet(i, null);
+				if (b != null) {
+					b.clear();
+					return b;
+				}
+			}
+		}
+		return allocate(bufferSize);
+	}
+
+	@Override
+	public void release(ByteBuffer buffer) {
+		if (buffer.capacity() != bufferSize || buffer.isDirect() != direct || buffer.isReadOnly()) {
+			return;
+		}
+		AtomicReferenceArray<ByteBuffer> a = free;
+		int n = a.length();
+		for (int i = 0; i < n; i++) {
+			if (a.get(i) == null && a.compareAndSet(i, null, buffer)) {
+				return;
+			}
+		}
+	}
+
+	ByteBuffer allocate(int capacity) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+}
+
+final class UnpooledByteBufferPool implements ByteBufferPool {
+
+	static final UnpooledByteBufferPool INSTANCE = new UnpooledByteBufferPool();
+
+	@Override
+	public ByteBuffer acquire(int minCapacity) {
+		return ByteBuffer.allocate(minCapacity);
+	}
+
+	@Override
+	public void release(ByteBuffer buffer) {
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Convert values to and from bytes, so that operators can keep them outside of the
+ * heap (eg. in direct or memory-mapped buffers).
+ * <p>
+ * A codec is shared by all the subscriptions of the operator using it and must be
+ * thread-safe.
+ *
+ * @param <T> the value type
+ */
+public interface Codec<T> {
+
+	/**
+	 * Encode the given value.
+	 *
+	 * @param value the value to encode, never null
+	 *
+	 * @return a buffer with the encoded bytes between its position and limit, which is
+	 * not retained
+	 */
+	ByteBuffer encode(T value);
+
+	/**
+	 * Decode a value previously encoded by {@link #encode(Object)}.
+	 *
+	 * @param buffer a read-only buffer with the encoded bytes between its position and
+	 * limit, only valid for the duration of the call
+	 *
+	 * @return the decoded value, never null
+	 */
+	T decode(ByteBuffer buffer);
+
+	/**
+	 * Return a {@link Codec} for {@code byte[]} values.
+	 *
+	 * @return a {@link Codec} copying byte arrays
+	 */
+	static Codec<byte[]> bytes() {
+		return ByteArrayCodec.INSTANCE;
+	}
+
+	/**
+	 * Return a {@link Codec} encoding {@link String} values in UTF-8.
+	 *
+	 * @return a UTF-8 {@link Codec}
+	 */
+	static Codec<String> utf8() {
+		return Utf8Codec.INSTANCE;
+	}
+
+	/**
+	 * Return a {@link Codec} using Java serialization. Values must be
+	 * {@link Serializable}, and the codec is mostly useful for tests: it is slow and
+	 * allocates a lot.
+	 *
+	 * @param <T> the value type
+	 *
+	 * @return a Java serialization {@link Codec}
+	 */
+	@SuppressWarnings("unchecked")
+	static <T extends Serializable> Codec<T> serialization() {
+		return (Codec<T>) SerializationCodec.INSTANCE;
+	}
+}
+
+final class ByteArrayCodec implements Codec<byte[]> {
+
+	static final ByteArrayCodec INSTANCE = new ByteArrayCodec();
+
+	@Override
+	public ByteBuffer encode(byte[] value) {
+		return ByteBuffer.wrap(value);
+	}
+
+	@Override
+	public byte[] decode(ByteBuffer buffer) {
+		byte[] b = new byte[buffer.remaining()];
+		buffer.get(b);
+		return b;
+	}
+}
+
+final class Utf8Codec implements Codec<String> {
+
+	static final Utf8Codec INSTANCE = new Utf8Codec();
+
+	@Override
+	public ByteBuffer encode(String value) {
+		return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public String decode(ByteBuffer buffer) {
+		return StandardCharsets.UTF_8.decode(buffer)
+		                             .toString();
+	}
+}
+
+final class SerializationCodec implements Codec<Serializable> {
+
+	static final SerializationCodec INSTANCE = new SerializationCodec();
+
+	@Override
+	public ByteBuffer encode(Serializable value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	@Override
+	public Serializable decode(ByteBuffer buffer) {
+		byte[] b = new byte[buffer.remaining()];
+		buffer.get(b);
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(b))) {
+			return (Serializable) in.readObject();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
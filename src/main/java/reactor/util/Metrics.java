@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Expose static methods to get the {@link Registry} that instrumented Reactor
+ * operators report to, and to plug a different one (eg. an adapter to a metrics
+ * library). By default, metrics are kept in memory by a {@link SimpleRegistry}.
+ * <p>
+ * Meters are identified by a name and optional tags, given as alternating key and
+ * value strings.
+ */
+public abstract class Metrics {
+
+	static volatile Registry registry = new SimpleRegistry();
+
+	/**
+	 * Return the {@link Registry} currently used by instrumented operators.
+	 *
+	 * @return the current {@link Registry}
+	 */
+	public static Registry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Replace the {@link Registry} used by operators instrumented from now on. Already
+	 * assembled operators keep reporting to the meters they were created with.
+	 *
+	 * @param registry the new {@link Registry}
+	 */
+	public static void useRegistry(Registry registry) {
+		Metrics.registry = Objects.requireNonNull(registry, "registry");
+	}
+
+	/**
+	 * Reset to a fresh, empty in-memory {@link SimpleRegistry}.
+	 */
+	public static void resetRegistry() {
+		registry = new SimpleRegistry();
+	}
+
+	/**
+	 * A factory of meters. Implementations are expected to return the same meter for the
+	 * same name and tags, and must be thread-safe.
+	 */
+	public interface Registry {
+
+		/**
+		 * @param name the meter name
+		 * @param tags alternating tag keys and values
+		 * @return the {@link Counter} for this name and tags
+		 */
+		Counter counter(String name, String... tags);
+
+		/**
+		 * @param name the meter name
+		 * @param tags alternating tag keys and values
+		 * @return the {@link Timer} for this name and tags
+		 */
+		Timer timer(String name, String... tags);
+
+		/**
+		 * @param name the meter name
+		 * @param tags alternating tag keys and values
+		 * @return the {@link Histogram} for this name and tags
+		 */
+		Histogram histogram(String name, String... tags);
+	}
+
+	/**
+	 * A monotonically increasing count of events.
+	 */
+	public interface Counter {
+
+		/**
+		 * @param amount the number of events to add
+		 */
+		void increment(long amount);
+	}
+
+	/**
+	 * A distribution of durations.
+	 */
+	public interface Timer {
+
+		/**
+		 * @param duration the duration to record
+		 * @param unit the unit of the duration
+		 */
+		void record(long duration, TimeUnit unit);
+	}
+
+	/**
+	 * A distribution of values, eg. sizes.
+	 */
+	public interface Histogram {
+
+		/**
+		 * @param value the value to record
+		 */
+		void record(long value);
+	}
+
+	/**
+	 * A dependency-free in-memory {@link Registry} keeping counts, totals and maxima.
+	 */
+	public static final class SimpleRegistry implements Registry {
+
+		final ConcurrentMap<Id, Object> meters = new ConcurrentHashMap<>();
+
+		@Override
+		public SimpleCounter counter(String name, String... tags) {
+			return meter(name, tags, SimpleCounter.class, id -> new SimpleCounter());
+		}
+
+		@Override
+		public SimpleTimer timer(String name, String... tags) {
+			return meter(name, tags, SimpleTimer.class, id -> new SimpleTimer());
+		}
+
+		@Override
+		public SimpleHistogram histogram(String name, String... tags) {
+			return meter(name, tags, SimpleHistogram.class, id -> new SimpleHistogram());
+		}
+
+		<M> M meter(String name, String[] tags, Class<M> type, Function<Id, ?> factory) {
+			Object m = meters.computeIfAbsent(new Id(name, tags), factory);
+			if (!type.isInstance(m)) {
+				throw new IllegalArgumentException("Meter " + name + Arrays.toString(tags) +
+						" is already registered as a " + m.getClass().getSimpleName());
+			}
+			return type.cast(m);
+		}
+	}
+
+	/**
+	 * The {@link Counter} of a {@link SimpleRegistry}.
+	 */
+	public static final class SimpleCounter implements Counter {
+
+		final LongAdder count = new LongAdder();
+
+		@Override
+		public void increment(long amount) {
+			count.add(amount);
+		}
+
+		/**
+		 * @return the current count
+		 */
+		public long count() {
+			return count.sum();
+		}
+	}
+
+	/**
+	 * The {@link Timer} of a {@link SimpleRegistry}.
+	 */
+	public static final class SimpleTimer implements Timer {
+
+		final LongAdder       count      = new LongAdder();
+		final LongAdder       totalNanos = new LongAdder();
+		final LongAccumulator maxNanos   = new LongAccumulator(Math::max, 0L);
+
+		@Override
+		public void record(long duration, TimeUnit unit) {
+			long nanos = unit.toNanos(duration);
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		/**
+		 * @return the number of recorded durations
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		/**
+		 * @param unit the unit to convert to
+		 * @return the sum of the recorded durations
+		 */
+		public long totalTime(TimeUnit unit) {
+			return unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @param unit the unit to convert to
+		 * @return the longest recorded duration
+		 */
+		public long max(TimeUnit unit) {
+			return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * The {@link Histogram} of a {@link SimpleRegistry}.
+	 */
+	public static final class SimpleHistogram implements Histogram {
+
+		final LongAdder       count = new LongAdder();
+		final LongAdder       total = new LongAdder();
+		final LongAccumulator max   = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+		@Override
+		public void record(long value) {
+			count.increment();
+			total.add(value);
+			max.accumulate(value);
+		}
+
+		/**
+		 * @return the number of recorded values
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		/**
+		 * @return the sum of the recorded values
+		 */
+		public long total() {
+			return total.sum();
+		}
+
+		/**
+		 * @return the largest recorded value, or {@link Long#MIN_VALUE} if none
+		 */
+		public long max() {
+			return max.get();
+		}
+	}
+
+	static final class Id {
+
+		final String   name;
+		final String[] tags;
+
+		Id(String name, String[] tags) {
+			this.name = Objects.requireNonNull(name, "name");
+			if ((tags.length & 1) != 0) {
+				throw new IllegalArgumentException("tags must be key/value pairs: " + Arrays.toString(tags));
+			}
+			this.tags = tags;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Id)) {
+				return false;
+			}
+			Id id = (Id) o;
+			return name.equals(id.name) && Arrays.equals(tags, id.tags);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * name.hashCode() + Arrays.hashCode(tags);
+		}
+	}
+
+	Metrics() {
+	}
+}
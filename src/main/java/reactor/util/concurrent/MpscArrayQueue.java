@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2011-2016 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, array backed, multi-producer single-consumer queue.
+ * <p>
+ * This implementation is based on JCTools' MPSC algorithms:
+ * <a href='https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/MpscArrayQueue.java'>MpscArrayQueue</a>
+ * and <a href='https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic/MpscAtomicArrayQueue.java'>MpscAtomicArrayQueue</a>.
+ * Producers claim a slot by CAS on the producer index, bounded by a cached view of the
+ * consumer index so that they rarely read the consumer's cache line. Unlike
+ * {@link SpscArrayQueue}, the indexes are padded: with several producers hammering the
+ * producer index, false sharing with the consumer index would dominate.
+ *
+ * @param <T> the value type
+ */
+final class MpscArrayQueue<T> extends MpscArrayQueueP3<T> implements Queue<T> {
+	/** */
+	private static final long serialVersionUID = -1541223396219524227L;
+
+	MpscArrayQueue(int capacity) {
+		super(QueueSupplier.ceilingNextPowerOfTwo(capacity));
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+		final int m = mask;
+		final long capacity = m + 1;
+		long limit = producerLimit;
+		long pi;
+		do {
+			pi = producerIndex;
+			if (pi >= limit) {
+				limit = consumerIndex + capacity;
+				if (pi >= limit) {
+					return false;
+				}
+				PRODUCER_LIMIT.lazySet(this, limit);
+			}
+		}
+		while (!PRODUCER_INDEX.compareAndSet(this, pi, pi + 1));
+
+		lazySet((int) pi & m, e);
+		return true;
+	}
+
+	@Override
+	public T poll() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+
+		T v = get(offset);
+		if (v == null) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			//a producer claimed the slot but its value isn't visible yet
+			do {
+				v = get(offset);
+			}
+			while (v == null);
+		}
+		lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return v;
+	}
+
+	@Override
+	public T peek() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+
+		T v = get(offset);
+		if (v == null && ci != producerIndex) {
+			do {
+				v = get(offset);
+			}
+			while (v == null);
+		}
+		return v;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty());
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (;;) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int)(pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object[] toArray() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public <R> R[] toArray(R[] a) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T element() {
+		throw new UnsupportedOperationException();
+	}
+}
+
+class MpscArrayQueueCold<T> extends AtomicReferenceArray<T> {
+	/** */
+	private static final long serialVersionUID = 6826405735962262434L;
+
+	final int mask;
+
+	public MpscArrayQueueCold(int length) {
+		super(length);
+		mask = length - 1;
+	}
+}
+
+class MpscArrayQueueP1<T> extends MpscArrayQueueCold<T> {
+	/** */
+	private static final long serialVersionUID = -5624436584391045425L;
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	public MpscArrayQueueP1(int length) {
+		super(length);
+	}
+}
+
+class MpscArrayQueueProducer<T> extends MpscArrayQueueP1<T> {
+
+	/** */
+	private static final long serialVersionUID = 2210640163640364541L;
+
+	public MpscArrayQueueProducer(int length) {
+		super(length);
+		this.producerLimit = length;
+	}
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueProducer> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueProducer.class, "producerIndex");
+
+	volatile long producerLimit;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueProducer> PRODUCER_LIMIT =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueProducer.class, "producerLimit");
+}
+
+class MpscArrayQueueP2<T> extends MpscArrayQueueProducer<T> {
+	/** */
+	private static final long serialVersionUID = 2424409880806599960L;
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	public MpscArrayQueueP2(int length) {
+		super(length);
+	}
+}
+
+class MpscArrayQueueConsumer<T> extends MpscArrayQueueP2<T> {
+
+	/** */
+	private static final long serialVersionUID = -1998563851016826498L;
+
+	public MpscArrayQueueConsumer(int length) {
+		super(length);
+	}
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueConsumer> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueConsumer.class, "consumerIndex");
+}
+
+class MpscArrayQueueP3<T> extends MpscArrayQueueConsumer<T> {
+	/** */
+	private static final long serialVersionUID = 6395467305916216537L;
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	public MpscArrayQueueP3(int length) {
+		super(length);
+	}
+}
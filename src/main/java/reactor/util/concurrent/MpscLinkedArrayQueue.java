@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011-2016 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * An unbounded, array-backed multi-producer, single-consumer queue with a fixed link
+ * size.
+ * <p>
+ * Producers claim a slot with a single atomic increment of the producer index (no CAS
+ * retry loop), locate the link owning that slot starting from the last link a producer
+ * used and then store into the slot. Missing links are appended with a CAS so only one
+ * of the racing producers allocates. The single consumer walks the links forward, and
+ * spins briefly when a slot has been claimed but not yet written.
+ * <p>
+ * Like {@link SpscLinkedArrayQueue}, this class is not padded.
+ *
+ * @param <T> the value type
+ */
+final class MpscLinkedArrayQueue<T> extends AbstractQueue<T> {
+
+	final int mask;
+	final int shift;
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueue> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueue.class,
+					"producerIndex");
+
+	volatile Link producerLink;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<MpscLinkedArrayQueue, Link> PRODUCER_LINK =
+			AtomicReferenceFieldUpdater.newUpdater(MpscLinkedArrayQueue.class,
+					Link.class,
+					"producerLink");
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueue> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueue.class,
+					"consumerIndex");
+	Link consumerLink;
+
+	MpscLinkedArrayQueue(int linkSize) {
+		int c = QueueSupplier.ceilingNextPowerOfTwo(Math.max(8, linkSize));
+		this.mask = c - 1;
+		this.shift = Integer.numberOfTrailingZeros(c);
+		Link first = new Link(0L, c, null);
+		this.consumerLink = first;
+		PRODUCER_LINK.lazySet(this, first);
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e);
+
+		long pi = PRODUCER_INDEX.getAndIncrement(this);
+		long index = pi >> shift;
+
+		Link l = producerLink;
+		if (l.index != index) {
+			l = findLink(l, index);
+		}
+		l.lazySet((int) pi & mask, e);
+		return true;
+	}
+
+	Link findLink(Link l, long index) {
+		// the consumer can't get past a claimed but unwritten slot, so the links
+		// between the target and any newer link are still reachable through prev
+		while (l.index > index) {
+			l = l.prev;
+		}
+		while (l.index < index) {
+			Link n = l.next;
+			if (n == null) {
+				n = new Link(l.index + 1, mask + 1, l);
+				if (!Link.NEXT.compareAndSet(l, null, n)) {
+					n = l.next;
+				}
+			}
+			l = n;
+		}
+		for (;;) {
+			Link p = producerLink;
+			if (p.index >= index || PRODUCER_LINK.compareAndSet(this, p, l)) {
+				return l;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T poll() {
+		long ci = consumerIndex;
+		Link l = consumerLink;
+
+		if ((ci >> shift) != l.index) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			l = nextLink(l);
+		}
+
+		int offset = (int) ci & mask;
+		Object v = l.get(offset);
+		if (v == null) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			// a producer claimed the slot but its value isn't visible yet
+			do {
+				v = l.get(offset);
+			}
+			while (v == null);
+		}
+		l.lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return (T) v;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T peek() {
+		long ci = consumerIndex;
+		Link l = consumerLink;
+
+		if ((ci >> shift) != l.index) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			l = nextLink(l);
+		}
+
+		int offset = (int) ci & mask;
+		Object v = l.get(offset);
+		if (v == null && ci != producerIndex) {
+			do {
+				v = l.get(offset);
+			}
+			while (v == null);
+		}
+		return (T) v;
+	}
+
+	Link nextLink(Link l) {
+		Link n;
+		while ((n = l.next) == null) {
+			// the producer that claimed the first slot is still appending the link
+		}
+		n.prev = null;
+		consumerLink = n;
+		return n;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (;;) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) (pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty()) {
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+
+	static final class Link extends AtomicReferenceArray<Object> {
+
+		/** */
+		private static final long serialVersionUID = 3451389937431413906L;
+
+		final long index;
+
+		Link prev;
+
+		volatile Link next;
+		static final AtomicReferenceFieldUpdater<Link, Link> NEXT =
+				AtomicReferenceFieldUpdater.newUpdater(Link.class, Link.class, "next");
+
+		Link(long index, int length, Link prev) {
+			super(length);
+			this.index = index;
+			this.prev = prev;
+		}
+	}
+}
@@ -23,7 +23,9 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
- * Provide a 1-producer/1-consumer ready queue adapted for a given capacity.
+ * Provide a 1-producer/1-consumer ready queue adapted for a given capacity. Queues safe
+ * to offer to from several producers at once are available through {@link #mpsc(int)}
+ * and {@link #mpscUnbounded()}.
  *
  * @param <T> the queue element type
  */
@@ -143,6 +145,56 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 	public static <T> Supplier<Queue<T>> xs() {
 		return XS_SUPPLIER;
 	}
+
+	/**
+	 * Returns a multi-producer/1-consumer {@link Queue} {@link Supplier}: the returned
+	 * queues can be offered to concurrently without external synchronization, but must
+	 * only be polled by one thread at a time.
+	 *
+	 * @param batchSize the bounded or unbounded (int.max) queue size
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded or bounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpsc(int batchSize) {
+		if (batchSize == Integer.MAX_VALUE) {
+			return MPSC_UNBOUNDED;
+		}
+		if (batchSize == SMALL_BUFFER_SIZE) {
+			return MPSC_SMALL_SUPPLIER;
+		}
+		int capacity = Math.max(8, batchSize);
+		return () -> new MpscArrayQueue<>(capacity);
+	}
+
+	/**
+	 * Returns an unbounded, linked-array-based multi-producer/1-consumer {@link Queue}
+	 * {@link Supplier} with a {@link #SMALL_BUFFER_SIZE} link size.
+	 *
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpscUnbounded() {
+		return MPSC_UNBOUNDED;
+	}
+
+	/**
+	 * Returns an unbounded, linked-array-based multi-producer/1-consumer {@link Queue}
+	 * {@link Supplier}. Integer.max sized link will return the default
+	 * {@link #SMALL_BUFFER_SIZE} size.
+	 *
+	 * @param linkSize the link size
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpscUnbounded(int linkSize) {
+		if (linkSize == Integer.MAX_VALUE || linkSize == SMALL_BUFFER_SIZE) {
+			return MPSC_UNBOUNDED;
+		}
+		return () -> new MpscLinkedArrayQueue<>(linkSize);
+	}
 	final long    batchSize;
 
 	QueueSupplier(long batchSize) {
@@ -314,4 +366,10 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 			() -> new SpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
 	@SuppressWarnings("rawtypes")
 	static final Supplier XS_UNBOUNDED = () -> new SpscLinkedArrayQueue<>(XS_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_SMALL_SUPPLIER =
+			() -> new MpscArrayQueue<>(SMALL_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_UNBOUNDED =
+			() -> new MpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
 }
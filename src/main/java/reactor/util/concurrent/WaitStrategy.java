@@ -17,6 +17,7 @@ package reactor.util.concurrent;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
@@ -30,6 +31,38 @@ import java.util.function.LongSupplier;
 public abstract class WaitStrategy
 {
 
+    /**
+     * Adaptive strategy that spins, then yields, then blocks on a lock and condition
+     * variable like {@link #liteBlocking()}, adjusting the time spent spinning and
+     * yielding to the wait durations it measures.
+     * <p>
+     * While values are published faster than the spin timeout, consumers keep spinning
+     * and are woken up without syscall. When waits get longer than the spin and yield
+     * timeouts would cover, these phases are shortened so that idle consumers block
+     * almost immediately instead of burning a core.
+     * <p>
+     * The spin and yield timeouts start at and never exceed 50 and 500 microseconds.
+     * @return the wait strategy
+     */
+    public static Adaptive adaptive() {
+        return adaptive(50, 500, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Adaptive strategy that spins, then yields, then blocks on a lock and condition
+     * variable like {@link #liteBlocking()}, adjusting the time spent spinning and
+     * yielding to the wait durations it measures.
+     *
+     * @param maxSpinTimeout the maximum spin timeout
+     * @param maxYieldTimeout the maximum yield timeout
+     * @param units the time unit
+     * @return the wait strategy
+     * @see #adaptive()
+     */
+    public static Adaptive adaptive(long maxSpinTimeout, long maxYieldTimeout, TimeUnit units) {
+        return new Adaptive(units.toNanos(maxSpinTimeout), units.toNanos(maxYieldTimeout));
+    }
+
     /**
      * Blocking strategy that uses a lock and condition variable for consumer waiting on a barrier.
      *
@@ -530,4 +563,227 @@ public abstract class WaitStrategy
 
 	    private static final int SPIN_TRIES = 100;
     }
+
+    /**
+     * A {@link WaitStrategy} adjusting its spin and yield phases to the measured wait
+     * durations, and exposing these phases and wait statistics.
+     * <p>
+     * Statistics are updated by all the consumers sharing the strategy without
+     * synchronization: they are approximations meant for monitoring and tuning.
+     *
+     * @see WaitStrategy#adaptive()
+     */
+    public static final class Adaptive extends WaitStrategy {
+
+	    /**
+	     * The phases a wait goes through.
+	     */
+	    public enum Phase {
+		    SPIN, YIELD, BLOCK
+	    }
+
+	    final long maxSpinNanos;
+	    final long maxYieldNanos;
+
+	    final Lock          lock                     = new ReentrantLock();
+	    final Condition     processorNotifyCondition = lock.newCondition();
+	    final AtomicBoolean signalNeeded             = new AtomicBoolean(false);
+
+	    final LongAdder spinWakeups  = new LongAdder();
+	    final LongAdder yieldWakeups = new LongAdder();
+	    final LongAdder blockWakeups = new LongAdder();
+
+	    volatile long  spinNanos;
+	    volatile long  yieldNanos;
+	    volatile long  averageWaitNanos;
+	    volatile long  averageWakeupNanos;
+	    volatile long  lastSignalNanos;
+	    volatile Phase phase = Phase.SPIN;
+
+	    Adaptive(long maxSpinNanos, long maxYieldNanos) {
+		    if (maxSpinNanos < 0L || maxYieldNanos < 0L) {
+			    throw new IllegalArgumentException("Spin and yield timeouts must be positive");
+		    }
+		    this.maxSpinNanos = maxSpinNanos;
+		    this.maxYieldNanos = maxYieldNanos;
+		    this.spinNanos = maxSpinNanos;
+		    this.yieldNanos = maxYieldNanos;
+	    }
+
+	    @Override
+	    public void signalAllWhenBlocking() {
+		    if (signalNeeded.getAndSet(false)) {
+			    lastSignalNanos = System.nanoTime();
+			    lock.lock();
+			    try {
+				    processorNotifyCondition.signalAll();
+			    }
+			    finally {
+				    lock.unlock();
+			    }
+		    }
+	    }
+
+	    @Override
+	    public long waitFor(long sequence, LongSupplier cursor, Runnable barrier)
+			    throws InterruptedException {
+		    long availableSequence;
+		    if ((availableSequence = cursor.getAsLong()) >= sequence) {
+			    return availableSequence;
+		    }
+
+		    long startTime = System.nanoTime();
+		    long spinTimeout = spinNanos;
+		    long yieldTimeout = spinTimeout + yieldNanos;
+		    Phase p = Phase.SPIN;
+		    int counter = SPIN_TRIES;
+
+		    while ((availableSequence = cursor.getAsLong()) < sequence) {
+			    barrier.run();
+			    if (0 == --counter) {
+				    counter = SPIN_TRIES;
+				    long timeDelta = System.nanoTime() - startTime;
+				    if (timeDelta > yieldTimeout) {
+					    p = Phase.BLOCK;
+					    availableSequence = block(sequence, cursor, barrier);
+					    break;
+				    }
+				    else if (timeDelta > spinTimeout) {
+					    p = Phase.YIELD;
+					    Thread.yield();
+				    }
+			    }
+		    }
+
+		    adapt(p, System.nanoTime() - startTime);
+		    return availableSequence;
+	    }
+
+	    long block(long sequence, LongSupplier cursor, Runnable barrier)
+			    throws InterruptedException {
+		    long availableSequence;
+		    lock.lock();
+		    try {
+			    do {
+				    signalNeeded.getAndSet(true);
+
+				    if ((availableSequence = cursor.getAsLong()) >= sequence) {
+					    break;
+				    }
+
+				    barrier.run();
+				    processorNotifyCondition.await();
+
+				    long wakeup = System.nanoTime() - lastSignalNanos;
+				    if (wakeup >= 0L) {
+					    long avg = averageWakeupNanos;
+					    averageWakeupNanos = avg + ((wakeup - avg) >> 3);
+				    }
+			    }
+			    while ((availableSequence = cursor.getAsLong()) < sequence);
+		    }
+		    finally {
+			    lock.unlock();
+		    }
+
+		    while ((availableSequence = cursor.getAsLong()) < sequence) {
+			    barrier.run();
+		    }
+		    return availableSequence;
+	    }
+
+	    /**
+	     * Update the average wait duration with a completed wait, and resize the spin and
+	     * yield phases to twice that average if they can cover it, or shut them down if
+	     * waits are longer than they would ever spin or yield.
+	     */
+	    void adapt(Phase p, long waitNanos) {
+		    phase = p;
+		    switch (p) {
+			    case SPIN:
+				    spinWakeups.increment();
+				    break;
+			    case YIELD:
+				    yieldWakeups.increment();
+				    break;
+			    default:
+				    blockWakeups.increment();
+		    }
+
+		    long avg = averageWaitNanos;
+		    avg += (waitNanos - avg) >> 3;
+		    averageWaitNanos = avg;
+
+		    long target = avg << 1;
+		    spinNanos = avg <= maxSpinNanos ? Math.min(target, maxSpinNanos) : 0L;
+		    yieldNanos = avg <= maxSpinNanos + maxYieldNanos ? Math.min(target, maxYieldNanos) : 0L;
+	    }
+
+	    /**
+	     * Return the phase in which the latest wait ended.
+	     * @return the latest wait {@link Phase}
+	     */
+	    public Phase getPhase() {
+		    return phase;
+	    }
+
+	    /**
+	     * Return the current time spent spinning before yielding, in nanoseconds.
+	     * @return the current spin timeout
+	     */
+	    public long getSpinTimeoutNanos() {
+		    return spinNanos;
+	    }
+
+	    /**
+	     * Return the current time spent yielding before blocking, in nanoseconds.
+	     * @return the current yield timeout
+	     */
+	    public long getYieldTimeoutNanos() {
+		    return yieldNanos;
+	    }
+
+	    /**
+	     * Return the moving average of the wait durations, in nanoseconds. Calls that
+	     * didn't have to wait are not accounted.
+	     * @return the average wait duration
+	     */
+	    public long getAverageWaitNanos() {
+		    return averageWaitNanos;
+	    }
+
+	    /**
+	     * Return the moving average of the delay between a signal and the wake-up of a
+	     * blocked consumer, in nanoseconds.
+	     * @return the average wake-up latency
+	     */
+	    public long getAverageWakeupNanos() {
+		    return averageWakeupNanos;
+	    }
+
+	    /**
+	     * Return the number of waits that ended in the given phase.
+	     * @param phase the phase to count the waits of
+	     * @return the number of waits that ended in this phase
+	     */
+	    public long getWakeups(Phase phase) {
+		    switch (phase) {
+			    case SPIN:
+				    return spinWakeups.sum();
+			    case YIELD:
+				    return yieldWakeups.sum();
+			    default:
+				    return blockWakeups.sum();
+		    }
+	    }
+
+	    @Override
+	    public String toString() {
+		    return "Adaptive{phase=" + phase + ", spinTimeoutNanos=" + spinNanos +
+				    ", yieldTimeoutNanos=" + yieldNanos + ", averageWaitNanos=" +
+				    averageWaitNanos + ", averageWakeupNanos=" + averageWakeupNanos + "}";
+	    }
+
+	    private static final int SPIN_TRIES = 100;
+    }
 }
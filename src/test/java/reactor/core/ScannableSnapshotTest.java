@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScannableSnapshotTest {
+
+	static final class NoRequestSubscriber<T> extends BaseSubscriber<T> {
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			//no request, let values back up
+		}
+
+		Scannable upstreamScannable() {
+			return Scannable.from(upstream());
+		}
+	}
+
+	@Test
+	public void unavailableScan() {
+		ScannableSnapshot snapshot = Scannable.Attr.UNAVAILABLE_SCAN.snapshot();
+
+		assertThat(snapshot.nodes()).hasSize(1);
+		assertThat(snapshot.mostBuffered()).isEmpty();
+	}
+
+	@Test
+	public void publishOnBacklog() {
+		Scheduler scheduler = Schedulers.newSingle("snapshot");
+		NoRequestSubscriber<Integer> s = new NoRequestSubscriber<>();
+		try {
+			Flux.range(1, 10)
+			    .hide()
+			    .map(v -> v * 2)
+			    .publishOn(scheduler, 16)
+			    .filter(v -> v > 0)
+			    .subscribe(s);
+
+			ScannableSnapshot snapshot = s.upstreamScannable()
+			                              .snapshot();
+
+			List<String> names = snapshot.nodes()
+			                             .stream()
+			                             .map(ScannableSnapshot.Node::name)
+			                             .collect(Collectors.toList());
+			assertThat(names).containsExactly("FluxRange.RangeSubscription",
+					"FluxHide.HideSubscriber",
+					"FluxMap.MapSubscriber",
+					"FluxPublishOn.PublishOnConditionalSubscriber",
+					"FluxFilterFuseable.FilterFuseableSubscriber");
+
+			ScannableSnapshot.Node publishOn = snapshot.mostBuffered()
+			                                           .orElseThrow(AssertionError::new);
+			assertThat(publishOn.name()).isEqualTo("FluxPublishOn.PublishOnConditionalSubscriber");
+			assertThat(publishOn.buffered()).isEqualTo(10);
+			assertThat(publishOn.prefetch()).isEqualTo(16);
+			assertThat(publishOn.requested()).isEqualTo(0);
+			assertThat(publishOn.isTerminated()).isTrue();
+			assertThat(publishOn.isCancelled()).isFalse();
+			assertThat(snapshot.toString()).contains(
+					"FluxPublishOn.PublishOnConditionalSubscriber{buffered=10, prefetch=16, requested=0, terminated}");
+		}
+		finally {
+			s.dispose();
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void cancelledIsReported() {
+		NoRequestSubscriber<Integer> s = new NoRequestSubscriber<>();
+		Flux.range(1, 10)
+		    .publishOn(Schedulers.immediate())
+		    .subscribe(s);
+		Scannable upstream = s.upstreamScannable();
+		s.dispose();
+
+		ScannableSnapshot.Node publishOn = upstream.snapshot()
+		                                    .all()
+		                                    .filter(n -> n.name()
+		                                                  .startsWith("FluxPublishOn"))
+		                                    .findFirst()
+		                                    .orElseThrow(AssertionError::new);
+		assertThat(publishOn.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void flatMapInners() {
+		DirectProcessor<Integer> inner1 = DirectProcessor.create();
+		DirectProcessor<Integer> inner2 = DirectProcessor.create();
+		DirectProcessor<DirectProcessor<Integer>> source = DirectProcessor.create();
+		NoRequestSubscriber<Integer> s = new NoRequestSubscriber<>();
+
+		source.flatMap(p -> p)
+		      .subscribe(s);
+		source.onNext(inner1);
+		source.onNext(inner2);
+		inner1.onNext(1);
+		inner1.onNext(2);
+		inner2.onNext(3);
+
+		ScannableSnapshot snapshot = s.upstreamScannable()
+		                              .snapshot();
+		ScannableSnapshot.Node flatMap = snapshot.nodes()
+		                                         .stream()
+		                                         .filter(n -> n.name()
+		                                                       .startsWith("FluxFlatMap"))
+		                                         .findFirst()
+		                                         .orElseThrow(AssertionError::new);
+
+		assertThat(flatMap.inners()).hasSize(2);
+		assertThat(flatMap.inners()
+		                  .stream()
+		                  .mapToLong(ScannableSnapshot.Node::buffered)
+		                  .sum()).isEqualTo(3);
+		assertThat(snapshot.all()
+		                   .count()).isEqualTo(snapshot.nodes()
+		                                               .size() + 2);
+		s.dispose();
+	}
+
+	@Test
+	public void cyclicReferencesAreWalkedOnce() {
+		Scannable[] self = new Scannable[1];
+		self[0] = key -> key == Scannable.Attr.PARENT ? self[0] : null;
+
+		assertThat(self[0].snapshot()
+		                  .nodes()).hasSize(1);
+	}
+}
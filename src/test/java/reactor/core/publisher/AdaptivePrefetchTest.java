@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePrefetchTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMin() {
+		new AdaptivePrefetch(0, 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMax() {
+		new AdaptivePrefetch(16, 8);
+	}
+
+	@Test
+	public void startsAtMin() {
+		AdaptivePrefetch ap = new AdaptivePrefetch(4, 64);
+
+		assertThat(ap.window).isEqualTo(4);
+		assertThat(ap.limit).isEqualTo(3);
+	}
+
+	@Test
+	public void growsUpToMaxWhenNothingBuffered() {
+		AdaptivePrefetch ap = new AdaptivePrefetch(4, 48);
+
+		assertThat(ap.replenish(3, 0)).isEqualTo(3 + 4);
+		assertThat(ap.window).isEqualTo(8);
+		assertThat(ap.limit).isEqualTo(6);
+
+		assertThat(ap.replenish(6, 0)).isEqualTo(6 + 8);
+		assertThat(ap.replenish(12, 0)).isEqualTo(12 + 16);
+		assertThat(ap.window).isEqualTo(32);
+
+		assertThat(ap.replenish(24, 0)).isEqualTo(24 + 16);
+		assertThat(ap.window).isEqualTo(48);
+		assertThat(ap.limit).isEqualTo(36);
+
+		assertThat(ap.replenish(36, 0)).isEqualTo(36);
+		assertThat(ap.window).isEqualTo(48);
+	}
+
+	@Test
+	public void shrinksDownToMinWhenEverythingBuffered() {
+		AdaptivePrefetch ap = new AdaptivePrefetch(4, 64);
+		ap.replenish(3, 0);
+		ap.replenish(6, 0);
+		ap.replenish(12, 0);
+		assertThat(ap.window).isEqualTo(32);
+
+		assertThat(ap.replenish(24, 8)).isEqualTo(24 - 16);
+		assertThat(ap.window).isEqualTo(16);
+		assertThat(ap.limit).isEqualTo(12);
+
+		assertThat(ap.replenish(12, 4)).isEqualTo(12 - 8);
+		assertThat(ap.replenish(6, 2)).isEqualTo(6 - 4);
+		assertThat(ap.window).isEqualTo(4);
+
+		assertThat(ap.replenish(3, 1)).isEqualTo(3);
+		assertThat(ap.window).isEqualTo(4);
+	}
+
+	@Test
+	public void keepsWindowWhenPartiallyBuffered() {
+		AdaptivePrefetch ap = new AdaptivePrefetch(4, 64);
+		ap.replenish(3, 0);
+		ap.replenish(6, 0);
+		assertThat(ap.window).isEqualTo(16);
+
+		assertThat(ap.replenish(12, 2)).isEqualTo(12);
+		assertThat(ap.window).isEqualTo(16);
+	}
+
+	@Test
+	public void neverOutstandsMoreThanWindow() {
+		for (int min = 1; min <= 8; min++) {
+			for (int max = min; max <= 256; max++) {
+				AdaptivePrefetch ap = new AdaptivePrefetch(min, max);
+				long outstanding = ap.window;
+				for (int round = 0; round < 64; round++) {
+					int w = ap.window;
+					long consumed = ap.limit;
+					int buffered = (int) ((round * 7) % (w - consumed + 1));
+					long r = ap.replenish(consumed, buffered);
+
+					outstanding += r - consumed;
+					assertThat(r).as("request for min %d, max %d", min, max)
+					             .isPositive();
+					assertThat(outstanding).isEqualTo(ap.window);
+					assertThat(ap.window).isBetween(min, max);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscription;
+
+/**
+ * An unbounded {@link BatchAwareSubscriber} recording the values it receives and the
+ * number of values received at each batch end.
+ */
+final class BatchRecorder implements BatchAwareSubscriber<Integer> {
+
+	final List<Integer>  values    = new CopyOnWriteArrayList<>();
+	final List<Integer>  batchEnds = new CopyOnWriteArrayList<>();
+	final CountDownLatch done      = new CountDownLatch(1);
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		s.request(Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onNext(Integer v) {
+		values.add(v);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		done.countDown();
+	}
+
+	@Override
+	public void onComplete() {
+		done.countDown();
+	}
+
+	@Override
+	public void onBatchEnd() {
+		batchEnds.add(values.size());
+	}
+
+	/**
+	 * Wait for a batch to end right after the given number of values was received.
+	 *
+	 * @param received the number of values received when the batch ends
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 *
+	 * @return true if such a batch end was recorded in time
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean awaitBatchEnd(int received, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!batchEnds.contains(received)) {
+			if (System.nanoTime() - deadline > 0) {
+				return false;
+			}
+			Thread.sleep(1);
+		}
+		return true;
+	}
+}
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,8 +24,11 @@ import java.util.List;
 import org.junit.Test;
 import reactor.test.publisher.FluxOperatorTest;
 import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.ByteBufferPool;
+import reactor.util.Codec;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 public class FluxBufferTest extends FluxOperatorTest<String, List<String>> {
 
@@ -432,4 +436,104 @@ public class FluxBufferTest extends FluxOperatorTest<String, List<String>> {
 				Arrays.asList(3, 4),
 				Arrays.asList(5));
 	}
+
+	@Test
+	public void bufferPooledReusesReleasedBuffers() {
+		BufferPool<Integer> pool = BufferPool.create(2, 2);
+		List<List<Integer>> res = new ArrayList<>();
+
+		Flux.range(1, 5)
+		    .bufferPooled(2, pool)
+		    .subscribe(b -> {
+			    res.add(new ArrayList<>(b));
+			    b.release();
+		    });
+
+		assertThat(res).containsExactly(Arrays.asList(1, 2),
+				Arrays.asList(3, 4),
+				Arrays.asList(5));
+		assertThat(pool.allocated()).isEqualTo(1);
+		assertThat(pool.available()).isEqualTo(1);
+	}
+
+	@Test
+	public void bufferPooledWithoutReleaseAllocates() {
+		BufferPool<Integer> pool = BufferPool.create(2, 2);
+
+		assertThat(Flux.range(1, 5)
+		               .bufferPooled(2, pool)
+		               .collectList()
+		               .block()).hasSize(3);
+		assertThat(pool.allocated()).isEqualTo(3);
+		assertThat(pool.available()).isZero();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void pooledBufferReleasedTwiceFails() {
+		PooledBuffer<Integer> b = BufferPool.<Integer>create(2, 2).acquire();
+		b.add(1);
+		b.release();
+		assertThat(b).isEmpty();
+		b.release();
+	}
+
+	@Test
+	public void bufferEncoded() {
+		ByteBufferPool pool = ByteBufferPool.heap(4, 2);
+		List<String> res = new ArrayList<>();
+
+		Flux.just("ab", "cde", "f", "gh", "ij")
+		    .bufferEncoded(2, Codec.utf8(), pool)
+		    .subscribe(b -> {
+			    res.add(b.count() + ":" + b.decode(Codec.utf8()));
+			    b.release();
+		    });
+
+		assertThat(res).containsExactly("2:[ab, cde]", "2:[f, gh]", "1:[ij]");
+	}
+
+	@Test
+	public void bufferEncodedFramesEachValue() {
+		ByteBufferPool pool = ByteBufferPool.heap(64, 1);
+		List<byte[]> res = new ArrayList<>();
+
+		Flux.just(new byte[0], new byte[]{1, 2}, new byte[]{3})
+		    .bufferEncoded(3, Codec.bytes(), pool)
+		    .subscribe(b -> {
+			    //the bytes as received by a remote reader
+			    ByteBuffer copy = ByteBuffer.allocate(b.buffer().remaining());
+			    copy.put(b.buffer().duplicate()).flip();
+			    b.release();
+			    res.addAll(ByteBatch.decode(copy, Codec.bytes()));
+		    });
+
+		assertThat(res).containsExactly(new byte[0], new byte[]{1, 2}, new byte[]{3});
+	}
+
+	@Test
+	public void decodeTruncatedByteBatch() {
+		ByteBuffer truncated = ByteBuffer.allocate(6);
+		truncated.putInt(3).put((byte) 1).put((byte) 2).flip();
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> ByteBatch.decode(truncated, Codec.bytes()))
+				.withMessage("Truncated record at position 4");
+	}
+
+	@Test
+	public void bufferEncodedReusesReleasedByteBuffers() {
+		ByteBufferPool pool = ByteBufferPool.heap(16, 1);
+		List<ByteBuffer> buffers = new ArrayList<>();
+
+		Flux.range(1, 6)
+		    .map(String::valueOf)
+		    .bufferEncoded(3, Codec.utf8(), pool)
+		    .subscribe(b -> {
+			    buffers.add(b.buffer());
+			    b.release();
+		    });
+
+		assertThat(buffers).hasSize(2);
+		assertThat(buffers.get(0)).isSameAs(buffers.get(1));
+	}
 }
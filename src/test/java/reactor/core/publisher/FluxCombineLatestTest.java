@@ -29,6 +29,8 @@ import reactor.test.publisher.FluxOperatorTest;
 import reactor.test.subscriber.AssertSubscriber;
 import reactor.util.concurrent.QueueSupplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class FluxCombineLatestTest extends FluxOperatorTest<String, String> {
 
 	@Override
@@ -250,4 +252,24 @@ public class FluxCombineLatestTest extends FluxOperatorTest<String, String> {
 		            .expectNext(1)
 		            .verifyComplete();
 	}
+
+	@Test
+	public void combineLatestOfConstantsIsResolvedAtAssembly() {
+		Flux<Integer> combined = Flux.combineLatest(Flux.just(1), Mono.just(2), (a, b) -> a + b);
+
+		assertThat(combined).isNotInstanceOf(FluxCombineLatest.class);
+		StepVerifier.create(combined)
+		            .expectNext(3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void combineLatestOfConstantsTerminatesWithFirstEmptyOrError() {
+		IllegalStateException boom = new IllegalStateException("boom");
+
+		StepVerifier.create(Flux.combineLatest(a -> a, Flux.just(1), Flux.empty(), Mono.error(boom)))
+		            .verifyComplete();
+		StepVerifier.create(Flux.combineLatest(a -> a, Flux.just(1), Mono.error(boom), Flux.empty()))
+		            .verifyErrorMatches(e -> e == boom);
+	}
 }
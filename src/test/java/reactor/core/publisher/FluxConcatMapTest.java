@@ -16,14 +16,19 @@
 
 package reactor.core.publisher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
 import reactor.test.subscriber.AssertSubscriber;
@@ -633,6 +638,39 @@ public class FluxConcatMapTest extends FluxOperatorTest<String, String> {
 		  .assertNoError();
 	}
 
+	@Test
+	public void adaptivePrefetchGrowsWhenInnersAreFaster() {
+		List<Long> requests = new ArrayList<>();
+		AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+		StepVerifier.create(Flux.range(1, 1000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .concatMap(v -> Flux.just(v).hide(), 4, 64))
+		            .consumeSubscriptionWith(subscription::set)
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		assertThat(requests.subList(0, 6)).containsExactly(4L, 7L, 14L, 28L, 56L, 48L);
+		assertThat(Scannable.from(subscription.get()).scan(Scannable.Attr.PREFETCH)).isEqualTo(64);
+	}
+
+	@Test
+	public void adaptivePrefetchAsync() {
+		StepVerifier.create(Flux.range(1, 10_000)
+		                        .hide()
+		                        .publishOn(Schedulers.parallel())
+		                        .concatMap(v -> Flux.range(v, 2), 4, 256))
+		            .expectNextCount(20_000)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxPrefetch() {
+		Flux.never()
+		    .concatMap(Flux::just, 32, 16);
+	}
+
 	@Test
 	public void publisherOfPublisher() {
 		StepVerifier.create(Flux.concat(Flux.just(Flux.just(1, 2), Flux.just(3, 4))))
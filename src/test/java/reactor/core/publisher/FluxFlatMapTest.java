@@ -1205,4 +1205,54 @@ public class FluxFlatMapTest {
 		assertThat(onNextSignals.get()).isEqualTo(10);
 	}
 
+	@Test
+	public void adaptivePrefetchGrowsWhenDownstreamIsFaster() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.just(1000).hide()
+		                        .flatMap(n -> Flux.range(1, n)
+		                                          .hide()
+		                                          .doOnRequest(requests::add),
+				                        1, 4, 64))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		assertThat(requests.subList(0, 6)).containsExactly(4L, 7L, 14L, 28L, 56L, 48L);
+	}
+
+	@Test
+	public void adaptivePrefetchExposedByInners() {
+		AtomicReference<Scannable> main = new AtomicReference<>();
+
+		StepVerifier.create(Flux.just(1000).hide()
+		                        .flatMap(n -> Flux.range(1, n)
+		                                          .hide()
+		                                          .concatWith(Flux.never()),
+				                        1, 4, 64))
+		            .consumeSubscriptionWith(s -> main.set(Scannable.from(s)))
+		            .expectNextCount(1000)
+		            .then(() -> assertThat(main.get()
+		                                       .inners()
+		                                       .map(inner -> inner.scan(Scannable.Attr.PREFETCH)))
+				            .containsExactly(64))
+		            .thenCancel()
+		            .verify();
+	}
+
+	@Test
+	public void adaptivePrefetchAsync() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .flatMap(i -> Flux.range(1, 10_000)
+		                                          .hide()
+		                                          .subscribeOn(Schedulers.parallel()),
+				                        4, 4, 256))
+		            .expectNextCount(100_000)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxPrefetch() {
+		Flux.never()
+		    .flatMap(Flux::just, 4, 32, 16);
+	}
 }
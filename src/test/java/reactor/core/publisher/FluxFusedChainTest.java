@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.FluxOperatorTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxFusedChainTest extends FluxOperatorTest<String, String> {
+
+	@Override
+	protected Scenario<String, String> defaultScenarioOptions(Scenario<String, String> defaultOptions) {
+		return defaultOptions.fusionMode(Fuseable.ASYNC);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_operatorSuccess() {
+		return Arrays.asList(
+				scenario(f -> f.map(d -> d)
+				               .filter(d -> true)
+				               .doOnNext(d -> { })
+				               .handle((String d, SynchronousSink<String> s) -> s.next(d))
+				               .cast(String.class)),
+
+				scenario(f -> f.filter(d -> !item(1).equals(d))
+				               .map(d -> d)).receiveValues(item(0), item(2)),
+
+				scenario(f -> f.map(d -> d)
+				               .handle((String s, SynchronousSink<String> d) -> {
+					               if (item(2).equals(s)) {
+						               d.complete();
+					               }
+					               else {
+						               d.next(s);
+					               }
+				               })
+				               .map(d -> d)).receiveValues(item(0), item(1)),
+
+				scenario(f -> f.map(d -> d)
+				               .handle((String s, SynchronousSink<String> d) -> {
+					               d.next(s);
+					               if (item(1).equals(s)) {
+						               d.complete();
+					               }
+				               })
+				               .filter(d -> true)).receiveValues(item(0), item(1))
+		);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_operatorError() {
+		return Arrays.asList(
+				scenario(f -> f.filter(d -> true)
+				               .map(d -> {
+					               throw exception();
+				               })),
+
+				scenario(f -> f.map(d -> d)
+				               .map(d -> (String) null)),
+
+				scenario(f -> f.map(d -> d)
+				               .handle((String s, SynchronousSink<String> d) -> d.error(exception()))),
+
+				scenario(f -> f.map(d -> d)
+				               .doOnNext(d -> {
+					               throw exception();
+				               }))
+		);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_errorFromUpstreamFailure() {
+		return Arrays.asList(
+				scenario(f -> f.map(d -> d)
+				               .filter(d -> true))
+		);
+	}
+
+	@Test
+	public void consecutiveOperatorsCollapse() {
+		Flux<Integer> source = Flux.range(1, 10);
+		Flux<String> chain = source.map(v -> v * 2)
+		                           .filter(v -> v % 3 != 0)
+		                           .doOnNext(v -> { })
+		                           .handle((Integer v, SynchronousSink<Integer> s) -> s.next(v + 1))
+		                           .cast(Object.class)
+		                           .ofType(Integer.class)
+		                           .map(String::valueOf);
+
+		assertThat(chain).isInstanceOf(FluxFusedChainFuseable.class);
+		assertThat(((FluxFusedChainFuseable<?, ?>) chain).stages).hasSize(8);
+		assertThat(Scannable.from(chain).scan(Scannable.Attr.PARENT)).isSameAs(source);
+
+		StepVerifier.create(chain)
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext("3", "5", "9", "11", "15", "17", "21")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void nonFuseableSourceCollapses() {
+		Flux<Integer> chain = Flux.range(1, 5)
+		                          .hide()
+		                          .map(v -> v + 1)
+		                          .filter(v -> v % 2 == 0);
+
+		assertThat(chain).isInstanceOf(FluxFusedChain.class)
+		                 .isNotInstanceOf(Fuseable.class);
+
+		StepVerifier.create(chain)
+		            .expectFusion(Fuseable.ANY, Fuseable.NONE)
+		            .expectNext(2, 4, 6)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void singleOperatorIsUnchanged() {
+		assertThat(Flux.range(1, 5).map(v -> v)).isInstanceOf(FluxMapFuseable.class);
+		assertThat(Flux.range(1, 5).hide().filter(v -> true)).isInstanceOf(FluxFilter.class);
+	}
+
+	@Test
+	public void peekWithOtherCallbacksIsNotCollapsed() {
+		Flux<Integer> peek = Flux.range(1, 5)
+		                         .doOnNext(v -> { })
+		                         .doOnComplete(() -> { });
+
+		assertThat(peek.map(v -> v)).isInstanceOf(FluxMapFuseable.class);
+	}
+
+	@Test
+	public void handleCompleteCancelsUpstream() {
+		List<Integer> seen = new ArrayList<>();
+		StepVerifier.create(Flux.range(1, 10)
+		                        .hide()
+		                        .doOnNext(seen::add)
+		                        .handle((Integer v, SynchronousSink<Integer> s) -> {
+			                        s.next(v);
+			                        if (v == 3) {
+				                        s.complete();
+			                        }
+		                        })
+		                        .map(v -> v * 10))
+		            .expectNext(10, 20, 30)
+		            .verifyComplete();
+
+		assertThat(seen).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void filteredValuesAreReplenished() {
+		StepVerifier.create(Flux.range(1, 100)
+		                        .hide()
+		                        .filter(v -> v % 10 == 0)
+		                        .map(v -> v / 10), 2)
+		            .expectNext(1, 2)
+		            .thenRequest(3)
+		            .expectNext(3, 4, 5)
+		            .thenRequest(Long.MAX_VALUE)
+		            .expectNextCount(5)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void asyncFusedFilterReplenishes() {
+		UnicastProcessor<Integer> up = UnicastProcessor.create();
+		StepVerifier.create(up.map(v -> v + 1)
+		                      .filter(v -> v % 2 == 0), 2)
+		            .expectFusion(Fuseable.ASYNC)
+		            .then(() -> {
+			            for (int i = 0; i < 10; i++) {
+				            up.onNext(i);
+			            }
+			            up.onComplete();
+		            })
+		            .expectNext(2, 4)
+		            .thenRequest(Long.MAX_VALUE)
+		            .expectNext(6, 8, 10)
+		            .verifyComplete();
+	}
+}
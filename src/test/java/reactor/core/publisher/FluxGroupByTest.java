@@ -20,6 +20,7 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
@@ -30,10 +31,13 @@ import reactor.core.Fuseable;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 import reactor.util.concurrent.QueueSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 public class FluxGroupByTest extends
                              FluxOperatorTest<String, GroupedFlux<Integer, String>> {
@@ -834,4 +838,131 @@ public class FluxGroupByTest extends
 		assertThat(initialRequest.get()).isEqualTo(Long.MAX_VALUE);
 	}
 
+	@Test
+	public void groupByInt() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .groupByInt(i -> i % 3, i -> i * 10, 32)
+		                        .flatMap(g -> g.collectList()
+		                                       .map(l -> g.key() + ":" + l))
+		                        .collectSortedList())
+		            .expectNext(Arrays.asList("0:[30, 60, 90]", "1:[10, 40, 70, 100]", "2:[20, 50, 80]"))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void groupByLong() {
+		long big = 1L << 40;
+		StepVerifier.create(Flux.just(big, 1L, big, big + 1, 1L)
+		                        .groupByLong(v -> v, v -> v, 32)
+		                        .flatMap(g -> g.count()
+		                                       .map(c -> g.key() + "x" + c))
+		                        .collectSortedList())
+		            .expectNext(Arrays.asList("1099511627776x2", "1099511627777x1", "1x2"))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void groupByIntHighCardinality() {
+		StepVerifier.create(Flux.range(0, 100_000)
+		                        .groupByInt(i -> i % 10_000, i -> i, 32)
+		                        .flatMap(Flux::count, Integer.MAX_VALUE))
+		            .expectNextCount(10_000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void cancelledGroupsReopenAndReuseQueues() {
+		AtomicInteger created = new AtomicInteger();
+		Flux<Integer> source = Flux.range(0, 1000);
+
+		StepVerifier.create(new FluxGroupBy<>(source,
+				GroupTable.<Integer, Integer>intKeys(i -> i % 4),
+				i -> i,
+				QueueSupplier.unbounded(),
+				() -> {
+					created.incrementAndGet();
+					return QueueSupplier.<Integer>unbounded().get();
+				},
+				QueueSupplier.SMALL_BUFFER_SIZE,
+				-1L,
+				null)
+				//each group only takes its first value, then the key opens a new group
+				.flatMap(g -> g.hide().take(1), Integer.MAX_VALUE))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		assertThat(created.get()).isLessThan(100);
+	}
+
+	@Test
+	public void idleGroupsAreEvicted() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		TestPublisher<Integer> source = TestPublisher.create();
+		List<String> completed = new java.util.ArrayList<>();
+
+		StepVerifier.create(source.flux()
+		                          .groupByInt(i -> i % 2, i -> i, 32,
+				                          Duration.ofSeconds(10), vts)
+		                          .flatMap(g -> g.doOnComplete(() -> completed.add("" + g.key()))))
+		            .then(() -> source.next(1, 2))
+		            .expectNext(1, 2)
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(5)))
+		            .then(() -> source.next(3))
+		            .expectNext(3)
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(6)))
+		            //the even group has been idle for 11s
+		            .then(() -> source.next(5))
+		            .expectNext(5)
+		            .then(() -> assertThat(completed).containsExactly("0"))
+		            .then(() -> source.next(4))
+		            .expectNext(4)
+		            .then(source::complete)
+		            .verifyComplete();
+
+		assertThat(completed).containsExactlyInAnyOrder("0", "1", "0");
+	}
+
+	@Test
+	public void idleGroupsAreEvictedWithObjectKeys() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		TestPublisher<String> source = TestPublisher.create();
+
+		StepVerifier.create(source.flux()
+		                          .groupBy(s -> s.charAt(0), s -> s, 32,
+				                          Duration.ofMillis(100), vts)
+		                          .map(GroupedFlux::key))
+		            .then(() -> source.next("a1", "b1", "a2"))
+		            .expectNext('a', 'b')
+		            .then(() -> vts.advanceTimeBy(Duration.ofMillis(100)))
+		            .then(() -> source.next("c1", "a3"))
+		            .expectNext('c', 'a')
+		            .then(source::complete)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maxIdleTimeMustBePositive() {
+		Flux.never().groupBy(v -> v, v -> v, 32, Duration.ZERO, Schedulers.immediate());
+	}
+
+	@Test
+	public void negativeMaxIdleTimeRejected() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> Flux.never().groupBy(v -> v, v -> v, 32, Duration.ofNanos(-1), Schedulers.immediate()))
+				.withMessage("maxIdleTime > 0 required but it was PT-0.000000001S");
+	}
+
+	@Test
+	public void subMillisecondMaxIdleTimeRoundsUp() {
+		assertThat(Flux.maxIdleMillis(Duration.ofNanos(1))).isEqualTo(1L);
+		assertThat(Flux.maxIdleMillis(Duration.ofMillis(2))).isEqualTo(2L);
+		assertThat(Flux.maxIdleMillis(Duration.ofMillis(2).plusNanos(1))).isEqualTo(3L);
+
+		StepVerifier.create(Flux.just(1, 2)
+		                        .groupBy(v -> v, v -> v, 32, Duration.ofNanos(500), Schedulers.parallel())
+		                        .flatMap(g -> g))
+		            .expectNext(1, 2)
+		            .verifyComplete();
+	}
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Fuseable;
+import reactor.test.StepVerifier;
+import reactor.util.Metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxMetricsTest {
+
+	Metrics.SimpleRegistry registry;
+
+	@Before
+	public void setUp() {
+		Metrics.resetRegistry();
+		registry = (Metrics.SimpleRegistry) Metrics.getRegistry();
+	}
+
+	@After
+	public void tearDown() {
+		Hooks.resetOnOperator();
+		Metrics.resetRegistry();
+	}
+
+	@Test
+	public void countsSignalsAndCancellation() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .hide()
+		                        .metrics("test", "pipeline", "a"), 0)
+		            .thenRequest(2)
+		            .expectNext(1, 2)
+		            .thenRequest(1)
+		            .expectNext(3)
+		            .thenCancel()
+		            .verify();
+
+		assertThat(registry.counter("test.subscriptions", "pipeline", "a").count()).isEqualTo(1);
+		assertThat(registry.counter("test.onNext", "pipeline", "a").count()).isEqualTo(3);
+		assertThat(registry.counter("test.cancelled", "pipeline", "a").count()).isEqualTo(1);
+		assertThat(registry.counter("test.completed", "pipeline", "a").count()).isZero();
+		assertThat(registry.histogram("test.requested", "pipeline", "a").count()).isEqualTo(2);
+		assertThat(registry.histogram("test.requested", "pipeline", "a").total()).isEqualTo(3);
+		assertThat(registry.timer("test.duration", "pipeline", "a").count()).isEqualTo(1);
+		assertThat(registry.counter("test.onNext").count())
+				.as("untagged meter is distinct")
+				.isZero();
+	}
+
+	@Test
+	public void fusedCountsPolledValues() {
+		Flux<Integer> source = Flux.range(1, 5).metrics("fused");
+		assertThat(source).isInstanceOf(Fuseable.class);
+
+		StepVerifier.create(source)
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(1, 2, 3, 4, 5)
+		            .verifyComplete();
+
+		assertThat(registry.counter("fused.onNext").count()).isEqualTo(5);
+		assertThat(registry.counter("fused.completed").count()).isEqualTo(1);
+		assertThat(registry.timer("fused.duration").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void countsErrors() {
+		StepVerifier.create(Flux.error(new IllegalStateException("boom"))
+		                        .metrics("error"))
+		            .verifyErrorMessage("boom");
+
+		assertThat(registry.counter("error.errors").count()).isEqualTo(1);
+		assertThat(registry.counter("error.completed").count()).isZero();
+		assertThat(registry.timer("error.duration").max(TimeUnit.NANOSECONDS)).isPositive();
+	}
+
+	@Test
+	public void mono() {
+		assertThat(Mono.just(1).metrics("mono").block()).isEqualTo(1);
+
+		assertThat(registry.counter("mono.onNext").count()).isEqualTo(1);
+		assertThat(registry.counter("mono.completed").count()).isEqualTo(1);
+		assertThat(registry.counter("mono.requested.unbounded").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void globalHook() {
+		Hooks.onOperator(h -> h.ifName("map").metrics());
+
+		Flux.range(1, 3)
+		    .map(i -> i * 2)
+		    .filter(i -> i > 0)
+		    .blockLast();
+
+		assertThat(registry.counter("reactor.operator.onNext", "operator", "map").count())
+				.isEqualTo(3);
+		assertThat(registry.counter("reactor.operator.onNext", "operator", "filter").count())
+				.isZero();
+	}
+
+	@Test
+	public void pluggableRegistry() {
+		Metrics.SimpleRegistry other = new Metrics.SimpleRegistry();
+		Metrics.useRegistry(other);
+
+		Flux.just(1, 2).metrics("plugged").blockLast();
+
+		assertThat(other.counter("plugged.onNext").count()).isEqualTo(2);
+		assertThat(registry.counter("plugged.onNext").count()).isZero();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tagsArePairs() {
+		Flux.just(1).metrics("odd", "key");
+	}
+}
@@ -78,7 +78,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFilterFuseable] :");
+		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFusedChainFuseable] :");
 	}
 
 	@Test
@@ -108,6 +108,65 @@ public class FluxOnAssemblyTest {
 		}
 	}
 
+	@Test
+	public void callSiteLocatesOperatorAndCaller() {
+		AssemblyCallSite site = assemble();
+
+		assertThat(site.frames).hasSize(2);
+		assertThat(site.frames[0].getClassName()).isEqualTo(Flux.class.getName());
+		assertThat(site.frames[0].getMethodName()).isEqualTo("map");
+		assertThat(site.frames[1].getClassName()).isEqualTo(FluxOnAssemblyTest.class.getName());
+		assertThat(site.frames[1].getMethodName()).isEqualTo("assemble");
+	}
+
+	@Test
+	public void callSiteIsInterned() {
+		assertThat(assemble()).isSameAs(assemble());
+	}
+
+	static AssemblyCallSite assemble() {
+		AssemblyCallSite[] site = new AssemblyCallSite[1];
+		Hooks.onOperator(h -> {
+			site[0] = AssemblyCallSite.capture();
+			return h;
+		});
+		try {
+			Flux.just(1).map(i -> i);
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+		return site[0];
+	}
+
+	@Test
+	public void checkpointCallSite() {
+		StringWriter sw = new StringWriter();
+
+		Hooks.onOperator(Hooks.OperatorHook::operatorCallSite);
+
+		try {
+			Flux<Integer> tested = Flux.range(1, 10)
+			                           .map(i -> i < 3 ? i : null)
+			                           .filter(i -> i % 2 == 0)
+			                           .doOnError(t -> t.printStackTrace(new PrintWriter(
+					                           sw)));
+			StepVerifier.create(tested)
+			            .expectNext(2)
+			            .verifyError();
+
+			String debugStack = sw.toString();
+
+			assertThat(debugStack).contains(
+					"Assembly trace from producer [reactor.core.publisher.FluxMapFuseable] :\n" +
+							"\treactor.core.publisher.Flux.map(Flux.java:",
+					"\treactor.core.publisher.FluxOnAssemblyTest.checkpointCallSite(FluxOnAssemblyTest.java:");
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+	}
+
 	@Test
 	public void checkpointDescriptionAndForceStack() {
 		StringWriter sw = new StringWriter();
@@ -123,7 +182,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFilterFuseable], described as [foo] :");
+		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFusedChainFuseable], described as [foo] :");
 	}
 
 	@Test
@@ -141,7 +200,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly site of producer [reactor.core.publisher.FluxFilterFuseable] is identified by light checkpoint [foo].");
+		assertThat(debugStack).contains("Assembly site of producer [reactor.core.publisher.FluxFusedChainFuseable] is identified by light checkpoint [foo].");
 	}
 
 	@Test
@@ -15,15 +15,27 @@
  */
 package reactor.core.publisher;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.Codec;
+import reactor.util.Metrics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -142,4 +154,196 @@ public class FluxOnBackpressureBufferTest
 		            .expectNext(8, 9, 10, 11, 12, 13, 14, 15)
 		            .verifyComplete();
 	}
-}
\ No newline at end of file
+
+	static long count(String name) {
+		return ((Metrics.SimpleRegistry) Metrics.getRegistry()).counter(name)
+		                                                      .count();
+	}
+
+	static long diskUsage(String name) {
+		return count(name + ".allocated.bytes") - count(name + ".released.bytes");
+	}
+
+	@Test
+	public void onBackpressureBufferSpill() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			StepVerifier.create(Flux.range(0, 10_000)
+			                        .onBackpressureBuffer(8, ReplayProcessorTest.INTS, directory, 1024 * 1024, "spill"), 0)
+			            .thenRequest(5)
+			            .expectNext(0, 1, 2, 3, 4)
+			            .then(() -> {
+				            assertThat(count("spill.spilled")).isEqualTo(9_992L);
+				            assertThat(count("spill.spilled.bytes")).isEqualTo(9_992L * 8);
+				            assertThat(count("spill.read.bytes")).isZero();
+				            //segments are a quarter of the quota
+				            assertThat(diskUsage("spill")).isEqualTo(256 * 1024);
+			            })
+			            .thenRequest(Long.MAX_VALUE)
+			            .expectNext(5, 6, 7, 8)
+			            .expectNextCount(9_987)
+			            .expectNext(9_996, 9_997, 9_998, 9_999)
+			            .verifyComplete();
+
+			assertThat(count("spill.read.bytes")).isEqualTo(9_992L * 8);
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void onBackpressureBufferSpillAsync() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			List<Integer> values = Flux.range(0, 100_000)
+			                           .subscribeOn(Schedulers.single())
+			                           .onBackpressureBuffer(16, ReplayProcessorTest.INTS, directory, 64 * 1024 * 1024, "spill")
+			                           .publishOn(Schedulers.parallel(), 4)
+			                           .collectList()
+			                           .block();
+
+			assertThat(values).containsExactlyElementsOf(IntStream.range(0, 100_000)
+			                                                      .boxed()
+			                                                      .collect(Collectors.toList()));
+
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test(timeout = 30_000)
+	public void onBackpressureBufferSpillKeepsOrderWithBurstyRequests() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			int n = 50_000;
+			AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+			//a bursty producer lets the reader catch up and empty the disk in between
+			Flux.range(0, n)
+			    .doOnNext(v -> {
+				    if (v % 8 == 0) {
+					    LockSupport.parkNanos(1_000);
+				    }
+			    })
+			    .subscribeOn(Schedulers.single())
+			    .onBackpressureBuffer(1, ReplayProcessorTest.INTS, directory, 64 * 1024 * 1024, "spill")
+			    .subscribe(ts);
+
+			long requested = 0L;
+			for (int i = 0; requested < n; i++) {
+				//wait for the previous burst, letting the producer queue and spill
+				while (ts.values().size() < requested) {
+					Thread.yield();
+				}
+				if (i % 16 == 0) {
+					LockSupport.parkNanos(20_000);
+				}
+				int burst = 1 + i % 8;
+				requested += burst;
+				ts.request(burst);
+			}
+
+			ts.await(Duration.ofSeconds(10))
+			  .assertValueSequence(IntStream.range(0, n)
+			                                .boxed()
+			                                .collect(Collectors.toList()))
+			  .assertComplete();
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void onBackpressureBufferSpillQuota() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			//up to 50 unread records of 8 bytes
+			StepVerifier.create(Flux.range(0, 1000)
+			                        .onBackpressureBuffer(8, ReplayProcessorTest.INTS, directory, 400, "spill"), 0)
+			            .thenRequest(Long.MAX_VALUE)
+			            .expectNextCount(58)
+			            .verifyErrorMatches(Exceptions::isOverflow);
+
+			assertThat(count("spill.overflows")).isEqualTo(1L);
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void onBackpressureBufferSpillQuotaBoundsTheBacklog() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			DirectProcessor<Integer> source = DirectProcessor.create();
+			AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+
+			source.onBackpressureBuffer(8, ReplayProcessorTest.INTS, directory, 400, "spill")
+			      .subscribe(ts);
+
+			for (int burst = 0; burst < 3; burst++) {
+				//8 values in memory and 320 bytes on disk
+				for (int i = 0; i < 48; i++) {
+					source.onNext(burst * 48 + i);
+				}
+				ts.request(48);
+				ts.assertValueCount((burst + 1) * 48)
+				  .assertNoError();
+			}
+			source.onComplete();
+
+			ts.assertComplete();
+			assertThat(count("spill.overflows")).isZero();
+			assertThat(count("spill.spilled")).isEqualTo(3 * 40);
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void onBackpressureBufferSpillCancel() throws IOException {
+		Path directory = Files.createTempDirectory("spill");
+		Metrics.resetRegistry();
+		try {
+			AssertSubscriber<Integer> ts = AssertSubscriber.create(1);
+
+			Flux.range(0, 1000)
+			    .onBackpressureBuffer(8, ReplayProcessorTest.INTS, directory, 1024 * 1024, "spill")
+			    .subscribe(ts);
+
+			assertThat(diskUsage("spill")).isEqualTo(256 * 1024);
+
+			ts.cancel();
+			ts.assertValues(0);
+
+			assertThat(diskUsage("spill")).isZero();
+		}
+		finally {
+			Metrics.resetRegistry();
+			Files.delete(directory);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void onBackpressureBufferSpillQuotaMustBePositive() {
+		Flux.<String>never().onBackpressureBuffer(8, Codec.utf8(), Paths.get("."), 0);
+	}
+}
@@ -17,6 +17,7 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -39,9 +40,11 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.reactivestreams.Subscription;
 import reactor.core.Disposable;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
+import reactor.core.Scannable;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
@@ -154,7 +157,13 @@ public class FluxPublishOnTest extends FluxOperatorTest<String, String> {
 						.prefetch(1),
 
 				scenario(f -> f.publishOn(Schedulers.immediate(), Integer.MAX_VALUE))
-						.prefetch(Integer.MAX_VALUE)
+						.prefetch(Integer.MAX_VALUE),
+
+				scenario(f -> f.publishOn(Schedulers.immediate(), false, 4, 2))
+						.prefetch(4),
+
+				scenario(f -> f.publishOn(Schedulers.immediate(), 4, 64))
+						.prefetch(4)
 
 		);
 	}
@@ -171,6 +180,170 @@ public class FluxPublishOnTest extends FluxOperatorTest<String, String> {
 		exec.shutdownNow();
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void failBudget() {
+		Flux.range(1, 10)
+		    .hide()
+		    .publishOn(Schedulers.immediate(), true, 32, 0);
+	}
+
+	int markerIndex(Flux<Integer> source, int budget, boolean conditional) throws InterruptedException {
+		Scheduler single = Schedulers.newSingle("budget");
+		try {
+			AtomicInteger seen = new AtomicInteger();
+			AtomicInteger markerAt = new AtomicInteger(-1);
+			CountDownLatch done = new CountDownLatch(2);
+
+			Flux<Integer> f = source.publishOn(single, true, 256, budget);
+			if (conditional) {
+				f = f.filter(v -> true);
+			}
+			f.subscribe(v -> {
+				if (seen.getAndIncrement() == 0) {
+					single.schedule(() -> {
+						markerAt.set(seen.get());
+						done.countDown();
+					});
+				}
+			}, e -> {}, done::countDown);
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertThat(seen.get(), is(10_000));
+			return markerAt.get();
+		}
+		finally {
+			single.dispose();
+		}
+	}
+
+	@Test
+	public void budgetYieldsWorker() throws InterruptedException {
+		assertThat(markerIndex(Flux.range(0, 10_000), 16, false), lessThan(10_000));
+		assertThat(markerIndex(Flux.range(0, 10_000).hide(), 16, false), lessThan(10_000));
+		assertThat(markerIndex(Flux.range(0, 10_000), 16, true), lessThan(10_000));
+		assertThat(markerIndex(Flux.range(0, 10_000).hide(), 16, true), lessThan(10_000));
+	}
+
+	@Test
+	public void noBudgetDrainsInOneRun() throws InterruptedException {
+		assertThat(markerIndex(Flux.range(0, 10_000), Integer.MAX_VALUE, false), is(10_000));
+	}
+
+	@Test
+	public void budgetOnImmediateDoesNotRecurse() {
+		assertThat(Flux.range(0, 1_000_000)
+		               .publishOn(Schedulers.immediate(), false, 256, 16)
+		               .count()
+		               .block(), is(1_000_000L));
+		assertThat(Flux.range(0, 1_000_000)
+		               .hide()
+		               .publishOn(Schedulers.immediate(), false, 256, 16)
+		               .count()
+		               .block(), is(1_000_000L));
+		assertThat(Flux.range(0, 1_000_000)
+		               .publishOn(Schedulers.immediate(), false, 256, 16)
+		               .filter(v -> true)
+		               .count()
+		               .block(), is(1_000_000L));
+	}
+
+	@Test
+	public void budgetRescheduleRejected() {
+		//runs tasks inline but rejects the drain rescheduling itself
+		Scheduler noReschedule = new Scheduler() {
+			@Override
+			public Disposable schedule(Runnable task) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Worker createWorker() {
+				return new Worker() {
+					boolean running;
+
+					@Override
+					public Disposable schedule(Runnable task) {
+						if (running) {
+							return Scheduler.REJECTED;
+						}
+						running = true;
+						try {
+							task.run();
+						}
+						finally {
+							running = false;
+						}
+						return () -> { };
+					}
+
+					@Override
+					public void dispose() {
+					}
+				};
+			}
+		};
+
+		StepVerifier.create(Flux.range(0, 100)
+		                        .publishOn(noReschedule, true, 32, 8))
+		            .expectNextCount(8)
+		            .verifyError(RejectedExecutionException.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxPrefetch() {
+		Flux.range(1, 10)
+		    .hide()
+		    .publishOn(Schedulers.immediate(), 32, 16);
+	}
+
+	@Test
+	public void adaptivePrefetchGrowsWhenConsumerIsFaster() {
+		List<Long> requests = new ArrayList<>();
+		AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+		StepVerifier.create(Flux.range(1, 1000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .limitRate(4, 64))
+		            .consumeSubscriptionWith(subscription::set)
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		assertThat(requests.subList(0, 6), is(Arrays.asList(4L, 7L, 14L, 28L, 56L, 48L)));
+		assertThat(Scannable.from(subscription.get()).scan(Scannable.Attr.PREFETCH), is(64));
+	}
+
+	@Test
+	public void adaptivePrefetchAsync() {
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .hide()
+		                        .publishOn(Schedulers.fromExecutorService(exec), 4, 256))
+		            .expectNextCount(100_000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void adaptivePrefetchAsyncConditional() {
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .hide()
+		                        .publishOn(Schedulers.fromExecutorService(exec), 4, 256)
+		                        .filter(v -> v % 2 == 0))
+		            .expectNextCount(50_000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void adaptivePrefetchAsyncBackpressured() {
+		StepVerifier.create(Flux.range(1, 1_000)
+		                        .hide()
+		                        .publishOn(Schedulers.fromExecutorService(exec), 4, 256), 0)
+		            .thenRequest(500)
+		            .expectNextCount(500)
+		            .thenRequest(500)
+		            .expectNextCount(500)
+		            .verifyComplete();
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void failPrefetch() {
 		Flux.range(1, 10)
@@ -28,6 +28,7 @@ import reactor.core.Fuseable;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
 import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.util.Codec;
 import reactor.util.function.Tuple2;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,14 +48,18 @@ public class FluxReplayTest extends FluxOperatorTest<String, String> {
 		return Arrays.asList(
 				scenario(f -> f.replay().autoConnect()),
 
-				scenario(f -> f.replay().refCount())
+				scenario(f -> f.replay().refCount()),
+
+				scenario(f -> f.replay(Integer.MAX_VALUE, Codec.utf8()).autoConnect())
 		);
 	}
 
 	@Override
 	protected List<Scenario<String, String>> scenarios_touchAndAssertState() {
 		return Arrays.asList(
-				scenario(f -> f.replay().autoConnect())
+				scenario(f -> f.replay().autoConnect()),
+
+				scenario(f -> f.replay(Integer.MAX_VALUE, Codec.utf8()).autoConnect())
 		);
 	}
 
@@ -186,6 +191,44 @@ public class FluxReplayTest extends FluxOperatorTest<String, String> {
 
 	}
 
+	@Test
+	public void cacheFluxOffHeap() {
+		Flux<String> source = Flux.range(0, 1000)
+		                          .map(String::valueOf)
+		                          .cache(100, Codec.utf8());
+
+		StepVerifier.create(source)
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		StepVerifier.create(source)
+		            .expectNext("900")
+		            .expectNextCount(99)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void cacheFluxOffHeapTTL() {
+		Flux<Tuple2<Long, Integer>> source = Flux.just(1, 2, 3)
+		                                         .delayElements(Duration.ofMillis(1000))
+		                                         .replay(Integer.MAX_VALUE, Duration.ofMillis(2000), vts, ReplayProcessorTest.INTS)
+		                                         .autoConnect()
+		                                         .elapsed();
+
+		StepVerifier.create(source)
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(3)))
+		            .expectNextMatches(t -> t.getT1() == 1000 && t.getT2() == 1)
+		            .expectNextMatches(t -> t.getT1() == 1000 && t.getT2() == 2)
+		            .expectNextMatches(t -> t.getT1() == 1000 && t.getT2() == 3)
+		            .verifyComplete();
+
+		StepVerifier.create(source)
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(3)))
+		            .expectNextMatches(t -> t.getT1() == 0 && t.getT2() == 2)
+		            .expectNextMatches(t -> t.getT1() == 0 && t.getT2() == 3)
+		            .verifyComplete();
+	}
+
 	@Test
 	public void cacheFluxTTLMillis() {
 
@@ -16,6 +16,8 @@
 
 package reactor.core.publisher;
 
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 import reactor.test.StepVerifier;
@@ -268,4 +270,10 @@ public class FluxSwitchMapTest {
 		            .expectNext(1, 2, 3, 2, 3, 4, 4, 5, 6)
 		            .verifyComplete();
 	}
+
+	@Test
+	public void switchMapOnConstantEmptyIsEmpty() {
+		Assert.assertSame(Flux.empty(), Flux.<Integer>empty().switchMap(v -> Flux.range(v, 3)));
+		Assert.assertSame(Flux.empty(), Flux.<Integer>empty().flatMapIterable(v -> Arrays.asList(v, v)));
+	}
 }
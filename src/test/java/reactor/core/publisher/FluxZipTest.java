@@ -28,6 +28,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.reactivestreams.Subscriber;
 import reactor.core.Exceptions;
+import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
@@ -1271,4 +1272,130 @@ public class FluxZipTest extends FluxOperatorTest<String, String> {
 		            .expectNext(28)
 		            .verifyComplete();
 	}
+
+	@Test
+	public void zipOfConstantsIsResolvedAtAssembly() {
+		Flux<Integer> zipped = Flux.zip(a -> (int) a[0] + (int) a[1], Flux.just(1), Mono.just(2));
+
+		assertThat(zipped).isNotInstanceOf(FluxZip.class);
+		StepVerifier.create(zipped)
+		            .expectNext(3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipOfConstantsKeepsPrefetch() {
+		Flux<Integer> zipped = Flux.zip(a -> (int) a[0] + (int) a[1], 123, Flux.just(1), Mono.just(2));
+
+		assertThat(zipped).isNotInstanceOf(FluxZip.class);
+		assertThat(zipped.getPrefetch()).isEqualTo(123);
+		assertThat(Scannable.from(zipped).scan(Scannable.Attr.PREFETCH)).isEqualTo(123);
+		StepVerifier.create(zipped)
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipOfConstantEmptyIsEmptyAtAssembly() {
+		Flux<Object> zipped = Flux.zip(a -> a, Flux.error(new IllegalStateException("boom")),
+				Flux.empty(),
+				Flux.never());
+
+		assertThat(zipped).isSameAs(Flux.empty());
+	}
+
+	@Test
+	public void zipOfConstantErrorFailsAtAssembly() {
+		IllegalStateException boom = new IllegalStateException("boom");
+		Flux<Object> zipped = Flux.zip(a -> a, Flux.just(1), Mono.error(boom), Flux.just(3));
+
+		assertThat(zipped).isNotInstanceOf(FluxZip.class);
+		StepVerifier.create(zipped)
+		            .verifyErrorMatches(e -> e == boom);
+	}
+
+	@Test
+	public void zipOfConstantsCallsCombinatorOnSubscribe() {
+		AtomicLong calls = new AtomicLong();
+		Flux<Integer> zipped = Flux.zip(a -> {
+			calls.incrementAndGet();
+			return (int) a[0] + (int) a[1];
+		}, Flux.just(1), Flux.just(2));
+
+		assertThat(calls.get()).isZero();
+		StepVerifier.create(zipped)
+		            .expectNext(3)
+		            .verifyComplete();
+		StepVerifier.create(zipped)
+		            .expectNext(3)
+		            .verifyComplete();
+		assertThat(calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void zipWithNonConstantIsNotResolved() {
+		assertThat(Flux.zip(a -> a, Flux.just(1), Flux.range(1, 2)))
+				.isInstanceOf(FluxZip.class);
+	}
+
+	@Test
+	public void pairwiseZipOfConstantsIsNotResolved() {
+		assertThat(Flux.zip(Flux.just(1), Flux.just(2), (a, b) -> a + b))
+				.isInstanceOf(FluxZip.class);
+	}
+
+	@Test
+	public void zipRows() {
+		StepVerifier.create(Flux.zipRows(r -> r.<Integer>get(0) + r.<Integer>get(1) + r.size(),
+				Flux.range(1, 3).hide(),
+				Flux.range(10, 5).hide()))
+		            .expectNext(13, 15, 17)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipRowsNullValueFails() {
+		StepVerifier.create(Flux.zipRows(r -> null, Flux.range(1, 3), Flux.range(10, 5)))
+		            .verifyError(NullPointerException.class);
+	}
+
+	@Test
+	public void zipRowsSingleSource() {
+		StepVerifier.create(Flux.zipRows(r -> r.<Integer>get(0) * 2, Flux.range(1, 3)))
+		            .expectNext(2, 4, 6)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipRecycledEmitsSameRow() {
+		AtomicReference<ZipRow> first = new AtomicReference<>();
+
+		StepVerifier.create(Flux.zipRecycled(Flux.range(1, 3).hide(),
+				Flux.just("a", "b").hide())
+		                        .doOnNext(r -> first.compareAndSet(null, r))
+		                        .filter(r -> r == first.get())
+		                        .map(r -> Arrays.asList(r.toArray())))
+		            .expectNext(Arrays.asList(1, "a"), Arrays.asList(2, "b"))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipRecycledRowToArrayIsACopy() {
+		StepVerifier.create(Flux.zipRecycled(Flux.range(1, 2).hide(),
+				Flux.range(3, 2).hide())
+		                        .map(ZipRow::toArray)
+		                        .collectList())
+		            .assertNext(l -> assertThat(l).containsExactly(new Object[]{1, 3},
+				            new Object[]{2, 4}))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void zipCombinatorStillGetsACopy() {
+		StepVerifier.create(Flux.zip(a -> a, Flux.range(1, 2).hide(), Flux.range(3, 2).hide()))
+		            .expectNextMatches(a -> Arrays.equals(a, new Object[]{1, 3}))
+		            .expectNextMatches(a -> Arrays.equals(a, new Object[]{2, 4}))
+		            .verifyComplete();
+	}
 }
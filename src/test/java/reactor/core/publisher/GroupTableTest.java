@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import reactor.core.publisher.FluxGroupBy.UnicastGroupedFlux;
+import reactor.util.concurrent.QueueSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupTableTest {
+
+	static <T, K> UnicastGroupedFlux<K, T> findOrAdd(GroupTable<T, K, T> table, T t) {
+		UnicastGroupedFlux<K, T> g = table.find(t);
+		if (g == null) {
+			g = new UnicastGroupedFlux<>(table.key(),
+					QueueSupplier.<T>unbounded().get(),
+					null,
+					1);
+			table.add(g);
+		}
+		return g;
+	}
+
+	<K> void churn(Supplier<GroupTable<Long, K, Long>> supplier) {
+		GroupTable<Long, K, Long> table = supplier.get();
+		Map<Long, UnicastGroupedFlux<K, Long>> expected = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100_000; i++) {
+			//mostly adds first, then mostly removes
+			long k = random.nextInt(5_000) * 0x1_0000_0001L;
+			boolean adding = i < 50_000 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+			if (adding) {
+				UnicastGroupedFlux<K, Long> g = findOrAdd(table, k);
+				UnicastGroupedFlux<K, Long> previous = expected.putIfAbsent(k, g);
+				if (previous != null) {
+					assertThat(g).isSameAs(previous);
+				}
+			}
+			else {
+				UnicastGroupedFlux<K, Long> g = expected.remove(k);
+				if (g != null) {
+					assertThat(table.remove(g)).isTrue();
+					assertThat(table.remove(g)).isFalse();
+				}
+			}
+			assertThat(table.size()).isEqualTo(expected.size());
+		}
+
+		for (Map.Entry<Long, UnicastGroupedFlux<K, Long>> e : expected.entrySet()) {
+			assertThat(table.find(e.getKey())).isSameAs(e.getValue());
+		}
+		assertThat(table.stream()).hasSize(expected.size());
+	}
+
+	@Test
+	public void objectKeysChurn() {
+		churn(GroupTable.objectKeys(v -> v));
+	}
+
+	@Test
+	public void intKeysChurn() {
+		churn(GroupTable.intKeys(Long::intValue));
+	}
+
+	@Test
+	public void longKeysChurn() {
+		churn(GroupTable.longKeys(v -> v));
+	}
+
+	@Test
+	public void tableGrowsAndShrinks() {
+		GroupTable<Integer, Integer, Integer> table = GroupTable.<Integer, Integer>intKeys(v -> v).get();
+		UnicastGroupedFlux<Integer, Integer>[] groups = new UnicastGroupedFlux[1000];
+		for (int i = 0; i < groups.length; i++) {
+			groups[i] = findOrAdd(table, i);
+		}
+		assertThat(table.groups.length).isEqualTo(2048);
+
+		for (UnicastGroupedFlux<Integer, Integer> g : groups) {
+			assertThat(table.remove(g)).isTrue();
+		}
+		assertThat(table.size()).isZero();
+		assertThat(table.groups.length).isEqualTo(GroupTable.INITIAL_CAPACITY);
+	}
+
+	@Test
+	public void removeIf() {
+		GroupTable<Integer, Integer, Integer> table = GroupTable.<Integer, Integer>intKeys(v -> v).get();
+		for (int i = 0; i < 100; i++) {
+			findOrAdd(table, i);
+		}
+
+		assertThat(table.removeIf(g -> g.key() % 2 == 0)).hasSize(50);
+		assertThat(table.size()).isEqualTo(50);
+		for (int i = 0; i < 100; i++) {
+			if (i % 2 == 0) {
+				assertThat(table.find(i)).isNull();
+			}
+			else {
+				assertThat(table.find(i).key()).isEqualTo(i);
+			}
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void objectKeysRejectNull() {
+		GroupTable.<Integer, Integer, Integer>objectKeys(v -> null).get().find(1);
+	}
+}
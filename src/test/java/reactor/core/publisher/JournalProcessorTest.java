@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.Codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class JournalProcessorTest {
+
+	Path directory;
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("journal");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder())
+			     .forEach(p -> p.toFile().delete());
+		}
+	}
+
+	long segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	@Test
+	public void replaysFromTheStart() {
+		JournalProcessor<Integer> jp = JournalProcessor.create(directory, ReplayProcessorTest.INTS);
+
+		for (int i = 0; i < 10; i++) {
+			jp.onNext(i);
+		}
+
+		StepVerifier.create(jp)
+		            .expectNext(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)
+		            .then(() -> jp.onNext(10))
+		            .expectNext(10)
+		            .then(jp::onComplete)
+		            .verifyComplete();
+
+		assertThat(jp.getFirstOffset()).isEqualTo(0L);
+		assertThat(jp.getNextOffset()).isEqualTo(11L);
+	}
+
+	@Test
+	public void backpressured() {
+		JournalProcessor<Integer> jp = JournalProcessor.create(directory, ReplayProcessorTest.INTS);
+
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+		jp.subscribe(ts);
+
+		for (int i = 0; i < 1000; i++) {
+			jp.onNext(i);
+		}
+		jp.onError(new Exception("test"));
+
+		ts.assertNoValues()
+		  .assertNotTerminated();
+
+		ts.request(1);
+		ts.assertValues(0)
+		  .assertNotTerminated();
+
+		ts.request(Long.MAX_VALUE);
+		ts.assertValueCount(1000)
+		  .assertErrorMessage("test");
+	}
+
+	@Test
+	public void resumesFromOffset() {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 256, Integer.MAX_VALUE);
+
+		for (int i = 0; i < 100; i++) {
+			jp.onNext(ReplayProcessorTest.padded(i));
+		}
+
+		StepVerifier.create(jp.from(42))
+		            .expectNext(ReplayProcessorTest.padded(42))
+		            .expectNextCount(56)
+		            .expectNext(ReplayProcessorTest.padded(99))
+		            .then(() -> jp.onNext("next"))
+		            .expectNext("next")
+		            .thenCancel()
+		            .verify();
+
+		StepVerifier.create(jp.from(102))
+		            .then(() -> {
+			            jp.onNext("skipped");
+			            jp.onNext("resumed");
+			            jp.onComplete();
+		            })
+		            .expectNext("resumed")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void recoversExistingSegments() throws IOException {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 1024, Integer.MAX_VALUE);
+		for (int i = 0; i < 50; i++) {
+			jp.onNext(ReplayProcessorTest.padded(i));
+		}
+		jp.onComplete();
+
+		assertThat(segmentFiles()).isEqualTo(10L);
+
+		JournalProcessor<String> reopened = JournalProcessor.create(directory, Codec.utf8(), 1024, Integer.MAX_VALUE);
+		assertThat(reopened.getNextOffset()).isEqualTo(50L);
+
+		reopened.onNext("appended");
+		reopened.onComplete();
+
+		StepVerifier.create(reopened.from(48))
+		            .expectNext(ReplayProcessorTest.padded(48),
+				            ReplayProcessorTest.padded(49),
+				            "appended")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void retention() throws IOException {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 1024, 3);
+
+		AssertSubscriber<String> lagging = AssertSubscriber.create(1);
+		jp.subscribe(lagging);
+
+		for (int i = 0; i < 50; i++) {
+			jp.onNext(ReplayProcessorTest.padded(i));
+		}
+		jp.onComplete();
+
+		assertThat(segmentFiles()).isEqualTo(3L);
+		//5 records of 204 bytes per segment
+		assertThat(jp.getFirstOffset()).isEqualTo(35L);
+
+		StepVerifier.create(jp.from(0))
+		            .expectNext(ReplayProcessorTest.padded(35))
+		            .expectNextCount(14)
+		            .verifyComplete();
+
+		lagging.request(Long.MAX_VALUE);
+		lagging.assertValueCount(50)
+		       .assertComplete();
+	}
+
+	@Test
+	public void retentionEnforcedOnReopen() throws IOException {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 1024, Integer.MAX_VALUE);
+		for (int i = 0; i < 50; i++) {
+			jp.onNext(ReplayProcessorTest.padded(i));
+		}
+		jp.onComplete();
+		assertThat(segmentFiles()).isEqualTo(10L);
+
+		JournalProcessor<String> reopened = JournalProcessor.create(directory, Codec.utf8(), 1024, 3);
+
+		assertThat(segmentFiles()).isEqualTo(3L);
+		assertThat(reopened.getFirstOffset()).isEqualTo(35L);
+		assertThat(reopened.getNextOffset()).isEqualTo(50L);
+
+		for (int i = 50; i < 55; i++) {
+			reopened.onNext(ReplayProcessorTest.padded(i));
+		}
+		reopened.onComplete();
+
+		assertThat(segmentFiles()).isEqualTo(3L);
+		StepVerifier.create(reopened.from(0))
+		            .expectNext(ReplayProcessorTest.padded(40))
+		            .expectNextCount(14)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void largerRecordThanSegment() {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 64, Integer.MAX_VALUE);
+
+		jp.onNext("a");
+		jp.onNext(ReplayProcessorTest.padded(1));
+		jp.onNext("b");
+		jp.onComplete();
+
+		StepVerifier.create(jp)
+		            .expectNext("a", ReplayProcessorTest.padded(1), "b")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void largerFirstRecordThanSegment() throws IOException {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 64, 10);
+
+		jp.onNext(ReplayProcessorTest.padded(0));
+		jp.onNext("a");
+
+		assertThat(jp.isTerminated()).isFalse();
+		assertThat(segmentFiles()).isEqualTo(2L);
+
+		StepVerifier.create(jp)
+		            .expectNext(ReplayProcessorTest.padded(0), "a")
+		            .then(jp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void largerRecordThanRecoveredEmptySegment() throws IOException {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, Codec.utf8(), 64, 10);
+		jp.onNext("a");
+		jp.onNext("b");
+		jp.onComplete();
+		//a segment allocated but never written before a crash
+		Files.write(directory.resolve("0000000000000000002.journal"), new byte[64]);
+
+		JournalProcessor<String> reopened = JournalProcessor.create(directory, Codec.utf8(), 64, 10);
+		assertThat(reopened.getNextOffset()).isEqualTo(2L);
+
+		reopened.onNext(ReplayProcessorTest.padded(2));
+		reopened.onComplete();
+
+		assertThat(reopened.getError()).isNull();
+		StepVerifier.create(reopened)
+		            .expectNext("a", "b", ReplayProcessorTest.padded(2))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void codecError() {
+		JournalProcessor<String> jp = JournalProcessor.create(directory, new Codec<String>() {
+			@Override
+			public ByteBuffer encode(String value) {
+				if (value.isEmpty()) {
+					throw new IllegalArgumentException("empty");
+				}
+				return Codec.utf8().encode(value);
+			}
+
+			@Override
+			public String decode(ByteBuffer buffer) {
+				return Codec.utf8().decode(buffer);
+			}
+		});
+
+		StepVerifier.create(jp)
+		            .then(() -> {
+			            jp.onNext("a");
+			            jp.onNext("");
+		            })
+		            .expectNext("a")
+		            .verifyErrorMessage("empty");
+	}
+
+	@Test
+	public void segmentSizeMustHoldARecord() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> JournalProcessor.create(directory, Codec.utf8(), 4, 1))
+				.withMessage("segmentSize > 4 required but it was 4");
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongFluxTest {
+
+	@Test
+	public void rangeMapFilterSum() {
+		long expected = 0L;
+		for (long i = 1; i <= 1000; i++) {
+			if ((i * 3) % 2 == 0) {
+				expected += i * 3;
+			}
+		}
+
+		StepVerifier.create(LongFlux.range(1, 1000)
+		                            .map(v -> v * 3)
+		                            .filter(v -> v % 2 == 0)
+		                            .sum())
+		            .expectNext(expected)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void countAndReduce() {
+		StepVerifier.create(LongFlux.just(5, 7, 9).count())
+		            .expectNext(3L)
+		            .verifyComplete();
+
+		StepVerifier.create(LongFlux.just(5, 7, 9).reduce(Math::max))
+		            .expectNext(9L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void reduceEmpty() {
+		StepVerifier.create(LongFlux.empty().reduce(Long::sum))
+		            .verifyComplete();
+
+		StepVerifier.create(LongFlux.range(0, 0).sum())
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void reduceNotFused() {
+		StepVerifier.create(LongFlux.from(Flux.just(1L, 2L, 3L).hide()).sum())
+		            .expectNext(6L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void mapError() {
+		StepVerifier.create(LongFlux.range(0, 10)
+		                            .map(v -> {
+			                            if (v == 3) {
+				                            throw new IllegalStateException("boom");
+			                            }
+			                            return v;
+		                            })
+		                            .asFlux())
+		            .expectNext(0L, 1L, 2L)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void bufferIntoLongArrays() {
+		List<long[]> buffers = LongFlux.range(1, 5)
+		                               .buffer(2)
+		                               .collectList()
+		                               .block();
+
+		assertThat(buffers).containsExactly(new long[]{1, 2},
+				new long[]{3, 4},
+				new long[]{5});
+	}
+
+	@Test
+	public void asFluxFusesSync() {
+		StepVerifier.create(LongFlux.range(0, 5)
+		                            .map(v -> v + 10)
+		                            .filter(v -> v != 12)
+		                            .asFlux())
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(10L, 11L, 13L, 14L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void asFluxBackpressured() {
+		StepVerifier.create(LongFlux.range(0, 10)
+		                            .filter(v -> v % 2 == 0)
+		                            .asFlux(), 0)
+		            .thenRequest(2)
+		            .expectNext(0L, 2L)
+		            .thenRequest(10)
+		            .expectNext(4L, 6L, 8L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void fromAndAsFluxRoundTrip() {
+		LongFlux source = LongFlux.range(0, 3);
+		assertThat(LongFlux.from(source.asFlux())).isSameAs(source);
+
+		Flux<Long> flux = Flux.just(1L, 2L);
+		assertThat(LongFlux.from(flux).asFlux()).isSameAs(flux);
+	}
+
+	@Test
+	public void longSubscriberReceivesUnboxedValues() {
+		List<Long> values = new CopyOnWriteArrayList<>();
+		boolean[] completed = new boolean[1];
+
+		LongFlux.just(1, 2, 3)
+		        .map(v -> -v)
+		        .subscribe(new LongSubscriber() {
+			        @Override
+			        public void onNextLong(long value) {
+				        values.add(value);
+			        }
+
+			        @Override
+			        public void onNext(Long value) {
+				        throw new AssertionError("boxed onNext");
+			        }
+
+			        @Override
+			        public void onSubscribe(Subscription s) {
+				        s.request(Long.MAX_VALUE);
+			        }
+
+			        @Override
+			        public void onError(Throwable t) {
+				        throw new AssertionError(t);
+			        }
+
+			        @Override
+			        public void onComplete() {
+				        completed[0] = true;
+			        }
+		        });
+
+		assertThat(values).containsExactly(-1L, -2L, -3L);
+		assertThat(completed[0]).isTrue();
+	}
+
+	@Test
+	public void plainSubscriberReceivesBoxedValues() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create();
+
+		LongFlux.range(3, 3).subscribe(ts);
+
+		ts.assertValues(3L, 4L, 5L)
+		  .assertComplete();
+	}
+
+	@Test
+	public void publishOnSyncFused() {
+		StepVerifier.create(LongFlux.range(0, 100_000)
+		                            .map(v -> v * 2)
+		                            .publishOn(Schedulers.parallel(), 32)
+		                            .sum())
+		            .expectNext(100_000L * 99_999L)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void publishOnAsyncFused() {
+		Flux<Long> async = Flux.range(0, 100_000)
+		                       .map(Integer::longValue)
+		                       .publishOn(Schedulers.single());
+
+		StepVerifier.create(LongFlux.from(async)
+		                            .filter(v -> v % 2 == 0)
+		                            .publishOn(Schedulers.parallel(), 32)
+		                            .count())
+		            .expectNext(50_000L)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void publishOnQueued() {
+		StepVerifier.create(LongFlux.from(Flux.range(0, 100_000)
+		                                      .map(Integer::longValue)
+		                                      .hide())
+		                            .publishOn(Schedulers.parallel(), 32)
+		                            .asFlux()
+		                            .takeLast(1))
+		            .expectNext(99_999L)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void publishOnError() {
+		StepVerifier.create(LongFlux.from(Flux.concat(Flux.just(1L, 2L),
+				Flux.error(new IllegalStateException("boom"))))
+		                            .publishOn(Schedulers.parallel())
+		                            .asFlux())
+		            .expectNext(1L, 2L)
+		            .expectErrorMessage("boom")
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeRange() {
+		LongFlux.range(0, -1);
+	}
+}
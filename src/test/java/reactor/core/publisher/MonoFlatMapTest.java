@@ -1,5 +1,6 @@
 package reactor.core.publisher;
 
+import org.assertj.core.api.Assertions;
 import org.junit.Test;
 
 import reactor.test.publisher.TestPublisher;
@@ -30,4 +31,14 @@ public class MonoFlatMapTest {
 
         cancelTester.assertCancelled();
     }
+
+    @Test
+    public void flatMapOnConstantEmptyIsEmpty() {
+        Assertions.assertThat(Mono.<Integer>empty().flatMap(v -> Mono.just(v + 1)))
+                  .isSameAs(Mono.empty());
+        Assertions.assertThat(Mono.<Integer>empty().flatMapMany(v -> Flux.range(v, 2)))
+                  .isSameAs(Flux.empty());
+        Assertions.assertThat(Mono.<Integer>empty().filterWhen(v -> Mono.just(true)))
+                  .isSameAs(Mono.empty());
+    }
 }
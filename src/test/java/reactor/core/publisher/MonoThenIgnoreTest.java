@@ -22,6 +22,8 @@ import org.reactivestreams.Publisher;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.TestPublisher;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class MonoThenIgnoreTest {
 
 	@Test
@@ -77,4 +79,30 @@ public class MonoThenIgnoreTest {
 
 		cancelTester.assertCancelled();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void thenOnScalarSourceIsTheOtherMono() {
+		Mono<String> other = Mono.fromCallable(() -> "foo");
+
+		assertThat(Mono.just(1).then(other)).isSameAs(other);
+		assertThat(Mono.empty().then(other)).isSameAs(other);
+		assertThat(Flux.just(1).then(other)).isSameAs(other);
+	}
+
+	@Test
+	public void thenOnScalarSourceIsEmpty() {
+		assertThat(Mono.just(1).then()).isSameAs(Mono.empty());
+		assertThat(Flux.just(1).then()).isSameAs(Mono.empty());
+	}
+
+	@Test
+	public void thenEmptyAndThenManyOnScalarSourceSkipTheSource() {
+		Mono<Void> other = Mono.fromRunnable(() -> { });
+
+		assertThat(Mono.just(1).thenEmpty(other)).isSameAs(other);
+
+		StepVerifier.create(Mono.just(1).thenMany(Flux.just("a", "b")))
+		            .expectNext("a", "b")
+		            .verifyComplete();
+	}
+}
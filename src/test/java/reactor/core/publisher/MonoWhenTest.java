@@ -462,4 +462,64 @@ public class MonoWhenTest {
 		StepVerifier.create(Mono.when(voidPublishers))
 		            .verifyErrorMatches(e -> e == boom1);
 	}
+
+	@Test
+	public void whenOfConstantsIsResolvedAtAssembly() {
+		Mono<Integer> m = Mono.when(a -> (int) a[0] + (int) a[1], Mono.just(1), Mono.just(2));
+
+		assertThat(m).isNotInstanceOf(MonoWhen.class);
+		StepVerifier.create(m)
+		            .expectNext(3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void pairwiseWhenOfConstantsIsResolvedOnSubscribe() {
+		Mono<Tuple2<Integer, String>> m = Mono.when(Mono.just(1), Mono.just("a"));
+
+		assertThat(m).isInstanceOf(MonoWhen.class);
+		StepVerifier.create(m)
+		            .expectNext(Tuples.of(1, "a"))
+		            .verifyComplete();
+		StepVerifier.create(Mono.when(Mono.just(1), Mono.empty()))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void whenOfConstantsWithEmptyCompletes() {
+		Mono<Object[]> m = Mono.when(a -> a, Mono.just(1), Mono.empty(), Mono.just(3));
+
+		assertThat(m).isSameAs(Mono.empty());
+	}
+
+	@Test
+	public void whenOfConstantVoidPublishersIsEmpty() {
+		Publisher<Void> p1 = Mono.empty();
+		Publisher<Void> p2 = Flux.empty();
+
+		assertThat(Mono.when(p1, p2)).isSameAs(Mono.empty());
+	}
+
+	@Test
+	public void whenOfConstantsFailsWithFirstError() {
+		Exception boom1 = new NullPointerException("boom1");
+		Exception boom2 = new IllegalArgumentException("boom2");
+
+		StepVerifier.create(Mono.when(Mono.<Void>empty(), Mono.<Void>error(boom1), Mono.<Void>error(boom2)))
+		            .verifyErrorMatches(e -> e == boom1);
+	}
+
+	@Test
+	public void whenDelayErrorOfSeveralConstantErrorsIsNotResolved() {
+		Exception boom1 = new NullPointerException("boom1");
+		Exception boom2 = new IllegalArgumentException("boom2");
+
+		Publisher<Void> p1 = Mono.error(boom1);
+		Publisher<Void> p2 = Mono.error(boom2);
+		Mono<Void> m = Mono.whenDelayError(p1, p2);
+
+		assertThat(m).isInstanceOf(MonoWhen.class);
+		StepVerifier.create(m)
+		            .verifyErrorMatches(e -> e.getMessage().equals("Multiple errors"));
+	}
 }
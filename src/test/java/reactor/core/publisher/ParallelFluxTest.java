@@ -554,6 +554,28 @@ public class ParallelFluxTest {
 	              .containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6);
 	}
 
+	@Test
+	public void runOnPinnedKeepsRailsOnTheirThread() {
+		Scheduler s = Schedulers.newParallel("pinnedRails", 4);
+		try {
+			List<Boolean> sameThread = Flux.range(1, 1000)
+			                               .parallel(4)
+			                               .runOn(s, 32, true)
+			                               .map(v -> Thread.currentThread())
+			                               .runOn(s, 32, true)
+			                               .map(t -> t == Thread.currentThread())
+			                               .sequential()
+			                               .collectList()
+			                               .block(Duration.ofSeconds(10));
+
+			assertThat(sameThread).hasSize(1000)
+			                      .containsOnly(true);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
 	@Test
 	public void asChangesParallelism() {
 		assertThat(ParallelFlux.from(Flux.range(1, 10), 3)
@@ -15,7 +15,12 @@
  */
 package reactor.core.publisher;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Comparator;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -27,6 +32,7 @@ import reactor.core.Fuseable;
 import reactor.test.StepVerifier;
 import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.Codec;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -598,6 +604,230 @@ public class ReplayProcessorTest {
 		}
 	}
 
+	static final Codec<Integer> INTS = new Codec<Integer>() {
+		@Override
+		public ByteBuffer encode(Integer value) {
+			ByteBuffer b = ByteBuffer.allocate(4);
+			b.putInt(value)
+			 .flip();
+			return b;
+		}
+
+		@Override
+		public Integer decode(ByteBuffer buffer) {
+			return buffer.getInt();
+		}
+	};
+
+	static String padded(int i) {
+		StringBuilder sb = new StringBuilder(200).append(i);
+		while (sb.length() < 200) {
+			sb.append('-');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void offHeapBounded() {
+		ReplayProcessor<String> rp = ReplayProcessor.createOffHeap(500, Codec.utf8());
+
+		//~200KB, spanning several segments
+		for (int i = 0; i < 1000; i++) {
+			rp.onNext(padded(i));
+		}
+		rp.onComplete();
+
+		assertThat(rp.buffer.capacity()).isEqualTo(500);
+		assertThat(rp.buffer.size()).isEqualTo(500);
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(padded(500))
+		            .expectNextCount(498)
+		            .expectNext(padded(999))
+		            .verifyComplete();
+
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNext(padded(500))
+		            .expectNextCount(499)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void offHeapUnboundedAfter() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createOffHeap(Integer.MAX_VALUE, INTS);
+
+		StepVerifier.create(rp.hide(), 0)
+		            .expectFusion(Fuseable.NONE)
+		            .then(() -> {
+			            for (int i = 0; i < 10_000; i++) {
+				            rp.onNext(i);
+			            }
+			            rp.onComplete();
+		            })
+		            .thenRequest(1)
+		            .expectNext(0)
+		            .thenRequest(Long.MAX_VALUE)
+		            .expectNextCount(9998)
+		            .expectNext(9999)
+		            .verifyComplete();
+
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNextCount(10_000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void offHeapLaggingSubscriberSeesEvictedValues() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createOffHeap(10, INTS);
+
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(1);
+		rp.subscribe(ts);
+
+		for (int i = 0; i < 5000; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		assertThat(rp.buffer.size()).isEqualTo(10);
+		ts.assertValues(0);
+
+		ts.request(Long.MAX_VALUE);
+		ts.assertValueCount(5000)
+		  .assertComplete();
+
+		StepVerifier.create(rp)
+		            .expectNext(4990, 4991, 4992, 4993, 4994, 4995, 4996, 4997, 4998, 4999)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void offHeapTimed() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createOffHeap(Integer.MAX_VALUE,
+				Duration.ofSeconds(1),
+				VirtualTimeScheduler.get(),
+				INTS);
+
+		for (int i = 0; i < 5; i++) {
+			rp.onNext(i);
+		}
+
+		VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(2));
+
+		for (int i = 5; i < 10; i++) {
+			rp.onNext(i);
+		}
+		rp.onError(new Exception("test"));
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(5, 6, 7, 8, 9)
+		            .verifyErrorMessage("test");
+
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNext(5, 6, 7, 8, 9)
+		            .verifyErrorMessage("test");
+	}
+
+	@Test
+	public void offHeapTimedSkipsOldValuesOnSubscribe() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createOffHeap(Integer.MAX_VALUE,
+				Duration.ofSeconds(1),
+				VirtualTimeScheduler.get(),
+				INTS);
+
+		rp.onNext(1);
+		VirtualTimeScheduler.get().advanceTimeBy(Duration.ofMillis(700));
+		rp.onNext(2);
+		VirtualTimeScheduler.get().advanceTimeBy(Duration.ofMillis(700));
+
+		StepVerifier.create(rp)
+		            .expectNext(2)
+		            .then(() -> rp.onNext(3))
+		            .expectNext(3)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void mappedBounded() throws IOException {
+		Path directory = Files.createTempDirectory("replay");
+		try {
+			ReplayProcessor<String> rp = ReplayProcessor.createMapped(100, Codec.utf8(), directory);
+
+			for (int i = 0; i < 1000; i++) {
+				rp.onNext(padded(i));
+			}
+			rp.onComplete();
+
+			StepVerifier.create(rp)
+			            .expectNext(padded(900))
+			            .expectNextCount(99)
+			            .verifyComplete();
+		}
+		finally {
+			Files.walk(directory)
+			     .sorted(Comparator.reverseOrder())
+			     .forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Test
+	public void offHeapCodecError() {
+		ReplayProcessor<String> rp = ReplayProcessor.createOffHeap(16, new Codec<String>() {
+			@Override
+			public ByteBuffer encode(String value) {
+				if (value.isEmpty()) {
+					throw new IllegalArgumentException("empty");
+				}
+				return Codec.utf8().encode(value);
+			}
+
+			@Override
+			public String decode(ByteBuffer buffer) {
+				return Codec.utf8().decode(buffer);
+			}
+		});
+
+		StepVerifier.create(rp)
+		            .then(() -> {
+			            rp.onNext("a");
+			            rp.onNext("");
+		            })
+		            .expectNext("a")
+		            .verifyErrorMessage("empty");
+	}
+
+	@Test
+	public void offHeapDecodeErrorOnlyFailsSubscriber() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createOffHeap(16, new Codec<Integer>() {
+			@Override
+			public ByteBuffer encode(Integer value) {
+				return INTS.encode(value);
+			}
+
+			@Override
+			public Integer decode(ByteBuffer buffer) {
+				int v = buffer.getInt();
+				if (v == 2) {
+					throw new IllegalStateException("boom");
+				}
+				return v;
+			}
+		});
+
+		rp.onNext(1);
+		rp.onNext(2);
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(1)
+		            .verifyErrorMessage("boom");
+
+		assertThat(rp.hasDownstreams()).isFalse();
+		rp.onComplete();
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void failNegativeBufferSizeBounded() {
 		ReplayProcessor.create(-1);
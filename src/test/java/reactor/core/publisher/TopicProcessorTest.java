@@ -15,6 +15,9 @@
  */
 package reactor.core.publisher;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -693,4 +696,71 @@ public class TopicProcessorTest {
 		if (requestTaskExecutor != null)
 			assertEquals(requestTaskExecutor, processor.requestTaskExecutor);
 	}
+
+	@Test
+	public void onNextAllPublishesInOrder() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(i);
+		}
+		processor.onNextAll(values);
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.values).containsExactlyElementsOf(values);
+		assertThat(subscriber.batchEnds).isNotEmpty();
+	}
+
+	@Test
+	public void onBatchEndAcrossProducerPause() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextAll(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+		assertTrue(subscriber.awaitBatchEnd(10, 5, TimeUnit.SECONDS));
+
+		//no batch ends while the producer pauses
+		Thread.sleep(100);
+		assertThat(subscriber.batchEnds).containsExactly(10);
+
+		processor.onNextAll(Arrays.asList(10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+		assertTrue(subscriber.awaitBatchEnd(20, 5, TimeUnit.SECONDS));
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.batchEnds).startsWith(10)
+		                                .endsWith(20)
+		                                .isSorted();
+	}
+
+	@Test
+	public void onNextAllMultiProducer() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.share("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+		processor.onNext(11);
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.values).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void onNextAllRejectsNullBeforeClaiming() {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		try {
+			processor.onNextAll(Arrays.asList(1, null));
+		}
+		finally {
+			assertThat(processor.ringBuffer.getCursor()).isEqualTo(-1L);
+			processor.forceShutdown();
+		}
+	}
 }
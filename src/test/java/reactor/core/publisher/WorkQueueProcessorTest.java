@@ -17,6 +17,8 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
@@ -1313,4 +1315,106 @@ public class WorkQueueProcessorTest {
 		if (requestTaskExecutor != null)
 			assertEquals(requestTaskExecutor, processor.requestTaskExecutor);
 	}
+
+	@Test
+	public void onNextAllPublishesInOrder() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.create("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(i);
+		}
+		processor.onNextAll(values);
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		Assertions.assertThat(subscriber.values).containsExactlyElementsOf(values);
+		Assertions.assertThat(subscriber.batchEnds).isNotEmpty();
+	}
+
+	@Test
+	public void onBatchEndAcrossProducerPause() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.create("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextAll(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+		assertTrue(subscriber.awaitBatchEnd(10, 5, TimeUnit.SECONDS));
+
+		//no batch ends while the producer pauses
+		Thread.sleep(100);
+		Assertions.assertThat(subscriber.batchEnds).containsExactly(10);
+
+		processor.onNextAll(Arrays.asList(10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+		assertTrue(subscriber.awaitBatchEnd(20, 5, TimeUnit.SECONDS));
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		Assertions.assertThat(subscriber.batchEnds).startsWith(10)
+		                                           .endsWith(20)
+		                                           .isSorted();
+	}
+
+	@Test
+	public void onNextAllMultiProducer() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.share("batch", 16);
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+		processor.onNext(11);
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		Assertions.assertThat(subscriber.values).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void onNextAllRejectsNullBeforeClaiming() {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.create("batch", 16);
+		try {
+			processor.onNextAll(Arrays.asList(1, null));
+		}
+		finally {
+			Assertions.assertThat(processor.ringBuffer.getCursor()).isEqualTo(-1L);
+			processor.forceShutdown();
+		}
+	}
+
+	@Test
+	public void claimBatchSizeDeliversEachSignalOnce() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.Builder.<Integer>create()
+				.name("claimBatch")
+				.bufferSize(64)
+				.claimBatchSize(8)
+				.build();
+		List<BatchRecorder> subscribers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			BatchRecorder subscriber = new BatchRecorder();
+			subscribers.add(subscriber);
+			processor.subscribe(subscriber);
+		}
+
+		int count = 10_000;
+		for (int i = 0; i < count; i++) {
+			processor.onNext(i);
+		}
+		processor.onComplete();
+
+		List<Integer> received = new ArrayList<>();
+		for (BatchRecorder subscriber : subscribers) {
+			assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+			received.addAll(subscriber.values);
+		}
+		Assertions.assertThat(received)
+		          .hasSize(count)
+		          .doesNotHaveDuplicates();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void claimBatchSizeMustBePositive() {
+		WorkQueueProcessor.Builder.create().claimBatchSize(0);
+	}
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newBoundedElastic(4, Integer.MAX_VALUE, "boundedElasticTest");
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unsupportedStart() {
+		Scheduler s = scheduler();
+		try {
+			s.start();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxThreads() {
+		Schedulers.newBoundedElastic(0, 1, "test");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxTaskQueuedPerThread() {
+		Schedulers.newBoundedElastic(1, 0, "test");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeTime() {
+		Schedulers.newBoundedElastic(1, 1, "test", -1, true);
+	}
+
+	@Test(timeout = 10000)
+	public void threadCountIsCapped() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(2, Integer.MAX_VALUE, "capped");
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch latch = new CountDownLatch(10);
+		try {
+			for (int i = 0; i < 10; i++) {
+				s.createWorker()
+				 .schedule(() -> {
+					 threads.add(Thread.currentThread().getName());
+					 latch.countDown();
+				 });
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).hasSize(2);
+			assertThat(((BoundedElasticScheduler) s).busy).hasSize(2);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void leastLoadedThreadIsReused() {
+		BoundedElasticScheduler s =
+				(BoundedElasticScheduler) Schedulers.newBoundedElastic(2, Integer.MAX_VALUE, "leastLoaded");
+		try {
+			Scheduler.Worker w1 = s.createWorker();
+			Scheduler.Worker w2 = s.createWorker();
+			Scheduler.Worker w3 = s.createWorker();
+			w1.dispose();
+
+			BoundedElasticScheduler.BoundedState w2State = ((BoundedElasticScheduler.BoundedWorker) w2).state;
+			BoundedElasticScheduler.BoundedState w3State = ((BoundedElasticScheduler.BoundedWorker) w3).state;
+			assertThat(w3State.leases).isEqualTo(1);
+
+			Scheduler.Worker w4 = s.createWorker();
+			assertThat(((BoundedElasticScheduler.BoundedWorker) w4).state)
+					.isSameAs(w3State)
+					.isNotSameAs(w2State);
+			assertThat(w3State.leases).isEqualTo(2);
+
+			w3.dispose();
+			w4.dispose();
+			assertThat(s.idle).containsExactly(w3State);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void queueCapRejects() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(1, 2, "queueCap");
+		CountDownLatch block = new CountDownLatch(1);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			Disposable first = w.schedule(() -> {
+				try {
+					block.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			Disposable second = w.schedule(() -> { });
+
+			assertThat(first).isNotSameAs(Scheduler.REJECTED);
+			assertThat(second).isNotSameAs(Scheduler.REJECTED);
+			assertThat(w.schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+			assertThat(s.schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+
+			//cancelling a pending task frees its slot
+			second.dispose();
+			Disposable third = w.schedule(() -> { });
+			assertThat(third).isNotSameAs(Scheduler.REJECTED);
+
+			block.countDown();
+			while (!third.isDisposed()) {
+				Thread.sleep(10);
+			}
+			assertThat(((BoundedElasticScheduler) s).busy.get(0).queued).isZero();
+			assertThat(w.schedule(() -> { })).isNotSameAs(Scheduler.REJECTED);
+		}
+		finally {
+			block.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void queueCapSignalsRejectedExecution() {
+		Scheduler s = Schedulers.newBoundedElastic(1, 1, "rejected");
+		CountDownLatch block = new CountDownLatch(1);
+		try {
+			s.schedule(() -> {
+				try {
+					block.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			StepVerifier.create(Mono.just(1)
+			                        .subscribeOn(s))
+			            .verifyError(RejectedExecutionException.class);
+		}
+		finally {
+			block.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void directTaskReleasesItsThread() throws Exception {
+		BoundedElasticScheduler s =
+				(BoundedElasticScheduler) Schedulers.newBoundedElastic(1, 4, "direct");
+		try {
+			Disposable d = s.schedule(() -> { });
+			while (!d.isDisposed()) {
+				Thread.sleep(10);
+			}
+			while (s.idle.isEmpty()) {
+				Thread.sleep(10);
+			}
+			assertThat(s.busy).isEmpty();
+			assertThat(s.idle.peek().queued).isZero();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void eviction() throws Exception {
+		BoundedElasticScheduler s =
+				(BoundedElasticScheduler) Schedulers.newBoundedElastic(2, 4, "eviction", 1, true);
+		try {
+			s.createWorker().dispose();
+			assertThat(s.idle).hasSize(1);
+
+			while (!s.idle.isEmpty()) {
+				Thread.sleep(100);
+			}
+
+			Scheduler.Worker w = s.createWorker();
+			assertThat(s.busy).hasSize(1);
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+		assertThat(s.idle).isEmpty();
+		assertThat(s.busy).isEmpty();
+		assertThat(s.isDisposed()).isTrue();
+		assertThat(s.createWorker().schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s)
+			                        .take(3))
+			            .expectSubscription()
+			            .expectNext(0L, 1L, 2L)
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class HashedWheelTimerTest {
+
+	HashedWheelTimer timer;
+	ExecutorService  executor;
+
+	@Before
+	public void setUp() {
+		timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8,
+				new Schedulers.SchedulerThreadFactory("wheel", true, new AtomicLong()));
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		timer.dispose();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void ticksPerWheelRoundedToPowerOfTwo() {
+		HashedWheelTimer t = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 100,
+				new Schedulers.SchedulerThreadFactory("wheel", true, new AtomicLong()));
+		try {
+			assertThat(t.wheel).hasSize(128);
+		}
+		finally {
+			t.dispose();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void neverFiresEarly() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicLong firedAt = new AtomicLong();
+		long start = System.nanoTime();
+
+		//longer than one rotation of the 8 buckets wheel
+		Future<?> f = timer.schedule(() -> {
+			firedAt.set(System.nanoTime());
+			latch.countDown();
+		}, 50, TimeUnit.MILLISECONDS, executor);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(firedAt.get() - start)).isGreaterThanOrEqualTo(50L);
+		f.get();
+		assertThat(f.isDone()).isTrue();
+		assertThat(f.isCancelled()).isFalse();
+	}
+
+	@Test(timeout = 5000)
+	public void cancelledTimeoutsDontFire() throws Exception {
+		AtomicInteger fired = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		for (int i = 0; i < 10_000; i++) {
+			Future<?> f = timer.schedule(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS,
+					executor);
+			assertThat(f.cancel(false)).isTrue();
+			assertThat(f.isDone()).isTrue();
+		}
+		timer.schedule(latch::countDown, 40, TimeUnit.MILLISECONDS, executor);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		//the last timeout is accounted for by the ticker after its task is dispatched
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (timer.active != 0L && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertThat(fired.get()).isZero();
+		assertThat(timer.active).isZero();
+	}
+
+	@Test(timeout = 5000)
+	public void firesInDeadlineOrder() throws Exception {
+		StringBuffer order = new StringBuffer();
+		CountDownLatch latch = new CountDownLatch(3);
+
+		timer.schedule(() -> { order.append("c"); latch.countDown(); }, 30, TimeUnit.MILLISECONDS, executor);
+		timer.schedule(() -> { order.append("a"); latch.countDown(); }, 0, TimeUnit.MILLISECONDS, executor);
+		timer.schedule(() -> { order.append("b"); latch.countDown(); }, 15, TimeUnit.MILLISECONDS, executor);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(order.toString()).isEqualTo("abc");
+	}
+
+	@Test(timeout = 5000)
+	public void periodicFiresUntilCancelled() throws Exception {
+		AtomicInteger fired = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(5);
+
+		Future<?> f = timer.schedulePeriodically(() -> {
+			fired.incrementAndGet();
+			latch.countDown();
+		}, 0, 5, TimeUnit.MILLISECONDS, executor);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(f.isDone()).isFalse();
+		f.cancel(false);
+		assertThat(f.isDone()).isTrue();
+
+		int afterCancel = fired.get();
+		Thread.sleep(50);
+		assertThat(fired.get()).isLessThanOrEqualTo(afterCancel + 1);
+	}
+
+	@Test(timeout = 5000)
+	public void periodShorterThanATickFiresEveryTick() throws Exception {
+		//a rotation of the 8 buckets wheel takes 160ms, re-arming a rotation late would
+		//take at least 640ms
+		HashedWheelTimer t = new HashedWheelTimer(20, TimeUnit.MILLISECONDS, 8,
+				new Schedulers.SchedulerThreadFactory("wheel", true, new AtomicLong()));
+		CountDownLatch latch = new CountDownLatch(5);
+		try {
+			long start = System.nanoTime();
+			t.schedulePeriodically(latch::countDown, 0, 1, TimeUnit.MILLISECONDS, executor);
+
+			assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+					.isLessThan(320L);
+		}
+		finally {
+			t.dispose();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void slowPeriodicTaskDoesNotPileUp() throws Exception {
+		ThreadPoolExecutor single = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>());
+		AtomicInteger fired = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(5);
+		try {
+			//each run takes 4 periods
+			Future<?> f = timer.schedulePeriodically(() -> {
+				fired.incrementAndGet();
+				latch.countDown();
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+			}, 0, 5, TimeUnit.MILLISECONDS, single);
+
+			assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+			assertThat(single.getQueue()).isEmpty();
+			f.cancel(false);
+
+			int afterCancel = fired.get();
+			Thread.sleep(100);
+			assertThat(fired.get()).isLessThanOrEqualTo(afterCancel + 1);
+			assertThat(single.getQueue()).isEmpty();
+		}
+		finally {
+			single.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void periodicTaskStopsWhenItThrows() throws Exception {
+		AtomicInteger fired = new AtomicInteger();
+
+		Future<?> f = timer.schedulePeriodically(() -> {
+			fired.incrementAndGet();
+			throw new IllegalStateException("boom");
+		}, 0, 2, TimeUnit.MILLISECONDS, executor);
+
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(f::get)
+				.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(f.isDone()).isTrue();
+		assertThat(f.isCancelled()).isFalse();
+
+		Thread.sleep(50);
+		assertThat(fired.get()).isEqualTo(1);
+		assertThat(timer.active).isZero();
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void rejectsAfterDispose() {
+		timer.dispose();
+		timer.schedule(() -> {}, 1, TimeUnit.MILLISECONDS, executor);
+	}
+}
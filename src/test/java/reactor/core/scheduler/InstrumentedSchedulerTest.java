@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.util.Metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedSchedulerTest extends AbstractSchedulerTest {
+
+	Schedulers.Factory factory;
+
+	@Before
+	public void instrument() {
+		Metrics.resetRegistry();
+		factory = Schedulers.instrument();
+		Schedulers.setFactory(factory);
+	}
+
+	@After
+	public void reset() {
+		Schedulers.resetFactory();
+		Metrics.resetRegistry();
+	}
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newParallel("instrumented", 2);
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	List<InstrumentedExecutorService> executors() {
+		return Scannable.from(factory)
+		                .inners()
+		                .map(InstrumentedExecutorService.class::cast)
+		                .collect(Collectors.toList());
+	}
+
+	static Metrics.SimpleRegistry registry() {
+		return (Metrics.SimpleRegistry) Metrics.getRegistry();
+	}
+
+	static Metrics.SimpleTimer timer(String name) {
+		return registry().timer("reactor.scheduler." + name, "type", Schedulers.PARALLEL);
+	}
+
+	static long completed() {
+		return registry().counter("reactor.scheduler.completed", "type", Schedulers.PARALLEL)
+		                 .count();
+	}
+
+	@Test
+	public void executorPerThread() {
+		Scheduler s = scheduler();
+		try {
+			assertThat(executors()).hasSize(2)
+			                       .allMatch(e -> Schedulers.PARALLEL.equals(e.type));
+		}
+		finally {
+			s.dispose();
+		}
+		assertThat(executors()).isEmpty();
+	}
+
+	@Test(timeout = 10000)
+	public void queueWaitAndExecution() throws Exception {
+		Scheduler s = Schedulers.newParallel("instrumented", 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch block = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		InstrumentedExecutorService e = executors().get(0);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			w.schedule(() -> {
+				started.countDown();
+				try {
+					block.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			w.schedule(() -> { });
+			w.schedule(done::countDown);
+
+			started.await();
+			assertThat(e.active).isEqualTo(1);
+			assertThat(e.pendingTasks()).isEqualTo(2);
+			assertThat(Scannable.from(e).scan(Scannable.Attr.BUFFERED)).isEqualTo(2);
+
+			Thread.sleep(50);
+			block.countDown();
+			done.await();
+			while (completed() != 3) {
+				Thread.sleep(10);
+			}
+
+			assertThat(e.pendingTasks()).isZero();
+			assertThat(e.active).isZero();
+			assertThat(timer("execution").count()).isEqualTo(3);
+			assertThat(timer("execution").max(TimeUnit.MILLISECONDS))
+					.isGreaterThanOrEqualTo(50);
+			assertThat(timer("queue.wait").count()).isEqualTo(3);
+			assertThat(timer("queue.wait").max(TimeUnit.MILLISECONDS))
+					.isGreaterThanOrEqualTo(50);
+			assertThat(registry().histogram("reactor.scheduler.pending",
+					"type", Schedulers.PARALLEL).max()).isGreaterThanOrEqualTo(2);
+		}
+		finally {
+			block.countDown();
+			s.dispose();
+		}
+		assertThat(Scannable.from(e).scan(Scannable.Attr.CANCELLED)).isEqualTo(true);
+	}
+
+	@Test(timeout = 10000)
+	public void delayedTaskWaitsFromItsDueTime() throws Exception {
+		Scheduler s = Schedulers.newParallel("instrumented", 1);
+		CountDownLatch done = new CountDownLatch(1);
+		try {
+			InstrumentedExecutorService e = executors().get(0);
+			Disposable cancelled = s.schedule(() -> { }, 10, TimeUnit.SECONDS);
+			s.schedule(done::countDown, 100, TimeUnit.MILLISECONDS);
+			assertThat(e.pendingTasks()).isEqualTo(2);
+
+			cancelled.dispose();
+			assertThat(e.pendingTasks()).isEqualTo(1);
+
+			done.await();
+			assertThat(timer("queue.wait").max(TimeUnit.MILLISECONDS)).isLessThan(100);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void periodicTaskIsPendingBetweenRuns() throws Exception {
+		Scheduler s = Schedulers.newParallel("instrumented", 1);
+		CountDownLatch runs = new CountDownLatch(3);
+		try {
+			InstrumentedExecutorService e = executors().get(0);
+			Disposable d = s.schedulePeriodically(runs::countDown, 0, 10, TimeUnit.MILLISECONDS);
+			runs.await();
+			while (completed() < 3) {
+				Thread.sleep(10);
+			}
+			d.dispose();
+
+			while (e.active != 0) {
+				Thread.sleep(10);
+			}
+			assertThat(e.pendingTasks()).isZero();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void decoratesWithDelegateFactory() {
+		ScheduledExecutorService actual = Executors.newSingleThreadScheduledExecutor();
+		Schedulers.Factory delegate = new Schedulers.Factory() {
+			@Override
+			public ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
+					Supplier<? extends ScheduledExecutorService> a) {
+				return actual;
+			}
+		};
+		Schedulers.Factory instrumented = Schedulers.instrument(delegate, "custom", "app", "test");
+		ScheduledExecutorService e = instrumented.decorateScheduledExecutorService("test", () -> null);
+		try {
+			assertThat(e).isInstanceOf(InstrumentedExecutorService.Scheduled.class);
+			assertThat(((InstrumentedExecutorService) e).delegate).isSameAs(actual);
+			assertThat(Scannable.from(instrumented).inners()).containsExactly((Scannable) e);
+
+			e.submit(() -> { }).get();
+			assertThat(registry().counter("custom.completed", "app", "test", "type", "test")
+			                     .count()).isEqualTo(1);
+		}
+		catch (Exception ex) {
+			throw new AssertionError(ex);
+		}
+		finally {
+			e.shutdownNow();
+		}
+		assertThat(actual.isShutdown()).isTrue();
+		assertThat(((InstrumentedExecutorService) e).pendingTasks()).isZero();
+	}
+}
@@ -16,6 +16,9 @@
 
 package reactor.core.scheduler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -26,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -442,6 +446,105 @@ public class SchedulersTest {
 		}
 	}
 
+	@Test(timeout = 5000)
+	public void parallelSchedulerIndexedWorkerThread() throws Exception {
+		Scheduler s = Schedulers.newParallel("indexed", 3);
+		try {
+			Thread[] threads = new Thread[6];
+			CountDownLatch latch = new CountDownLatch(6);
+			for (int i = 0; i < 6; i++) {
+				int index = i;
+				Scheduler.Worker w = s.createWorker(i);
+				w.schedule(() -> {
+					threads[index] = Thread.currentThread();
+					latch.countDown();
+				});
+				s.createWorker(); //moves the round-robin, which must not matter
+			}
+			latch.await();
+
+			assertThat(threads[3]).isSameAs(threads[0]);
+			assertThat(threads[4]).isSameAs(threads[1]);
+			assertThat(threads[5]).isSameAs(threads[2]);
+			assertThat(threads[0]).isNotSameAs(threads[1])
+			                      .isNotSameAs(threads[2]);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void affinityThreadsArePinnedInCreationOrder() throws Exception {
+		List<String> bindings = Collections.synchronizedList(new ArrayList<>());
+		AffinityProvider provider = new AffinityProvider() {
+			@Override
+			public int[] cpus() {
+				return new int[]{4, 6};
+			}
+
+			@Override
+			public boolean bind(int cpu) {
+				bindings.add(Thread.currentThread().getName() + "@" + cpu);
+				return true;
+			}
+		};
+		Scheduler s = Schedulers.newParallel("pinned", 3, provider);
+		try {
+			CountDownLatch latch = new CountDownLatch(3);
+			for (int i = 0; i < 3; i++) {
+				s.createWorker(i)
+				 .schedule(latch::countDown);
+			}
+			latch.await();
+
+			assertThat(bindings).hasSize(3);
+			assertThat(bindings.stream().map(b -> b.substring(b.indexOf('@') + 1)))
+					.containsExactlyInAnyOrder("4", "6", "4");
+			assertThat(bindings).allMatch(b -> b.startsWith("pinned-"));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void affinityThreadFactoryIsDaemonAndNamed() {
+		ThreadFactory f = Schedulers.newAffinityThreadFactory("aff", true,
+				AffinityProvider.noop());
+		Thread t = f.newThread(() -> { });
+
+		assertThat(t.isDaemon()).isTrue();
+		assertThat(t.getName()).startsWith("aff-");
+		assertThat(((Supplier<?>) f).get()).isEqualTo("aff");
+	}
+
+	@Test
+	public void noopAffinityProvider() {
+		AffinityProvider noop = AffinityProvider.noop();
+
+		assertThat(noop.cpus()).hasSize(Runtime.getRuntime().availableProcessors())
+		                       .startsWith(0);
+		assertThat(noop.bind(0)).isFalse();
+	}
+
+	@Test
+	public void affinityProviderWithoutCpuRejected() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> Schedulers.newAffinityThreadFactory("aff", true,
+						new AffinityProvider() {
+							@Override
+							public int[] cpus() {
+								return new int[0];
+							}
+
+							@Override
+							public boolean bind(int cpu) {
+								return true;
+							}
+						}));
+	}
+
 	@Test(timeout = 5000)
 	public void singleSchedulerThreadCheck() throws Exception{
 		Scheduler s = Schedulers.newSingle("work");
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newTimerWheel("test");
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeTickDuration() {
+		Schedulers.newTimerWheel("test", Duration.ofMillis(-1), 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTicksPerWheel() {
+		Schedulers.newTimerWheel("test", Duration.ofMillis(1), 0);
+	}
+
+	@Test
+	public void smokeTestDelay() {
+		for (int i = 0; i < 20; i++) {
+			Scheduler s = scheduler();
+			AtomicLong start = new AtomicLong();
+			AtomicLong end = new AtomicLong();
+
+			try {
+				StepVerifier.create(Mono
+						.delay(Duration.ofMillis(100), s)
+						.doOnSubscribe(sub -> start.set(System.nanoTime()))
+						.doOnTerminate((v, e) -> end.set(System.nanoTime()))
+				)
+				            .expectSubscription()
+				            .expectNext(0L)
+				            .verifyComplete();
+
+				long measuredDelayMs = TimeUnit.NANOSECONDS.toMillis(end.get() - start.get());
+				assertThat(measuredDelayMs)
+						.as("iteration %s", i)
+						.isGreaterThanOrEqualTo(100L)
+						.isLessThan(200L);
+			}
+			finally {
+				s.dispose();
+			}
+		}
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(100))
+			            .expectNext(0L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(1L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(2L)
+			            .thenCancel();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void timeoutsMostlyCancelled() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.range(1, 10_000)
+			                        .concatMap(i -> Mono.just(i)
+			                                            .timeout(Duration.ofSeconds(10), s))
+			                        .count())
+			            .expectNext(10_000L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void parallelSchedulerOnTimerWheel() {
+		HashedWheelTimer wheel = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64,
+				new Schedulers.SchedulerThreadFactory("wheel", true, new AtomicLong()));
+		Scheduler s = new ParallelScheduler(2,
+				new Schedulers.SchedulerThreadFactory("test", true, new AtomicLong()),
+				wheel);
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(10), s)
+			                        .take(5)
+			                        .concatWith(Mono.delay(Duration.ofMillis(50), s)))
+			            .expectNext(0L, 1L, 2L, 3L, 4L, 0L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+			wheel.dispose();
+		}
+	}
+
+	@Test
+	public void elasticSchedulerOnTimerWheel() {
+		HashedWheelTimer wheel = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64,
+				new Schedulers.SchedulerThreadFactory("wheel", true, new AtomicLong()));
+		Scheduler s = new ElasticScheduler(
+				new Schedulers.SchedulerThreadFactory("test", true, new AtomicLong()),
+				60, wheel);
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(10), s)
+			                        .take(5)
+			                        .concatWith(Mono.delay(Duration.ofMillis(50), s)))
+			            .expectNext(0L, 1L, 2L, 3L, 4L, 0L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+			wheel.dispose();
+		}
+	}
+}
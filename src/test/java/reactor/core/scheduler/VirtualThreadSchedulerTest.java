@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadSchedulerTest extends AbstractSchedulerTest {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	/**
+	 * Virtual threads if the running JDK provides them, daemon platform threads
+	 * otherwise, so that the scheduler logic is covered either way.
+	 */
+	static ThreadFactory threadFactory() {
+		ThreadFactory virtual = VirtualThreadScheduler.virtualThreadFactory("test");
+		if (virtual != null) {
+			return virtual;
+		}
+		return r -> {
+			Thread t = new Thread(r, "test-" + COUNTER.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		};
+	}
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newVirtual(threadFactory());
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	@Test
+	public void newVirtualFallsBackToElastic() {
+		Scheduler s = Schedulers.newVirtual("virtual");
+		try {
+			if (Schedulers.isVirtualThreadAvailable()) {
+				assertThat(s).isInstanceOf(VirtualThreadScheduler.class);
+			}
+			else {
+				assertThat(s).isInstanceOf(ElasticScheduler.class);
+			}
+			StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+			                        .subscribeOn(s))
+			            .assertNext(name -> assertThat(name).startsWith("virtual-"))
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativePeriod() {
+		Scheduler s = scheduler();
+		try {
+			s.schedulePeriodically(() -> { }, 0, 0, TimeUnit.MILLISECONDS);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void blockingTasksDontWaitForEachOther() throws Exception {
+		Scheduler s = scheduler();
+		CountDownLatch blocker = new CountDownLatch(1);
+		try {
+			int n = 200;
+			CountDownLatch started = new CountDownLatch(n);
+			for (int i = 0; i < n; i++) {
+				s.schedule(() -> {
+					started.countDown();
+					try {
+						blocker.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			blocker.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerTasksRunInOrderAndNeverOverlap() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			int n = 10_000;
+			List<Integer> seen = new CopyOnWriteArrayList<>();
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger overlaps = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(n);
+
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				w.schedule(() -> {
+					if (running.getAndIncrement() != 0) {
+						overlaps.incrementAndGet();
+					}
+					seen.add(v);
+					running.decrementAndGet();
+					latch.countDown();
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(overlaps.get()).isZero();
+			for (int i = 0; i < n; i++) {
+				assertThat(seen.get(i)).isEqualTo(i);
+			}
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerDelayedTasksKeepOrder() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			List<Integer> seen = new CopyOnWriteArrayList<>();
+			CountDownLatch latch = new CountDownLatch(3);
+
+			w.schedule(() -> {
+				seen.add(3);
+				latch.countDown();
+			}, 200, TimeUnit.MILLISECONDS);
+			w.schedule(() -> {
+				seen.add(2);
+				latch.countDown();
+			}, 100, TimeUnit.MILLISECONDS);
+			w.schedule(() -> {
+				seen.add(1);
+				latch.countDown();
+			});
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(seen).containsExactly(1, 2, 3);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerDisposeInterruptsBlockedTask() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+
+			w.schedule(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10_000);
+				}
+				catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+			});
+
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			w.dispose();
+
+			assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void disposeCancelsPendingDelayedTasks() throws Exception {
+		Scheduler s = scheduler();
+		AtomicInteger runs = new AtomicInteger();
+
+		Disposable direct = s.schedule(runs::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+		Disposable worker = s.createWorker()
+		                     .schedule(runs::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+		s.dispose();
+
+		assertThat(direct.isDisposed()).isTrue();
+		assertThat(worker.isDisposed()).isTrue();
+		Thread.sleep(400);
+		assertThat(runs.get()).isZero();
+	}
+
+	@Test
+	public void restart() {
+		Scheduler s = scheduler();
+		try {
+			s.dispose();
+			assertThat(s.schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+
+			s.start();
+			assertThat(s.isDisposed()).isFalse();
+			StepVerifier.create(Mono.just(1)
+			                        .hide()
+			                        .subscribeOn(s))
+			            .expectNext(1)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(100))
+			            .expectNext(0L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(1L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(2L)
+			            .thenCancel();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void blockingFanOut() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.range(0, 500)
+			                        .flatMap(i -> Mono.fromCallable(() -> {
+				                        Thread.sleep(10);
+				                        return i;
+			                        })
+			                                          .subscribeOn(s), 500)
+			                        .count())
+			            .expectNext(500L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
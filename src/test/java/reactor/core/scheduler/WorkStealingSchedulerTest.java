@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkStealingSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newWorkStealing("test");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeParallelism() throws Exception {
+		Schedulers.newWorkStealing("test", -1);
+	}
+
+	@Test
+	public void threadsAreNamedAfterFactory() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("stealer", 2);
+		try {
+			StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+			                        .subscribeOn(s))
+			            .assertNext(name -> assertThat(name).startsWith("stealer-"))
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerTasksRunInOrderAndNeverOverlap() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("test", 4);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			int n = 10_000;
+			List<Integer> seen = new CopyOnWriteArrayList<>();
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger overlaps = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(n);
+
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				w.schedule(() -> {
+					if (running.getAndIncrement() != 0) {
+						overlaps.incrementAndGet();
+					}
+					seen.add(v);
+					running.decrementAndGet();
+					latch.countDown();
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(overlaps.get()).isZero();
+			for (int i = 0; i < n; i++) {
+				assertThat(seen.get(i)).isEqualTo(i);
+			}
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void slowWorkerDoesntStallSiblings() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("test", 2);
+		CountDownLatch blocker = new CountDownLatch(1);
+		try {
+			Scheduler.Worker slow = s.createWorker();
+			slow.schedule(() -> {
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			int n = 100;
+			CountDownLatch latch = new CountDownLatch(n);
+			for (int i = 0; i < n; i++) {
+				s.createWorker().schedule(latch::countDown);
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			blocker.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(100))
+			            .expectNext(0L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(1L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(2L)
+			            .thenCancel();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void publishOnParallelRails() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.range(1, 10_000)
+			                        .parallel(4)
+			                        .runOn(s)
+			                        .map(i -> i * 2)
+			                        .sequential()
+			                        .count())
+			            .expectNext(10_000L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
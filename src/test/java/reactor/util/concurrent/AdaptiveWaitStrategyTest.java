@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveWaitStrategyTest {
+
+	static final Runnable NOOP = () -> {
+	};
+
+	@Test
+	public void availableSequenceIsNotAccounted() throws InterruptedException {
+		WaitStrategy.Adaptive strategy = WaitStrategy.adaptive();
+
+		assertThat(strategy.waitFor(3L, () -> 5L, NOOP)).isEqualTo(5L);
+		assertThat(strategy.getAverageWaitNanos()).isZero();
+		assertThat(strategy.getWakeups(WaitStrategy.Adaptive.Phase.SPIN)).isZero();
+	}
+
+	@Test
+	public void longWaitsShutDownSpinning() throws InterruptedException {
+		WaitStrategy.Adaptive strategy = WaitStrategy.adaptive(10, 10, TimeUnit.MICROSECONDS);
+		AtomicLong cursor = new AtomicLong(-1L);
+
+		for (long i = 0; i < 20; i++) {
+			publishLater(strategy, cursor, i, 5);
+			assertThat(strategy.waitFor(i, cursor::get, NOOP)).isGreaterThanOrEqualTo(i);
+		}
+
+		assertThat(strategy.getPhase()).isEqualTo(WaitStrategy.Adaptive.Phase.BLOCK);
+		assertThat(strategy.getWakeups(WaitStrategy.Adaptive.Phase.BLOCK)).isPositive();
+		assertThat(strategy.getSpinTimeoutNanos()).isZero();
+		assertThat(strategy.getYieldTimeoutNanos()).isZero();
+		assertThat(strategy.getAverageWaitNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(1));
+		assertThat(strategy.getAverageWakeupNanos()).isPositive();
+	}
+
+	@Test
+	public void shortWaitsKeepSpinning() throws InterruptedException {
+		WaitStrategy.Adaptive strategy = WaitStrategy.adaptive(1, 1, TimeUnit.SECONDS);
+		AtomicLong polls = new AtomicLong();
+
+		for (long i = 0; i < 100; i++) {
+			polls.set(0L);
+			long next = i;
+			assertThat(strategy.waitFor(next, () -> polls.incrementAndGet() > 10 ? next : next - 1L, NOOP))
+					.isEqualTo(next);
+		}
+
+		assertThat(strategy.getPhase()).isEqualTo(WaitStrategy.Adaptive.Phase.SPIN);
+		assertThat(strategy.getWakeups(WaitStrategy.Adaptive.Phase.SPIN)).isEqualTo(100L);
+		assertThat(strategy.getWakeups(WaitStrategy.Adaptive.Phase.BLOCK)).isZero();
+		assertThat(strategy.getSpinTimeoutNanos()).isLessThan(TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	public void alertIsPropagated() {
+		WaitStrategy.Adaptive strategy = WaitStrategy.adaptive(0, 0, TimeUnit.MICROSECONDS);
+
+		try {
+			strategy.waitFor(0L, () -> -1L, WaitStrategy::alert);
+		}
+		catch (Throwable t) {
+			assertThat(WaitStrategy.isAlert(t)).isTrue();
+			return;
+		}
+		throw new AssertionError("Expected an alert");
+	}
+
+	static void publishLater(WaitStrategy strategy, AtomicLong cursor, long value, long delayMillis) {
+		Thread t = new Thread(() -> {
+			try {
+				Thread.sleep(delayMillis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			cursor.set(value);
+			strategy.signalAllWhenBlocking();
+		});
+		t.setDaemon(true);
+		t.start();
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscArrayQueueTest {
+
+	@Test
+	public void boundedCapacity() {
+		MpscArrayQueue<Integer> q = new MpscArrayQueue<>(10);
+
+		for (int i = 0; i < 16; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q.offer(16)).isFalse();
+		assertThat(q.size()).isEqualTo(16);
+		assertThat(q.peek()).isEqualTo(0);
+
+		assertThat(q.poll()).isEqualTo(0);
+		assertThat(q.offer(16)).isTrue();
+
+		for (int i = 1; i <= 16; i++) {
+			assertThat(q.poll()).isEqualTo(i);
+		}
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullOffer() {
+		new MpscArrayQueue<>(8).offer(null);
+	}
+
+	@Test
+	public void supplier() {
+		assertThat(QueueSupplier.mpsc(16).get()).isInstanceOf(MpscArrayQueue.class);
+		assertThat(QueueSupplier.mpsc(QueueSupplier.SMALL_BUFFER_SIZE).get())
+				.isInstanceOf(MpscArrayQueue.class);
+		assertThat(QueueSupplier.mpsc(Integer.MAX_VALUE).get())
+				.isInstanceOf(MpscLinkedArrayQueue.class);
+	}
+
+	@Test(timeout = 10_000)
+	public void multipleProducersPreservePerProducerOrder() throws Exception {
+		multipleProducers(new MpscArrayQueue<>(64), 4, 100_000);
+	}
+
+	static void multipleProducers(Queue<long[]> q, int producers, int count)
+			throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			long id = p;
+			threads[p] = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					return;
+				}
+				for (long i = 0; i < count; i++) {
+					long[] v = {id, i};
+					while (!q.offer(v)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads[p].start();
+		}
+		start.countDown();
+
+		long[] expected = new long[producers];
+		long total = (long) producers * count;
+		long received = 0;
+		while (received < total) {
+			long[] v = q.poll();
+			if (v == null) {
+				Thread.yield();
+				continue;
+			}
+			assertThat(v[1]).as("producer %d", v[0]).isEqualTo(expected[(int) v[0]]);
+			expected[(int) v[0]]++;
+			received++;
+		}
+		for (Thread t : threads) {
+			t.join(TimeUnit.SECONDS.toMillis(5));
+		}
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.size()).isZero();
+	}
+}
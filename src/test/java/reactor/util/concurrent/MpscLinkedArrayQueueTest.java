@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscLinkedArrayQueueTest {
+
+	@Test
+	public void unboundedAcrossLinks() {
+		MpscLinkedArrayQueue<Integer> q = new MpscLinkedArrayQueue<>(8);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q.size()).isEqualTo(100);
+		assertThat(q.peek()).isEqualTo(0);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(q.poll()).isEqualTo(i);
+		}
+		assertThat(q.poll()).isNull();
+		assertThat(q.peek()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void interleavedOfferPollAcrossLinks() {
+		MpscLinkedArrayQueue<Integer> q = new MpscLinkedArrayQueue<>(8);
+
+		for (int i = 0; i < 1000; i++) {
+			q.offer(i);
+			q.offer(i);
+			assertThat(q.poll()).isEqualTo(i / 2);
+		}
+		assertThat(q.size()).isEqualTo(1000);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullOffer() {
+		new MpscLinkedArrayQueue<>(8).offer(null);
+	}
+
+	@Test
+	public void supplier() {
+		assertThat(QueueSupplier.mpscUnbounded().get())
+				.isInstanceOf(MpscLinkedArrayQueue.class);
+		assertThat(QueueSupplier.mpscUnbounded(32).get())
+				.isInstanceOf(MpscLinkedArrayQueue.class);
+	}
+
+	@Test(timeout = 10_000)
+	public void multipleProducersPreservePerProducerOrder() throws Exception {
+		MpscArrayQueueTest.multipleProducers(new MpscLinkedArrayQueue<>(16), 4, 100_000);
+	}
+}